@@ -0,0 +1,43 @@
+package posting.management;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import posting.service.export.PostExporter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Starts the bulk export of all posts and shows its progress, at {@code /actuator/export}.
+ */
+@Component
+@Endpoint(id = "export")
+public class ExportEndpoint {
+
+    private final PostExporter postExporter;
+
+    public ExportEndpoint(PostExporter postExporter) {
+        this.postExporter = postExporter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> progress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("running", postExporter.isRunning());
+        progress.put("completedChunks", postExporter.getCompletedChunks());
+        progress.put("totalChunks", postExporter.getTotalChunks());
+        progress.put("exportedPosts", postExporter.getExportedPosts());
+
+        return progress;
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable Boolean restart) {
+        postExporter.start(Boolean.TRUE.equals(restart));
+
+        return progress();
+    }
+}
\ No newline at end of file
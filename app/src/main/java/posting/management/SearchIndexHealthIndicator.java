@@ -0,0 +1,27 @@
+package posting.management;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+import posting.service.search.SearchService;
+
+/**
+ * Reports the application out of service at {@code /actuator/health} while the search index is being loaded after
+ * startup, as searches only find the posts loaded so far.
+ */
+@Component
+public class SearchIndexHealthIndicator extends AbstractHealthIndicator {
+
+    private final SearchService searchService;
+
+    public SearchIndexHealthIndicator(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        builder.status(searchService.isLoaded() ? Status.UP : Status.OUT_OF_SERVICE)
+                .withDetail("indexedPosts", searchService.getIndexedPosts());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package posting.management;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import posting.service.timeline.TimelineStrategy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shows and changes the follower count up to which posts are pushed into followers' timelines, at
+ * {@code /actuator/timeline}.
+ */
+@Component
+@Endpoint(id = "timeline")
+public class TimelineEndpoint {
+
+    private final TimelineStrategy timelineStrategy;
+
+    public TimelineEndpoint(TimelineStrategy timelineStrategy) {
+        this.timelineStrategy = timelineStrategy;
+    }
+
+    @ReadOperation
+    public Map<String, Object> strategy() {
+        Map<String, Object> strategy = new LinkedHashMap<>();
+        strategy.put("pushFollowerThreshold", timelineStrategy.getPushFollowerThreshold());
+        strategy.put("pushedPosts", timelineStrategy.getPushedPosts());
+        strategy.put("pulledPosts", timelineStrategy.getPulledPosts());
+
+        return strategy;
+    }
+
+    @WriteOperation
+    public Map<String, Object> setPushFollowerThreshold(int pushFollowerThreshold) {
+        timelineStrategy.setPushFollowerThreshold(pushFollowerThreshold);
+
+        return strategy();
+    }
+}
\ No newline at end of file
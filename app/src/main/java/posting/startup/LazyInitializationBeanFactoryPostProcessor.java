@@ -0,0 +1,53 @@
+package posting.startup;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Marks application beans as lazily initialized, so they are only created when first used. Beans that do work in
+ * the background without being asked for (lifecycle beans, listeners and beans with scheduled methods) stay eager.
+ */
+class LazyInitializationBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+            if (beanDefinition.getRole() == BeanDefinition.ROLE_APPLICATION
+                    && !mustStayEager(beanDefinition, beanFactory.getBeanClassLoader())) {
+                beanDefinition.setLazyInit(true);
+            }
+        }
+    }
+
+    private boolean mustStayEager(BeanDefinition beanDefinition, ClassLoader classLoader) {
+        String beanClassName = beanDefinition.getBeanClassName();
+        if (beanClassName == null || !ClassUtils.isPresent(beanClassName, classLoader)) {
+            return false;
+        }
+
+        Class<?> beanClass = ClassUtils.resolveClassName(beanClassName, classLoader);
+
+        return SmartLifecycle.class.isAssignableFrom(beanClass)
+                || ApplicationListener.class.isAssignableFrom(beanClass)
+                || hasScheduledMethods(beanClass);
+    }
+
+    private boolean hasScheduledMethods(Class<?> beanClass) {
+        AtomicBoolean scheduled = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanClass,
+                method -> scheduled.set(true),
+                method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+
+        return scheduled.get();
+    }
+}
\ No newline at end of file
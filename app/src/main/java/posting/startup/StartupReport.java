@@ -0,0 +1,145 @@
+package posting.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Reports how long each startup phase took, which beans were the slowest to create and how long it took from the
+ * start of the JVM until the first request was served. The last one is compared against
+ * {@code posting.startup.target-time-to-first-request-millis}.
+ * <p>
+ * Has to be registered on the {@code SpringApplication} to receive the earliest events.
+ */
+public class StartupReport implements ApplicationListener<ApplicationEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupReport.class);
+    private static final String TARGET_PROPERTY = "posting.startup.target-time-to-first-request-millis";
+    private static final int REPORTED_BEANS = 10;
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final Map<String, Long> beanCreationStartNanos = new ConcurrentHashMap<>();
+    private final Map<String, Long> beanCreationMillis = new ConcurrentHashMap<>();
+    private long startingMillis;
+    private long environmentPreparedMillis;
+    private long preparedMillis;
+    private long refreshedMillis;
+    private long startedMillis;
+    private volatile long targetTimeToFirstRequestMillis;
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof ApplicationStartingEvent) {
+            startingMillis = System.currentTimeMillis();
+        } else if (event instanceof ApplicationEnvironmentPreparedEvent) {
+            environmentPreparedMillis = System.currentTimeMillis();
+            targetTimeToFirstRequestMillis = ((ApplicationEnvironmentPreparedEvent) event).getEnvironment()
+                    .getProperty(TARGET_PROPERTY, Long.class, Long.MAX_VALUE);
+        } else if (event instanceof ApplicationPreparedEvent) {
+            preparedMillis = System.currentTimeMillis();
+            instrument(((ApplicationPreparedEvent) event).getApplicationContext());
+        } else if (event instanceof ContextRefreshedEvent) {
+            refreshedMillis = System.currentTimeMillis();
+        } else if (event instanceof ApplicationStartedEvent) {
+            startedMillis = System.currentTimeMillis();
+        } else if (event instanceof ApplicationReadyEvent) {
+            report(((ApplicationReadyEvent) event).getApplicationContext(), System.currentTimeMillis());
+        }
+    }
+
+    private void instrument(ConfigurableApplicationContext context) {
+        ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+        beanFactory.addBeanPostProcessor(new BeanCreationTimer());
+        beanFactory.registerSingleton("firstRequestTimingFilter", new FirstRequestTimingFilter());
+    }
+
+    private void report(ConfigurableApplicationContext context, long readyMillis) {
+        LOGGER.info("Startup took [{}] ms: JVM start to main [{}] ms, environment [{}] ms, "
+                        + "context preparation [{}] ms, context refresh [{}] ms, web server start [{}] ms, "
+                        + "runners [{}] ms",
+                readyMillis - jvmStartMillis,
+                startingMillis - jvmStartMillis,
+                environmentPreparedMillis - startingMillis,
+                preparedMillis - environmentPreparedMillis,
+                refreshedMillis - preparedMillis,
+                startedMillis - refreshedMillis,
+                readyMillis - startedMillis);
+        LOGGER.info("Slowest beans to create, including their dependencies: {}", beanCreationMillis.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(REPORTED_BEANS)
+                .map(entry -> entry.getKey() + " [" + entry.getValue() + "] ms")
+                .collect(Collectors.joining(", ")));
+        beanCreationMillis.clear();
+
+        context.getBeansOfType(MeterRegistry.class).values().forEach(meterRegistry ->
+                TimeGauge.builder("application.startup.ready", this, TimeUnit.MILLISECONDS,
+                        report -> readyMillis - jvmStartMillis)
+                        .register(meterRegistry));
+    }
+
+    private final class BeanCreationTimer extends InstantiationAwareBeanPostProcessorAdapter {
+
+        @Override
+        public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+            beanCreationStartNanos.put(beanName, System.nanoTime());
+
+            return null;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            Long startNanos = beanCreationStartNanos.remove(beanName);
+            if (startNanos != null) {
+                beanCreationMillis.put(beanName, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            }
+
+            return bean;
+        }
+    }
+
+    private final class FirstRequestTimingFilter extends OncePerRequestFilter {
+
+        private final AtomicBoolean firstRequestServed = new AtomicBoolean();
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            filterChain.doFilter(request, response);
+            if (firstRequestServed.compareAndSet(false, true)) {
+                long timeToFirstRequestMillis = System.currentTimeMillis() - jvmStartMillis;
+                if (timeToFirstRequestMillis > targetTimeToFirstRequestMillis) {
+                    LOGGER.warn("First request served [{}] ms after JVM start, above the target of [{}] ms",
+                            timeToFirstRequestMillis, targetTimeToFirstRequestMillis);
+                } else {
+                    LOGGER.info("First request served [{}] ms after JVM start, within the target of [{}] ms",
+                            timeToFirstRequestMillis, targetTimeToFirstRequestMillis);
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
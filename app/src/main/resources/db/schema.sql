@@ -0,0 +1,124 @@
+create sequence if not exists hibernate_sequence start with 1 increment by 1;
+
+create table if not exists user (
+    id bigint not null,
+    username varchar(255) not null,
+    wall_version bigint default 0 not null,
+    follow_version bigint default 0 not null,
+    counts_version bigint default 0 not null,
+    primary key (id)
+);
+alter table user add constraint if not exists user_username_uk unique (username);
+
+create table if not exists post (
+    id bigint not null,
+    content varchar(140) not null,
+    created_date timestamp not null,
+    user_id bigint not null,
+    pushed boolean not null,
+    deleted boolean not null,
+    primary key (id)
+);
+alter table post add constraint if not exists post_user_fk foreign key (user_id) references user;
+create index if not exists post_user_id_idx on post (user_id, id);
+create index if not exists post_user_pushed_idx on post (user_id, pushed, created_date);
+create index if not exists post_deleted_idx on post (deleted);
+create index if not exists post_created_date_idx on post (created_date);
+
+create table if not exists follows (
+    user_id bigint not null,
+    followed_id bigint not null
+);
+alter table follows add constraint if not exists follows_user_fk foreign key (user_id) references user;
+alter table follows add constraint if not exists follows_followed_fk foreign key (followed_id) references user;
+create index if not exists follows_user_followed_idx on follows (user_id, followed_id);
+
+create table if not exists timeline_entry (
+    user_id bigint not null,
+    post_id bigint not null,
+    primary key (user_id, post_id)
+);
+alter table timeline_entry add constraint if not exists timeline_entry_user_fk foreign key (user_id) references user;
+alter table timeline_entry add constraint if not exists timeline_entry_post_fk foreign key (post_id) references post;
+
+create table if not exists outbox_event (
+    id bigint not null,
+    type varchar(255) not null,
+    user_id bigint not null,
+    post_id bigint not null,
+    partition_number integer not null,
+    processed boolean not null,
+    created_date timestamp not null,
+    primary key (id)
+);
+create index if not exists outbox_event_partition_idx on outbox_event (partition_number, processed, id);
+
+create table if not exists outbox_partition (
+    partition_number integer not null,
+    owner varchar(255),
+    lease_until timestamp,
+    primary key (partition_number)
+);
+
+create table if not exists post_tag (
+    tag varchar(140) not null,
+    post_id bigint not null,
+    author_id bigint not null,
+    primary key (tag, post_id)
+);
+create index if not exists post_tag_tag_post_idx on post_tag (tag, post_id desc);
+
+create table if not exists post_mention (
+    username varchar(255) not null,
+    post_id bigint not null,
+    author_id bigint not null,
+    primary key (username, post_id)
+);
+create index if not exists post_mention_username_post_idx on post_mention (username, post_id desc);
+
+create table if not exists post_reaction (
+    post_id bigint not null,
+    user_id bigint not null,
+    type varchar(16) not null,
+    primary key (post_id, user_id, type)
+);
+
+create table if not exists post_counts (
+    post_id bigint not null,
+    likes bigint not null,
+    reposts bigint not null,
+    primary key (post_id)
+);
+
+create table if not exists post_counts_change (
+    id bigint not null,
+    post_id bigint not null,
+    likes integer not null,
+    reposts integer not null,
+    created_date timestamp not null,
+    primary key (id)
+);
+create index if not exists post_counts_change_created_date_idx on post_counts_change (created_date);
+
+create table if not exists user_block (
+    user_id bigint not null,
+    blocked_id bigint not null,
+    primary key (user_id, blocked_id)
+);
+
+create table if not exists timeline_retraction (
+    user_id bigint not null,
+    author_id bigint not null,
+    primary key (user_id, author_id)
+);
+
+create table if not exists cold_post_change (
+    post_id bigint not null,
+    user_id bigint not null,
+    created_date timestamp not null,
+    content varchar(140) not null,
+    deleted boolean not null,
+    version integer not null,
+    primary key (post_id)
+);
+alter table cold_post_change add constraint if not exists cold_post_change_user_fk foreign key (user_id) references user;
\ No newline at end of file
@@ -16,18 +16,25 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import posting.PostingApiRestTemplate.EnhancedResultActions;
 import posting.domain.model.PostDto;
+import posting.persistence.entity.OutboxEvent;
+import posting.persistence.entity.OutboxEventType;
 import posting.persistence.entity.Post;
 import posting.persistence.entity.User;
+import posting.persistence.repository.OutboxEventRepository;
 import posting.persistence.repository.PostRepository;
 import posting.persistence.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @RunWith(SpringJUnit4ClassRunner.class)
-@SpringBootTest
+@SpringBootTest(properties = {
+        "posting.timeline-cache.timeline-size=0",
+        "posting.timeline.push-follower-threshold=0"})
 @AutoConfigureMockMvc
 @Transactional
 public class ApplicationTest {
@@ -44,6 +51,9 @@ public class ApplicationTest {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
     @Test
     public void testNewPostNewUser() {
         //given
@@ -75,6 +85,9 @@ public class ApplicationTest {
         assertThat(user.getPosts())
                 .extracting(Post::getCreatedDate)
                 .allMatch(saveDate::isBefore);
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getType, OutboxEvent::getUserId, OutboxEvent::getPostId)
+                .containsExactly(tuple(OutboxEventType.POST_CREATED, user.getId(), user.getPosts().get(0).getId()));
     }
 
     @Test
@@ -547,6 +560,176 @@ public class ApplicationTest {
         resultActions.expectIsBadRequest();
     }
 
+    @Test
+    public void testGetWallSince() {
+        //given
+        String username = "testUser";
+        postingApiRestTemplate.newPost(username, "post content 1");
+        postingApiRestTemplate.newPost(username, "post content 2");
+        List<PostDto> existingPosts = postingApiRestTemplate.getWall(username, 0, 10)
+                .andGetResponseBody(new TypeReference<List<PostDto>>() {
+                });
+        postingApiRestTemplate.newPost(username, "post content 3");
+        postingApiRestTemplate.newPost(username, "post content 4");
+        postingApiRestTemplate.newPost(username, "post content 5");
+
+        //when
+        EnhancedResultActions resultActions = postingApiRestTemplate.getWallSince(
+                username, existingPosts.get(0).getId(), 2);
+
+        //then
+        List<PostDto> posts = resultActions.expectIsOk().andGetResponseBody(new TypeReference<List<PostDto>>() {
+        });
+        assertThat(posts)
+                .extracting(PostDto::getContent)
+                .containsExactly("post content 5", "post content 4");
+    }
+
+    @Test
+    public void testGetTimelineSince() {
+        //given
+        String username = "testUser";
+        String followedUsername = "followedUser";
+        postingApiRestTemplate.newPost(username, "post content");
+        postingApiRestTemplate.newPost(followedUsername, "followed post content 1");
+        postingApiRestTemplate.follow(username, followedUsername);
+        List<PostDto> existingPosts = postingApiRestTemplate.getTimeline(username, 0, 10)
+                .andGetResponseBody(new TypeReference<List<PostDto>>() {
+                });
+        postingApiRestTemplate.newPost(username, "post content 2");
+        postingApiRestTemplate.newPost(followedUsername, "followed post content 2");
+
+        //when
+        EnhancedResultActions resultActions = postingApiRestTemplate.getTimelineSince(
+                username, existingPosts.get(0).getId(), 10);
+
+        //then
+        List<PostDto> posts = resultActions.expectIsOk().andGetResponseBody(new TypeReference<List<PostDto>>() {
+        });
+        assertThat(posts)
+                .extracting(PostDto::getUsername, PostDto::getContent)
+                .containsExactly(tuple(followedUsername, "followed post content 2"));
+    }
+
+    @Test
+    public void testGetWalls() {
+        //given
+        postingApiRestTemplate.newPost("user1", "user1 post 1");
+        postingApiRestTemplate.newPost("user2", "user2 post 1");
+        postingApiRestTemplate.newPost("user1", "user1 post 2");
+        postingApiRestTemplate.newPost("user1", "user1 post 3");
+
+        //when
+        EnhancedResultActions resultActions = postingApiRestTemplate.getWalls("user2,unknownUser,user1", 2);
+
+        //then
+        Map<String, List<PostDto>> walls = resultActions.expectIsOk()
+                .andGetResponseBody(new TypeReference<Map<String, List<PostDto>>>() {
+                });
+        assertThat(walls.keySet()).containsExactly("user2", "user1");
+        assertThat(walls.get("user2")).extracting(PostDto::getContent).containsExactly("user2 post 1");
+        assertThat(walls.get("user1")).extracting(PostDto::getContent).containsExactly("user1 post 3", "user1 post 2");
+    }
+
+    @Test
+    public void testGetWallsNotModified() {
+        //given
+        postingApiRestTemplate.newPost("user1", "post content");
+        String eTag = postingApiRestTemplate.getWalls("user1,user2", 2).expectIsOk().andGetETag();
+
+        //when
+        EnhancedResultActions resultActions = postingApiRestTemplate.getWalls("user1,user2", 2, eTag);
+
+        //then
+        resultActions.expectIsNotModified();
+        assertThat(resultActions.andReturn().getResponse().getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    public void testGetWallSinceUserNotPresent() {
+        //given
+        String username = "testUser";
+
+        //when
+        EnhancedResultActions resultActions = postingApiRestTemplate.getWallSince(username, 0, 10);
+
+        //then
+        resultActions.expectIsBadRequest();
+    }
+
+    @Test
+    public void testGetWallNotModified() {
+        //given
+        String username = "testUser";
+        postingApiRestTemplate.newPost(username, "post content");
+        String eTag = postingApiRestTemplate.getWall(username, 0, 2).expectIsOk().andGetETag();
+
+        //when
+        EnhancedResultActions resultActions = postingApiRestTemplate.getWall(username, 0, 2, eTag);
+
+        //then
+        resultActions.expectIsNotModified();
+        assertThat(eTag).isNotEmpty();
+        assertThat(resultActions.andReturn().getResponse().getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    public void testGetTimelineNotModified() {
+        //given
+        String username = "testUser";
+        String followedUsername = "followedUser";
+        postingApiRestTemplate.newPost(username, "post content");
+        postingApiRestTemplate.newPost(followedUsername, "followed post content");
+        postingApiRestTemplate.follow(username, followedUsername);
+        String eTag = postingApiRestTemplate.getTimeline(username, 0, 2).expectIsOk().andGetETag();
+
+        //when
+        EnhancedResultActions resultActions = postingApiRestTemplate.getTimeline(username, 0, 2, eTag);
+
+        //then
+        resultActions.expectIsNotModified();
+    }
+
+    @Test
+    public void testGetWallStaleETag() {
+        //given
+        String username = "testUser";
+        postingApiRestTemplate.newPost(username, "post content");
+
+        //when
+        EnhancedResultActions resultActions = postingApiRestTemplate.getWall(username, 0, 2, "\"stale\"");
+
+        //then
+        List<PostDto> posts = resultActions.expectIsOk().andGetResponseBody(new TypeReference<List<PostDto>>() {
+        });
+        assertThat(posts).hasSize(1);
+    }
+
+    @Test
+    public void testStreamTimeline() {
+        //given
+        String username = "testUser";
+        postingApiRestTemplate.newPost(username, "post content");
+
+        //when
+        EnhancedResultActions resultActions = postingApiRestTemplate.streamTimeline(username);
+
+        //then
+        resultActions.expectAsyncStarted();
+    }
+
+    @Test
+    public void testStreamTimelineUserNotPresent() {
+        //given
+        String username = "testUser";
+
+        //when
+        EnhancedResultActions resultActions = postingApiRestTemplate.streamTimeline(username);
+
+        //then
+        resultActions.expectIsBadRequest();
+    }
+
     @TestConfiguration
     public static class SupportConfig {
 
@@ -0,0 +1,40 @@
+package posting;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Polls for the results of asynchronous work, such as the outbox and the background workers, for up to ten seconds.
+ */
+final class Await {
+
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long POLL_MILLIS = 50;
+
+    private Await() {
+    }
+
+    /**
+     * Fails unless the condition holds before the timeout.
+     */
+    static void until(BooleanSupplier condition) throws InterruptedException {
+        assertThat(until(condition::getAsBoolean, Boolean::booleanValue)).isTrue();
+    }
+
+    /**
+     * Returns the first value matching the condition, or the last one read once the timeout has passed.
+     */
+    static <T> T until(Supplier<T> supplier, Predicate<T> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        T value = supplier.get();
+        while (!condition.test(value) && System.nanoTime() < deadline) {
+            Thread.sleep(POLL_MILLIS);
+            value = supplier.get();
+        }
+        return value;
+    }
+}
\ No newline at end of file
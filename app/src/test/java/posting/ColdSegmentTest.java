@@ -0,0 +1,265 @@
+package posting;
+
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.util.FileSystemUtils;
+import posting.domain.model.PostDto;
+import posting.domain.service.PostingService;
+import posting.service.segment.ColdPostChanges;
+import posting.service.segment.ColdPosts;
+import posting.service.segment.ColdSegmentProperties;
+import posting.service.segment.ColdSegments;
+import posting.service.segment.PostSegment;
+import posting.service.segment.SegmentCompactor;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compaction reads committed posts, so unlike {@link ApplicationTest} these tests let every request commit.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:committed;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "posting.timeline.push-follower-threshold=0",
+        "posting.cold-segments.enabled=true",
+        "posting.cold-segments.directory=target/cold-segments",
+        "posting.cold-segments.publish-grace-millis=0"})
+public class ColdSegmentTest {
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private SegmentCompactor segmentCompactor;
+
+    @Autowired
+    private ColdSegments coldSegments;
+
+    @Autowired
+    private ColdSegmentProperties coldSegmentProperties;
+
+    @Autowired
+    private ColdPostChanges coldPostChanges;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @After
+    public void cleanUp() throws IOException {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "cold_post_change", "outbox_event", "timeline_entry", "follows",
+                "post", "user");
+        coldPostChanges.refresh();
+        coldSegmentProperties.setPublishGraceMillis(0);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        coldSegments.close();
+        FileSystemUtils.deleteRecursively(Paths.get(coldSegmentProperties.getDirectory()));
+        coldSegments.open();
+    }
+
+    @Test
+    public void testCompactedPostsAreReadFromSegments() {
+        //given
+        String author = "coldAuthor";
+        String reader = "coldReader";
+        postingService.newPost(author, "old post 1");
+        postingService.newPost(author, "old post 2");
+        postingService.newPost(author, "new post");
+        postingService.newPost(reader, "reader post");
+        postingService.follow(reader, author);
+        LocalDateTime threeWeeksAgo = LocalDateTime.now().minusWeeks(3);
+        backdate("old post 1", threeWeeksAgo);
+        backdate("old post 2", threeWeeksAgo.plusMinutes(1));
+        long oldPost1Id = jdbcTemplate.queryForObject("select id from post where content = 'old post 1'", Long.class);
+
+        //when
+        while (segmentCompactor.compactOldestWeek().isPresent()) {
+            assertThat(coldSegments.getColdPosts().getHotFrom()).isBefore(LocalDateTime.now());
+        }
+
+        //then
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "post")).isEqualTo(4);
+        assertCompleteWallAndTimeline(author, reader);
+        assertThat(postingService.getWall(author, 0, 2))
+                .extracting(PostDto::getContent)
+                .containsExactly("new post", "old post 2");
+        assertThat(postingService.getWall(author, 1, 2))
+                .extracting(PostDto::getContent)
+                .containsExactly("old post 1");
+        assertThat(postingService.getTimelineSince(reader, oldPost1Id, 10))
+                .extracting(PostDto::getContent)
+                .containsExactly("new post", "old post 2");
+
+        //when
+        int deletedPosts = segmentCompactor.deleteCompacted();
+
+        //then
+        assertThat(deletedPosts).isEqualTo(2);
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "post")).isEqualTo(2);
+        assertCompleteWallAndTimeline(author, reader);
+    }
+
+    @Test
+    public void testRowsOfPinnedViewAreKeptUntilUnpinned() {
+        //given
+        String author = "pinnedAuthor";
+        postingService.newPost(author, "old post");
+        postingService.newPost(author, "new post");
+        backdate("old post", LocalDateTime.now().minusWeeks(3));
+        ColdPosts pinned = coldSegments.pin();
+        while (segmentCompactor.compactOldestWeek().isPresent()) {
+            assertThat(coldSegments.getColdPosts().getHotFrom()).isAfter(pinned.getHotFrom());
+        }
+
+        //when
+        int deletedWhilePinned = segmentCompactor.deleteCompacted();
+        coldSegments.unpin(pinned);
+        int deletedAfterUnpinning = segmentCompactor.deleteCompacted();
+
+        //then
+        assertThat(deletedWhilePinned).isZero();
+        assertThat(deletedAfterUnpinning).isEqualTo(1);
+        assertThat(postingService.getCompleteWall(author))
+                .extracting(PostDto::getContent)
+                .containsExactly("new post", "old post");
+    }
+
+    @Test
+    public void testChangesOfCompactedPostsAreWrittenIntoTheirSegment() {
+        //given
+        String author = "changedAuthor";
+        postingService.newPost(author, "old post 1");
+        postingService.newPost(author, "old post 2");
+        postingService.newPost(author, "new post");
+        LocalDateTime threeWeeksAgo = LocalDateTime.now().minusWeeks(3);
+        backdate("old post 1", threeWeeksAgo);
+        backdate("old post 2", threeWeeksAgo.plusMinutes(1));
+        long oldPost1Id = jdbcTemplate.queryForObject("select id from post where content = 'old post 1'", Long.class);
+        long oldPost2Id = jdbcTemplate.queryForObject("select id from post where content = 'old post 2'", Long.class);
+        while (segmentCompactor.compactOldestWeek().isPresent()) {
+            assertThat(coldSegments.getColdPosts().getHotFrom()).isBefore(LocalDateTime.now());
+        }
+        segmentCompactor.deleteCompacted();
+
+        //when
+        postingService.editPost(author, oldPost1Id, "edited old post 1");
+        postingService.deletePost(author, oldPost2Id);
+
+        //then
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "cold_post_change")).isEqualTo(2);
+        assertThat(postingService.getCompleteWall(author))
+                .extracting(PostDto::getContent)
+                .containsExactly("new post", "edited old post 1");
+
+        //when
+        boolean rewritten = segmentCompactor.rewriteChangedSegment().isPresent();
+
+        //then
+        assertThat(rewritten).isTrue();
+        assertThat(segmentCompactor.rewriteChangedSegment()).isEmpty();
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "cold_post_change")).isEqualTo(2);
+
+        //when
+        int deletedChanges = segmentCompactor.deleteWrittenChanges();
+
+        //then
+        assertThat(deletedChanges).isEqualTo(2);
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "cold_post_change")).isZero();
+        assertThat(postingService.getCompleteWall(author))
+                .extracting(PostDto::getContent)
+                .containsExactly("new post", "edited old post 1");
+    }
+
+    @Test
+    public void testRowsAndChangesAreKeptUntilSegmentIsPublished() {
+        //given
+        String author = "publishedAuthor";
+        postingService.newPost(author, "old post");
+        postingService.newPost(author, "new post");
+        backdate("old post", LocalDateTime.now().minusWeeks(3));
+        long oldPostId = jdbcTemplate.queryForObject("select id from post where content = 'old post'", Long.class);
+        coldSegmentProperties.setPublishGraceMillis(3600000);
+        while (segmentCompactor.compactOldestWeek().isPresent()) {
+            assertThat(coldSegments.getColdPosts().getHotFrom()).isBefore(LocalDateTime.now());
+        }
+
+        //when
+        int deletedBeforePublished = segmentCompactor.deleteCompacted();
+        postingService.editPost(author, oldPostId, "edited old post");
+        segmentCompactor.rewriteChangedSegment();
+        int deletedChangesBeforePublished = segmentCompactor.deleteWrittenChanges();
+
+        //then
+        assertThat(deletedBeforePublished).isZero();
+        assertThat(deletedChangesBeforePublished).isZero();
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "cold_post_change")).isEqualTo(1);
+
+        //when
+        coldSegmentProperties.setPublishGraceMillis(0);
+
+        //then
+        assertThat(segmentCompactor.deleteCompacted()).isEqualTo(1);
+        assertThat(segmentCompactor.deleteWrittenChanges()).isEqualTo(1);
+        assertThat(postingService.getCompleteWall(author))
+                .extracting(PostDto::getContent)
+                .containsExactly("new post", "edited old post");
+    }
+
+    @Test
+    public void testSegmentsWrittenByAnotherInstanceArePickedUpOnRefresh() throws IOException {
+        //given
+        String author = "sharedAuthor";
+        postingService.newPost(author, "old post");
+        postingService.newPost(author, "new post");
+        backdate("old post", LocalDateTime.now().minusWeeks(3));
+        PostSegment segment = segmentCompactor.compactOldestWeek().orElseThrow(AssertionError::new);
+        Path written = Files.move(segment.getPath(), segment.getPath().resolveSibling("written.tmp"));
+        coldSegments.close();
+        coldSegments.open();
+        assertThat(coldSegments.getColdPosts().isEmpty()).isTrue();
+
+        //when
+        Files.move(written, segment.getPath());
+        coldSegments.refresh();
+        segmentCompactor.deleteCompacted();
+
+        //then
+        assertThat(coldSegments.getColdPosts().getHotFrom()).isEqualTo(segment.getEnd());
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "post")).isEqualTo(1);
+        assertThat(postingService.getCompleteWall(author))
+                .extracting(PostDto::getContent)
+                .containsExactly("new post", "old post");
+    }
+
+    private void assertCompleteWallAndTimeline(String author, String reader) {
+        assertThat(postingService.getCompleteWall(author))
+                .extracting(PostDto::getContent)
+                .containsExactly("new post", "old post 2", "old post 1");
+        assertThat(postingService.getCompleteTimeline(reader))
+                .extracting(PostDto::getContent)
+                .containsExactly("new post", "old post 2", "old post 1");
+    }
+
+    private void backdate(String content, LocalDateTime createdDate) {
+        jdbcTemplate.update("update post set created_date = ? where content = ?", Timestamp.valueOf(createdDate),
+                content);
+    }
+}
\ No newline at end of file
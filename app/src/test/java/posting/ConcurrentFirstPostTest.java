@@ -0,0 +1,100 @@
+package posting;
+
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import posting.domain.service.PostingService;
+import posting.persistence.repository.PostRepository;
+import posting.persistence.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:committed;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "posting.timeline.push-follower-threshold=0",
+        "posting.cold-segments.enabled=true",
+        "posting.cold-segments.directory=target/cold-segments",
+        "posting.cold-segments.publish-grace-millis=0"})
+public class ConcurrentFirstPostTest {
+
+    private static final int USERS = 16;
+    private static final int THREADS_PER_USER = 8;
+    private static final int POSTS_PER_THREAD = 3;
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @After
+    public void cleanUp() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "outbox_event", "timeline_entry", "follows", "post", "user");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    public void testConcurrentFirstPostsCreateEachUserOnce() throws Exception {
+        //given
+        ExecutorService executor = Executors.newFixedThreadPool(USERS * THREADS_PER_USER);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int user = 0; user < USERS; user++) {
+            String username = "newUser" + user;
+            for (int thread = 0; thread < THREADS_PER_USER; thread++) {
+                results.add(executor.submit(postAfter(start, username)));
+            }
+        }
+
+        //when
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        //then
+        assertThat(userRepository.count()).isEqualTo(USERS);
+        assertThat(postRepository.count()).isEqualTo(USERS * THREADS_PER_USER * POSTS_PER_THREAD);
+        for (int user = 0; user < USERS; user++) {
+            assertThat(postingService.getCompleteWall("newUser" + user))
+                    .hasSize(THREADS_PER_USER * POSTS_PER_THREAD);
+        }
+    }
+
+    private Callable<Void> postAfter(CountDownLatch start, String username) {
+        return () -> {
+            start.await();
+            for (int post = 0; post < POSTS_PER_THREAD; post++) {
+                postingService.newPost(username, "post " + post);
+            }
+            return null;
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,167 @@
+package posting;
+
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import posting.domain.exception.InvalidRequestException;
+import posting.domain.model.PostDto;
+import posting.domain.service.EngagementService;
+import posting.domain.service.PostingService;
+import posting.service.engagement.EngagementCounters;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Counts are only incremented once a like is committed, so like {@link TagTest} these tests let every request
+ * commit.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:committed;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "posting.timeline.push-follower-threshold=0",
+        "posting.cold-segments.enabled=true",
+        "posting.cold-segments.directory=target/cold-segments",
+        "posting.cold-segments.publish-grace-millis=0"})
+public class EngagementTest {
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private EngagementService engagementService;
+
+    @Autowired
+    private EngagementCounters engagementCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @After
+    public void cleanUp() {
+        engagementCounters.flush();
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "post_reaction", "post_counts", "post_counts_change",
+                "post_tag", "post_mention", "outbox_event", "timeline_entry", "follows", "post", "user");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    public void testLikesAndRepostsAreCountedOncePerUser() {
+        //given
+        postingService.newPost("likedAuthor", "Like me");
+        postingService.newPost("liker1", "First");
+        postingService.newPost("liker2", "Second");
+        long postId = postingService.getCompleteWall("likedAuthor").get(0).getId();
+
+        //when
+        engagementService.like("liker1", postId);
+        engagementService.like("liker1", postId);
+        engagementService.like("liker2", postId);
+        engagementService.repost("liker2", postId);
+        engagementService.unlike("liker1", postId);
+        engagementService.unlike("liker1", postId);
+        engagementService.like("likedAuthor", postId);
+        List<PostDto> wall = postingService.getCompleteWall("likedAuthor");
+
+        //then
+        assertThat(wall)
+                .extracting(PostDto::getLikes, PostDto::getReposts)
+                .containsExactly(tuple(2L, 1L));
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "post_reaction")).isEqualTo(3);
+    }
+
+    @Test
+    public void testFlushedCountsAreAddedToStoredCounts() {
+        //given
+        postingService.newPost("flushedAuthor", "Count me");
+        postingService.newPost("flushingLiker", "Hello");
+        long postId = postingService.getCompleteWall("flushedAuthor").get(0).getId();
+        engagementService.like("flushingLiker", postId);
+        engagementCounters.flush();
+
+        //when
+        engagementService.repost("flushingLiker", postId);
+        engagementService.like("flushedAuthor", postId);
+        engagementCounters.flush();
+
+        //then
+        Map<String, Object> stored = jdbcTemplate.queryForMap(
+                "select likes, reposts from post_counts where post_id = ?", postId);
+        assertThat(stored).containsOnly(entry("LIKES", 2L), entry("REPOSTS", 1L));
+        assertThat(postingService.getWall("flushedAuthor", 0, 10))
+                .extracting(PostDto::getLikes, PostDto::getReposts)
+                .containsExactly(tuple(2L, 1L));
+    }
+
+    @Test
+    public void testFlushedCountsChangeTagsOfAuthorWallAndFollowerTimelines() {
+        //given
+        postingService.newPost("taggedAuthor", "Tag me");
+        postingService.newPost("taggedFollower", "Hello");
+        postingService.follow("taggedFollower", "taggedAuthor");
+        long postId = postingService.getCompleteWall("taggedAuthor").get(0).getId();
+        String wallTag = postingService.getWallTag("taggedAuthor");
+        String timelineTag = postingService.getTimelineTag("taggedFollower");
+        String followerWallTag = postingService.getWallTag("taggedFollower");
+
+        //when
+        engagementService.like("taggedFollower", postId);
+        engagementCounters.flush();
+
+        //then
+        assertThat(postingService.getWallTag("taggedAuthor")).isNotEqualTo(wallTag);
+        assertThat(postingService.getTimelineTag("taggedFollower")).isNotEqualTo(timelineTag);
+        assertThat(postingService.getWallTag("taggedFollower")).isEqualTo(followerWallTag);
+    }
+
+    @Test
+    public void testChangesNotFlushedInTimeAreRecoveredOnce() {
+        //given
+        postingService.newPost("recoveredAuthor", "Count me once");
+        postingService.newPost("recoveredLiker", "Hello");
+        long postId = postingService.getCompleteWall("recoveredAuthor").get(0).getId();
+        engagementService.like("recoveredLiker", postId);
+        engagementService.repost("recoveredLiker", postId);
+        jdbcTemplate.update("update post_counts_change set created_date = dateadd('HOUR', -1, created_date)");
+
+        //when
+        int recovered = engagementCounters.recover();
+        engagementCounters.flush();
+
+        //then
+        assertThat(recovered).isEqualTo(2);
+        Map<String, Object> stored = jdbcTemplate.queryForMap(
+                "select likes, reposts from post_counts where post_id = ?", postId);
+        assertThat(stored).containsOnly(entry("LIKES", 1L), entry("REPOSTS", 1L));
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "post_counts_change")).isZero();
+    }
+
+    @Test
+    public void testLikingUnknownPostIsRejected() {
+        //given
+        postingService.newPost("unknownPostLiker", "Hello");
+
+        //when
+        Throwable thrown = catchThrowable(() -> engagementService.like("unknownPostLiker", Long.MAX_VALUE));
+
+        //then
+        assertThat(thrown)
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Post [" + Long.MAX_VALUE + "] does not exist");
+    }
+}
\ No newline at end of file
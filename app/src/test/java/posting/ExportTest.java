@@ -0,0 +1,160 @@
+package posting;
+
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.util.FileSystemUtils;
+import posting.domain.service.PostingService;
+import posting.persistence.repository.PostRecord;
+import posting.service.export.ExportProperties;
+import posting.service.export.PostArchive;
+import posting.service.export.PostExporter;
+import posting.service.segment.ColdSegmentProperties;
+import posting.service.segment.ColdSegments;
+import posting.service.segment.SegmentCompactor;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The export reads committed posts, so unlike {@link ApplicationTest} these tests let every request commit.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:committed;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "posting.timeline.push-follower-threshold=0",
+        "posting.cold-segments.enabled=true",
+        "posting.cold-segments.directory=target/cold-segments",
+        "posting.cold-segments.publish-grace-millis=0"})
+public class ExportTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private PostExporter postExporter;
+
+    @Autowired
+    private SegmentCompactor segmentCompactor;
+
+    @Autowired
+    private ColdSegments coldSegments;
+
+    @Autowired
+    private ColdSegmentProperties coldSegmentProperties;
+
+    @Autowired
+    private ExportProperties exportProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @After
+    public void cleanUp() throws IOException {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "outbox_event", "timeline_entry", "follows", "post", "user");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        exportProperties.setRangeSize(new ExportProperties().getRangeSize());
+        coldSegments.close();
+        FileSystemUtils.deleteRecursively(Paths.get(coldSegmentProperties.getDirectory()));
+        coldSegments.open();
+    }
+
+    @Test
+    public void testExportsHotAndColdPostsAndResumes() throws Exception {
+        //given
+        postingService.newPost("exportAuthor1", "old post");
+        postingService.newPost("exportAuthor2", "new post 1");
+        postingService.newPost("exportAuthor1", "new post 2");
+        jdbcTemplate.update("update post set created_date = ? where content = 'old post'",
+                Timestamp.valueOf(LocalDateTime.now().minusWeeks(3)));
+        segmentCompactor.compactOldestWeek();
+        Path directory = folder.getRoot().toPath();
+
+        //when
+        postExporter.start(directory, false).get();
+
+        //then
+        assertThat(exportedPosts(directory))
+                .extracting(PostRecord::getContent)
+                .containsExactlyInAnyOrder("old post", "new post 1", "new post 2");
+        assertThat(postExporter.getExportedPosts()).isEqualTo(3);
+        assertThat(postExporter.getCompletedChunks()).isEqualTo(postExporter.getTotalChunks());
+
+        //when
+        postingService.newPost("exportAuthor2", "post after export");
+        postExporter.start(directory, false).get();
+
+        //then
+        assertThat(postExporter.getExportedPosts()).isZero();
+        assertThat(exportedPosts(directory)).hasSize(3);
+
+        //when
+        postExporter.start(directory, true).get();
+
+        //then
+        assertThat(postExporter.getExportedPosts()).isEqualTo(4);
+        assertThat(exportedPosts(directory)).hasSize(4);
+    }
+
+    @Test
+    public void testSplitsColdSegmentsIntoChunksOfAuthors() throws Exception {
+        //given
+        postingService.newPost("exportAuthor1", "old post 1");
+        postingService.newPost("exportAuthor1", "old post 2");
+        postingService.newPost("exportAuthor2", "old post 3");
+        postingService.newPost("exportAuthor3", "old post 4");
+        jdbcTemplate.update("update post set created_date = ?", Timestamp.valueOf(LocalDateTime.now().minusWeeks(3)));
+        segmentCompactor.compactOldestWeek();
+        segmentCompactor.deleteCompacted();
+        exportProperties.setRangeSize(2);
+        Path directory = folder.getRoot().toPath();
+
+        //when
+        postExporter.start(directory, false).get();
+
+        //then
+        assertThat(postExporter.getTotalChunks()).isEqualTo(2);
+        assertThat(exportedPosts(directory))
+                .extracting(PostRecord::getContent)
+                .containsExactlyInAnyOrder("old post 1", "old post 2", "old post 3", "old post 4");
+        try (DirectoryStream<Path> archives = Files.newDirectoryStream(directory, "cold-*.parc")) {
+            for (Path archive : archives) {
+                assertThat(PostArchive.read(archive)).hasSize(2);
+            }
+        }
+    }
+
+    private static List<PostRecord> exportedPosts(Path directory) throws IOException {
+        List<PostRecord> posts = new ArrayList<>();
+        try (DirectoryStream<Path> archives = Files.newDirectoryStream(directory, "*.parc")) {
+            for (Path archive : archives) {
+                posts.addAll(PostArchive.read(archive));
+            }
+        }
+        return posts;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package posting;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import posting.web.SwaggerConfig;
+import springfox.documentation.spring.web.plugins.Docket;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:fast-startup;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+@ActiveProfiles("prod")
+public class FastStartupProfileTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private PostingApiRestTemplate postingApiRestTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void testSwaggerDisabled() {
+        assertThat(applicationContext.getBeanNamesForType(SwaggerConfig.class)).isEmpty();
+        assertThat(applicationContext.getBeanNamesForType(Docket.class)).isEmpty();
+    }
+
+    @Test
+    public void testServesRequestsWithValidatedSchema() {
+        //given
+        String username = "testUser";
+
+        //when
+        postingApiRestTemplate.newPost(username, "post content").expectIsCreated();
+
+        //then
+        postingApiRestTemplate.getWall(username, 0, 10).expectIsOk();
+    }
+
+    @Test
+    public void testSchemaScriptRunsAgainstExistingSchema() throws SQLException {
+        //given
+        postingApiRestTemplate.newPost("restartedUser", "post content").expectIsCreated();
+
+        //when
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/schema.sql"));
+        }
+
+        //then
+        postingApiRestTemplate.getWall("restartedUser", 0, 10).expectIsOk();
+    }
+
+    @TestConfiguration
+    public static class SupportConfig {
+
+        @Bean
+        public PostingApiRestTemplate postingApiRestTemplate(MockMvc mockMvc,
+                                                             Jackson2ObjectMapperBuilder objectMapperBuilder) {
+            return new PostingApiRestTemplate(mockMvc, objectMapperBuilder);
+        }
+    }
+}
\ No newline at end of file
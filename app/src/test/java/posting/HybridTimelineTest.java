@@ -0,0 +1,101 @@
+package posting;
+
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import posting.domain.model.PostDto;
+import posting.domain.service.PostingService;
+import posting.management.TimelineEndpoint;
+import posting.service.timeline.TimelineStrategy;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pushed posts are fanned out by the outbox after the post is committed, so these tests let every request commit
+ * and wait for the fan-out.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:committed;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "posting.timeline.push-follower-threshold=0",
+        "posting.cold-segments.enabled=true",
+        "posting.cold-segments.directory=target/cold-segments",
+        "posting.cold-segments.publish-grace-millis=0"})
+public class HybridTimelineTest {
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private TimelineEndpoint timelineEndpoint;
+
+    @Autowired
+    private TimelineStrategy timelineStrategy;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Before
+    public void setUp() {
+        timelineEndpoint.setPushFollowerThreshold(2);
+    }
+
+    @After
+    public void cleanUp() {
+        timelineStrategy.setPushFollowerThreshold(0);
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "outbox_event", "timeline_entry", "follows", "post", "user");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    public void testTimelineMergesPushedAndPulledPosts() throws Exception {
+        //given
+        String username = "reader";
+        String smallAuthor = "smallAuthor";
+        String popularAuthor = "popularAuthor";
+        postingService.newPost(username, "reader post");
+        postingService.newPost("otherReader", "other reader post");
+        postingService.newPost(smallAuthor, "small author post 1");
+        postingService.newPost(popularAuthor, "popular author post 1");
+        postingService.follow(username, smallAuthor);
+        postingService.follow(username, popularAuthor);
+        postingService.follow("otherReader", popularAuthor);
+        double pushedPosts = timelineStrategy.getPushedPosts();
+        double pulledPosts = timelineStrategy.getPulledPosts();
+
+        //when
+        postingService.newPost(smallAuthor, "small author post 2");
+        postingService.newPost(popularAuthor, "popular author post 2");
+        List<PostDto> timeline = awaitTimeline(username, 4);
+
+        //then
+        assertThat(timeline)
+                .extracting(PostDto::getContent)
+                .containsExactly("popular author post 2", "small author post 2", "popular author post 1",
+                        "small author post 1");
+        assertThat(timelineStrategy.getPushedPosts()).isEqualTo(pushedPosts + 1);
+        assertThat(timelineStrategy.getPulledPosts()).isEqualTo(pulledPosts + 1);
+        assertThat(JdbcTestUtils.countRowsInTableWhere(jdbcTemplate, "timeline_entry",
+                "post_id in (select id from post where content = 'small author post 2')")).isEqualTo(1);
+        assertThat(postingService.getTimeline(username, 1, 2))
+                .extracting(PostDto::getContent)
+                .containsExactly("popular author post 1", "small author post 1");
+    }
+
+    private List<PostDto> awaitTimeline(String username, int size) throws InterruptedException {
+        return Await.until(() -> postingService.getCompleteTimeline(username), timeline -> timeline.size() >= size);
+    }
+}
\ No newline at end of file
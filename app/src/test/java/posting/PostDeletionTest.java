@@ -0,0 +1,151 @@
+package posting;
+
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import posting.domain.exception.InvalidRequestException;
+import posting.domain.model.PostDto;
+import posting.domain.service.EngagementService;
+import posting.domain.service.PostingService;
+import posting.domain.service.SearchService;
+import posting.domain.service.TagService;
+import posting.service.timeline.TimelineStrategy;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Like {@link UnfollowTest}, these tests let every request commit, and wait for the outbox and for the deleted posts
+ * to be compacted in the background.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:committed;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "posting.timeline.push-follower-threshold=0",
+        "posting.cold-segments.enabled=true",
+        "posting.cold-segments.directory=target/cold-segments",
+        "posting.cold-segments.publish-grace-millis=0"})
+public class PostDeletionTest {
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private EngagementService engagementService;
+
+    @Autowired
+    private TimelineStrategy timelineStrategy;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Before
+    public void setUp() {
+        timelineStrategy.setPushFollowerThreshold(1000);
+    }
+
+    @After
+    public void cleanUp() {
+        timelineStrategy.setPushFollowerThreshold(0);
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "post_reaction", "post_counts", "post_counts_change", "post_tag",
+                "post_mention", "timeline_retraction", "user_block", "outbox_event", "timeline_entry", "follows",
+                "post", "user");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    public void testDeletedPostIsHiddenAndCompacted() throws Exception {
+        //given
+        postingService.newPost("deletionReader", "Hello");
+        postingService.newPost("deletionAuthor", "First");
+        postingService.follow("deletionReader", "deletionAuthor");
+        postingService.newPost("deletionAuthor", "Keep #deletion");
+        postingService.newPost("deletionAuthor", "Drop #deletion");
+        Await.until(() -> postingService.getCompleteTimeline("deletionReader").size() == 3);
+        assertThat(postingService.getTimeline("deletionReader", 0, 10)).hasSize(3);
+        long deletedId = postingService.getCompleteWall("deletionAuthor").get(0).getId();
+        engagementService.like("deletionReader", deletedId);
+        String wallTag = postingService.getWallTag("deletionAuthor");
+
+        //when
+        postingService.deletePost("deletionAuthor", deletedId);
+
+        //then
+        assertThat(postingService.getWallTag("deletionAuthor")).isNotEqualTo(wallTag);
+        assertThat(postingService.getCompleteWall("deletionAuthor"))
+                .extracting(PostDto::getContent)
+                .containsExactly("Keep #deletion", "First");
+        assertThat(postingService.getTimeline("deletionReader", 0, 10))
+                .extracting(PostDto::getContent)
+                .containsExactly("Keep #deletion", "First");
+        assertThat(tagService.getTagged("deletion", Long.MAX_VALUE, 10))
+                .extracting(PostDto::getContent)
+                .containsExactly("Keep #deletion");
+        Await.until(() -> jdbcTemplate.queryForObject("select count(*) from post where id = ?", Long.class,
+                deletedId) == 0);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from timeline_entry where post_id = ?", Long.class,
+                deletedId)).isZero();
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "post_reaction")).isZero();
+    }
+
+    @Test
+    public void testEditedPostKeepsItsPlace() throws Exception {
+        //given
+        postingService.newPost("editor", "Before #old");
+        postingService.newPost("editor", "After");
+        List<PostDto> wall = postingService.getCompleteWall("editor");
+        long editedId = wall.get(1).getId();
+
+        //when
+        postingService.editPost("editor", editedId, "Edited #new");
+
+        //then
+        assertThat(postingService.getWallSince("editor", editedId - 1, 10))
+                .extracting(PostDto::getId, PostDto::getContent)
+                .containsExactly(
+                        tuple(wall.get(0).getId(), "After"),
+                        tuple(editedId, "Edited #new"));
+        assertThat(tagService.getTagged("old", Long.MAX_VALUE, 10)).isEmpty();
+        assertThat(tagService.getTagged("new", Long.MAX_VALUE, 10)).extracting(PostDto::getId)
+                .containsExactly(editedId);
+        Await.until(() -> searchService.search("edited", null, 10).getPosts().size() == 1);
+        assertThat(searchService.search("before", null, 10).getPosts()).isEmpty();
+    }
+
+    @Test
+    public void testOnlyTheAuthorCanDeleteAPost() {
+        //given
+        postingService.newPost("owner", "Mine");
+        postingService.newPost("stranger", "Theirs");
+        long postId = postingService.getCompleteWall("owner").get(0).getId();
+
+        //when
+        Throwable thrown = catchThrowable(() -> postingService.deletePost("stranger", postId));
+
+        //then
+        assertThat(thrown)
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Post [" + postId + "] was not posted by [stranger]");
+        assertThat(postingService.getCompleteWall("owner")).hasSize(1);
+    }
+}
\ No newline at end of file
@@ -3,6 +3,7 @@ package posting;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
@@ -15,6 +16,7 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import posting.web.request.NewPostRequest;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class PostingApiRestTemplate {
@@ -60,6 +62,36 @@ public class PostingApiRestTemplate {
                 .param("size", String.valueOf(size)));
     }
 
+    EnhancedResultActions getWall(String username, int page, int size, String ifNoneMatch) {
+        return perform(MockMvcRequestBuilders
+                .get(baseRequestUrl(username) + "/wall")
+                .param("page", String.valueOf(page))
+                .param("size", String.valueOf(size))
+                .header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch));
+    }
+
+    EnhancedResultActions getWallSince(String username, long since, int size) {
+        return perform(MockMvcRequestBuilders
+                .get(baseRequestUrl(username) + "/wall")
+                .param("since", String.valueOf(since))
+                .param("size", String.valueOf(size)));
+    }
+
+    EnhancedResultActions getWalls(String usernames, int size) {
+        return perform(MockMvcRequestBuilders
+                .get("/users/walls")
+                .param("usernames", usernames)
+                .param("size", String.valueOf(size)));
+    }
+
+    EnhancedResultActions getWalls(String usernames, int size, String ifNoneMatch) {
+        return perform(MockMvcRequestBuilders
+                .get("/users/walls")
+                .param("usernames", usernames)
+                .param("size", String.valueOf(size))
+                .header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch));
+    }
+
     EnhancedResultActions getCompleteTimeline(String username) {
         return perform(MockMvcRequestBuilders.get(baseRequestUrl(username) + "/completeTimeline"));
     }
@@ -71,6 +103,25 @@ public class PostingApiRestTemplate {
                 .param("size", String.valueOf(size)));
     }
 
+    EnhancedResultActions getTimeline(String username, int page, int size, String ifNoneMatch) {
+        return perform(MockMvcRequestBuilders
+                .get(baseRequestUrl(username) + "/timeline")
+                .param("page", String.valueOf(page))
+                .param("size", String.valueOf(size))
+                .header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch));
+    }
+
+    EnhancedResultActions getTimelineSince(String username, long since, int size) {
+        return perform(MockMvcRequestBuilders
+                .get(baseRequestUrl(username) + "/timeline")
+                .param("since", String.valueOf(since))
+                .param("size", String.valueOf(size)));
+    }
+
+    EnhancedResultActions streamTimeline(String username) {
+        return perform(MockMvcRequestBuilders.get(baseRequestUrl(username) + "/timeline/stream"));
+    }
+
     private EnhancedResultActions perform(MockHttpServletRequestBuilder requestBuilder) {
         try {
             return new EnhancedResultActions(mockMvc.perform(requestBuilder));
@@ -107,6 +158,18 @@ public class PostingApiRestTemplate {
             return andExpect(status().isBadRequest());
         }
 
+        EnhancedResultActions expectIsNotModified() {
+            return andExpect(status().isNotModified());
+        }
+
+        EnhancedResultActions expectAsyncStarted() {
+            return andExpect(request().asyncStarted());
+        }
+
+        String andGetETag() {
+            return andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        }
+
         private EnhancedResultActions andDo(ResultHandler resultHandler) {
             try {
                 resultActions.andDo(resultHandler);
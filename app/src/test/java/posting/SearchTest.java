@@ -0,0 +1,74 @@
+package posting;
+
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import posting.domain.model.PostDto;
+import posting.domain.model.PostSearchPage;
+import posting.domain.service.PostingService;
+import posting.domain.service.SearchService;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Posts are indexed by the outbox after they are committed, so unlike {@link ApplicationTest} these tests let every
+ * request commit and wait for the index.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:committed;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "posting.timeline.push-follower-threshold=0",
+        "posting.cold-segments.enabled=true",
+        "posting.cold-segments.directory=target/cold-segments",
+        "posting.cold-segments.publish-grace-millis=0"})
+public class SearchTest {
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @After
+    public void cleanUp() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "outbox_event", "timeline_entry", "follows", "post", "user");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    public void testNewPostsBecomeSearchable() throws InterruptedException {
+        //given
+        postingService.newPost("searchAuthor1", "Searching for a quokka selfie");
+        postingService.newPost("searchAuthor2", "A quokka selfie is hard to get");
+        postingService.newPost("searchAuthor2", "Selfie with a kangaroo");
+
+        //when
+        PostSearchPage page = awaitSearch("\"quokka selfie\"", 2);
+
+        //then
+        assertThat(page.getPosts())
+                .extracting(PostDto::getContent)
+                .containsExactly("A quokka selfie is hard to get", "Searching for a quokka selfie");
+        assertThat(awaitSearch("kangaroo selfie", 1).getPosts())
+                .extracting(PostDto::getUsername)
+                .containsExactly("searchAuthor2");
+    }
+
+    private PostSearchPage awaitSearch(String query, int size) throws InterruptedException {
+        return Await.until(() -> searchService.search(query, null, 10), page -> page.getPosts().size() >= size);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package posting;
+
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.util.FileSystemUtils;
+import posting.domain.model.PostDto;
+import posting.domain.model.TrendingTag;
+import posting.domain.service.PostingService;
+import posting.domain.service.TagService;
+import posting.service.segment.ColdSegmentProperties;
+import posting.service.segment.ColdSegments;
+import posting.service.segment.SegmentCompactor;
+import posting.service.trending.TrendingTopics;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Compaction reads committed posts, so unlike {@link ApplicationTest} these tests let every request commit.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:committed;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "posting.timeline.push-follower-threshold=0",
+        "posting.cold-segments.enabled=true",
+        "posting.cold-segments.directory=target/cold-segments",
+        "posting.cold-segments.publish-grace-millis=0"})
+public class TagTest {
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private TrendingTopics trendingTopics;
+
+    @Autowired
+    private SegmentCompactor segmentCompactor;
+
+    @Autowired
+    private ColdSegments coldSegments;
+
+    @Autowired
+    private ColdSegmentProperties coldSegmentProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @After
+    public void cleanUp() throws IOException {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "post_tag", "post_mention", "outbox_event", "timeline_entry",
+                "follows", "post", "user");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        coldSegments.close();
+        FileSystemUtils.deleteRecursively(Paths.get(coldSegmentProperties.getDirectory()));
+        coldSegments.open();
+    }
+
+    @Test
+    public void testTaggedPostsAndMentionsArePagedNewestFirst() {
+        //given
+        postingService.newPost("tagReader", "Reading along");
+        postingService.newPost("tagAuthor1", "Old #Quokka sighting, cc @tagReader");
+        postingService.newPost("tagAuthor2", "#quokka #quokka again @tagReader@tagAuthor1");
+        postingService.newPost("tagAuthor1", "New #quokka, write to quokka@example.com");
+        postingService.newPost("tagAuthor2", "No tags here, just a #");
+        backdate("Old #Quokka sighting, cc @tagReader", LocalDateTime.now().minusWeeks(3));
+
+        //when
+        while (segmentCompactor.compactOldestWeek().isPresent()) {
+            segmentCompactor.deleteCompacted();
+        }
+        List<PostDto> firstPage = tagService.getTagged("#QUOKKA", Long.MAX_VALUE, 2);
+        List<PostDto> secondPage = tagService.getTagged("quokka", firstPage.get(1).getId(), 2);
+
+        //then
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "post")).isEqualTo(4);
+        assertThat(firstPage)
+                .extracting(PostDto::getContent)
+                .containsExactly("New #quokka, write to quokka@example.com",
+                        "#quokka #quokka again @tagReader@tagAuthor1");
+        assertThat(secondPage)
+                .extracting(PostDto::getContent)
+                .containsExactly("Old #Quokka sighting, cc @tagReader");
+        assertThat(tagService.getMentions("tagReader", Long.MAX_VALUE, 10))
+                .extracting(PostDto::getUsername)
+                .containsExactly("tagAuthor2", "tagAuthor1");
+        assertThat(tagService.getMentions("tagAuthor1", Long.MAX_VALUE, 10)).isEmpty();
+    }
+
+    @Test
+    public void testCommittedTagsTrend() {
+        //given
+        postingService.newPost("trendAuthor1", "#sunrise over the bay");
+        postingService.newPost("trendAuthor2", "Another #Sunrise, another #coffee");
+
+        //when
+        trendingTopics.refresh();
+
+        //then
+        assertThat(tagService.getTrending(10))
+                .extracting(TrendingTag::getTag, TrendingTag::getCount)
+                .contains(tuple("sunrise", 2L), tuple("coffee", 1L));
+    }
+
+    @Test
+    public void testTagPagesAreReadFromTheDescendingIndex() {
+        //when
+        String plan = jdbcTemplate.queryForObject("explain select t.post_id, u.username " +
+                "from post_tag t inner join user u on u.id = t.author_id " +
+                "where t.tag = 'quokka' and t.post_id < 1000 " +
+                "order by t.tag, t.post_id desc limit 50", String.class);
+
+        //then
+        assertThat(plan.toUpperCase())
+                .contains("POST_TAG_TAG_POST_IDX")
+                .contains("INDEX SORTED");
+    }
+
+    private void backdate(String content, LocalDateTime createdDate) {
+        jdbcTemplate.update("update post set created_date = ? where content = ?", Timestamp.valueOf(createdDate),
+                content);
+    }
+}
\ No newline at end of file
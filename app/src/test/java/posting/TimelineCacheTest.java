@@ -0,0 +1,113 @@
+package posting;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import posting.domain.model.PostDto;
+import posting.domain.service.PostingService;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Timelines are only cached for the tag they were read at, and tags only move when a transaction commits, so unlike
+ * {@link ApplicationTest} these tests let every request commit.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:committed;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "posting.timeline.push-follower-threshold=0",
+        "posting.cold-segments.enabled=true",
+        "posting.cold-segments.directory=target/cold-segments",
+        "posting.cold-segments.publish-grace-millis=0"})
+public class TimelineCacheTest {
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @After
+    public void cleanUp() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "outbox_event", "timeline_entry", "follows", "post", "user");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    public void testCachedTimelineIsServedUntilItChanges() {
+        //given
+        String username = "cachingUser";
+        String followedUsername = "cachedUser";
+        String otherFollowedUsername = "otherCachedUser";
+        postingService.newPost(username, "post content");
+        postingService.newPost(followedUsername, "followed post content 1");
+        postingService.newPost(otherFollowedUsername, "other followed post content");
+        postingService.follow(username, followedUsername);
+        postingService.getTimeline(username, 0, 10);
+        double hits = cacheHits();
+
+        //when
+        List<PostDto> cachedTimeline = postingService.getTimeline(username, 0, 10);
+        postingService.newPost(followedUsername, "followed post content 2");
+        List<PostDto> timelineAfterPost = postingService.getTimeline(username, 0, 10);
+        postingService.follow(username, otherFollowedUsername);
+        List<PostDto> timelineAfterFollow = postingService.getTimeline(username, 0, 10);
+
+        //then
+        assertThat(cacheHits()).isEqualTo(hits + 2);
+        assertThat(cachedTimeline)
+                .extracting(PostDto::getContent)
+                .containsExactly("followed post content 1");
+        assertThat(timelineAfterPost)
+                .extracting(PostDto::getContent)
+                .containsExactly("followed post content 2", "followed post content 1");
+        assertThat(timelineAfterFollow)
+                .extracting(PostDto::getContent)
+                .containsExactlyInAnyOrder("followed post content 2", "followed post content 1",
+                        "other followed post content");
+    }
+
+    @Test
+    public void testFollowIsMergedIntoCachedTimeline() {
+        //given
+        String username = "mergingUser";
+        String followedUsername = "mergedUser";
+        String newlyFollowedUsername = "newlyMergedUser";
+        postingService.newPost(followedUsername, "followed post content");
+        postingService.newPost(newlyFollowedUsername, "newly followed post content");
+        postingService.newPost(username, "post content");
+        postingService.follow(username, followedUsername);
+        postingService.getTimeline(username, 0, 10);
+        double hits = cacheHits();
+
+        //when
+        postingService.follow(username, newlyFollowedUsername);
+        List<PostDto> timelineAfterFollow = postingService.getTimeline(username, 0, 10);
+
+        //then
+        assertThat(cacheHits()).isEqualTo(hits + 1);
+        assertThat(timelineAfterFollow)
+                .extracting(PostDto::getContent)
+                .containsExactly("newly followed post content", "followed post content");
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("posting.timeline-cache.requests").tag("result", "hit").counter().count();
+    }
+}
\ No newline at end of file
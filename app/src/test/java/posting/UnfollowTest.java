@@ -0,0 +1,124 @@
+package posting;
+
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import posting.domain.exception.InvalidRequestException;
+import posting.domain.model.PostDto;
+import posting.domain.service.PostingService;
+import posting.service.timeline.TimelineStrategy;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * Like {@link HybridTimelineTest}, these tests let every request commit and wait for the fan-out, and for the
+ * retracted entries to be deleted in the background.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:committed;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "posting.timeline.push-follower-threshold=0",
+        "posting.cold-segments.enabled=true",
+        "posting.cold-segments.directory=target/cold-segments",
+        "posting.cold-segments.publish-grace-millis=0"})
+public class UnfollowTest {
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private TimelineStrategy timelineStrategy;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Before
+    public void setUp() {
+        timelineStrategy.setPushFollowerThreshold(1000);
+    }
+
+    @After
+    public void cleanUp() {
+        timelineStrategy.setPushFollowerThreshold(0);
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "timeline_retraction", "user_block", "outbox_event",
+                "timeline_entry", "follows", "post", "user");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    public void testUnfollowRetractsPushedPosts() throws Exception {
+        //given
+        postingService.newPost("unfollower", "Hello");
+        postingService.newPost("unfollowed", "First");
+        postingService.follow("unfollower", "unfollowed");
+        postingService.newPost("unfollowed", "Second");
+        postingService.newPost("unfollowed", "Third");
+        Await.until(() -> postingService.getCompleteTimeline("unfollower").size() == 3);
+
+        //when
+        postingService.unfollow("unfollower", "unfollowed");
+        List<PostDto> timeline = postingService.getCompleteTimeline("unfollower");
+
+        //then
+        assertThat(timeline).isEmpty();
+        Await.until(() -> JdbcTestUtils.countRowsInTable(jdbcTemplate, "timeline_retraction") == 0);
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "timeline_entry")).isZero();
+    }
+
+    @Test
+    public void testFollowingAgainRestoresPushedPosts() throws Exception {
+        //given
+        postingService.newPost("refollower", "Hello");
+        postingService.newPost("refollowed", "First");
+        postingService.follow("refollower", "refollowed");
+        postingService.unfollow("refollower", "refollowed");
+
+        //when
+        postingService.follow("refollower", "refollowed");
+        postingService.newPost("refollowed", "Second");
+        Await.until(() -> postingService.getCompleteTimeline("refollower").size() == 2);
+
+        //then
+        assertThat(postingService.getCompleteTimeline("refollower"))
+                .extracting(PostDto::getContent)
+                .containsExactly("Second", "First");
+        assertThat(JdbcTestUtils.countRowsInTable(jdbcTemplate, "timeline_retraction")).isZero();
+    }
+
+    @Test
+    public void testBlockedUserCantFollow() {
+        //given
+        postingService.newPost("blocker", "Go away");
+        postingService.newPost("blocked", "Hello");
+        postingService.follow("blocked", "blocker");
+
+        //when
+        postingService.block("blocker", "blocked");
+        Throwable thrown = catchThrowable(() -> postingService.follow("blocked", "blocker"));
+
+        //then
+        assertThat(thrown)
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Can't follow [blocker], who blocked you");
+        assertThat(postingService.getCompleteTimeline("blocked")).isEmpty();
+        postingService.unblock("blocker", "blocked");
+        postingService.follow("blocked", "blocker");
+        assertThat(postingService.getCompleteTimeline("blocked"))
+                .extracting(PostDto::getContent)
+                .containsExactly("Go away");
+    }
+}
\ No newline at end of file
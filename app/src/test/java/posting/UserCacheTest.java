@@ -0,0 +1,119 @@
+package posting;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import posting.domain.model.PostDto;
+import posting.domain.service.PostingService;
+import posting.persistence.entity.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Users only reach the second-level cache once the transaction that created them commits, so unlike
+ * {@link ApplicationTest} these tests let every request commit. They keep the default push threshold, so posts are
+ * fanned out to timelines as they are in production, in a database of their own.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:pushed;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+public class UserCacheTest {
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @After
+    public void cleanUp() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "outbox_event", "timeline_entry", "follows", "post", "user");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    public void testExistingUsersAreLookedUpFromCache() {
+        //given
+        String username = "cachedLookupUser";
+        postingService.newPost(username, "post content 1");
+        double hits = naturalIdCacheRequests("hit");
+
+        //when
+        postingService.newPost(username, "post content 2");
+        postingService.newPost(username, "post content 3");
+        List<PostDto> wall = postingService.getWall(username, 0, 10);
+
+        //then
+        assertThat(naturalIdCacheRequests("hit")).isGreaterThanOrEqualTo(hits + 2);
+        assertThat(wall)
+                .extracting(PostDto::getContent)
+                .containsExactly("post content 3", "post content 2", "post content 1");
+    }
+
+    @Test
+    public void testCreatedUserIsVisibleAfterCachedMiss() {
+        //given
+        String username = "lateUser";
+        String followingUsername = "earlyUser";
+        postingService.newPost(followingUsername, "post content");
+
+        //when
+        postingService.newPost(username, "late post content");
+        postingService.follow(followingUsername, username);
+
+        //then
+        assertThat(postingService.getTimeline(followingUsername, 0, 10))
+                .extracting(PostDto::getContent)
+                .containsExactly("late post content");
+    }
+
+    @Test
+    public void testCachedUsersSurvivePostFanOut() throws InterruptedException {
+        //given
+        String username = "fanOutUser";
+        String followerUsername = "fanOutFollower";
+        postingService.newPost(username, "post content 1");
+        postingService.newPost(followerUsername, "follower post content");
+        postingService.follow(followerUsername, username);
+        postingService.getWall(username, 0, 10);
+        postingService.getWall(followerUsername, 0, 10);
+
+        //when
+        postingService.newPost(username, "post content 2");
+        awaitTimelineEntries(2);
+
+        //then
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        assertThat(cache.containsEntity(User.class, userId(username))).isTrue();
+        assertThat(cache.containsEntity(User.class, userId(followerUsername))).isTrue();
+    }
+
+    private void awaitTimelineEntries(int entries) throws InterruptedException {
+        assertThat(Await.until(() -> JdbcTestUtils.countRowsInTable(jdbcTemplate, "timeline_entry"),
+                count -> count >= entries)).isEqualTo(entries);
+    }
+
+    private long userId(String username) {
+        return jdbcTemplate.queryForObject("select id from user where username = ?", Long.class, username);
+    }
+
+    private double naturalIdCacheRequests(String result) {
+        return meterRegistry.get("hibernate.cache.natural.id.requests").tag("result", result).functionCounter().count();
+    }
+}
\ No newline at end of file
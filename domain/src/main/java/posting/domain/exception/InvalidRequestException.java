@@ -3,6 +3,6 @@ package posting.domain.exception;
 public class InvalidRequestException extends RuntimeException {
 
     public InvalidRequestException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
\ No newline at end of file
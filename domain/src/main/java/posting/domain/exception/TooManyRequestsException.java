@@ -0,0 +1,8 @@
+package posting.domain.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message, null, false, false);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package posting.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A user worth following, followed by {@code followedBy} of the users the requesting user follows.
+ */
+public final class FollowSuggestion {
+
+    private final String username;
+    private final int followedBy;
+
+    @JsonCreator
+    public FollowSuggestion(@JsonProperty("username") String username, @JsonProperty("followedBy") int followedBy) {
+        this.username = username;
+        this.followedBy = followedBy;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getFollowedBy() {
+        return followedBy;
+    }
+}
\ No newline at end of file
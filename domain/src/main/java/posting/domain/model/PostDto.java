@@ -7,17 +7,34 @@ import java.time.LocalDateTime;
 
 public final class PostDto {
 
+    private final Long id;
     private final String username;
     private final String content;
     private final LocalDateTime createdDate;
+    private final long likes;
+    private final long reposts;
+
+    public PostDto(Long id, String username, String content, LocalDateTime createdDate) {
+        this(id, username, content, createdDate, 0, 0);
+    }
 
     @JsonCreator
-    public PostDto(@JsonProperty("username") String username,
+    public PostDto(@JsonProperty("id") Long id,
+                   @JsonProperty("username") String username,
                    @JsonProperty("content") String content,
-                   @JsonProperty("createdDate") LocalDateTime createdDate) {
+                   @JsonProperty("createdDate") LocalDateTime createdDate,
+                   @JsonProperty("likes") long likes,
+                   @JsonProperty("reposts") long reposts) {
+        this.id = id;
         this.username = username;
         this.content = content;
         this.createdDate = createdDate;
+        this.likes = likes;
+        this.reposts = reposts;
+    }
+
+    public Long getId() {
+        return id;
     }
 
     public String getUsername() {
@@ -31,4 +48,16 @@ public final class PostDto {
     public LocalDateTime getCreatedDate() {
         return createdDate;
     }
+
+    public long getLikes() {
+        return likes;
+    }
+
+    public long getReposts() {
+        return reposts;
+    }
+
+    public PostDto withCounts(long likes, long reposts) {
+        return new PostDto(id, username, content, createdDate, likes, reposts);
+    }
 }
\ No newline at end of file
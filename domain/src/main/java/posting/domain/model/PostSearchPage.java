@@ -0,0 +1,27 @@
+package posting.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public final class PostSearchPage {
+
+    private final List<PostDto> posts;
+    private final String nextCursor;
+
+    @JsonCreator
+    public PostSearchPage(@JsonProperty("posts") List<PostDto> posts,
+                          @JsonProperty("nextCursor") String nextCursor) {
+        this.posts = posts;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PostDto> getPosts() {
+        return posts;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
\ No newline at end of file
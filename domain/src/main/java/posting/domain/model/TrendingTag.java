@@ -0,0 +1,24 @@
+package posting.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public final class TrendingTag {
+
+    private final String tag;
+    private final long count;
+
+    @JsonCreator
+    public TrendingTag(@JsonProperty("tag") String tag, @JsonProperty("count") long count) {
+        this.tag = tag;
+        this.count = count;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
\ No newline at end of file
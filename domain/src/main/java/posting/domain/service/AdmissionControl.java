@@ -0,0 +1,8 @@
+package posting.domain.service;
+
+public interface AdmissionControl {
+
+    void admitRequest();
+
+    void admitPost(String username);
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package posting.domain.service;
+
+public interface EngagementService {
+
+    void like(String username, long postId);
+
+    void unlike(String username, long postId);
+
+    void repost(String username, long postId);
+
+    void unrepost(String username, long postId);
+}
\ No newline at end of file
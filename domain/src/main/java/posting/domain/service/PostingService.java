@@ -3,18 +3,41 @@ package posting.domain.service;
 import posting.domain.model.PostDto;
 
 import java.util.List;
+import java.util.Map;
 
 public interface PostingService {
 
     void newPost(String username, String postContent);
 
+    void editPost(String username, long postId, String postContent);
+
+    void deletePost(String username, long postId);
+
     void follow(String username, String followedUsername);
 
+    void unfollow(String username, String followedUsername);
+
+    void block(String username, String blockedUsername);
+
+    void unblock(String username, String blockedUsername);
+
     List<PostDto> getCompleteWall(String username);
 
     List<PostDto> getWall(String username, int page, int size);
 
+    List<PostDto> getWallSince(String username, long sincePostId, int size);
+
+    Map<String, List<PostDto>> getWalls(List<String> usernames, int size);
+
     List<PostDto> getCompleteTimeline(String username);
 
     List<PostDto> getTimeline(String username, int page, int size);
+
+    List<PostDto> getTimelineSince(String username, long sincePostId, int size);
+
+    String getWallTag(String username);
+
+    String getWallsTag(List<String> usernames);
+
+    String getTimelineTag(String username);
 }
\ No newline at end of file
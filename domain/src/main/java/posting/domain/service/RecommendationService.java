@@ -0,0 +1,10 @@
+package posting.domain.service;
+
+import posting.domain.model.FollowSuggestion;
+
+import java.util.List;
+
+public interface RecommendationService {
+
+    List<FollowSuggestion> getWhoToFollow(String username, int size);
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package posting.domain.service;
+
+import posting.domain.model.PostSearchPage;
+
+public interface SearchService {
+
+    PostSearchPage search(String query, String cursor, int size);
+}
\ No newline at end of file
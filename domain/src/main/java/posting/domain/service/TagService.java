@@ -0,0 +1,15 @@
+package posting.domain.service;
+
+import posting.domain.model.PostDto;
+import posting.domain.model.TrendingTag;
+
+import java.util.List;
+
+public interface TagService {
+
+    List<PostDto> getTagged(String tag, long beforePostId, int size);
+
+    List<PostDto> getMentions(String username, long beforePostId, int size);
+
+    List<TrendingTag> getTrending(int size);
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package posting.domain.service;
+
+import posting.domain.model.PostDto;
+
+public interface TimelineListener {
+
+    /**
+     * @return {@code false} if the listener can't keep up and should be unsubscribed
+     */
+    boolean onPost(PostDto post);
+}
\ No newline at end of file
@@ -0,0 +1,6 @@
+package posting.domain.service;
+
+public interface TimelineStreamService {
+
+    TimelineSubscription subscribe(String username, TimelineListener listener);
+}
\ No newline at end of file
@@ -0,0 +1,6 @@
+package posting.domain.service;
+
+public interface TimelineSubscription {
+
+    void cancel();
+}
\ No newline at end of file
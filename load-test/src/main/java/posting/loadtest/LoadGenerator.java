@@ -0,0 +1,153 @@
+package posting.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays the configured operation mix against the seeded users and records a latency histogram per operation.
+ * <p>
+ * Without a target rate every thread sends its next request as soon as the previous one completes. With a target
+ * rate requests are scheduled at fixed intervals and latency is measured from the scheduled rather than the actual
+ * start, so that a stalled server is charged for the requests it kept from being sent (coordinated omission).
+ * Requests scheduled during the warmup are executed but not recorded.
+ */
+class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int TOPICS = 100;
+
+    private final PostingApiClient client;
+    private final LoadTestSettings settings;
+    private final ZipfDistribution activity;
+    private final OperationMix mix;
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, ConcurrentMap<Integer, LongAdder>> errors = new EnumMap<>(Operation.class);
+
+    LoadGenerator(PostingApiClient client, LoadTestSettings settings, ZipfDistribution activity) {
+        this.client = client;
+        this.settings = settings;
+        this.activity = activity;
+        this.mix = new OperationMix(settings.getMix());
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3));
+            errors.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    Map<Operation, Histogram> getLatencies() {
+        return latencies;
+    }
+
+    Map<Operation, Map<Integer, Long>> getErrors() {
+        Map<Operation, Map<Integer, Long>> result = new EnumMap<>(Operation.class);
+        errors.forEach((operation, byStatus) -> {
+            Map<Integer, Long> counts = new TreeMap<>();
+            byStatus.forEach((status, count) -> counts.put(status, count.sum()));
+            result.put(operation, counts);
+        });
+        return result;
+    }
+
+    void run() throws Exception {
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(settings.getWarmupSeconds());
+        long end = measureStart + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds());
+
+        int threads = settings.getThreads();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                Random random = new Random(settings.getSeed() * 17 + thread);
+                futures.add(executor.submit(() -> generate(random, start, measureStart, end)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void generate(Random random, long start, long measureStart, long end) {
+        long intervalNanos = settings.getTargetRate() > 0
+                ? TimeUnit.SECONDS.toNanos(settings.getThreads()) / settings.getTargetRate()
+                : 0;
+        long intendedStart = start + (intervalNanos > 0 ? (long) (random.nextDouble() * intervalNanos) : 0);
+
+        while (intendedStart < end) {
+            if (intervalNanos > 0) {
+                sleepUntil(intendedStart);
+            } else {
+                intendedStart = System.nanoTime();
+            }
+
+            Operation operation = mix.next(random);
+            int status = execute(operation, random);
+            long latency = System.nanoTime() - intendedStart;
+
+            if (intendedStart >= measureStart) {
+                latencies.get(operation).recordValue(Math.min(latency, HIGHEST_TRACKABLE_NANOS));
+                if (status < 200 || status >= 400) {
+                    errors.get(operation).computeIfAbsent(status, s -> new LongAdder()).increment();
+                }
+            }
+
+            intendedStart = intervalNanos > 0 ? intendedStart + intervalNanos : System.nanoTime();
+        }
+    }
+
+    private int execute(Operation operation, Random random) {
+        int rank = activity.sample(random);
+        String username = Seeder.username(settings.getSeed(), rank);
+        switch (operation) {
+            case POST:
+                return client.post(username, "Load test post " + Long.toHexString(random.nextLong()) + " #"
+                        + topic(random));
+            case FOLLOW:
+                int followed = activity.sample(random);
+                if (followed == rank) {
+                    followed = (rank + 1) % settings.getUsers();
+                }
+                return client.follow(username, Seeder.username(settings.getSeed(), followed));
+            case WALL:
+                return client.getWall(username, settings.getPageSize());
+            case TIMELINE:
+                return client.getTimeline(username, settings.getPageSize());
+            case SEARCH:
+                return client.search(topic(random), settings.getPageSize());
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private static String topic(Random random) {
+        return "topic" + random.nextInt(TOPICS);
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package posting.loadtest;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seeds a power-law social graph through the posting API, replays a read/write mix against it and writes a JSON
+ * report. All settings are optional {@code --name=value} arguments, see {@link LoadTestSettings}.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = new LoadTestSettings(args);
+        PostingApiClient client = new PostingApiClient(settings.getBaseUrl());
+        ZipfDistribution popularity = new ZipfDistribution(settings.getUsers(), settings.getZipfExponent());
+
+        if (!client.awaitHealthy(TimeUnit.SECONDS.toMillis(settings.getStartupTimeoutSeconds()))) {
+            System.err.println("Application at " + settings.getBaseUrl() + " is not healthy");
+            System.exit(1);
+        }
+
+        System.out.println("Seeding " + settings.getUsers() + " users following " + settings.getFollowsPerUser()
+                + " users each");
+        int seedFailures = new Seeder(client, settings, popularity).seed();
+
+        System.out.println("Running for " + settings.getWarmupSeconds() + "s warmup and "
+                + settings.getDurationSeconds() + "s measurement with " + settings.getThreads() + " threads");
+        LoadGenerator generator = new LoadGenerator(client, settings, popularity);
+        generator.run();
+
+        File report = new File(settings.getReport());
+        new LoadTestReport(settings, seedFailures, generator).write(report);
+        System.out.println("Report written to " + report.getAbsolutePath());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package posting.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Machine readable summary of a run: the settings, then throughput, latency percentiles in milliseconds and error
+ * counts by HTTP status (-1 for connection failures), per operation and in total.
+ */
+class LoadTestReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<String, Object> report = new LinkedHashMap<>();
+
+    LoadTestReport(LoadTestSettings settings, int seedFailures, LoadGenerator generator) {
+        Map<String, Object> configuration = new LinkedHashMap<>();
+        configuration.put("baseUrl", settings.getBaseUrl());
+        configuration.put("users", settings.getUsers());
+        configuration.put("followsPerUser", settings.getFollowsPerUser());
+        configuration.put("zipfExponent", settings.getZipfExponent());
+        configuration.put("threads", settings.getThreads());
+        configuration.put("warmupSeconds", settings.getWarmupSeconds());
+        configuration.put("durationSeconds", settings.getDurationSeconds());
+        configuration.put("targetRate", settings.getTargetRate());
+        configuration.put("pageSize", settings.getPageSize());
+        configuration.put("seed", settings.getSeed());
+        configuration.put("mix", settings.getMix());
+        report.put("settings", configuration);
+        report.put("seedFailures", seedFailures);
+
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        Map<Operation, Map<Integer, Long>> errors = generator.getErrors();
+        for (Map.Entry<Operation, Histogram> entry : generator.getLatencies().entrySet()) {
+            Histogram latencies = entry.getValue();
+            Map<Integer, Long> operationErrors = errors.get(entry.getKey());
+            long errorCount = operationErrors.values().stream().mapToLong(Long::longValue).sum();
+
+            Map<String, Object> summary = summarize(latencies, errorCount, settings.getDurationSeconds());
+            summary.put("errorsByStatus", operationErrors);
+            operations.put(entry.getKey().name().toLowerCase(), summary);
+
+            total.add(latencies);
+            totalErrors += errorCount;
+        }
+        report.put("total", summarize(total, totalErrors, settings.getDurationSeconds()));
+        report.put("operations", operations);
+    }
+
+    private static Map<String, Object> summarize(Histogram latencies, long errors, int durationSeconds) {
+        long requests = latencies.getTotalCount();
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", requests);
+        summary.put("errors", errors);
+        summary.put("errorRate", requests == 0 ? 0.0 : (double) errors / requests);
+        summary.put("throughputPerSecond", durationSeconds == 0 ? 0.0 : (double) requests / durationSeconds);
+        summary.put("p50Millis", latencies.getValueAtPercentile(50) / NANOS_PER_MILLI);
+        summary.put("p99Millis", latencies.getValueAtPercentile(99) / NANOS_PER_MILLI);
+        summary.put("p999Millis", latencies.getValueAtPercentile(99.9) / NANOS_PER_MILLI);
+        summary.put("maxMillis", latencies.getMaxValue() / NANOS_PER_MILLI);
+        return summary;
+    }
+
+    Map<String, Object> asMap() {
+        return report;
+    }
+
+    void write(File file) throws IOException {
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+    }
+}
\ No newline at end of file
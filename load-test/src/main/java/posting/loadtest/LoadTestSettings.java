@@ -0,0 +1,106 @@
+package posting.loadtest;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, read from {@code --name=value} command line arguments. Every setting has a default,
+ * so a run with no arguments is a complete, reproducible test against a locally running application.
+ */
+class LoadTestSettings {
+
+    private final String baseUrl;
+    private final int users;
+    private final int followsPerUser;
+    private final double zipfExponent;
+    private final int threads;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final int targetRate;
+    private final int startupTimeoutSeconds;
+    private final int pageSize;
+    private final long seed;
+    private final String report;
+    private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+    LoadTestSettings(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got [" + arg + "]");
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        baseUrl = values.getOrDefault("base-url", "http://localhost:9000/posting-service");
+        users = Integer.parseInt(values.getOrDefault("users", "1000"));
+        followsPerUser = Integer.parseInt(values.getOrDefault("follows-per-user", "20"));
+        zipfExponent = Double.parseDouble(values.getOrDefault("zipf-exponent", "1.1"));
+        threads = Integer.parseInt(values.getOrDefault("threads", "16"));
+        warmupSeconds = Integer.parseInt(values.getOrDefault("warmup-seconds", "10"));
+        durationSeconds = Integer.parseInt(values.getOrDefault("duration-seconds", "60"));
+        targetRate = Integer.parseInt(values.getOrDefault("target-rate", "0"));
+        startupTimeoutSeconds = Integer.parseInt(values.getOrDefault("startup-timeout-seconds", "120"));
+        pageSize = Integer.parseInt(values.getOrDefault("page-size", "20"));
+        seed = Long.parseLong(values.getOrDefault("seed", "42"));
+        report = values.getOrDefault("report", "load-test-report.json");
+        mix.put(Operation.POST, Integer.parseInt(values.getOrDefault("mix.post", "10")));
+        mix.put(Operation.FOLLOW, Integer.parseInt(values.getOrDefault("mix.follow", "2")));
+        mix.put(Operation.WALL, Integer.parseInt(values.getOrDefault("mix.wall", "28")));
+        mix.put(Operation.TIMELINE, Integer.parseInt(values.getOrDefault("mix.timeline", "60")));
+        mix.put(Operation.SEARCH, Integer.parseInt(values.getOrDefault("mix.search", "0")));
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getFollowsPerUser() {
+        return followsPerUser;
+    }
+
+    public double getZipfExponent() {
+        return zipfExponent;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public int getTargetRate() {
+        return targetRate;
+    }
+
+    public int getStartupTimeoutSeconds() {
+        return startupTimeoutSeconds;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getReport() {
+        return report;
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package posting.loadtest;
+
+enum Operation {
+
+    POST,
+    FOLLOW,
+    WALL,
+    TIMELINE,
+    SEARCH
+}
\ No newline at end of file
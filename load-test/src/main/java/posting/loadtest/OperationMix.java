@@ -0,0 +1,38 @@
+package posting.loadtest;
+
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Picks the next operation at random, each one with a probability proportional to its weight.
+ */
+class OperationMix {
+
+    private final Operation[] operations = Operation.values();
+    private final int[] cumulativeWeights = new int[operations.length];
+
+    OperationMix(Map<Operation, Integer> weights) {
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            int weight = weights.getOrDefault(operations[i], 0);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + operations[i] + " must not be negative");
+            }
+            sum += weight;
+            cumulativeWeights[i] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("At least one operation must have a positive weight");
+        }
+    }
+
+    Operation next(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
\ No newline at end of file
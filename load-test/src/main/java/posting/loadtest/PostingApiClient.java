@@ -0,0 +1,105 @@
+package posting.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal blocking client of the posting API. Responses are read fully and discarded so that connections are kept
+ * alive and reused between requests; only the status code is returned, or {@code -1} on connection failures.
+ */
+class PostingApiClient {
+
+    private static final int TIMEOUT_MILLIS = 10_000;
+
+    private final String baseUrl;
+
+    PostingApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    boolean awaitHealthy(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (execute("GET", "/actuator/health", null) != 200) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(500);
+        }
+        return true;
+    }
+
+    int post(String username, String content) {
+        String body = "{\"post\":\"" + content + "\"}";
+
+        return execute("POST", "/users/" + encode(username) + "/post", body);
+    }
+
+    int follow(String username, String followedUsername) {
+        return execute("PUT", "/users/" + encode(username) + "/follow?followedUserName=" + encode(followedUsername),
+                null);
+    }
+
+    int getWall(String username, int size) {
+        return execute("GET", "/users/" + encode(username) + "/wall?page=0&size=" + size, null);
+    }
+
+    int getTimeline(String username, int size) {
+        return execute("GET", "/users/" + encode(username) + "/timeline?page=0&size=" + size, null);
+    }
+
+    int search(String query, int size) {
+        return execute("GET", "/search?q=" + encode(query) + "&size=" + size, null);
+    }
+
+    private int execute(String method, String path, String body) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(TIMEOUT_MILLIS);
+            connection.setReadTimeout(TIMEOUT_MILLIS);
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream output = connection.getOutputStream()) {
+                    output.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+
+            int status = connection.getResponseCode();
+            drain(status < 400 ? connection.getInputStream() : connection.getErrorStream());
+
+            return status;
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.disconnect();
+            }
+            return -1;
+        }
+    }
+
+    private static void drain(InputStream input) throws IOException {
+        if (input == null) {
+            return;
+        }
+        try (InputStream stream = input) {
+            byte[] buffer = new byte[8192];
+            while (stream.read(buffer) != -1) {
+                // discard
+            }
+        }
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
\ No newline at end of file
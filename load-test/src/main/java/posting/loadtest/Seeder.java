@@ -0,0 +1,101 @@
+package posting.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the users of a run with one post each and makes every user follow {@code followsPerUser} distinct others
+ * drawn from a Zipf distribution, which gives the few top ranked users most of the followers.
+ */
+class Seeder {
+
+    private final PostingApiClient client;
+    private final LoadTestSettings settings;
+    private final ZipfDistribution popularity;
+
+    Seeder(PostingApiClient client, LoadTestSettings settings, ZipfDistribution popularity) {
+        this.client = client;
+        this.settings = settings;
+        this.popularity = popularity;
+    }
+
+    static String username(long seed, int rank) {
+        return "lt" + seed + "u" + rank;
+    }
+
+    int seed() throws Exception {
+        AtomicInteger failures = new AtomicInteger();
+        int threads = settings.getThreads();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int first = thread;
+                futures.add(executor.submit(() -> {
+                    for (int rank = first; rank < settings.getUsers(); rank += threads) {
+                        countFailure(client.post(username(settings.getSeed(), rank), "Hello from user " + rank),
+                                failures);
+                    }
+                }));
+            }
+            await(futures);
+
+            futures.clear();
+            for (int thread = 0; thread < threads; thread++) {
+                int first = thread;
+                futures.add(executor.submit(() -> {
+                    for (int rank = first; rank < settings.getUsers(); rank += threads) {
+                        Random random = new Random(settings.getSeed() * 31 + rank);
+                        for (int followed : followedRanks(rank, random)) {
+                            countFailure(client.follow(username(settings.getSeed(), rank),
+                                    username(settings.getSeed(), followed)), failures);
+                        }
+                    }
+                }));
+            }
+            await(futures);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return failures.get();
+    }
+
+    private Set<Integer> followedRanks(int rank, Random random) {
+        int follows = Math.min(settings.getFollowsPerUser(), settings.getUsers() - 1);
+        Set<Integer> followed = new HashSet<>();
+        for (int attempt = 0; followed.size() < follows && attempt < follows * 20; attempt++) {
+            int candidate = popularity.sample(random);
+            if (candidate != rank) {
+                followed.add(candidate);
+            }
+        }
+        // the tail of the distribution is rarely drawn, so dense graphs are completed uniformly
+        while (followed.size() < follows) {
+            int candidate = random.nextInt(settings.getUsers());
+            if (candidate != rank) {
+                followed.add(candidate);
+            }
+        }
+        return followed;
+    }
+
+    private static void countFailure(int status, AtomicInteger failures) {
+        if (status < 200 || status >= 300) {
+            failures.incrementAndGet();
+        }
+    }
+
+    private static void await(List<Future<?>> futures) throws Exception {
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package posting.loadtest;
+
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ZipfDistributionTest {
+
+    @Test
+    public void testLowRanksAreSampledMostOften() {
+        ZipfDistribution distribution = new ZipfDistribution(1000, 1.1);
+        Random random = new Random(42);
+
+        int[] counts = new int[1000];
+        for (int i = 0; i < 100_000; i++) {
+            counts[distribution.sample(random)]++;
+        }
+
+        assertThat(counts[0]).isGreaterThan(counts[1]);
+        assertThat(counts[1]).isGreaterThan(counts[10]);
+        int topTen = 0;
+        for (int rank = 0; rank < 10; rank++) {
+            topTen += counts[rank];
+        }
+        assertThat(topTen).isGreaterThan(30_000);
+    }
+
+    @Test
+    public void testSamplesStayInRange() {
+        ZipfDistribution distribution = new ZipfDistribution(3, 0.5);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(distribution.sample(random)).isBetween(0, 2);
+        }
+    }
+
+    @Test
+    public void testOperationMixRespectsWeights() {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        weights.put(Operation.POST, 1);
+        weights.put(Operation.TIMELINE, 3);
+        OperationMix mix = new OperationMix(weights);
+        Random random = new Random(42);
+
+        Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+        for (int i = 0; i < 40_000; i++) {
+            counts.merge(mix.next(random), 1, Integer::sum);
+        }
+
+        assertThat(counts).containsOnlyKeys(Operation.POST, Operation.TIMELINE);
+        assertThat(counts.get(Operation.POST)).isBetween(9_000, 11_000);
+    }
+}
\ No newline at end of file
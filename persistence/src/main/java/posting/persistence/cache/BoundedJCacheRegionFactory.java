@@ -0,0 +1,69 @@
+package posting.persistence.cache;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.JCacheRegionFactory;
+import org.hibernate.cache.spi.CacheDataDescription;
+import org.hibernate.cache.spi.UpdateTimestampsCache;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * JCache region factory backed by local Ehcache heap caches with bounded size and time to live, which the plain
+ * JCache configuration can't express. Entity and natural id regions hold up to {@link #MAX_ENTRIES} entries and query
+ * result regions up to {@link #QUERY_MAX_ENTRIES}, both expiring after {@link #TIME_TO_LIVE_SECONDS}. The update
+ * timestamps region, which query results are validated against, never expires.
+ * <p>
+ * Every factory gets its own cache manager, so that session factories sharing a class loader (such as several test
+ * application contexts) don't see each other's entries or close each other's caches.
+ */
+public class BoundedJCacheRegionFactory extends JCacheRegionFactory {
+
+    public static final String MAX_ENTRIES = "posting.cache.max_entries";
+    public static final String QUERY_MAX_ENTRIES = "posting.cache.query_max_entries";
+    public static final String TIME_TO_LIVE_SECONDS = "posting.cache.time_to_live_seconds";
+
+    private static final long TIMESTAMPS_MAX_ENTRIES = 1000;
+
+    @Override
+    protected CacheManager getCacheManager(Properties properties) {
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+
+        return provider.getCacheManager(URI.create("urn:posting:hibernate:" + UUID.randomUUID()),
+                new DefaultConfiguration(provider.getDefaultClassLoader()));
+    }
+
+    @Override
+    protected Cache<Object, Object> createCache(String regionName, Properties properties,
+                                                CacheDataDescription metadata) {
+        CacheConfigurationBuilder<Object, Object> configuration;
+        if (regionName.endsWith(UpdateTimestampsCache.REGION_NAME)) {
+            configuration = CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                    ResourcePoolsBuilder.heap(TIMESTAMPS_MAX_ENTRIES));
+        } else {
+            // only query result regions come without a description of the cached data
+            long maxEntries = metadata != null
+                    ? ConfigurationHelper.getLong(MAX_ENTRIES, properties, 10_000)
+                    : ConfigurationHelper.getLong(QUERY_MAX_ENTRIES, properties, 10_000);
+            long timeToLiveSeconds = ConfigurationHelper.getLong(TIME_TO_LIVE_SECONDS, properties, 600);
+            configuration = CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                    ResourcePoolsBuilder.heap(maxEntries))
+                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds)));
+        }
+
+        return getCacheManager().createCache(regionName,
+                Eh107Configuration.fromEhcacheCacheConfiguration(configuration));
+    }
+}
\ No newline at end of file
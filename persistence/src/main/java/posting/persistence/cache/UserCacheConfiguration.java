@@ -0,0 +1,49 @@
+package posting.persistence.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jpa.HibernateMetrics;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+
+/**
+ * Configures Hibernate's second-level and query caches, used for users looked up by their natural id, and exposes
+ * Hibernate statistics (cache hits, misses and puts by region among others) as {@code hibernate.*} metrics.
+ * Cached query results are invalidated by Hibernate whenever a user is created.
+ */
+@Configuration
+public class UserCacheConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer userCacheHibernateProperties(UserCacheProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, properties.isEnabled());
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE,
+                    properties.isEnabled() && properties.isQueryCache());
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, properties.isStatistics());
+            if (properties.isEnabled()) {
+                hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY,
+                        BoundedJCacheRegionFactory.class.getName());
+                hibernateProperties.put(BoundedJCacheRegionFactory.MAX_ENTRIES,
+                        String.valueOf(properties.getMaxEntries()));
+                hibernateProperties.put(BoundedJCacheRegionFactory.QUERY_MAX_ENTRIES,
+                        String.valueOf(properties.getQueryMaxEntries()));
+                hibernateProperties.put(BoundedJCacheRegionFactory.TIME_TO_LIVE_SECONDS,
+                        String.valueOf(properties.getTimeToLiveSeconds()));
+            }
+        };
+    }
+
+    @Bean
+    public HibernateMetrics hibernateMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        HibernateMetrics hibernateMetrics = new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class),
+                "entityManagerFactory", Collections.emptyList());
+        hibernateMetrics.bindTo(meterRegistry);
+        return hibernateMetrics;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package posting.persistence.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Version;
+import java.time.LocalDateTime;
+
+/**
+ * The edit or deletion of a post that may already be compacted into a segment, which can't be changed in place.
+ * Reads of the segments apply the change, until the segment is rewritten with it; the version tells whether the post
+ * was changed again since a rewrite started.
+ */
+@Entity
+public class ColdPostChange {
+
+    @Id
+    private Long postId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "userId")
+    private User user;
+
+    @Column(nullable = false)
+    private LocalDateTime createdDate;
+
+    @Column(nullable = false)
+    private String content;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Version
+    private Integer version;
+
+    public static ColdPostChange of(Post post) {
+        ColdPostChange change = new ColdPostChange();
+        change.setPostId(post.getId());
+        change.setUser(post.getUser());
+        change.setCreatedDate(post.getCreatedDate());
+        change.setContent(post.getContent());
+        change.setDeleted(post.isDeleted());
+
+        return change;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(LocalDateTime createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
\ No newline at end of file
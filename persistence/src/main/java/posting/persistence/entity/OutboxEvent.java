@@ -0,0 +1,131 @@
+package posting.persistence.entity;
+
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * A committed write waiting to be applied. Events are partitioned by author into a fixed number of partitions, the
+ * same on every instance whatever its number of workers, so each author's events are applied in order by whoever
+ * holds the partition's {@link OutboxPartition} lease. Processed events are kept for a while, so that every instance
+ * can apply them to its own in-memory state too.
+ */
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Table(indexes = @Index(name = "outbox_event_partition_idx", columnList = "partitionNumber, processed, id"))
+public class OutboxEvent {
+
+    public static final int PARTITIONS = 16;
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType type;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long postId;
+
+    @Column(nullable = false)
+    private int partitionNumber;
+
+    @Column(nullable = false)
+    private boolean processed;
+
+    @Column(nullable = false)
+    @CreatedDate
+    private LocalDateTime createdDate;
+
+    public static OutboxEvent postCreated(Post post) {
+        return of(OutboxEventType.POST_CREATED, post);
+    }
+
+    public static OutboxEvent postEdited(Post post) {
+        return of(OutboxEventType.POST_EDITED, post);
+    }
+
+    public static OutboxEvent postDeleted(Post post) {
+        return of(OutboxEventType.POST_DELETED, post);
+    }
+
+    private static OutboxEvent of(OutboxEventType type, Post post) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setUserId(post.getUser().getId());
+        event.setPostId(post.getId());
+        event.setPartitionNumber((int) Math.floorMod(post.getUser().getId(), (long) PARTITIONS));
+
+        return event;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public OutboxEventType getType() {
+        return type;
+    }
+
+    public void setType(OutboxEventType type) {
+        this.type = type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public int getPartitionNumber() {
+        return partitionNumber;
+    }
+
+    public void setPartitionNumber(int partitionNumber) {
+        this.partitionNumber = partitionNumber;
+    }
+
+    public boolean isProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(boolean processed) {
+        this.processed = processed;
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(LocalDateTime createdDate) {
+        this.createdDate = createdDate;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package posting.persistence.entity;
+
+public enum OutboxEventType {
+
+    POST_CREATED,
+    POST_EDITED,
+    POST_DELETED
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package posting.persistence.entity;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+/**
+ * The lease of an outbox partition. Only the instance holding an unexpired lease processes the partition's events, so
+ * instances never process the same events at the same time.
+ */
+@Entity
+public class OutboxPartition {
+
+    @Id
+    private Integer partitionNumber;
+
+    private String owner;
+
+    private LocalDateTime leaseUntil;
+
+    public static OutboxPartition of(int partitionNumber) {
+        OutboxPartition partition = new OutboxPartition();
+        partition.setPartitionNumber(partitionNumber);
+
+        return partition;
+    }
+
+    public Integer getPartitionNumber() {
+        return partitionNumber;
+    }
+
+    public void setPartitionNumber(Integer partitionNumber) {
+        this.partitionNumber = partitionNumber;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public LocalDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(LocalDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+}
\ No newline at end of file
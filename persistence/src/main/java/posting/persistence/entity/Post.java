@@ -9,14 +9,25 @@ import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
 
+/**
+ * A post. Deleting a post only marks it as deleted, so that the entries fanned out to followers' timelines don't have
+ * to be deleted with it; reads skip deleted posts, and their rows are removed later in the background.
+ */
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+@Table(indexes = {
+        @Index(name = "post_user_id_idx", columnList = "userId, id"),
+        @Index(name = "post_user_pushed_idx", columnList = "userId, pushed, createdDate"),
+        @Index(name = "post_deleted_idx", columnList = "deleted"),
+        @Index(name = "post_created_date_idx", columnList = "createdDate")})
 public class Post {
 
     @Id
@@ -36,6 +47,12 @@ public class Post {
     @JoinColumn(name = "userId")
     private User user;
 
+    @Column(nullable = false)
+    private boolean pushed;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
     public Long getId() {
         return id;
     }
@@ -67,4 +84,20 @@ public class Post {
     public void setUser(User user) {
         this.user = user;
     }
+
+    public boolean isPushed() {
+        return pushed;
+    }
+
+    public void setPushed(boolean pushed) {
+        this.pushed = pushed;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
 }
\ No newline at end of file
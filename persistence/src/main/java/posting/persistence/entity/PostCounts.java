@@ -0,0 +1,56 @@
+package posting.persistence.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * How often a post was liked and reposted. Rows are only written in batches of {@link PostCountsChange}s, see
+ * {@link posting.persistence.repository.PostCountsRepositoryCustom}, and like {@link PostReaction} outlive the
+ * post's row.
+ */
+@Entity
+public class PostCounts {
+
+    @Id
+    private Long postId;
+
+    @Column(nullable = false)
+    private long likes;
+
+    @Column(nullable = false)
+    private long reposts;
+
+    public static PostCounts of(long postId, long likes, long reposts) {
+        PostCounts counts = new PostCounts();
+        counts.setPostId(postId);
+        counts.setLikes(likes);
+        counts.setReposts(reposts);
+
+        return counts;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public long getLikes() {
+        return likes;
+    }
+
+    public void setLikes(long likes) {
+        this.likes = likes;
+    }
+
+    public long getReposts() {
+        return reposts;
+    }
+
+    public void setReposts(long reposts) {
+        this.reposts = reposts;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package posting.persistence.entity;
+
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+/**
+ * A like or repost, or one taken back, that is not added to the post's {@link PostCounts} yet. Saved along with the
+ * {@link PostReaction} and deleted in the transaction adding it to the counts, so a change is counted exactly once
+ * even if the instance that counted it in memory stops before flushing it.
+ */
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+public class PostCountsChange {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Column(nullable = false)
+    private Long postId;
+
+    @Column(nullable = false)
+    private int likes;
+
+    @Column(nullable = false)
+    private int reposts;
+
+    @Column(nullable = false)
+    @CreatedDate
+    private LocalDateTime createdDate;
+
+    public static PostCountsChange of(long postId, ReactionType type, int delta) {
+        PostCountsChange change = new PostCountsChange();
+        change.setPostId(postId);
+        change.setLikes(type == ReactionType.LIKE ? delta : 0);
+        change.setReposts(type == ReactionType.REPOST ? delta : 0);
+
+        return change;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public int getLikes() {
+        return likes;
+    }
+
+    public void setLikes(int likes) {
+        this.likes = likes;
+    }
+
+    public int getReposts() {
+        return reposts;
+    }
+
+    public void setReposts(int reposts) {
+        this.reposts = reposts;
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(LocalDateTime createdDate) {
+        this.createdDate = createdDate;
+    }
+}
\ No newline at end of file
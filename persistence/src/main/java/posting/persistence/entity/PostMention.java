@@ -0,0 +1,104 @@
+package posting.persistence.entity;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A mention of a user in a post. Like {@link PostTag}, it only holds ids, so it outlives the post's row.
+ */
+@Entity
+@IdClass(PostMention.Key.class)
+@Table(indexes = @Index(name = "post_mention_username_post_idx", columnList = "username, postId desc"))
+public class PostMention implements Persistable<PostMention.Key> {
+
+    @Id
+    private String username;
+
+    @Id
+    private Long postId;
+
+    @Column(nullable = false)
+    private Long authorId;
+
+    public static PostMention of(String username, Post post) {
+        PostMention postMention = new PostMention();
+        postMention.setUsername(username);
+        postMention.setPostId(post.getId());
+        postMention.setAuthorId(post.getUser().getId());
+
+        return postMention;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    @Override
+    public Key getId() {
+        Key key = new Key();
+        key.username = username;
+        key.postId = postId;
+
+        return key;
+    }
+
+    /**
+     * Mentions are only ever inserted, so saving one never needs to look it up first.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    public static class Key implements Serializable {
+
+        private String username;
+        private Long postId;
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+
+            return Objects.equals(username, key.username) && Objects.equals(postId, key.postId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(username, postId);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package posting.persistence.entity;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A like or repost of a post by a user, which a user can only do once per post. Like {@link PostTag}, rows only hold
+ * ids, so they outlive the post's row when it is compacted into a segment.
+ */
+@Entity
+@IdClass(PostReaction.Key.class)
+public class PostReaction implements Persistable<PostReaction.Key> {
+
+    @Id
+    private Long postId;
+
+    @Id
+    private Long userId;
+
+    @Id
+    @Column(length = 16)
+    @Enumerated(EnumType.STRING)
+    private ReactionType type;
+
+    public static PostReaction of(long postId, User user, ReactionType type) {
+        PostReaction reaction = new PostReaction();
+        reaction.setPostId(postId);
+        reaction.setUserId(user.getId());
+        reaction.setType(type);
+
+        return reaction;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public ReactionType getType() {
+        return type;
+    }
+
+    public void setType(ReactionType type) {
+        this.type = type;
+    }
+
+    @Override
+    public Key getId() {
+        return Key.of(postId, userId, type);
+    }
+
+    /**
+     * Reactions are only saved after checking that there is none yet, so saving one never needs to look it up.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    public static class Key implements Serializable {
+
+        private Long postId;
+        private Long userId;
+        private ReactionType type;
+
+        public static Key of(Long postId, Long userId, ReactionType type) {
+            Key key = new Key();
+            key.postId = postId;
+            key.userId = userId;
+            key.type = type;
+
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+
+            return Objects.equals(postId, key.postId) && Objects.equals(userId, key.userId) && type == key.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(postId, userId, type);
+        }
+    }
+}
\ No newline at end of file
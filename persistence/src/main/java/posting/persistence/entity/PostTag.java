@@ -0,0 +1,106 @@
+package posting.persistence.entity;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A hashtag of a post. Rows only hold ids, not a reference to the post, so they outlive the post's row when it is
+ * compacted into a segment; the author is kept to find the post there.
+ */
+@Entity
+@IdClass(PostTag.Key.class)
+@Table(indexes = @Index(name = "post_tag_tag_post_idx", columnList = "tag, postId desc"))
+public class PostTag implements Persistable<PostTag.Key> {
+
+    @Id
+    @Column(length = 140)
+    private String tag;
+
+    @Id
+    private Long postId;
+
+    @Column(nullable = false)
+    private Long authorId;
+
+    public static PostTag of(String tag, Post post) {
+        PostTag postTag = new PostTag();
+        postTag.setTag(tag);
+        postTag.setPostId(post.getId());
+        postTag.setAuthorId(post.getUser().getId());
+
+        return postTag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    @Override
+    public Key getId() {
+        Key key = new Key();
+        key.tag = tag;
+        key.postId = postId;
+
+        return key;
+    }
+
+    /**
+     * Tags are only ever inserted, so saving one never needs to look it up first.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    public static class Key implements Serializable {
+
+        private String tag;
+        private Long postId;
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+
+            return Objects.equals(tag, key.tag) && Objects.equals(postId, key.postId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tag, postId);
+        }
+    }
+}
\ No newline at end of file
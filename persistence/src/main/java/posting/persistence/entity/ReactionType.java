@@ -0,0 +1,7 @@
+package posting.persistence.entity;
+
+public enum ReactionType {
+
+    LIKE,
+    REPOST
+}
\ No newline at end of file
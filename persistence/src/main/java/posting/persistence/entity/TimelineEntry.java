@@ -0,0 +1,68 @@
+package posting.persistence.entity;
+
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A post pushed into the timeline of one of its author's followers.
+ */
+@Entity
+@IdClass(TimelineEntry.Key.class)
+public class TimelineEntry {
+
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "userId")
+    private User user;
+
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "postId")
+    private Post post;
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Post getPost() {
+        return post;
+    }
+
+    public void setPost(Post post) {
+        this.post = post;
+    }
+
+    public static class Key implements Serializable {
+
+        private Long user;
+        private Long post;
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+
+            return Objects.equals(user, key.user) && Objects.equals(post, key.post);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(user, post);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package posting.persistence.entity;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Posts of an author that are to be removed from the timeline of a user who stopped following them. Timeline reads
+ * skip those posts right away; the {@link TimelineEntry} rows are deleted in the background.
+ */
+@Entity
+@IdClass(TimelineRetraction.Key.class)
+public class TimelineRetraction {
+
+    @Id
+    private Long userId;
+
+    @Id
+    private Long authorId;
+
+    public static TimelineRetraction of(User user, User author) {
+        TimelineRetraction retraction = new TimelineRetraction();
+        retraction.setUserId(user.getId());
+        retraction.setAuthorId(author.getId());
+
+        return retraction;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    public static class Key implements Serializable {
+
+        private Long userId;
+        private Long authorId;
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+
+            return Objects.equals(userId, key.userId) && Objects.equals(authorId, key.authorId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, authorId);
+        }
+    }
+}
\ No newline at end of file
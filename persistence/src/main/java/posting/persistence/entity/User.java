@@ -1,10 +1,17 @@
 package posting.persistence.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
@@ -13,12 +20,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class User {
 
     @Id
     @GeneratedValue
     private Long id;
 
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String username;
 
@@ -28,9 +39,30 @@ public class User {
     @ManyToMany(cascade = {CascadeType.ALL})
     @JoinTable(name = "Follows",
             joinColumns = {@JoinColumn(name = "user_id")},
-            inverseJoinColumns = {@JoinColumn(name = "followed_id")})
+            inverseJoinColumns = {@JoinColumn(name = "followed_id")},
+            indexes = {@Index(name = "follows_user_followed_idx", columnList = "user_id, followed_id")})
     private List<User> followed = new ArrayList<>();
 
+    /**
+     * Incremented whenever the user's wall changes, by a statement in the changing transaction; never written
+     * through the entity, so that a cached user can't set it back.
+     */
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long wallVersion;
+
+    /**
+     * Incremented whenever the users the user follows change, like {@link #wallVersion}.
+     */
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long followVersion;
+
+    /**
+     * Incremented whenever likes or reposts of the user's posts are added to their stored counts, like
+     * {@link #wallVersion}.
+     */
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long countsVersion;
+
     public Long getId() {
         return id;
     }
@@ -62,4 +94,16 @@ public class User {
     public void setFollowed(List<User> followed) {
         this.followed = followed;
     }
+
+    public long getWallVersion() {
+        return wallVersion;
+    }
+
+    public long getFollowVersion() {
+        return followVersion;
+    }
+
+    public long getCountsVersion() {
+        return countsVersion;
+    }
 }
\ No newline at end of file
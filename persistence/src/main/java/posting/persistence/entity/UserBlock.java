@@ -0,0 +1,92 @@
+package posting.persistence.entity;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A user blocking another one, who can't follow them any more.
+ */
+@Entity
+@IdClass(UserBlock.Key.class)
+public class UserBlock implements Persistable<UserBlock.Key> {
+
+    @Id
+    private Long userId;
+
+    @Id
+    private Long blockedId;
+
+    public static UserBlock of(User user, User blocked) {
+        UserBlock block = new UserBlock();
+        block.setUserId(user.getId());
+        block.setBlockedId(blocked.getId());
+
+        return block;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getBlockedId() {
+        return blockedId;
+    }
+
+    public void setBlockedId(Long blockedId) {
+        this.blockedId = blockedId;
+    }
+
+    @Override
+    public Key getId() {
+        return Key.of(userId, blockedId);
+    }
+
+    /**
+     * Blocks are only saved after checking that there is none yet, so saving one never needs to look it up.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    public static class Key implements Serializable {
+
+        private Long userId;
+        private Long blockedId;
+
+        public static Key of(Long userId, Long blockedId) {
+            Key key = new Key();
+            key.userId = userId;
+            key.blockedId = blockedId;
+
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+
+            return Objects.equals(userId, key.userId) && Objects.equals(blockedId, key.blockedId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, blockedId);
+        }
+    }
+}
\ No newline at end of file
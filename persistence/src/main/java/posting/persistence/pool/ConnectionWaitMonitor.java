@@ -0,0 +1,63 @@
+package posting.persistence.pool;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tracks how long callers wait for a pooled connection, as an exponentially weighted moving average.
+ * The average decays towards zero while no connections are requested, so shedding load based on it
+ * can't lock the service out permanently.
+ */
+@Component
+public class ConnectionWaitMonitor implements BeanPostProcessor {
+
+    private static final double SMOOTHING_FACTOR = 0.2;
+    private static final double DECAY_PERIOD_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicReference<Average> average = new AtomicReference<>(new Average(0, System.nanoTime()));
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof TimedDataSource)) {
+            return new TimedDataSource((DataSource) bean, this);
+        }
+
+        return bean;
+    }
+
+    public long getAverageWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis((long) average.get().decayedAt(System.nanoTime()));
+    }
+
+    void recordWait(long waitNanos) {
+        long now = System.nanoTime();
+        Average current;
+        Average updated;
+        do {
+            current = average.get();
+            double decayed = current.decayedAt(now);
+            updated = new Average(decayed + SMOOTHING_FACTOR * (waitNanos - decayed), now);
+        } while (!average.compareAndSet(current, updated));
+    }
+
+    private static final class Average {
+
+        private final double valueNanos;
+        private final long sampledAtNanos;
+
+        private Average(double valueNanos, long sampledAtNanos) {
+            this.valueNanos = valueNanos;
+            this.sampledAtNanos = sampledAtNanos;
+        }
+
+        private double decayedAt(long nowNanos) {
+            long elapsed = Math.max(0, nowNanos - sampledAtNanos);
+
+            return valueNanos * Math.exp(-elapsed / DECAY_PERIOD_NANOS);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package posting.persistence.pool;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+class TimedDataSource extends DelegatingDataSource {
+
+    private final ConnectionWaitMonitor monitor;
+
+    TimedDataSource(DataSource targetDataSource, ConnectionWaitMonitor monitor) {
+        super(targetDataSource);
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return super.getConnection();
+        } finally {
+            monitor.recordWait(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return super.getConnection(username, password);
+        } finally {
+            monitor.recordWait(System.nanoTime() - start);
+        }
+    }
+}
\ No newline at end of file
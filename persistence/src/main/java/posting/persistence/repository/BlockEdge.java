@@ -0,0 +1,8 @@
+package posting.persistence.repository;
+
+public interface BlockEdge {
+
+    String getUsername();
+
+    String getBlockedUsername();
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package posting.persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import posting.persistence.entity.ColdPostChange;
+
+import java.util.List;
+
+public interface ColdPostChangeRepository extends JpaRepository<ColdPostChange, Long> {
+
+    @Query("select c from ColdPostChange c join fetch c.user")
+    List<ColdPostChange> findAllWithUser();
+
+    @Modifying
+    @Query("delete from ColdPostChange c " +
+            "where c.postId = :postId and c.version = :version")
+    int deleteByPostIdAndVersion(@Param("postId") long postId, @Param("version") int version);
+}
\ No newline at end of file
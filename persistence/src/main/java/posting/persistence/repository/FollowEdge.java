@@ -0,0 +1,8 @@
+package posting.persistence.repository;
+
+public interface FollowEdge {
+
+    String getFollowerUsername();
+
+    String getFollowedUsername();
+}
\ No newline at end of file
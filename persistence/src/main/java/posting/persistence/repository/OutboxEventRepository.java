@@ -0,0 +1,39 @@
+package posting.persistence.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import posting.persistence.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("select e from OutboxEvent e where e.partitionNumber = :partition and e.processed = false order by e.id")
+    List<OutboxEvent> findPendingInPartition(@Param("partition") int partition, Pageable pageRequest);
+
+    boolean existsByPartitionNumberAndProcessedFalse(int partitionNumber);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.processed = true where e.id in :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids);
+
+    @Query("select e from OutboxEvent e where e.id > :afterId order by e.id")
+    List<OutboxEvent> findAfter(@Param("afterId") long afterId, Pageable pageRequest);
+
+    @Query("select coalesce(max(e.id), 0) from OutboxEvent e where e.createdDate < :before")
+    long findMaxIdCreatedBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Transactional
+    @Query("delete from OutboxEvent e where e.processed = true and e.createdDate < :before")
+    int deleteProcessedCreatedBefore(@Param("before") LocalDateTime before);
+
+    @Query("select min(e.createdDate) from OutboxEvent e where e.processed = false")
+    LocalDateTime findOldestCreatedDate();
+}
\ No newline at end of file
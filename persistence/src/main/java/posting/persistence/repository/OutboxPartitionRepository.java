@@ -0,0 +1,31 @@
+package posting.persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import posting.persistence.entity.OutboxPartition;
+
+import java.time.LocalDateTime;
+
+public interface OutboxPartitionRepository extends JpaRepository<OutboxPartition, Integer> {
+
+    /**
+     * Takes or renews the lease of the partition, unless another owner holds an unexpired one. Returns 1 if the
+     * owner holds the lease until the given time.
+     */
+    @Modifying
+    @Transactional
+    @Query("update OutboxPartition p set p.owner = :owner, p.leaseUntil = :leaseUntil " +
+            "where p.partitionNumber = :partitionNumber " +
+            "and (p.owner is null or p.owner = :owner or p.leaseUntil < :now)")
+    int claim(@Param("partitionNumber") int partitionNumber, @Param("owner") String owner,
+              @Param("leaseUntil") LocalDateTime leaseUntil, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("update OutboxPartition p set p.owner = null, p.leaseUntil = null " +
+            "where p.partitionNumber = :partitionNumber and p.owner = :owner")
+    int release(@Param("partitionNumber") int partitionNumber, @Param("owner") String owner);
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package posting.persistence.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import posting.persistence.entity.PostCountsChange;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface PostCountsChangeRepository extends JpaRepository<PostCountsChange, Long> {
+
+    @Query("select c from PostCountsChange c where c.createdDate < :createdBefore order by c.id")
+    List<PostCountsChange> findCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore,
+                                             Pageable pageRequest);
+
+    @Modifying
+    @Query("delete from PostCountsChange c " +
+            "where c.postId in :postIds")
+    int deleteByPostIdIn(@Param("postIds") Collection<Long> postIds);
+}
\ No newline at end of file
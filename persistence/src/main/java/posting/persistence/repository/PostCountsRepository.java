@@ -0,0 +1,17 @@
+package posting.persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import posting.persistence.entity.PostCounts;
+
+import java.util.Collection;
+
+public interface PostCountsRepository extends JpaRepository<PostCounts, Long>, PostCountsRepositoryCustom {
+
+    @Modifying
+    @Query("delete from PostCounts c " +
+            "where c.postId in :postIds")
+    int deleteByPostIdIn(@Param("postIds") Collection<Long> postIds);
+}
\ No newline at end of file
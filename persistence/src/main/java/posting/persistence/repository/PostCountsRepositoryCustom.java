@@ -0,0 +1,14 @@
+package posting.persistence.repository;
+
+import posting.persistence.entity.PostCountsChange;
+
+import java.util.Collection;
+
+public interface PostCountsRepositoryCustom {
+
+    /**
+     * Deletes the given changes and adds those that were still stored to the counts of their posts, in one
+     * transaction, so that a change applied twice is only counted once. Returns the number of changes counted.
+     */
+    int applyAll(Collection<PostCountsChange> changes);
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package posting.persistence.repository;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import posting.persistence.entity.PostCountsChange;
+
+import javax.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies changes with one JDBC batch deleting them, one batch of updates, a third batch inserting the counts of
+ * posts that had none yet, and a fourth one incrementing the counts versions of the posts' authors, which the entity
+ * tags of their walls and their followers' timelines include, so a whole flush of counters costs four round trips
+ * however many posts it touches. Only the changes whose delete removed a row are counted, so changes that were applied
+ * already, e.g. when recovered by another instance, are skipped. The updates add to the stored counts rather than
+ * overwrite them, so they don't need to read them first.
+ */
+class PostCountsRepositoryImpl implements PostCountsRepositoryCustom {
+
+    private static final String DELETE_CHANGE = "delete from post_counts_change where id = ?";
+    private static final String UPDATE = "update post_counts set likes = likes + ?, reposts = reposts + ? " +
+            "where post_id = ?";
+    private static final String INSERT = "insert into post_counts (post_id, likes, reposts) values (?, ?, ?)";
+    private static final String INCREMENT_COUNTS_VERSION = "update user set counts_version = counts_version + 1 " +
+            "where id = (select user_id from post where id = ?)";
+
+    private final EntityManager entityManager;
+
+    PostCountsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public int applyAll(Collection<PostCountsChange> changes) {
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Map<Long, long[]> increments = deleteChanges(connection, changes);
+            int applied = 0;
+            for (long[] counts : increments.values()) {
+                applied += counts[2];
+            }
+            increments.values().removeIf(counts -> counts[0] == 0 && counts[1] == 0);
+            if (!increments.isEmpty()) {
+                addAll(connection, increments);
+                incrementCountsVersions(connection, increments.keySet());
+            }
+            return applied;
+        });
+    }
+
+    /**
+     * Deletes the changes, and returns the likes and reposts of those that were deleted per post, along with how
+     * many of them there were.
+     */
+    private static Map<Long, long[]> deleteChanges(Connection connection, Collection<PostCountsChange> changes)
+            throws SQLException {
+        Map<Long, long[]> increments = new LinkedHashMap<>();
+        try (PreparedStatement delete = connection.prepareStatement(DELETE_CHANGE)) {
+            for (PostCountsChange change : changes) {
+                delete.setLong(1, change.getId());
+                delete.addBatch();
+            }
+            int[] deleted = delete.executeBatch();
+            int i = 0;
+            for (PostCountsChange change : changes) {
+                if (deleted[i++] > 0) {
+                    long[] counts = increments.computeIfAbsent(change.getPostId(), id -> new long[3]);
+                    counts[0] += change.getLikes();
+                    counts[1] += change.getReposts();
+                    counts[2]++;
+                }
+            }
+        }
+        return increments;
+    }
+
+    private static void addAll(Connection connection, Map<Long, long[]> increments) throws SQLException {
+        List<Long> missing = new ArrayList<>();
+        try (PreparedStatement update = connection.prepareStatement(UPDATE)) {
+            for (Map.Entry<Long, long[]> increment : increments.entrySet()) {
+                update.setLong(1, increment.getValue()[0]);
+                update.setLong(2, increment.getValue()[1]);
+                update.setLong(3, increment.getKey());
+                update.addBatch();
+            }
+            int[] updated = update.executeBatch();
+            int i = 0;
+            for (Long postId : increments.keySet()) {
+                if (updated[i++] == 0) {
+                    missing.add(postId);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            for (Long postId : missing) {
+                insert.setLong(1, postId);
+                insert.setLong(2, increments.get(postId)[0]);
+                insert.setLong(3, increments.get(postId)[1]);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * Compacted posts have no row to find their author by, so their counts change without changing any tag.
+     */
+    private static void incrementCountsVersions(Connection connection, Collection<Long> postIds) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(INCREMENT_COUNTS_VERSION)) {
+            for (Long postId : postIds) {
+                update.setLong(1, postId);
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+    }
+}
\ No newline at end of file
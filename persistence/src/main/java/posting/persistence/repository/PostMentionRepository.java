@@ -0,0 +1,30 @@
+package posting.persistence.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import posting.persistence.entity.PostMention;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PostMentionRepository extends JpaRepository<PostMention, PostMention.Key> {
+
+    @Query("select m.postId as postId, u.username as username " +
+            "from PostMention m, User u " +
+            "where u.id = m.authorId " +
+            "and m.username = :username " +
+            "and m.postId < :beforeId " +
+            "order by m.username, m.postId desc")
+    List<TaggedPost> findByUsernameAndPostIdLessThanOrderByPostIdDescending(@Param("username") String username,
+                                                                            @Param("beforeId") long beforeId,
+                                                                            Pageable pageRequest);
+
+    @Modifying
+    @Query("delete from PostMention m " +
+            "where m.username in :usernames " +
+            "and m.postId = :postId")
+    int delete(@Param("usernames") Collection<String> usernames, @Param("postId") long postId);
+}
\ No newline at end of file
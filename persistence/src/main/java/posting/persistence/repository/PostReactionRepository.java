@@ -0,0 +1,19 @@
+package posting.persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import posting.persistence.entity.PostReaction;
+import posting.persistence.entity.ReactionType;
+
+public interface PostReactionRepository extends JpaRepository<PostReaction, PostReaction.Key>,
+        PostReactionRepositoryCustom {
+
+    @Modifying
+    @Query("delete from PostReaction r " +
+            "where r.postId = :postId " +
+            "and r.userId = :userId " +
+            "and r.type = :type")
+    int delete(@Param("postId") long postId, @Param("userId") long userId, @Param("type") ReactionType type);
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package posting.persistence.repository;
+
+import java.util.Collection;
+
+public interface PostReactionRepositoryCustom {
+
+    /**
+     * Deletes up to {@code limit} likes and reposts of the posts.
+     */
+    int deleteByPostIdIn(Collection<Long> postIds, int limit);
+}
\ No newline at end of file
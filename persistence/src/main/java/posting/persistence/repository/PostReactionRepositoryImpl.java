@@ -0,0 +1,34 @@
+package posting.persistence.repository;
+
+import org.hibernate.query.NativeQuery;
+import posting.persistence.entity.PostReaction;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+
+/**
+ * Runs the native delete of reactions with {@link PostReaction} as its only query space, so that it doesn't evict
+ * every second-level cache region; see {@link TimelineEntryRepositoryImpl}.
+ */
+class PostReactionRepositoryImpl implements PostReactionRepositoryCustom {
+
+    private static final String DELETE_BY_POST_ID_IN = "delete from post_reaction " +
+            "where post_id in (:postIds) " +
+            "limit :limit";
+
+    private final EntityManager entityManager;
+
+    PostReactionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int deleteByPostIdIn(Collection<Long> postIds, int limit) {
+        return entityManager.createNativeQuery(DELETE_BY_POST_ID_IN)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(PostReaction.class)
+                .setParameterList("postIds", postIds)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+}
\ No newline at end of file
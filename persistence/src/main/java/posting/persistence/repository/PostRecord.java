@@ -0,0 +1,14 @@
+package posting.persistence.repository;
+
+import java.time.LocalDateTime;
+
+public interface PostRecord {
+
+    Long getId();
+
+    String getUsername();
+
+    String getContent();
+
+    LocalDateTime getCreatedDate();
+}
\ No newline at end of file
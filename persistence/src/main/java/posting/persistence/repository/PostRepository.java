@@ -3,10 +3,13 @@ package posting.persistence.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import posting.persistence.entity.Post;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
@@ -15,27 +18,66 @@ public interface PostRepository extends JpaRepository<Post, Long> {
             "inner join u.posts p " +
             "left join fetch p.user " +
             "where u.username = :username " +
+            "and p.createdDate >= :hotFrom " +
+            "and p.deleted = false " +
             "order by p.createdDate desc")
-    List<Post> findByUsernameOrderByCreatedDateDescending(@Param("username") String username);
+    List<Post> findByUsernameOrderByCreatedDateDescending(@Param("username") String username,
+                                                          @Param("hotFrom") LocalDateTime hotFrom);
 
     @Query(
             value = "select p from User u " +
                     "inner join u.posts p " +
                     "left join fetch p.user " +
                     "where u.username = :username " +
+                    "and p.createdDate >= :hotFrom " +
+                    "and p.deleted = false " +
                     "order by p.createdDate desc",
             countQuery = "select count(p) from User u " +
                     "inner join u.posts p " +
-                    "where u.username = :username")
-    Page<Post> findByUsernameOrderByCreatedDateDescending(@Param("username") String username, Pageable pageRequest);
+                    "where u.username = :username " +
+                    "and p.createdDate >= :hotFrom " +
+                    "and p.deleted = false")
+    Page<Post> findByUsernameOrderByCreatedDateDescending(@Param("username") String username,
+                                                          @Param("hotFrom") LocalDateTime hotFrom,
+                                                          Pageable pageRequest);
+
+    @Query("select p from User u " +
+            "inner join u.posts p " +
+            "left join fetch p.user " +
+            "where u.username = :username " +
+            "and p.createdDate >= :hotFrom " +
+            "and p.deleted = false " +
+            "and p.id > :sinceId " +
+            "order by p.id desc")
+    List<Post> findByUsernameAndIdGreaterThanOrderByIdDescending(@Param("username") String username,
+                                                                 @Param("hotFrom") LocalDateTime hotFrom,
+                                                                 @Param("sinceId") long sinceId,
+                                                                 Pageable pageRequest);
+
+    /**
+     * Reads the newest posts of a user whose entity is already loaded, so the posts' user needn't be fetched. Ids
+     * grow with creation time, so ordering by id gives the wall's order through the index on user and id.
+     */
+    @Query("select p from Post p " +
+            "where p.user.id = :userId " +
+            "and p.createdDate >= :hotFrom " +
+            "and p.deleted = false " +
+            "order by p.id desc")
+    List<Post> findNewestByUserId(@Param("userId") long userId,
+                                  @Param("hotFrom") LocalDateTime hotFrom,
+                                  Pageable pageRequest);
 
     @Query("select p from User u " +
             "inner join u.followed f " +
             "inner join f.posts p " +
             "left join fetch p.user " +
             "where u.username = :username " +
+            "and p.pushed = false " +
+            "and p.createdDate >= :hotFrom " +
+            "and p.deleted = false " +
             "order by p.createdDate desc")
-    List<Post> findByFollowedOrderByCreatedDateDescending(@Param("username") String username);
+    List<Post> findPulledByFollowedOrderByCreatedDateDescending(@Param("username") String username,
+                                                                @Param("hotFrom") LocalDateTime hotFrom);
 
     @Query(
             value = "select p from User u " +
@@ -43,11 +85,102 @@ public interface PostRepository extends JpaRepository<Post, Long> {
                     "inner join f.posts p " +
                     "left join fetch p.user " +
                     "where u.username = :username " +
+                    "and p.pushed = false " +
+                    "and p.createdDate >= :hotFrom " +
+                    "and p.deleted = false " +
                     "order by p.createdDate desc",
             countQuery = "select count(p) from User u " +
                     "inner join u.followed f " +
                     "inner join f.posts p " +
-                    "where u.username = :username")
-    Page<Post> findByFollowedOrderByCreatedDateDescending(@Param("username") String username,
-                                                          Pageable pageRequest);
+                    "where u.username = :username " +
+                    "and p.pushed = false " +
+                    "and p.createdDate >= :hotFrom " +
+                    "and p.deleted = false")
+    Page<Post> findPulledByFollowedOrderByCreatedDateDescending(@Param("username") String username,
+                                                                @Param("hotFrom") LocalDateTime hotFrom,
+                                                                Pageable pageRequest);
+
+    @Query("select p from User u " +
+            "inner join u.followed f " +
+            "inner join f.posts p " +
+            "left join fetch p.user " +
+            "where u.username = :username " +
+            "and p.pushed = false " +
+            "and p.createdDate >= :hotFrom " +
+            "and p.deleted = false " +
+            "and p.id > :sinceId " +
+            "order by p.id desc")
+    List<Post> findPulledByFollowedAndIdGreaterThanOrderByIdDescending(@Param("username") String username,
+                                                                       @Param("hotFrom") LocalDateTime hotFrom,
+                                                                       @Param("sinceId") long sinceId,
+                                                                       Pageable pageRequest);
+
+    @Query("select u.username from Post p " +
+            "inner join p.user u " +
+            "where p.createdDate >= :since " +
+            "group by u.username " +
+            "order by max(p.createdDate) desc")
+    List<String> findRecentlyPostingUsernames(@Param("since") LocalDateTime since, Pageable pageRequest);
+
+    @Query("select p from Post p " +
+            "inner join fetch p.user " +
+            "where p.id in :ids " +
+            "and p.deleted = false " +
+            "order by p.id")
+    List<Post> findByIdInOrderById(@Param("ids") Collection<Long> ids);
+
+    boolean existsByIdAndDeletedFalse(Long id);
+
+    @Query("select p.id from Post p " +
+            "where p.deleted = true " +
+            "order by p.id")
+    List<Long> findDeletedIds(Pageable pageRequest);
+
+    @Modifying
+    @Query("delete from Post p " +
+            "where p.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select min(p.createdDate) from Post p " +
+            "where p.createdDate >= :hotFrom")
+    LocalDateTime findOldestCreatedDate(@Param("hotFrom") LocalDateTime hotFrom);
+
+    @Query("select p.id as id, u.username as username, p.content as content, p.createdDate as createdDate " +
+            "from Post p " +
+            "inner join p.user u " +
+            "where p.createdDate >= :from " +
+            "and p.createdDate < :to " +
+            "and p.deleted = false " +
+            "and (u.username > :afterUsername or (u.username = :afterUsername and p.id < :afterId)) " +
+            "order by u.username, p.id desc")
+    List<PostRecord> findRecordsCreatedBetween(@Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to,
+                                               @Param("afterUsername") String afterUsername,
+                                               @Param("afterId") long afterId,
+                                               Pageable pageRequest);
+
+    @Modifying
+    @Query("delete from Post p " +
+            "where p.createdDate < :before")
+    int deleteByCreatedDateBefore(@Param("before") LocalDateTime before);
+
+    @Query("select min(p.id) from Post p " +
+            "where p.createdDate >= :hotFrom")
+    Long findMinIdCreatedSince(@Param("hotFrom") LocalDateTime hotFrom);
+
+    @Query("select max(p.id) from Post p")
+    Long findMaxId();
+
+    @Query("select p.id as id, u.username as username, p.content as content, p.createdDate as createdDate " +
+            "from Post p " +
+            "inner join p.user u " +
+            "where p.id > :afterId " +
+            "and p.id < :to " +
+            "and p.createdDate >= :hotFrom " +
+            "and p.deleted = false " +
+            "order by p.id")
+    List<PostRecord> findRecordsByIdBetween(@Param("afterId") long afterId,
+                                            @Param("to") long to,
+                                            @Param("hotFrom") LocalDateTime hotFrom,
+                                            Pageable pageRequest);
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package posting.persistence.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import posting.persistence.entity.PostTag;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PostTagRepository extends JpaRepository<PostTag, PostTag.Key> {
+
+    /**
+     * Ordering by the tag too, although it is fixed, lets the database read the page straight off the descending
+     * index and stop after it, rather than sort every post of the tag.
+     */
+    @Query("select t.postId as postId, u.username as username " +
+            "from PostTag t, User u " +
+            "where u.id = t.authorId " +
+            "and t.tag = :tag " +
+            "and t.postId < :beforeId " +
+            "order by t.tag, t.postId desc")
+    List<TaggedPost> findByTagAndPostIdLessThanOrderByPostIdDescending(@Param("tag") String tag,
+                                                                       @Param("beforeId") long beforeId,
+                                                                       Pageable pageRequest);
+
+    @Modifying
+    @Query("delete from PostTag t " +
+            "where t.tag in :tags " +
+            "and t.postId = :postId")
+    int delete(@Param("tags") Collection<String> tags, @Param("postId") long postId);
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package posting.persistence.repository;
+
+/**
+ * A post found through a tag or mention, with its author so that it can be read from a segment once compacted.
+ */
+public interface TaggedPost {
+
+    Long getPostId();
+
+    String getUsername();
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package posting.persistence.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import posting.persistence.entity.Post;
+import posting.persistence.entity.TimelineEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, TimelineEntry.Key>,
+        TimelineEntryRepositoryCustom {
+
+    @Query("select p from TimelineEntry e " +
+            "inner join e.post p " +
+            "inner join fetch p.user " +
+            "where e.user.username = :username " +
+            "and p.user member of e.user.followed " +
+            "and p.createdDate >= :hotFrom " +
+            "and p.deleted = false " +
+            "order by p.createdDate desc")
+    List<Post> findPostsOrderByCreatedDateDescending(@Param("username") String username,
+                                                     @Param("hotFrom") LocalDateTime hotFrom);
+
+    @Query(
+            value = "select p from TimelineEntry e " +
+                    "inner join e.post p " +
+                    "inner join fetch p.user " +
+                    "where e.user.username = :username " +
+                    "and p.user member of e.user.followed " +
+                    "and p.createdDate >= :hotFrom " +
+                    "and p.deleted = false " +
+                    "order by p.createdDate desc",
+            countQuery = "select count(e) from TimelineEntry e " +
+                    "where e.user.username = :username " +
+                    "and e.post.user member of e.user.followed " +
+                    "and e.post.createdDate >= :hotFrom " +
+                    "and e.post.deleted = false")
+    Page<Post> findPostsOrderByCreatedDateDescending(@Param("username") String username,
+                                                     @Param("hotFrom") LocalDateTime hotFrom,
+                                                     Pageable pageRequest);
+
+    @Query("select p from TimelineEntry e " +
+            "inner join e.post p " +
+            "inner join fetch p.user " +
+            "where e.user.username = :username " +
+            "and p.user member of e.user.followed " +
+            "and p.createdDate >= :hotFrom " +
+            "and p.deleted = false " +
+            "and p.id > :sinceId " +
+            "order by p.id desc")
+    List<Post> findPostsByIdGreaterThanOrderByIdDescending(@Param("username") String username,
+                                                           @Param("hotFrom") LocalDateTime hotFrom,
+                                                           @Param("sinceId") long sinceId,
+                                                           Pageable pageRequest);
+
+    @Modifying
+    @Query("delete from TimelineEntry e " +
+            "where e.post.id in (select p.id from Post p where p.createdDate < :before)")
+    int deleteByPostCreatedDateBefore(@Param("before") LocalDateTime before);
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package posting.persistence.repository;
+
+import java.util.Collection;
+
+public interface TimelineEntryRepositoryCustom {
+
+    /**
+     * Adds the post to the timelines of all of its author's followers that don't have it yet.
+     */
+    int pushToFollowers(long postId, long authorId);
+
+    /**
+     * Adds all pushed posts of the author to the user's timeline, skipping those it already has.
+     */
+    int pushAllToFollower(long userId, long authorId);
+
+    /**
+     * Deletes up to {@code limit} entries of the author's posts from the user's timeline, unless the user follows the
+     * author again.
+     */
+    int deleteRetracted(long userId, long authorId, int limit);
+
+    /**
+     * Deletes up to {@code limit} entries of the posts, through the index the database keeps for the foreign key.
+     */
+    int deleteByPostIdIn(Collection<Long> postIds, int limit);
+}
\ No newline at end of file
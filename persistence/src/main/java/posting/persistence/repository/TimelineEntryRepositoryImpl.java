@@ -0,0 +1,77 @@
+package posting.persistence.repository;
+
+import org.hibernate.query.NativeQuery;
+import posting.persistence.entity.TimelineEntry;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+
+/**
+ * Runs the timeline's native statements with {@link TimelineEntry} as their only query space. Hibernate assumes a
+ * native statement without query spaces may have changed any table, and evicts every second-level cache region,
+ * including the cached users, after each one.
+ */
+class TimelineEntryRepositoryImpl implements TimelineEntryRepositoryCustom {
+
+    private static final String PUSH_TO_FOLLOWERS = "insert into timeline_entry (user_id, post_id) " +
+            "select distinct f.user_id, :postId from follows f " +
+            "where f.followed_id = :authorId " +
+            "and not exists (select 1 from timeline_entry e where e.user_id = f.user_id and e.post_id = :postId)";
+    private static final String PUSH_ALL_TO_FOLLOWER = "insert into timeline_entry (user_id, post_id) " +
+            "select :userId, p.id from post p " +
+            "where p.user_id = :authorId and p.pushed = true and p.deleted = false " +
+            "and not exists (select 1 from timeline_entry e where e.user_id = :userId and e.post_id = p.id)";
+    private static final String DELETE_RETRACTED = "delete from timeline_entry " +
+            "where user_id = :userId " +
+            "and post_id in (select p.id from post p where p.user_id = :authorId) " +
+            "and not exists (select 1 from follows f where f.user_id = :userId and f.followed_id = :authorId) " +
+            "limit :limit";
+    private static final String DELETE_BY_POST_ID_IN = "delete from timeline_entry " +
+            "where post_id in (:postIds) " +
+            "limit :limit";
+
+    private final EntityManager entityManager;
+
+    TimelineEntryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int pushToFollowers(long postId, long authorId) {
+        return timelineStatement(PUSH_TO_FOLLOWERS)
+                .setParameter("postId", postId)
+                .setParameter("authorId", authorId)
+                .executeUpdate();
+    }
+
+    @Override
+    public int pushAllToFollower(long userId, long authorId) {
+        return timelineStatement(PUSH_ALL_TO_FOLLOWER)
+                .setParameter("userId", userId)
+                .setParameter("authorId", authorId)
+                .executeUpdate();
+    }
+
+    @Override
+    public int deleteRetracted(long userId, long authorId, int limit) {
+        return timelineStatement(DELETE_RETRACTED)
+                .setParameter("userId", userId)
+                .setParameter("authorId", authorId)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    @Override
+    public int deleteByPostIdIn(Collection<Long> postIds, int limit) {
+        return timelineStatement(DELETE_BY_POST_ID_IN)
+                .setParameterList("postIds", postIds)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    private NativeQuery<?> timelineStatement(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(TimelineEntry.class);
+    }
+}
\ No newline at end of file
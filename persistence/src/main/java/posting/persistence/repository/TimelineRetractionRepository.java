@@ -0,0 +1,26 @@
+package posting.persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import posting.persistence.entity.TimelineRetraction;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+public interface TimelineRetractionRepository extends JpaRepository<TimelineRetraction, TimelineRetraction.Key> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from TimelineRetraction r " +
+            "where r.userId = :userId " +
+            "and r.authorId = :authorId")
+    Optional<TimelineRetraction> findForUpdate(@Param("userId") long userId, @Param("authorId") long authorId);
+
+    @Modifying
+    @Query("delete from TimelineRetraction r " +
+            "where r.userId = :userId " +
+            "and r.authorId = :authorId")
+    int delete(@Param("userId") long userId, @Param("authorId") long authorId);
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package posting.persistence.repository;
+
+public interface TimelineVersion {
+
+    long getFollowVersion();
+
+    long getFollowedWallVersions();
+
+    long getFollowedCountsVersions();
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package posting.persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import posting.persistence.entity.UserBlock;
+
+public interface UserBlockRepository extends JpaRepository<UserBlock, UserBlock.Key> {
+
+    @Modifying
+    @Query("delete from UserBlock b " +
+            "where b.userId = :userId " +
+            "and b.blockedId = :blockedId")
+    int delete(@Param("userId") long userId, @Param("blockedId") long blockedId);
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package posting.persistence.repository;
+
+public interface UserRecord {
+
+    Long getId();
+
+    String getUsername();
+}
\ No newline at end of file
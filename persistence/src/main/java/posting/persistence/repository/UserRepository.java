@@ -1,17 +1,59 @@
 package posting.persistence.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import posting.persistence.entity.User;
 
-import java.util.Optional;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-
-    @Query("select u from User u where u.username = :username")
-    Optional<User> findByUsername(@Param("username") String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     @Query("select case when (count(u) > 0) then true else false end from User u where u.username = :username")
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     boolean existsByUsername(@Param("username") String username);
+
+    List<User> findByUsernameIn(Collection<String> usernames);
+
+    @Query("select f.username from User u inner join u.followed f where u.username = :username")
+    List<String> findFollowedUsernames(@Param("username") String username);
+
+    @Query("select u.username from User u inner join u.followed f where f.username = :username")
+    List<String> findFollowerUsernames(@Param("username") String username);
+
+    @Query("select u.username from User u where u.username > :after order by u.username")
+    List<String> findUsernamesAfter(@Param("after") String after, Pageable pageable);
+
+    @Query("select u.wallVersion as wallVersion, u.countsVersion as countsVersion from User u "
+            + "where u.username = :username")
+    WallVersion findWallVersion(@Param("username") String username);
+
+    @Query("select coalesce(sum(u.wallVersion), 0) as wallVersion, coalesce(sum(u.countsVersion), 0) as countsVersion "
+            + "from User u where u.username in :usernames")
+    WallVersion sumWallVersions(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.followVersion as followVersion, "
+            + "(select coalesce(sum(f.wallVersion), 0) from User o inner join o.followed f where o = u) "
+            + "as followedWallVersions, "
+            + "(select coalesce(sum(f.countsVersion), 0) from User o inner join o.followed f where o = u) "
+            + "as followedCountsVersions from User u where u.username = :username")
+    TimelineVersion findTimelineVersion(@Param("username") String username);
+
+    @Query("select u.id as id, u.username as username from User u where u.id > :afterId order by u.id")
+    List<UserRecord> findUsersAfterId(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select max(u.id) from User u")
+    Long findMaxId();
+
+    @Query("select u.username as followerUsername, f.username as followedUsername from User u inner join u.followed f "
+            + "where u.username in :usernames")
+    List<FollowEdge> findFollowEdges(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.username as username, b.username as blockedUsername from UserBlock k, User u, User b "
+            + "where k.userId = u.id and k.blockedId = b.id and u.username in :usernames")
+    List<BlockEdge> findBlockEdges(@Param("usernames") Collection<String> usernames);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package posting.persistence.repository;
+
+import posting.persistence.entity.User;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    Optional<User> findByUsername(String username);
+
+    /**
+     * Deletes a follow straight from the join table; removing it from {@link User#getFollowed()} would make
+     * Hibernate delete and reinsert all of the user's follows.
+     */
+    int deleteFollow(long userId, long followedId);
+
+    void incrementWallVersions(Collection<String> usernames);
+
+    void incrementFollowVersion(String username);
+}
\ No newline at end of file
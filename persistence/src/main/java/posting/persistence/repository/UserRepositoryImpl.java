@@ -0,0 +1,71 @@
+package posting.persistence.repository;
+
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import posting.persistence.entity.User;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Looks users up by their natural id, so that lookups of recently seen users are answered from the second-level
+ * cache instead of querying the database. Follows are deleted with a native statement whose only query space is the
+ * join table, so that Hibernate doesn't evict every cache region, the cached users included, after each one. The
+ * content versions of users are incremented the same way, synchronized with a query space of their own: the entity
+ * never reads them back into the cache or writes them, so cached users stay valid.
+ */
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String FOLLOWS = "follows";
+    private static final String USER_VERSIONS = "user_versions";
+    private static final String DELETE_FOLLOW = "delete from follows " +
+            "where user_id = :userId and followed_id = :followedId";
+    private static final String INCREMENT_WALL_VERSIONS = "update user set wall_version = wall_version + 1 " +
+            "where username in :usernames";
+    private static final String INCREMENT_FOLLOW_VERSION = "update user set follow_version = follow_version + 1 " +
+            "where username = :username";
+
+    private final EntityManager entityManager;
+
+    UserRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+
+    @Override
+    public int deleteFollow(long userId, long followedId) {
+        return entityManager.createNativeQuery(DELETE_FOLLOW)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(FOLLOWS)
+                .setParameter("userId", userId)
+                .setParameter("followedId", followedId)
+                .executeUpdate();
+    }
+
+    @Override
+    public void incrementWallVersions(Collection<String> usernames) {
+        // The statement's query space doesn't cover users, so users created in this transaction are flushed first
+        entityManager.flush();
+        entityManager.createNativeQuery(INCREMENT_WALL_VERSIONS)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(USER_VERSIONS)
+                .setParameter("usernames", usernames)
+                .executeUpdate();
+    }
+
+    @Override
+    public void incrementFollowVersion(String username) {
+        entityManager.createNativeQuery(INCREMENT_FOLLOW_VERSION)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(USER_VERSIONS)
+                .setParameter("username", username)
+                .executeUpdate();
+    }
+}
\ No newline at end of file
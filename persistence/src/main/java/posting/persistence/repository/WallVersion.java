@@ -0,0 +1,8 @@
+package posting.persistence.repository;
+
+public interface WallVersion {
+
+    long getWallVersion();
+
+    long getCountsVersion();
+}
\ No newline at end of file
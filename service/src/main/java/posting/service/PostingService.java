@@ -6,13 +6,37 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import posting.domain.model.PostDto;
+import posting.persistence.entity.OutboxEvent;
 import posting.persistence.entity.Post;
 import posting.persistence.entity.User;
+import posting.persistence.entity.UserBlock;
+import posting.persistence.repository.OutboxEventRepository;
 import posting.persistence.repository.PostRepository;
+import posting.persistence.repository.UserBlockRepository;
 import posting.persistence.repository.UserRepository;
+import posting.service.cache.CachedPage;
+import posting.service.cache.TimelineCache;
+import posting.service.engagement.EngagementCounters;
+import posting.service.graph.SocialGraph;
+import posting.service.lock.UsernameLocks;
+import posting.service.segment.SegmentCompactor;
+import posting.service.tag.TagService;
+import posting.service.timeline.TimelineFanOut;
+import posting.service.timeline.TimelineReader;
+import posting.service.timeline.TimelineRetractor;
+import posting.service.timeline.TimelineStrategy;
+import posting.service.timeline.WallReader;
+import posting.service.transaction.AfterCommit;
+import posting.service.validation.KnownUsernames;
 import posting.service.validation.PostingServiceValidator;
+import posting.service.version.ContentVersions;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -21,31 +45,145 @@ import java.util.stream.Collectors;
 @Service
 public class PostingService implements posting.domain.service.PostingService {
 
+    private static final int MAX_SINCE_SIZE = 100;
+    private static final int MAX_WALLS_SIZE = 100;
+
     private final UserRepository userRepository;
     private final PostRepository postRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserBlockRepository userBlockRepository;
     private final PostingServiceValidator validator;
+    private final KnownUsernames knownUsernames;
+    private final UsernameLocks usernameLocks;
+    private final SocialGraph socialGraph;
+    private final ContentVersions contentVersions;
+    private final TimelineCache timelineCache;
+    private final TimelineStrategy timelineStrategy;
+    private final TimelineFanOut timelineFanOut;
+    private final TimelineReader timelineReader;
+    private final TimelineRetractor timelineRetractor;
+    private final WallReader wallReader;
+    private final TagService tagService;
+    private final EngagementCounters engagementCounters;
+    private final SegmentCompactor segmentCompactor;
 
     public PostingService(UserRepository userRepository,
                           PostRepository postRepository,
-                          PostingServiceValidator validator) {
+                          OutboxEventRepository outboxEventRepository,
+                          UserBlockRepository userBlockRepository,
+                          PostingServiceValidator validator,
+                          KnownUsernames knownUsernames,
+                          UsernameLocks usernameLocks,
+                          SocialGraph socialGraph,
+                          ContentVersions contentVersions,
+                          TimelineCache timelineCache,
+                          TimelineStrategy timelineStrategy,
+                          TimelineFanOut timelineFanOut,
+                          TimelineReader timelineReader,
+                          TimelineRetractor timelineRetractor,
+                          WallReader wallReader,
+                          TagService tagService,
+                          EngagementCounters engagementCounters,
+                          SegmentCompactor segmentCompactor) {
         this.userRepository = userRepository;
         this.postRepository = postRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.userBlockRepository = userBlockRepository;
         this.validator = validator;
+        this.knownUsernames = knownUsernames;
+        this.usernameLocks = usernameLocks;
+        this.socialGraph = socialGraph;
+        this.contentVersions = contentVersions;
+        this.timelineCache = timelineCache;
+        this.timelineStrategy = timelineStrategy;
+        this.timelineFanOut = timelineFanOut;
+        this.timelineReader = timelineReader;
+        this.timelineRetractor = timelineRetractor;
+        this.wallReader = wallReader;
+        this.tagService = tagService;
+        this.engagementCounters = engagementCounters;
+        this.segmentCompactor = segmentCompactor;
     }
 
     @Override
     @Transactional
     public void newPost(String username, String postContent) {
-        User user = userRepository.findByUsername(username).orElseGet(getUser(username));
+        User user = findUser(username).orElseGet(createUser(username));
         Post post = new Post();
         post.setContent(postContent);
+        post.setPushed(timelineStrategy.pushPostOf(username));
         user.getPosts().add(post);
         post.setUser(user);
-        userRepository.save(user);
+        postRepository.save(post);
+        tagService.index(post);
+        outboxEventRepository.save(OutboxEvent.postCreated(post));
+        contentVersions.postCreated(username);
+    }
+
+    /**
+     * Changes the post's content in place, so its id, and with it every cursor pointing at it, stays valid. Cached
+     * timelines containing the post are replaced when next read, since the author's wall tag changes.
+     */
+    @Override
+    @Transactional
+    public void editPost(String username, long postId, String postContent) {
+        Post post = findOwnPost(username, postId);
+        String previousContent = post.getContent();
+        if (previousContent.equals(postContent)) {
+            return;
+        }
+        post.setContent(postContent);
+        segmentCompactor.recordChange(post);
+        tagService.reindex(post, previousContent);
+        outboxEventRepository.save(OutboxEvent.postEdited(post));
+        contentVersions.postChanged(username);
+    }
+
+    /**
+     * Marks the post as deleted, which hides it from all reads at once; its timeline entries and other rows are
+     * deleted in the background, see {@link posting.service.tombstone.TombstoneCompactor}.
+     */
+    @Override
+    @Transactional
+    public void deletePost(String username, long postId) {
+        Post post = findOwnPost(username, postId);
+        post.setDeleted(true);
+        segmentCompactor.recordChange(post);
+        tagService.unindex(post);
+        outboxEventRepository.save(OutboxEvent.postDeleted(post));
+        contentVersions.postChanged(username);
     }
 
-    private Supplier<User> getUser(String username) {
-        return () -> buildUser(username);
+    /**
+     * Finds a post of the user, under the user's lock, so that changes to the same post are applied one after the
+     * other. A post compacted into a segment whose row is gone is read from the segment; changes to it are recorded
+     * by {@link SegmentCompactor#recordChange(Post)}.
+     */
+    private Post findOwnPost(String username, long postId) {
+        User user = findExistingUser(username);
+        usernameLocks.lockUntilTransactionCompletes(username);
+        Optional<Post> row = postRepository.findById(postId);
+        if (!row.isPresent()) {
+            return segmentCompactor.findCompacted(user, postId)
+                    .orElseThrow(() -> validator.unknownPostException(postId));
+        }
+        Post post = row.filter(found -> !found.isDeleted())
+                .orElseThrow(() -> validator.unknownPostException(postId));
+        if (!post.getUser().getId().equals(user.getId())) {
+            throw validator.notAuthorException(postId, username);
+        }
+
+        return post;
+    }
+
+    private Supplier<User> createUser(String username) {
+        return () -> {
+            usernameLocks.lockUntilTransactionCompletes(username);
+            return userRepository.findByUsername(username).orElseGet(() -> {
+                knownUsernames.add(username);
+                return userRepository.save(buildUser(username));
+            });
+        };
     }
 
     private User buildUser(String username) {
@@ -61,57 +199,268 @@ public class PostingService implements posting.domain.service.PostingService {
         validator.validateFollowingUsernames(requestingUsername, followedUsername);
         User requestingUser = findExistingUser(requestingUsername);
         User followedUser = findExistingUser(followedUsername);
+        // Serializes with the followed user blocking the follower, so that a block always removes the follow
+        usernameLocks.lockUntilTransactionCompletes(followedUsername);
+        if (userBlockRepository.existsById(UserBlock.Key.of(followedUser.getId(), requestingUser.getId()))) {
+            throw validator.blockedException(followedUsername);
+        }
         requestingUser.getFollowed().add(followedUser);
+        timelineRetractor.followed(requestingUser, followedUser);
+        timelineFanOut.followed(requestingUser, followedUser);
+        Runnable mergeIntoCachedTimeline = prepareTimelineMerge(requestingUsername, followedUsername);
+        contentVersions.followed(requestingUsername);
+        AfterCommit.run(() -> {
+            socialGraph.follow(requestingUsername, followedUsername);
+            mergeIntoCachedTimeline.run();
+        });
+    }
+
+    @Override
+    @Transactional
+    public void unfollow(String requestingUsername, String followedUsername) {
+        removeFollow(findExistingUser(requestingUsername), findExistingUser(followedUsername));
+    }
+
+    /**
+     * Blocks a user, who stops following the blocking user and can't follow them again until unblocked. The blocking
+     * user stops following the blocked one too.
+     */
+    @Override
+    @Transactional
+    public void block(String requestingUsername, String blockedUsername) {
+        validator.validateBlockingUsernames(requestingUsername, blockedUsername);
+        User requestingUser = findExistingUser(requestingUsername);
+        User blockedUser = findExistingUser(blockedUsername);
+        usernameLocks.lockUntilTransactionCompletes(requestingUsername);
+        if (!userBlockRepository.existsById(UserBlock.Key.of(requestingUser.getId(), blockedUser.getId()))) {
+            userBlockRepository.save(UserBlock.of(requestingUser, blockedUser));
+            AfterCommit.run(() -> socialGraph.block(requestingUsername, blockedUsername));
+        }
+        removeFollow(blockedUser, requestingUser);
+        removeFollow(requestingUser, blockedUser);
+    }
+
+    @Override
+    @Transactional
+    public void unblock(String requestingUsername, String blockedUsername) {
+        if (userBlockRepository.delete(findExistingUser(requestingUsername).getId(),
+                findExistingUser(blockedUsername).getId()) > 0) {
+            AfterCommit.run(() -> socialGraph.unblock(requestingUsername, blockedUsername));
+        }
+    }
+
+    /**
+     * Deletes the follow, if any, and retracts the followed user's posts from the follower's timeline.
+     */
+    private void removeFollow(User follower, User followed) {
+        if (userRepository.deleteFollow(follower.getId(), followed.getId()) == 0) {
+            return;
+        }
+        timelineRetractor.unfollowed(follower, followed);
+        contentVersions.unfollowed(follower.getUsername());
+        AfterCommit.run(() -> socialGraph.unfollow(follower.getUsername(), followed.getUsername()));
+    }
+
+    private Runnable prepareTimelineMerge(String requestingUsername, String followedUsername) {
+        if (!timelineCache.isCached(requestingUsername)) {
+            return () -> {
+            };
+        }
+        String followedWallTag = contentVersions.getWallTag(followedUsername);
+        Page<Post> followedPosts = wallReader.findPage(followedUsername,
+                PageRequest.of(0, timelineCache.getTimelineSize()));
+        List<PostDto> posts = followedPosts.map(toDomainModel()).getContent();
+
+        return () -> timelineCache.mergeFollowed(requestingUsername,
+                tag -> contentVersions.getCachedTimelineTagAfterFollow(tag, followedWallTag),
+                posts, followedPosts.getTotalElements());
     }
 
     private User findExistingUser(String username) {
-        return userRepository.findByUsername(username).orElseThrow(() -> validator.unknownUsernameException(username));
+        return findUser(username).orElseThrow(() -> validator.unknownUsernameException(username));
+    }
+
+    private Optional<User> findUser(String username) {
+        if (!knownUsernames.mightExist(username)) {
+            return Optional.empty();
+        }
+        Optional<User> user = userRepository.findByUsername(username);
+        if (!user.isPresent()) {
+            knownUsernames.falsePositive();
+        }
+
+        return user;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<PostDto> getCompleteWall(String username) {
-        return findAllPosts(username, postRepository::findByUsernameOrderByCreatedDateDescending);
+        return findAllPosts(username, wallReader::findAll);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<PostDto> getWall(String username, int page, int size) {
-        return findPosts(username, page, size, postRepository::findByUsernameOrderByCreatedDateDescending);
+        return findPosts(username, page, size, wallReader::findPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostDto> getWallSince(String username, long sincePostId, int size) {
+        return findPostsSince(username, sincePostId, size,
+                wallReader::findSince);
+    }
+
+    /**
+     * Reads the newest posts of many users at once. The users are looked up with a single query, after the
+     * {@link KnownUsernames} filter ruled out unknown usernames, and each wall is then read by a seek on the index of
+     * posts by user and id that stops after {@code size} posts, all within one transaction. Users that don't exist
+     * are left out.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, List<PostDto>> getWalls(List<String> usernames, int size) {
+        validator.validateUsernames(usernames);
+        validator.validateSize(size);
+        List<String> candidates = usernames.stream()
+                .distinct()
+                .filter(knownUsernames::mightExist)
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, User> usersByUsername = userRepository.findByUsernameIn(candidates).stream()
+                .collect(Collectors.toMap(User::getUsername, Function.identity()));
+        List<User> users = new ArrayList<>(usersByUsername.size());
+        for (String username : candidates) {
+            User user = usersByUsername.get(username);
+            if (user == null) {
+                knownUsernames.falsePositive();
+            } else {
+                users.add(user);
+            }
+        }
+
+        Map<String, List<Post>> walls = wallReader.findNewest(users, Math.min(size, MAX_WALLS_SIZE));
+        List<PostDto> posts = engagementCounters.withCounts(walls.values().stream()
+                .flatMap(List::stream)
+                .map(toDomainModel())
+                .collect(Collectors.toList()));
+        Map<String, List<PostDto>> postsByUsername = new LinkedHashMap<>();
+        int from = 0;
+        for (Map.Entry<String, List<Post>> wall : walls.entrySet()) {
+            int to = from + wall.getValue().size();
+            postsByUsername.put(wall.getKey(), posts.subList(from, to));
+            from = to;
+        }
+        return postsByUsername;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<PostDto> getCompleteTimeline(String username) {
-        return findAllPosts(username, postRepository::findByFollowedOrderByCreatedDateDescending);
+        return findAllPosts(username, timelineReader::findAll);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<PostDto> getTimeline(String username, int page, int size) {
-        return findPosts(username, page, size, postRepository::findByFollowedOrderByCreatedDateDescending);
+        validator.validateUserExists(username);
+        Pageable pageRequest = PageRequest.of(page, size);
+        String tag = contentVersions.getCachedTimelineTag(username);
+        CachedPage cachedPage = timelineCache.getPage(username, tag, page, size);
+        if (cachedPage == null && (long) (page + 1) * size <= timelineCache.getTimelineSize()) {
+            cachedPage = cacheTimeline(username, tag, page, size);
+        }
+        if (cachedPage == null) {
+            return findPage(pageRequest, timelineReader.findPage(username, pageRequest));
+        }
+        validator.validatePageNumber(page, cachedPage.getTotalPages());
+
+        return engagementCounters.withCounts(cachedPage.getPosts());
+    }
+
+    /**
+     * Loads the newest posts of the user's timeline into the timeline cache, unless they are cached already.
+     */
+    @Transactional(readOnly = true)
+    public void warmTimeline(String username) {
+        if (timelineCache.getTimelineSize() > 0 && !timelineCache.isCached(username)) {
+            cacheTimeline(username, contentVersions.getCachedTimelineTag(username), 0, timelineCache.getTimelineSize());
+        }
+    }
+
+    private CachedPage cacheTimeline(String username, String tag, int page, int size) {
+        Page<Post> newestPosts = timelineReader.findPage(username, PageRequest.of(0, timelineCache.getTimelineSize()));
+        List<PostDto> posts = newestPosts.map(toDomainModel()).getContent();
+        timelineCache.put(username, tag, posts, newestPosts.getTotalElements());
+
+        return CachedPage.of(posts, newestPosts.getTotalElements(), page, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostDto> getTimelineSince(String username, long sincePostId, int size) {
+        return findPostsSince(username, sincePostId, size, timelineReader::findSince);
+    }
+
+    @Override
+    public String getWallTag(String username) {
+        return contentVersions.getWallTag(username);
+    }
+
+    @Override
+    public String getWallsTag(List<String> usernames) {
+        return contentVersions.getWallsTag(usernames);
+    }
+
+    @Override
+    public String getTimelineTag(String username) {
+        return contentVersions.getTimelineTag(username);
     }
 
     private List<PostDto> findAllPosts(String username, Function<String, List<Post>> repositoryCall) {
         validator.validateUserExists(username);
         List<Post> posts = repositoryCall.apply(username);
 
-        return posts.stream()
+        return engagementCounters.withCounts(posts.stream()
                 .map(toDomainModel())
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     private List<PostDto> findPosts(String username, int page, int size,
                                     BiFunction<String, Pageable, Page<Post>> repositoryCall) {
         validator.validateUserExists(username);
         Pageable pageRequest = PageRequest.of(page, size);
-        Page<Post> posts = repositoryCall.apply(username, pageRequest);
-        validator.validatePageNumber(page, posts);
 
-        return posts.map(toDomainModel()).getContent();
+        return findPage(pageRequest, repositoryCall.apply(username, pageRequest));
+    }
+
+    private List<PostDto> findPage(Pageable pageRequest, Page<Post> posts) {
+        validator.validatePageNumber(pageRequest.getPageNumber(), posts);
+
+        return engagementCounters.withCounts(posts.map(toDomainModel()).getContent());
+    }
+
+    private List<PostDto> findPostsSince(String username, long sincePostId, int size, SinceQuery repositoryCall) {
+        validator.validateUserExists(username);
+        validator.validateSize(size);
+        Pageable pageRequest = PageRequest.of(0, Math.min(size, MAX_SINCE_SIZE));
+        List<Post> posts = repositoryCall.find(username, sincePostId, pageRequest);
+
+        return engagementCounters.withCounts(posts.stream()
+                .map(toDomainModel())
+                .collect(Collectors.toList()));
     }
 
     private Function<Post, PostDto> toDomainModel() {
-        return post -> new PostDto(post.getUser().getUsername(), post.getContent(), post.getCreatedDate());
+        return post -> new PostDto(post.getId(), post.getUser().getUsername(), post.getContent(),
+                post.getCreatedDate());
+    }
+
+    @FunctionalInterface
+    private interface SinceQuery {
+
+        List<Post> find(String username, long sincePostId, Pageable pageRequest);
     }
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package posting.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import posting.persistence.repository.PostRepository;
+import posting.service.cache.TimelineCacheProperties;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the timelines of the users who posted most recently into the timeline cache after startup, so that the
+ * first reads after a deploy don't all query the database. Only users who posted within the last
+ * {@code posting.timeline-cache.warmup-posted-within-hours} are looked up, so finding them reads a bounded range of the
+ * posts' creation date index. They are found and their timelines loaded in the background by at most
+ * {@code posting.timeline-cache.warmup-concurrency} threads at a time, so the warm-up neither delays startup nor
+ * starves requests of database connections.
+ */
+@Component
+public class TimelineWarmer implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimelineWarmer.class);
+
+    private final PostingService postingService;
+    private final PostRepository postRepository;
+    private final TimelineCacheProperties properties;
+    private final Timer warmupTime;
+    private final Counter warmedTimelines;
+    private volatile ExecutorService executor;
+
+    public TimelineWarmer(PostingService postingService, PostRepository postRepository,
+                          TimelineCacheProperties properties, MeterRegistry meterRegistry) {
+        this.postingService = postingService;
+        this.postRepository = postRepository;
+        this.properties = properties;
+        this.warmupTime = meterRegistry.timer("posting.timeline-cache.warmup");
+        this.warmedTimelines = meterRegistry.counter("posting.timeline-cache.warmed");
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (properties.getTimelineSize() > 0 && properties.getWarmupUsers() > 0) {
+            warmUp();
+        }
+    }
+
+    CompletableFuture<Void> warmUp() {
+        long start = System.nanoTime();
+        ExecutorService warmupExecutor = Executors.newFixedThreadPool(properties.getWarmupConcurrency(),
+                new CustomizableThreadFactory("timeline-warmer-"));
+        executor = warmupExecutor;
+
+        return CompletableFuture.supplyAsync(this::findRecentlyPostingUsernames, warmupExecutor)
+                .thenCompose(usernames -> CompletableFuture.allOf(usernames.stream()
+                        .map(username -> CompletableFuture.runAsync(() -> warm(username), warmupExecutor))
+                        .toArray(CompletableFuture[]::new))
+                        .thenApply(result -> usernames.size()))
+                .handle((warmed, exception) -> {
+                    long duration = System.nanoTime() - start;
+                    warmupTime.record(duration, TimeUnit.NANOSECONDS);
+                    if (exception != null) {
+                        LOGGER.warn("Failed to find the timelines to warm up", exception);
+                    } else {
+                        LOGGER.info("Warmed up {} timelines in {} ms", warmed,
+                                TimeUnit.NANOSECONDS.toMillis(duration));
+                    }
+                    warmupExecutor.shutdown();
+                    return null;
+                });
+    }
+
+    private List<String> findRecentlyPostingUsernames() {
+        return postRepository.findRecentlyPostingUsernames(
+                LocalDateTime.now().minusHours(properties.getWarmupPostedWithinHours()),
+                PageRequest.of(0, properties.getWarmupUsers()));
+    }
+
+    private void warm(String username) {
+        try {
+            postingService.warmTimeline(username);
+            warmedTimelines.increment();
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Failed to warm up the timeline of [{}]", username, exception);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        ExecutorService runningExecutor = executor;
+        if (runningExecutor != null) {
+            runningExecutor.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package posting.service.admission;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import posting.domain.exception.TooManyRequestsException;
+import posting.persistence.pool.ConnectionWaitMonitor;
+
+@Service
+public class AdmissionControl implements posting.domain.service.AdmissionControl {
+
+    private static final String OVERLOADED_MESSAGE = "Service is overloaded, try again later";
+    private static final String POST_RATE_EXCEEDED_MESSAGE_TEMPLATE = "User [%s] is posting too fast, try again later";
+
+    private final ConnectionWaitMonitor connectionWaitMonitor;
+    private final AdmissionProperties properties;
+    private final TokenBucketRateLimiter postRateLimiter;
+
+    public AdmissionControl(ConnectionWaitMonitor connectionWaitMonitor, AdmissionProperties properties) {
+        this.connectionWaitMonitor = connectionWaitMonitor;
+        this.properties = properties;
+        this.postRateLimiter = new TokenBucketRateLimiter(
+                properties.getShards(),
+                properties.getMaxBucketsPerShard(),
+                properties.getPostsPerSecond(),
+                properties.getPostBurst());
+    }
+
+    @Override
+    public void admitRequest() {
+        if (connectionWaitMonitor.getAverageWaitMillis() > properties.getMaxPoolWaitMillis()) {
+            throw new TooManyRequestsException(OVERLOADED_MESSAGE);
+        }
+    }
+
+    @Override
+    public void admitPost(String username) {
+        if (!postRateLimiter.tryAcquire(username)) {
+            throw new TooManyRequestsException(String.format(POST_RATE_EXCEEDED_MESSAGE_TEMPLATE, username));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${posting.admission.eviction-interval-millis:60000}")
+    public void evictIdleBuckets() {
+        postRateLimiter.evictIdleBuckets();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package posting.service.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "posting.admission")
+public class AdmissionProperties {
+
+    private double postsPerSecond = 5;
+    private int postBurst = 20;
+    private int shards = 16;
+    private int maxBucketsPerShard = 65536;
+    private long maxPoolWaitMillis = 200;
+
+    public double getPostsPerSecond() {
+        return postsPerSecond;
+    }
+
+    public void setPostsPerSecond(double postsPerSecond) {
+        this.postsPerSecond = postsPerSecond;
+    }
+
+    public int getPostBurst() {
+        return postBurst;
+    }
+
+    public void setPostBurst(int postBurst) {
+        this.postBurst = postBurst;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    public int getMaxBucketsPerShard() {
+        return maxBucketsPerShard;
+    }
+
+    public void setMaxBucketsPerShard(int maxBucketsPerShard) {
+        this.maxBucketsPerShard = maxBucketsPerShard;
+    }
+
+    public long getMaxPoolWaitMillis() {
+        return maxPoolWaitMillis;
+    }
+
+    public void setMaxPoolWaitMillis(long maxPoolWaitMillis) {
+        this.maxPoolWaitMillis = maxPoolWaitMillis;
+    }
+}
\ No newline at end of file
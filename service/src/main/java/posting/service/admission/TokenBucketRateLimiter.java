@@ -0,0 +1,105 @@
+package posting.service.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by an arbitrary string, spread over independent shards.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again, so refilling and
+ * taking a token is one CAS. A bucket that is full again carries no state worth keeping and can be evicted.
+ */
+public class TokenBucketRateLimiter {
+
+    private final ConcurrentMap<String, AtomicLong>[] shards;
+    private final int maxBucketsPerShard;
+    private final long nanosPerPermit;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+
+    public TokenBucketRateLimiter(int shardCount, int maxBucketsPerShard, double permitsPerSecond, int burst) {
+        this(shardCount, maxBucketsPerShard, permitsPerSecond, burst, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    TokenBucketRateLimiter(int shardCount, int maxBucketsPerShard, double permitsPerSecond, int burst,
+                           LongSupplier nanoClock) {
+        this.shards = new ConcurrentMap[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+        this.maxBucketsPerShard = maxBucketsPerShard;
+        this.nanosPerPermit = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = nanosPerPermit * burst;
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = findOrCreateBucket(key, now);
+        if (bucket == null) {
+            return false;
+        }
+
+        while (true) {
+            long refilledAt = bucket.get();
+            long next = (refilledAt - now > 0 ? refilledAt : now) + nanosPerPermit;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (bucket.compareAndSet(refilledAt, next)) {
+                return true;
+            }
+        }
+    }
+
+    int evictIdleBuckets() {
+        long now = nanoClock.getAsLong();
+        int evicted = 0;
+        for (ConcurrentMap<String, AtomicLong> shard : shards) {
+            evicted += evictIdleBuckets(shard, now);
+        }
+
+        return evicted;
+    }
+
+    int size() {
+        int size = 0;
+        for (ConcurrentMap<String, AtomicLong> shard : shards) {
+            size += shard.size();
+        }
+
+        return size;
+    }
+
+    private AtomicLong findOrCreateBucket(String key, long now) {
+        ConcurrentMap<String, AtomicLong> shard = shards[shardIndex(key)];
+        AtomicLong bucket = shard.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        // a full shard is first swept of idle buckets; if it is still full, new keys are refused rather than
+        // forgetting the state of buckets that are still being drained
+        if (shard.size() >= maxBucketsPerShard && evictIdleBuckets(shard, now) == 0) {
+            return null;
+        }
+
+        return shard.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private int evictIdleBuckets(ConcurrentMap<String, AtomicLong> shard, long now) {
+        int sizeBefore = shard.size();
+        shard.values().removeIf(bucket -> bucket.get() - now <= 0);
+
+        return sizeBefore - shard.size();
+    }
+
+    private int shardIndex(String key) {
+        int hash = key.hashCode();
+
+        return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % shards.length;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package posting.service.cache;
+
+import posting.domain.model.PostDto;
+
+import java.util.Collections;
+import java.util.List;
+
+public final class CachedPage {
+
+    private final List<PostDto> posts;
+    private final int totalPages;
+
+    private CachedPage(List<PostDto> posts, int totalPages) {
+        this.posts = posts;
+        this.totalPages = totalPages;
+    }
+
+    public static CachedPage of(List<PostDto> newestPosts, long totalPosts, int page, int size) {
+        int from = (int) Math.min((long) page * size, newestPosts.size());
+        int to = (int) Math.min((long) from + size, newestPosts.size());
+
+        return new CachedPage(Collections.unmodifiableList(newestPosts.subList(from, to)),
+                (int) ((totalPosts + size - 1) / size));
+    }
+
+    public List<PostDto> getPosts() {
+        return posts;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package posting.service.cache;
+
+import posting.domain.model.PostDto;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Append-only log of posts kept in direct buffers outside of the Java heap. The log is split into fixed size
+ * segments that are reused in a ring, so its footprint never exceeds the configured capacity. A post is addressed by
+ * its position in the log and can be read back until the segment holding it is reused; reads of overwritten posts
+ * return {@code null}.
+ * <p>
+ * Appends only ever write past the last published post, so readers don't need to coordinate with them. The only
+ * conflict is a segment being reused while it's read, which is detected with an optimistic read of the segment's
+ * base position.
+ */
+class PostArena {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES + Short.BYTES;
+
+    private final int segmentBytes;
+    private final ByteBuffer[] segments;
+    private final StampedLock[] segmentLocks;
+    private final long[] segmentBases;
+    private long position;
+
+    PostArena(long capacityBytes, int segmentBytes) {
+        int segmentCount = (int) Math.max(2, capacityBytes / segmentBytes);
+        this.segmentBytes = segmentBytes;
+        this.segments = new ByteBuffer[segmentCount];
+        this.segmentLocks = new StampedLock[segmentCount];
+        this.segmentBases = new long[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = ByteBuffer.allocateDirect(segmentBytes);
+            segmentLocks[i] = new StampedLock();
+            segmentBases[i] = -1;
+        }
+    }
+
+    synchronized long append(PostDto post) {
+        byte[] username = post.getUsername().getBytes(StandardCharsets.UTF_8);
+        byte[] content = post.getContent().getBytes(StandardCharsets.UTF_8);
+        int length = HEADER_BYTES + username.length + content.length;
+        if (length > segmentBytes || username.length > Short.MAX_VALUE) {
+            return -1;
+        }
+
+        int offset = (int) (position % segmentBytes);
+        if (offset + length > segmentBytes) {
+            position += segmentBytes - offset;
+            offset = 0;
+        }
+        int segment = segmentIndex(position);
+        if (offset == 0) {
+            reuse(segment, position);
+        }
+
+        ByteBuffer buffer = segments[segment].duplicate();
+        buffer.position(offset);
+        buffer.putInt(length);
+        buffer.putLong(post.getId());
+        buffer.putLong(post.getCreatedDate().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(post.getCreatedDate().getNano());
+        buffer.putShort((short) username.length);
+        buffer.put(username);
+        buffer.put(content);
+
+        long address = position;
+        position += length;
+
+        return address;
+    }
+
+    PostDto read(long address) {
+        int segment = segmentIndex(address);
+        long base = address - address % segmentBytes;
+        StampedLock lock = segmentLocks[segment];
+        long stamp = lock.tryOptimisticRead();
+        if (segmentBases[segment] != base) {
+            return null;
+        }
+
+        PostDto post;
+        try {
+            post = decode(segments[segment].duplicate(), (int) (address - base));
+        } catch (RuntimeException e) {
+            // the segment was reused while reading, so the bytes read may be garbage
+            post = null;
+        }
+
+        return lock.validate(stamp) ? post : null;
+    }
+
+    long capacity() {
+        return (long) segments.length * segmentBytes;
+    }
+
+    synchronized long written() {
+        return position;
+    }
+
+    private void reuse(int segment, long base) {
+        StampedLock lock = segmentLocks[segment];
+        long stamp = lock.writeLock();
+        try {
+            segmentBases[segment] = base;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private PostDto decode(ByteBuffer buffer, int offset) {
+        buffer.position(offset);
+        int length = buffer.getInt();
+        if (length < HEADER_BYTES || length > segmentBytes - offset) {
+            return null;
+        }
+        long id = buffer.getLong();
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        int usernameLength = buffer.getShort();
+        if (usernameLength < 0 || usernameLength > length - HEADER_BYTES) {
+            return null;
+        }
+        byte[] username = new byte[usernameLength];
+        buffer.get(username);
+        byte[] content = new byte[length - HEADER_BYTES - usernameLength];
+        buffer.get(content);
+
+        return new PostDto(id, new String(username, StandardCharsets.UTF_8),
+                new String(content, StandardCharsets.UTF_8),
+                LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+    }
+
+    private int segmentIndex(long address) {
+        return (int) ((address / segmentBytes) % segments.length);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,171 @@
+package posting.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import posting.domain.model.PostDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache of the newest posts of users' timelines. The posts themselves live off-heap in a {@link PostArena}; the heap
+ * only holds one address per cached post. Every cached timeline is stamped with the timeline tag computed before
+ * its posts were read, and is only served for the same tag, so a timeline that changed since is never served.
+ * Timelines whose posts were overwritten in the arena are dropped on their next read.
+ * <p>
+ * When a user follows someone, the followed user's newest posts are merged into the follower's cached timeline,
+ * which is restamped with the tag the timeline has once the follow is counted, instead of reloading it from the
+ * database on the next read.
+ */
+@Component
+public class TimelineCache {
+
+    private static final Comparator<PostDto> NEWEST_FIRST = Comparator
+            .comparing(PostDto::getCreatedDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(PostDto::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final TimelineCacheProperties properties;
+    private final PostArena arena;
+    private final ConcurrentMap<String, CachedTimeline> timelines = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter merges;
+
+    public TimelineCache(TimelineCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.arena = new PostArena(properties.getArenaBytes(), properties.getSegmentBytes());
+        this.hits = meterRegistry.counter("posting.timeline-cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("posting.timeline-cache.requests", "result", "miss");
+        this.merges = meterRegistry.counter("posting.timeline-cache.merges");
+        meterRegistry.gauge("posting.timeline-cache.timelines", timelines, ConcurrentMap::size);
+        meterRegistry.gauge("posting.timeline-cache.arena.capacity.bytes", arena, PostArena::capacity);
+        meterRegistry.gauge("posting.timeline-cache.arena.written.bytes", arena, PostArena::written);
+    }
+
+    public int getTimelineSize() {
+        return properties.getTimelineSize();
+    }
+
+    public boolean isCached(String username) {
+        return timelines.containsKey(username);
+    }
+
+    public CachedPage getPage(String username, String tag, int page, int size) {
+        CachedTimeline timeline = timelines.get(username);
+        if (timeline == null || !timeline.tag.equals(tag) || !timeline.covers(page, size)) {
+            misses.increment();
+            return null;
+        }
+
+        int from = (int) Math.min((long) page * size, timeline.addresses.length);
+        int to = (int) Math.min((long) from + size, timeline.addresses.length);
+        List<PostDto> posts = read(username, timeline, from, to);
+        if (posts == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+
+        return CachedPage.of(posts, timeline.totalPosts, 0, size);
+    }
+
+    public void put(String username, String tag, List<PostDto> newestPosts, long totalPosts) {
+        long[] addresses = append(newestPosts);
+        if (addresses == null) {
+            return;
+        }
+
+        if (!timelines.containsKey(username) && timelines.size() >= properties.getMaxTimelines()) {
+            Iterator<String> usernames = timelines.keySet().iterator();
+            if (usernames.hasNext()) {
+                timelines.remove(usernames.next());
+            }
+        }
+        timelines.put(username, new CachedTimeline(tag, totalPosts, addresses));
+    }
+
+    /**
+     * Merges the newest posts of a newly followed user into the cached timeline of the follower, if there is one.
+     *
+     * @param tagAfterFollow maps the tag the cached timeline was read at to the tag of the timeline including the
+     *                       followed user's posts
+     */
+    public void mergeFollowed(String username, UnaryOperator<String> tagAfterFollow, List<PostDto> followedPosts,
+                              long followedTotalPosts) {
+        CachedTimeline timeline = timelines.get(username);
+        if (timeline == null) {
+            return;
+        }
+        List<PostDto> cachedPosts = read(username, timeline, 0, timeline.addresses.length);
+        if (cachedPosts == null) {
+            return;
+        }
+
+        long[] addresses = append(merge(cachedPosts, followedPosts, properties.getTimelineSize()));
+        if (addresses != null && timelines.replace(username, timeline, new CachedTimeline(
+                tagAfterFollow.apply(timeline.tag), timeline.totalPosts + followedTotalPosts, addresses))) {
+            merges.increment();
+        }
+    }
+
+    private static List<PostDto> merge(List<PostDto> first, List<PostDto> second, int limit) {
+        List<PostDto> merged = new ArrayList<>(Math.min(first.size() + second.size(), limit));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            if (j == second.size() || i < first.size() && NEWEST_FIRST.compare(first.get(i), second.get(j)) <= 0) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    private List<PostDto> read(String username, CachedTimeline timeline, int from, int to) {
+        List<PostDto> posts = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            PostDto post = arena.read(timeline.addresses[i]);
+            if (post == null) {
+                timelines.remove(username, timeline);
+                return null;
+            }
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    private long[] append(List<PostDto> posts) {
+        long[] addresses = new long[posts.size()];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = arena.append(posts.get(i));
+            if (addresses[i] < 0) {
+                return null;
+            }
+        }
+        return addresses;
+    }
+
+    private static final class CachedTimeline {
+
+        private final String tag;
+        private final long totalPosts;
+        private final long[] addresses;
+
+        private CachedTimeline(String tag, long totalPosts, long[] addresses) {
+            this.tag = tag;
+            this.totalPosts = totalPosts;
+            this.addresses = addresses;
+        }
+
+        private boolean covers(int page, int size) {
+            return (long) (page + 1) * size <= addresses.length || addresses.length == totalPosts;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package posting.service.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "posting.timeline-cache")
+public class TimelineCacheProperties {
+
+    private long arenaBytes = 64L * 1024 * 1024;
+    private int segmentBytes = 4 * 1024 * 1024;
+    private int timelineSize = 100;
+    private int maxTimelines = 100_000;
+    private int warmupUsers = 1000;
+    private int warmupConcurrency = 4;
+    private int warmupPostedWithinHours = 24;
+
+    public long getArenaBytes() {
+        return arenaBytes;
+    }
+
+    public void setArenaBytes(long arenaBytes) {
+        this.arenaBytes = arenaBytes;
+    }
+
+    public int getSegmentBytes() {
+        return segmentBytes;
+    }
+
+    public void setSegmentBytes(int segmentBytes) {
+        this.segmentBytes = segmentBytes;
+    }
+
+    public int getTimelineSize() {
+        return timelineSize;
+    }
+
+    public void setTimelineSize(int timelineSize) {
+        this.timelineSize = timelineSize;
+    }
+
+    public int getMaxTimelines() {
+        return maxTimelines;
+    }
+
+    public void setMaxTimelines(int maxTimelines) {
+        this.maxTimelines = maxTimelines;
+    }
+
+    public int getWarmupUsers() {
+        return warmupUsers;
+    }
+
+    public void setWarmupUsers(int warmupUsers) {
+        this.warmupUsers = warmupUsers;
+    }
+
+    public int getWarmupConcurrency() {
+        return warmupConcurrency;
+    }
+
+    public void setWarmupConcurrency(int warmupConcurrency) {
+        this.warmupConcurrency = warmupConcurrency;
+    }
+
+    public int getWarmupPostedWithinHours() {
+        return warmupPostedWithinHours;
+    }
+
+    public void setWarmupPostedWithinHours(int warmupPostedWithinHours) {
+        this.warmupPostedWithinHours = warmupPostedWithinHours;
+    }
+}
\ No newline at end of file
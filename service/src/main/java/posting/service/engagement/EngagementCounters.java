@@ -0,0 +1,203 @@
+package posting.service.engagement;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import posting.domain.model.PostDto;
+import posting.persistence.entity.PostCounts;
+import posting.persistence.entity.PostCountsChange;
+import posting.persistence.repository.PostCountsChangeRepository;
+import posting.persistence.repository.PostCountsRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Likes and reposts of posts, counted in memory and written to the database in batches every
+ * {@code posting.engagement.flush-interval-millis}, so that a post liked by many users at once doesn't make them all
+ * wait for the lock on its row.
+ * <p>
+ * Like a {@link java.util.concurrent.atomic.LongAdder}, pending increments are spread over
+ * {@code posting.engagement.stripes} stripes picked by thread, so concurrent likes of the same post rarely contend.
+ * {@link #flush()} takes the increments out of every stripe, sums them per post and adds them to the stored counts in
+ * one batch. Reads add the increments that are not stored yet to the stored counts, so counts include every
+ * committed like; while a batch is being written, they may briefly count it twice or not at all.
+ * <p>
+ * Every increment is also stored as a {@link PostCountsChange} in the transaction of the like, and deleted by the
+ * flush adding it to the counts. {@link #recover()} adds the changes that are older than
+ * {@code posting.engagement.recover-after-millis}, which an instance stopped before flushing them, so that the counts
+ * end up matching the likes and reposts. A change is only added by whichever of the two deletes it.
+ */
+@Component
+public class EngagementCounters {
+
+    private final PostCountsRepository postCountsRepository;
+    private final PostCountsChangeRepository postCountsChangeRepository;
+    private final EngagementProperties properties;
+    private final Stripe[] stripes;
+    private final Timer flushTime;
+    private final Counter flushedPosts;
+    private final Counter recoveredChanges;
+    private volatile Map<Long, long[]> flushing = Collections.emptyMap();
+
+    public EngagementCounters(PostCountsRepository postCountsRepository,
+                              PostCountsChangeRepository postCountsChangeRepository, EngagementProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.postCountsRepository = postCountsRepository;
+        this.postCountsChangeRepository = postCountsChangeRepository;
+        this.properties = properties;
+        this.stripes = new Stripe[properties.getStripes()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.flushTime = meterRegistry.timer("posting.engagement.flush");
+        this.flushedPosts = meterRegistry.counter("posting.engagement.flushed-posts");
+        this.recoveredChanges = meterRegistry.counter("posting.engagement.recovered-changes");
+        meterRegistry.gauge("posting.engagement.pending-posts", this, EngagementCounters::pendingPosts);
+    }
+
+    /**
+     * Counts a committed change.
+     */
+    public void add(PostCountsChange change) {
+        stripes[(int) (Thread.currentThread().getId() % stripes.length)].add(change);
+    }
+
+    /**
+     * Returns the posts with their current counts, read with a single query.
+     */
+    public List<PostDto> withCounts(List<PostDto> posts) {
+        if (posts.isEmpty()) {
+            return posts;
+        }
+
+        List<Long> ids = posts.stream().map(PostDto::getId).collect(Collectors.toList());
+        Map<Long, long[]> counts = new HashMap<>();
+        for (PostCounts stored : postCountsRepository.findAllById(ids)) {
+            counts.put(stored.getPostId(), new long[]{stored.getLikes(), stored.getReposts()});
+        }
+        addTo(counts, flushing, ids);
+        for (Stripe stripe : stripes) {
+            stripe.addTo(counts, ids);
+        }
+        if (counts.isEmpty()) {
+            return posts;
+        }
+
+        List<PostDto> countedPosts = new ArrayList<>(posts.size());
+        for (PostDto post : posts) {
+            long[] postCounts = counts.get(post.getId());
+            countedPosts.add(postCounts == null ? post : post.withCounts(postCounts[0], postCounts[1]));
+        }
+        return countedPosts;
+    }
+
+    /**
+     * Writes the pending increments to the database. If that fails, they are kept for the next flush.
+     */
+    public void flush() {
+        List<PostCountsChange> changes = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            changes.addAll(stripe.drain());
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Map<Long, long[]> batch = new HashMap<>();
+        changes.forEach(change -> add(batch, change));
+        flushing = batch;
+        try {
+            flushTime.record(() -> postCountsRepository.applyAll(changes));
+            flushedPosts.increment(batch.size());
+        } catch (RuntimeException exception) {
+            changes.forEach(stripes[0]::add);
+            throw exception;
+        } finally {
+            flushing = Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Adds the stored changes older than {@code posting.engagement.recover-after-millis} to the counts, in batches of
+     * {@code posting.engagement.recovery-batch-size}, and returns how many were added. Changes this instance failed
+     * to flush for that long are counted twice by reads until it flushes them, which then skips them.
+     */
+    public int recover() {
+        LocalDateTime createdBefore = LocalDateTime.now().minus(properties.getRecoverAfterMillis(), ChronoUnit.MILLIS);
+        int batchSize = properties.getRecoveryBatchSize();
+        int recovered = 0;
+        List<PostCountsChange> changes;
+        do {
+            changes = postCountsChangeRepository.findCreatedBefore(createdBefore, PageRequest.of(0, batchSize));
+            recovered += postCountsRepository.applyAll(changes);
+        } while (changes.size() == batchSize);
+        recoveredChanges.increment(recovered);
+
+        return recovered;
+    }
+
+    private int pendingPosts() {
+        int pending = 0;
+        for (Stripe stripe : stripes) {
+            pending += stripe.size();
+        }
+        return pending;
+    }
+
+    private static void add(Map<Long, long[]> counts, PostCountsChange change) {
+        long[] postCounts = counts.computeIfAbsent(change.getPostId(), id -> new long[2]);
+        postCounts[0] += change.getLikes();
+        postCounts[1] += change.getReposts();
+    }
+
+    private static void addTo(Map<Long, long[]> target, Map<Long, long[]> source, List<Long> ids) {
+        for (Long id : ids) {
+            long[] counts = source.get(id);
+            if (counts != null) {
+                long[] targetCounts = target.computeIfAbsent(id, key -> new long[2]);
+                targetCounts[0] += counts[0];
+                targetCounts[1] += counts[1];
+            }
+        }
+    }
+
+    /**
+     * The changes counted by some of the threads since the last flush, along with their sums per post for reads.
+     */
+    private static final class Stripe {
+
+        private List<PostCountsChange> changes = new ArrayList<>();
+        private Map<Long, long[]> pending = new HashMap<>();
+
+        synchronized void add(PostCountsChange change) {
+            changes.add(change);
+            EngagementCounters.add(pending, change);
+        }
+
+        synchronized List<PostCountsChange> drain() {
+            List<PostCountsChange> drained = changes;
+            changes = new ArrayList<>();
+            pending = new HashMap<>();
+            return drained;
+        }
+
+        synchronized void addTo(Map<Long, long[]> counts, List<Long> ids) {
+            if (!pending.isEmpty()) {
+                EngagementCounters.addTo(counts, pending, ids);
+            }
+        }
+
+        synchronized int size() {
+            return pending.size();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package posting.service.engagement;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flushes the {@link EngagementCounters} to the database every {@code posting.engagement.flush-interval-millis}, and
+ * once more when the application stops. Each run then recovers the changes left by instances that stopped without
+ * flushing them.
+ */
+@Component
+public class EngagementFlushWorker implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EngagementFlushWorker.class);
+
+    private final EngagementCounters engagementCounters;
+    private final EngagementProperties properties;
+    private volatile ScheduledExecutorService executor;
+
+    public EngagementFlushWorker(EngagementCounters engagementCounters, EngagementProperties properties) {
+        this.engagementCounters = engagementCounters;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("engagement-flush-"));
+        executor.scheduleWithFixedDelay(this::run, properties.getFlushIntervalMillis(),
+                properties.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void run() {
+        flush();
+        try {
+            int recovered = engagementCounters.recover();
+            if (recovered > 0) {
+                LOGGER.info("Recovered {} unflushed like and repost changes", recovered);
+            }
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Failed to recover like and repost changes, retrying on next run", exception);
+        }
+    }
+
+    private void flush() {
+        try {
+            engagementCounters.flush();
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Failed to flush like and repost counts, retrying on next run", exception);
+        }
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService runningExecutor = executor;
+        executor = null;
+        runningExecutor.shutdown();
+        try {
+            runningExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
\ No newline at end of file
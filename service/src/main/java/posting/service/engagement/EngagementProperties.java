@@ -0,0 +1,46 @@
+package posting.service.engagement;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "posting.engagement")
+public class EngagementProperties {
+
+    private int stripes = 16;
+    private long flushIntervalMillis = 1000;
+    private long recoverAfterMillis = 60000;
+    private int recoveryBatchSize = 1000;
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public long getRecoverAfterMillis() {
+        return recoverAfterMillis;
+    }
+
+    public void setRecoverAfterMillis(long recoverAfterMillis) {
+        this.recoverAfterMillis = recoverAfterMillis;
+    }
+
+    public int getRecoveryBatchSize() {
+        return recoveryBatchSize;
+    }
+
+    public void setRecoveryBatchSize(int recoveryBatchSize) {
+        this.recoveryBatchSize = recoveryBatchSize;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package posting.service.engagement;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import posting.persistence.entity.PostCountsChange;
+import posting.persistence.entity.PostReaction;
+import posting.persistence.entity.ReactionType;
+import posting.persistence.entity.User;
+import posting.persistence.repository.PostCountsChangeRepository;
+import posting.persistence.repository.PostReactionRepository;
+import posting.persistence.repository.PostRepository;
+import posting.persistence.repository.UserRepository;
+import posting.service.lock.UsernameLocks;
+import posting.service.transaction.AfterCommit;
+import posting.service.validation.PostingServiceValidator;
+
+/**
+ * Likes and reposts. Each user can like and repost a post once: reactions are recorded per user, under the user's
+ * lock so that concurrent requests of the same user can't both record one, and liking a post twice changes nothing.
+ * Each change of the counts is stored with the reaction, and only counted in the {@link EngagementCounters} once it is
+ * committed.
+ * <p>
+ * Only posts that have not been compacted into segments or deleted can be liked or reposted, since compacted posts
+ * can't be looked up by id alone; likes and reposts of compacted posts can still be taken back.
+ */
+@Service
+public class EngagementService implements posting.domain.service.EngagementService {
+
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final PostReactionRepository postReactionRepository;
+    private final PostCountsChangeRepository postCountsChangeRepository;
+    private final UsernameLocks usernameLocks;
+    private final EngagementCounters engagementCounters;
+    private final PostingServiceValidator validator;
+
+    public EngagementService(UserRepository userRepository, PostRepository postRepository,
+                             PostReactionRepository postReactionRepository,
+                             PostCountsChangeRepository postCountsChangeRepository, UsernameLocks usernameLocks,
+                             EngagementCounters engagementCounters, PostingServiceValidator validator) {
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.postReactionRepository = postReactionRepository;
+        this.postCountsChangeRepository = postCountsChangeRepository;
+        this.usernameLocks = usernameLocks;
+        this.engagementCounters = engagementCounters;
+        this.validator = validator;
+    }
+
+    @Override
+    @Transactional
+    public void like(String username, long postId) {
+        add(username, postId, ReactionType.LIKE);
+    }
+
+    @Override
+    @Transactional
+    public void unlike(String username, long postId) {
+        remove(username, postId, ReactionType.LIKE);
+    }
+
+    @Override
+    @Transactional
+    public void repost(String username, long postId) {
+        add(username, postId, ReactionType.REPOST);
+    }
+
+    @Override
+    @Transactional
+    public void unrepost(String username, long postId) {
+        remove(username, postId, ReactionType.REPOST);
+    }
+
+    private void add(String username, long postId, ReactionType type) {
+        User user = findExistingUser(username);
+        if (!postRepository.existsByIdAndDeletedFalse(postId)) {
+            throw validator.unknownPostException(postId);
+        }
+        usernameLocks.lockUntilTransactionCompletes(username);
+        if (postReactionRepository.existsById(PostReaction.Key.of(postId, user.getId(), type))) {
+            return;
+        }
+        postReactionRepository.save(PostReaction.of(postId, user, type));
+        countAfterCommit(PostCountsChange.of(postId, type, 1));
+    }
+
+    private void remove(String username, long postId, ReactionType type) {
+        User user = findExistingUser(username);
+        usernameLocks.lockUntilTransactionCompletes(username);
+        if (postReactionRepository.delete(postId, user.getId(), type) > 0) {
+            countAfterCommit(PostCountsChange.of(postId, type, -1));
+        }
+    }
+
+    private void countAfterCommit(PostCountsChange change) {
+        postCountsChangeRepository.save(change);
+        AfterCommit.run(() -> engagementCounters.add(change));
+    }
+
+    private User findExistingUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> validator.unknownUsernameException(username));
+    }
+}
\ No newline at end of file
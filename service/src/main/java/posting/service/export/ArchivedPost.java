@@ -0,0 +1,40 @@
+package posting.service.export;
+
+import posting.persistence.repository.PostRecord;
+
+import java.time.LocalDateTime;
+
+public class ArchivedPost implements PostRecord {
+
+    private final Long id;
+    private final String username;
+    private final String content;
+    private final LocalDateTime createdDate;
+
+    public ArchivedPost(Long id, String username, String content, LocalDateTime createdDate) {
+        this.id = id;
+        this.username = username;
+        this.content = content;
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getContent() {
+        return content;
+    }
+
+    @Override
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package posting.service.export;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "posting.export")
+public class ExportProperties {
+
+    private String directory = "export";
+    private int threads = 2;
+    private int rangeSize = 100000;
+    private int batchSize = 1000;
+    private int maxPostsPerSecond = 20000;
+    private long pauseAbovePoolWaitMillis = 50;
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getRangeSize() {
+        return rangeSize;
+    }
+
+    public void setRangeSize(int rangeSize) {
+        this.rangeSize = rangeSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxPostsPerSecond() {
+        return maxPostsPerSecond;
+    }
+
+    public void setMaxPostsPerSecond(int maxPostsPerSecond) {
+        this.maxPostsPerSecond = maxPostsPerSecond;
+    }
+
+    public long getPauseAbovePoolWaitMillis() {
+        return pauseAbovePoolWaitMillis;
+    }
+
+    public void setPauseAbovePoolWaitMillis(long pauseAbovePoolWaitMillis) {
+        this.pauseAbovePoolWaitMillis = pauseAbovePoolWaitMillis;
+    }
+}
\ No newline at end of file
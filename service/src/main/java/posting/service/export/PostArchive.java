@@ -0,0 +1,190 @@
+package posting.service.export;
+
+import posting.persistence.repository.PostRecord;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Columnar archive of posts, one file per export chunk. The file starts with the number of posts and the compressed
+ * length of each column, followed by the columns, each deflated on its own so that a reader can skip the columns it
+ * doesn't need:
+ * <ol>
+ * <li>ids, as deltas from the previous id,</li>
+ * <li>creation dates in microseconds since the epoch, as deltas from the previous date,</li>
+ * <li>the distinct usernames,</li>
+ * <li>authors, as indexes into the usernames,</li>
+ * <li>contents, as length-prefixed UTF-8.</li>
+ * </ol>
+ * Numbers are written as variable-length integers, deltas zigzag-encoded so that small negative deltas stay short.
+ * The columns are compressed as the posts are written, so only their compressed bytes are held in memory.
+ */
+public final class PostArchive {
+
+    static final int MAGIC = 0x50415231;
+    private static final int COLUMNS = 5;
+
+    private PostArchive() {
+    }
+
+    public static void write(Path path, List<? extends PostRecord> posts) throws IOException {
+        ByteArrayOutputStream[] compressedColumns = new ByteArrayOutputStream[COLUMNS];
+        Deflater[] deflaters = new Deflater[COLUMNS];
+        try {
+            OutputStream[] columns = new OutputStream[COLUMNS];
+            for (int i = 0; i < COLUMNS; i++) {
+                compressedColumns[i] = new ByteArrayOutputStream();
+                deflaters[i] = new Deflater(Deflater.BEST_COMPRESSION);
+                columns[i] = new BufferedOutputStream(new DeflaterOutputStream(compressedColumns[i], deflaters[i]));
+            }
+            Map<String, Integer> usernameIndexes = new HashMap<>();
+            long previousId = 0;
+            long previousMicros = 0;
+            for (PostRecord post : posts) {
+                writeVarLong(columns[0], zigzag(post.getId() - previousId));
+                previousId = post.getId();
+                long micros = toMicros(post.getCreatedDate());
+                writeVarLong(columns[1], zigzag(micros - previousMicros));
+                previousMicros = micros;
+                Integer usernameIndex = usernameIndexes.get(post.getUsername());
+                if (usernameIndex == null) {
+                    usernameIndex = usernameIndexes.size();
+                    usernameIndexes.put(post.getUsername(), usernameIndex);
+                    writeString(columns[2], post.getUsername());
+                }
+                writeVarLong(columns[3], usernameIndex);
+                writeString(columns[4], post.getContent());
+            }
+            for (OutputStream column : columns) {
+                column.close();
+            }
+        } finally {
+            for (Deflater deflater : deflaters) {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+        }
+
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(temporaryPath))) {
+            output.writeInt(MAGIC);
+            output.writeInt(posts.size());
+            for (ByteArrayOutputStream column : compressedColumns) {
+                output.writeInt(column.size());
+            }
+            for (ByteArrayOutputStream column : compressedColumns) {
+                column.writeTo(output);
+            }
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static List<PostRecord> read(Path path) throws IOException {
+        try (DataInputStream input = new DataInputStream(Files.newInputStream(path))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a post archive: " + path);
+            }
+            int size = input.readInt();
+            int[] lengths = new int[COLUMNS];
+            for (int i = 0; i < COLUMNS; i++) {
+                lengths[i] = input.readInt();
+            }
+            InputStream[] columns = new InputStream[COLUMNS];
+            for (int i = 0; i < COLUMNS; i++) {
+                byte[] column = new byte[lengths[i]];
+                input.readFully(column);
+                columns[i] = new BufferedInputStream(new InflaterInputStream(new ByteArrayInputStream(column)));
+            }
+
+            List<String> usernames = new ArrayList<>();
+            List<PostRecord> posts = new ArrayList<>(size);
+            long id = 0;
+            long micros = 0;
+            for (int i = 0; i < size; i++) {
+                id += unzigzag(readVarLong(columns[0]));
+                micros += unzigzag(readVarLong(columns[1]));
+                int usernameIndex = (int) readVarLong(columns[3]);
+                if (usernameIndex == usernames.size()) {
+                    usernames.add(readString(columns[2]));
+                }
+                posts.add(new ArchivedPost(id, usernames.get(usernameIndex), readString(columns[4]),
+                        fromMicros(micros)));
+            }
+
+            return posts;
+        }
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), dateTime);
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC).plus(micros, ChronoUnit.MICROS);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeString(OutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(InputStream input) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(input)];
+        new DataInputStream(input).readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(OutputStream output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write((int) value);
+    }
+
+    private static long readVarLong(InputStream input) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = input.read();
+            if (b < 0) {
+                throw new IOException("Unexpected end of post archive column");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,351 @@
+package posting.service.export;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import posting.persistence.entity.Post;
+import posting.persistence.pool.ConnectionWaitMonitor;
+import posting.persistence.repository.PostRecord;
+import posting.persistence.repository.PostRepository;
+import posting.service.segment.ColdPosts;
+import posting.service.segment.ColdSegments;
+import posting.service.segment.PostSegment;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exports all posts into {@link PostArchive} files for analytics, without going through the per-user read paths.
+ * Posts still in the database are exported in ranges of {@code posting.export.range-size} ids, read in id order by
+ * {@code posting.export.threads} threads in parallel. A cold segment holds a whole week of posts, so it is split
+ * into chunks of consecutive authors with about {@code posting.export.range-size} posts each.
+ * <p>
+ * The export is pinned to the posts that existed when it was started: the id range and the cold segments, with the
+ * first author of each of their chunks, are written to a manifest, and a chunk whose archive file exists is
+ * complete. Starting the export again resumes it
+ * from those files, unless it is restarted explicitly or compaction moved posts into new segments in the meantime.
+ * While it runs, the export pins its {@link ColdPosts} view, so that compaction keeps the rows of the posts it reads
+ * from the database even if it moves them into a new segment.
+ * Reads are paced to {@code posting.export.max-posts-per-second} and pause while requests wait longer than
+ * {@code posting.export.pause-above-pool-wait-millis} for database connections.
+ */
+@Component
+public class PostExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostExporter.class);
+    private static final String MANIFEST = "manifest.properties";
+    private static final String ARCHIVE_SUFFIX = ".parc";
+    private static final long PAUSE_MILLIS = 100;
+
+    private final PostRepository postRepository;
+    private final ColdSegments coldSegments;
+    private final ConnectionWaitMonitor connectionWaitMonitor;
+    private final ExportProperties properties;
+    private final Counter exportedPosts;
+    private final Counter pauses;
+    private final AtomicInteger completedChunks = new AtomicInteger();
+    private final AtomicInteger totalChunks = new AtomicInteger();
+    private final AtomicLong postsInRun = new AtomicLong();
+    private final Object throttleLock = new Object();
+    private volatile CompletableFuture<Void> export = CompletableFuture.completedFuture(null);
+    private volatile ExecutorService executor;
+    private long nextReadNanos;
+
+    public PostExporter(PostRepository postRepository, ColdSegments coldSegments,
+                        ConnectionWaitMonitor connectionWaitMonitor, ExportProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.coldSegments = coldSegments;
+        this.connectionWaitMonitor = connectionWaitMonitor;
+        this.properties = properties;
+        this.exportedPosts = meterRegistry.counter("posting.export.posts");
+        this.pauses = meterRegistry.counter("posting.export.pauses");
+        meterRegistry.gauge("posting.export.remaining-chunks", this,
+                exporter -> exporter.totalChunks.get() - exporter.completedChunks.get());
+    }
+
+    public CompletableFuture<Void> start(boolean restart) {
+        return start(Paths.get(properties.getDirectory()), restart);
+    }
+
+    /**
+     * Starts exporting into the directory, or resumes the export found there unless {@code restart} is set. Returns
+     * the running export if there is one.
+     */
+    public synchronized CompletableFuture<Void> start(Path directory, boolean restart) {
+        if (isRunning()) {
+            return export;
+        }
+
+        ColdPosts coldPosts = coldSegments.pin();
+        List<Chunk> chunks;
+        try {
+            chunks = plan(directory, restart, coldPosts);
+        } catch (IOException exception) {
+            coldSegments.unpin(coldPosts);
+            throw new UncheckedIOException("Failed to start export into " + directory, exception);
+        } catch (RuntimeException exception) {
+            coldSegments.unpin(coldPosts);
+            throw exception;
+        }
+        totalChunks.set(chunks.size());
+        completedChunks.set(0);
+        postsInRun.set(0);
+        long start = System.nanoTime();
+        ExecutorService chunkExecutor = Executors.newFixedThreadPool(properties.getThreads(),
+                new CustomizableThreadFactory("post-exporter-"));
+        executor = chunkExecutor;
+
+        CompletableFuture<?>[] exports = chunks.stream()
+                .map(chunk -> CompletableFuture.runAsync(() -> export(chunk), chunkExecutor))
+                .toArray(CompletableFuture[]::new);
+        export = CompletableFuture.allOf(exports).whenComplete((result, exception) -> {
+            chunkExecutor.shutdown();
+            coldSegments.unpin(coldPosts);
+            if (exception == null) {
+                LOGGER.info("Exported {} posts into {} in {} ms", postsInRun.get(), directory,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } else {
+                LOGGER.warn("Export into {} failed after {} of {} chunks, start it again to resume", directory,
+                        completedChunks.get(), totalChunks.get(), exception);
+            }
+        });
+
+        return export;
+    }
+
+    public boolean isRunning() {
+        return !export.isDone();
+    }
+
+    public int getCompletedChunks() {
+        return completedChunks.get();
+    }
+
+    public int getTotalChunks() {
+        return totalChunks.get();
+    }
+
+    public long getExportedPosts() {
+        return postsInRun.get();
+    }
+
+    @PreDestroy
+    public void stop() {
+        ExecutorService runningExecutor = executor;
+        if (runningExecutor != null) {
+            runningExecutor.shutdownNow();
+        }
+    }
+
+    private List<Chunk> plan(Path directory, boolean restart, ColdPosts coldPosts) throws IOException {
+        Files.createDirectories(directory);
+        Properties manifest = restart ? null : readManifest(directory);
+        String hotFrom = coldPosts.getHotFrom().toString();
+        String rangeSize = String.valueOf(properties.getRangeSize());
+        if (manifest == null || !hotFrom.equals(manifest.getProperty("hotFrom"))
+                || !rangeSize.equals(manifest.getProperty("rangeSize")) || !hasSegmentChunks(manifest, coldPosts)) {
+            if (manifest != null) {
+                LOGGER.info("Posts were compacted since the export into {} was started, starting it over", directory);
+            }
+            manifest = writeManifest(directory, coldPosts, rangeSize);
+        }
+
+        List<Chunk> chunks = new ArrayList<>();
+        for (PostSegment segment : coldPosts.getSegments()) {
+            String segmentName = segment.getPath().getFileName().toString();
+            NavigableSet<String> usernames = new TreeSet<>(segment.getUsernames());
+            int segmentChunks = Integer.parseInt(manifest.getProperty(segmentChunksKey(segmentName)));
+            for (int i = 0; i < segmentChunks; i++) {
+                String from = manifest.getProperty(segmentChunkKey(segmentName, i));
+                Set<String> chunkUsernames = i + 1 < segmentChunks
+                        ? usernames.subSet(from, manifest.getProperty(segmentChunkKey(segmentName, i + 1)))
+                        : usernames.tailSet(from);
+                chunks.add(new Chunk(directory.resolve("cold-" + segmentName + "-" + i + ARCHIVE_SUFFIX),
+                        () -> readSegment(coldPosts, segment, chunkUsernames)));
+            }
+        }
+        long minId = Long.parseLong(manifest.getProperty("minId"));
+        long maxId = Long.parseLong(manifest.getProperty("maxId"));
+        LocalDateTime hotFromDate = coldPosts.getHotFrom();
+        for (long from = minId; from <= maxId; from += properties.getRangeSize()) {
+            long rangeFrom = from;
+            long rangeTo = Math.min(from + properties.getRangeSize(), maxId + 1);
+            chunks.add(new Chunk(directory.resolve("posts-" + rangeFrom + ARCHIVE_SUFFIX),
+                    () -> readRange(rangeFrom, rangeTo, hotFromDate)));
+        }
+
+        return chunks;
+    }
+
+    private Properties writeManifest(Path directory, ColdPosts coldPosts, String rangeSize) throws IOException {
+        try (DirectoryStream<Path> archives = Files.newDirectoryStream(directory, "*" + ARCHIVE_SUFFIX)) {
+            for (Path archive : archives) {
+                Files.delete(archive);
+            }
+        }
+        LocalDateTime hotFrom = coldPosts.getHotFrom();
+        Long minId = postRepository.findMinIdCreatedSince(hotFrom);
+        Long maxId = postRepository.findMaxId();
+        Properties manifest = new Properties();
+        manifest.setProperty("hotFrom", hotFrom.toString());
+        manifest.setProperty("rangeSize", rangeSize);
+        manifest.setProperty("minId", String.valueOf(minId == null ? 1 : minId));
+        manifest.setProperty("maxId", String.valueOf(minId == null ? 0 : maxId));
+        for (PostSegment segment : coldPosts.getSegments()) {
+            String segmentName = segment.getPath().getFileName().toString();
+            int segmentChunks = 0;
+            long chunkPosts = 0;
+            for (String username : new TreeSet<>(segment.getUsernames())) {
+                int userPosts = segment.count(username);
+                if (segmentChunks == 0 || (chunkPosts > 0 && chunkPosts + userPosts > properties.getRangeSize())) {
+                    manifest.setProperty(segmentChunkKey(segmentName, segmentChunks++), username);
+                    chunkPosts = 0;
+                }
+                chunkPosts += userPosts;
+            }
+            manifest.setProperty(segmentChunksKey(segmentName), String.valueOf(segmentChunks));
+        }
+        try (OutputStream output = Files.newOutputStream(directory.resolve(MANIFEST))) {
+            manifest.store(output, "Post export");
+        }
+
+        return manifest;
+    }
+
+    private static boolean hasSegmentChunks(Properties manifest, ColdPosts coldPosts) {
+        for (PostSegment segment : coldPosts.getSegments()) {
+            if (!manifest.containsKey(segmentChunksKey(segment.getPath().getFileName().toString()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String segmentChunksKey(String segmentName) {
+        return "segment." + segmentName + ".chunks";
+    }
+
+    private static String segmentChunkKey(String segmentName, int chunk) {
+        return "segment." + segmentName + ".chunk." + chunk;
+    }
+
+    private static Properties readManifest(Path directory) throws IOException {
+        Path path = directory.resolve(MANIFEST);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        Properties manifest = new Properties();
+        try (InputStream input = Files.newInputStream(path)) {
+            manifest.load(input);
+        }
+
+        return manifest;
+    }
+
+    private void export(Chunk chunk) {
+        if (Files.exists(chunk.path)) {
+            completedChunks.incrementAndGet();
+            return;
+        }
+        try {
+            List<PostRecord> posts = chunk.reader.read();
+            PostArchive.write(chunk.path, posts);
+            postsInRun.addAndGet(posts.size());
+            exportedPosts.increment(posts.size());
+            completedChunks.incrementAndGet();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to export " + chunk.path, exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Export interrupted", exception);
+        }
+    }
+
+    private List<PostRecord> readRange(long from, long to, LocalDateTime hotFrom) throws InterruptedException {
+        List<PostRecord> posts = new ArrayList<>();
+        long afterId = from - 1;
+        List<PostRecord> batch;
+        do {
+            throttle(properties.getBatchSize());
+            batch = postRepository.findRecordsByIdBetween(afterId, to, hotFrom,
+                    PageRequest.of(0, properties.getBatchSize()));
+            posts.addAll(batch);
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == properties.getBatchSize());
+
+        return posts;
+    }
+
+    private List<PostRecord> readSegment(ColdPosts coldPosts, PostSegment segment, Set<String> usernames)
+            throws InterruptedException {
+        List<PostRecord> posts = new ArrayList<>();
+        for (String username : usernames) {
+            throttle(segment.count(username));
+            for (Post post : coldPosts.read(segment, username)) {
+                posts.add(new ArchivedPost(post.getId(), username, post.getContent(), post.getCreatedDate()));
+            }
+        }
+
+        return posts;
+    }
+
+    private void throttle(int posts) throws InterruptedException {
+        while (connectionWaitMonitor.getAverageWaitMillis() > properties.getPauseAbovePoolWaitMillis()) {
+            pauses.increment();
+            Thread.sleep(PAUSE_MILLIS);
+        }
+
+        long waitNanos;
+        synchronized (throttleLock) {
+            long now = System.nanoTime();
+            long readAt = Math.max(nextReadNanos, now);
+            nextReadNanos = readAt + posts * TimeUnit.SECONDS.toNanos(1) / properties.getMaxPostsPerSecond();
+            waitNanos = readAt - now;
+        }
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+
+    @FunctionalInterface
+    private interface ChunkReader {
+
+        List<PostRecord> read() throws InterruptedException;
+    }
+
+    private static final class Chunk {
+
+        private final Path path;
+        private final ChunkReader reader;
+
+        private Chunk(Path path, ChunkReader reader) {
+            this.path = path;
+            this.reader = reader;
+        }
+    }
+}
\ No newline at end of file
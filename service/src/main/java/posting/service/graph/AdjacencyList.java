@@ -0,0 +1,320 @@
+package posting.service.graph;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sorted set of node ids. Small lists are kept as a plain {@code int[]}; lists longer than
+ * {@link #COMPRESSION_THRESHOLD} are stored as varint-encoded gaps between consecutive ids, which takes one or two
+ * bytes per id for densely numbered nodes instead of four. The gaps are split into blocks of up to
+ * {@link #MAX_BLOCK_SIZE} ids, each starting from its own first id, so a lookup only decodes the block found by a
+ * binary search over the first ids, and an update re-encodes one block and copies the references to the others
+ * instead of re-encoding the whole list. Updates return a new list, so a list can be read without locking while it's
+ * being replaced.
+ */
+final class AdjacencyList {
+
+    static final AdjacencyList EMPTY = new AdjacencyList(new int[0], null, null, 0);
+
+    private static final int COMPRESSION_THRESHOLD = 64;
+    private static final int BLOCK_SIZE = 128;
+    private static final int MAX_BLOCK_SIZE = 2 * BLOCK_SIZE;
+    private static final int OBJECT_OVERHEAD_BYTES = 32;
+    private static final int BLOCK_OVERHEAD_BYTES = 24;
+
+    private final int[] ids;
+    private final int[] firstIds;
+    private final byte[][] blocks;
+    private final int size;
+
+    private AdjacencyList(int[] ids, int[] firstIds, byte[][] blocks, int size) {
+        this.ids = ids;
+        this.firstIds = firstIds;
+        this.blocks = blocks;
+        this.size = size;
+    }
+
+    static AdjacencyList of(int[] sortedIds) {
+        if (sortedIds.length <= COMPRESSION_THRESHOLD) {
+            return new AdjacencyList(sortedIds, null, null, sortedIds.length);
+        }
+
+        int blockCount = (sortedIds.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int[] firstIds = new int[blockCount];
+        byte[][] blocks = new byte[blockCount][];
+        for (int block = 0; block < blockCount; block++) {
+            int from = block * BLOCK_SIZE;
+            firstIds[block] = sortedIds[from];
+            blocks[block] = encode(sortedIds, from, Math.min(from + BLOCK_SIZE, sortedIds.length));
+        }
+
+        return new AdjacencyList(null, firstIds, blocks, sortedIds.length);
+    }
+
+    /**
+     * Returns the ids in either of the lists, in one pass over both.
+     */
+    static AdjacencyList union(AdjacencyList first, AdjacencyList second) {
+        int[] ids = new int[first.size + second.size];
+        int count = 0;
+        Cursor firstCursor = first.cursor();
+        Cursor secondCursor = second.cursor();
+        boolean hasFirst = firstCursor.hasNext();
+        boolean hasSecond = secondCursor.hasNext();
+        int firstId = hasFirst ? firstCursor.next() : 0;
+        int secondId = hasSecond ? secondCursor.next() : 0;
+        while (hasFirst || hasSecond) {
+            int next = hasFirst && (!hasSecond || firstId <= secondId) ? firstId : secondId;
+            ids[count++] = next;
+            if (hasFirst && firstId == next) {
+                hasFirst = firstCursor.hasNext();
+                firstId = hasFirst ? firstCursor.next() : 0;
+            }
+            if (hasSecond && secondId == next) {
+                hasSecond = secondCursor.hasNext();
+                secondId = hasSecond ? secondCursor.next() : 0;
+            }
+        }
+
+        return of(count == ids.length ? ids : Arrays.copyOf(ids, count));
+    }
+
+    static int intersectionSize(AdjacencyList first, AdjacencyList second) {
+        Cursor firstCursor = first.cursor();
+        Cursor secondCursor = second.cursor();
+        int count = 0;
+        if (!firstCursor.hasNext() || !secondCursor.hasNext()) {
+            return 0;
+        }
+        int firstId = firstCursor.next();
+        int secondId = secondCursor.next();
+        while (true) {
+            if (firstId == secondId) {
+                count++;
+            }
+            if (firstId <= secondId) {
+                if (!firstCursor.hasNext()) {
+                    return count;
+                }
+                firstId = firstCursor.next();
+            } else {
+                if (!secondCursor.hasNext()) {
+                    return count;
+                }
+                secondId = secondCursor.next();
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long bytes() {
+        if (size == 0) {
+            return 0;
+        }
+        if (ids != null) {
+            return OBJECT_OVERHEAD_BYTES + (long) ids.length * Integer.BYTES;
+        }
+
+        long bytes = OBJECT_OVERHEAD_BYTES + (long) blocks.length * BLOCK_OVERHEAD_BYTES;
+        for (byte[] block : blocks) {
+            bytes += block.length;
+        }
+
+        return bytes;
+    }
+
+    boolean contains(int id) {
+        if (ids != null) {
+            return Arrays.binarySearch(ids, id) >= 0;
+        }
+
+        int block = blockOf(id);
+        return block >= 0 && Arrays.binarySearch(decode(block), id) >= 0;
+    }
+
+    AdjacencyList with(int id) {
+        if (ids == null) {
+            int block = Math.max(blockOf(id), 0);
+            int[] blockIds = decode(block);
+            int index = Arrays.binarySearch(blockIds, id);
+
+            return index >= 0 ? this : replaceBlock(block, inserted(blockIds, -index - 1, id), size + 1);
+        }
+
+        int index = Arrays.binarySearch(ids, id);
+        return index >= 0 ? this : of(inserted(ids, -index - 1, id));
+    }
+
+    AdjacencyList without(int id) {
+        if (ids == null) {
+            int block = blockOf(id);
+            if (block < 0) {
+                return this;
+            }
+            int[] blockIds = decode(block);
+            int index = Arrays.binarySearch(blockIds, id);
+            if (index < 0) {
+                return this;
+            }
+            AdjacencyList updated = replaceBlock(block, removed(blockIds, index), size - 1);
+
+            return updated.size <= COMPRESSION_THRESHOLD ? of(updated.toArray()) : updated;
+        }
+
+        int index = Arrays.binarySearch(ids, id);
+        return index < 0 ? this : of(removed(ids, index));
+    }
+
+    int[] toArray() {
+        if (ids != null) {
+            return ids;
+        }
+
+        int[] decoded = new int[size];
+        Cursor cursor = cursor();
+        for (int i = 0; i < size; i++) {
+            decoded[i] = cursor.next();
+        }
+
+        return decoded;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Returns the index of the block that would hold the id, or -1 if the id is below the first one.
+     */
+    private int blockOf(int id) {
+        int index = Arrays.binarySearch(firstIds, id);
+
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private int[] decode(int block) {
+        byte[] gaps = blocks[block];
+        int[] decoded = new int[gaps.length + 1];
+        int count = 0;
+        int previous = firstIds[block];
+        decoded[count++] = previous;
+        int position = 0;
+        while (position < gaps.length) {
+            int gap = 0;
+            int shift = 0;
+            byte next;
+            do {
+                next = gaps[position++];
+                gap |= (next & 0x7f) << shift;
+                shift += 7;
+            } while ((next & 0x80) != 0);
+            previous += gap;
+            decoded[count++] = previous;
+        }
+
+        return Arrays.copyOf(decoded, count);
+    }
+
+    /**
+     * Replaces a block by the given ids, splitting it in two when it has grown too large and dropping it when empty.
+     */
+    private AdjacencyList replaceBlock(int block, int[] blockIds, int newSize) {
+        int parts = blockIds.length == 0 ? 0 : blockIds.length > MAX_BLOCK_SIZE ? 2 : 1;
+        int blockCount = blocks.length - 1 + parts;
+        int[] newFirstIds = new int[blockCount];
+        byte[][] newBlocks = new byte[blockCount][];
+        System.arraycopy(firstIds, 0, newFirstIds, 0, block);
+        System.arraycopy(blocks, 0, newBlocks, 0, block);
+        int from = 0;
+        for (int part = 0; part < parts; part++) {
+            int to = part == parts - 1 ? blockIds.length : blockIds.length / 2;
+            newFirstIds[block + part] = blockIds[from];
+            newBlocks[block + part] = encode(blockIds, from, to);
+            from = to;
+        }
+        System.arraycopy(firstIds, block + 1, newFirstIds, block + parts, blocks.length - block - 1);
+        System.arraycopy(blocks, block + 1, newBlocks, block + parts, blocks.length - block - 1);
+
+        return new AdjacencyList(null, newFirstIds, newBlocks, newSize);
+    }
+
+    /**
+     * Encodes the gaps between the ids after the first one, which the block keeps apart.
+     */
+    private static byte[] encode(int[] sortedIds, int from, int to) {
+        byte[] buffer = new byte[(to - from) * 5];
+        int length = 0;
+        int previous = sortedIds[from];
+        for (int i = from + 1; i < to; i++) {
+            int gap = sortedIds[i] - previous;
+            while ((gap & ~0x7f) != 0) {
+                buffer[length++] = (byte) ((gap & 0x7f) | 0x80);
+                gap >>>= 7;
+            }
+            buffer[length++] = (byte) gap;
+            previous = sortedIds[i];
+        }
+
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private static int[] inserted(int[] ids, int index, int id) {
+        int[] updated = new int[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, index);
+        updated[index] = id;
+        System.arraycopy(ids, index, updated, index + 1, ids.length - index);
+
+        return updated;
+    }
+
+    private static int[] removed(int[] ids, int index) {
+        int[] updated = new int[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, index);
+        System.arraycopy(ids, index + 1, updated, index, ids.length - index - 1);
+
+        return updated;
+    }
+
+    final class Cursor {
+
+        private int index;
+        private int block;
+        private int position = -1;
+        private int previous;
+
+        boolean hasNext() {
+            return index < size;
+        }
+
+        int next() {
+            index++;
+            if (ids != null) {
+                return ids[index - 1];
+            }
+
+            if (position < 0) {
+                position = 0;
+                previous = firstIds[block];
+            } else {
+                byte[] gaps = blocks[block];
+                int gap = 0;
+                int shift = 0;
+                byte next;
+                do {
+                    next = gaps[position++];
+                    gap |= (next & 0x7f) << shift;
+                    shift += 7;
+                } while ((next & 0x80) != 0);
+                previous += gap;
+            }
+            if (position == blocks[block].length) {
+                block++;
+                position = -1;
+            }
+
+            return previous;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,275 @@
+package posting.service.graph;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import posting.domain.model.FollowSuggestion;
+import posting.domain.service.RecommendationService;
+import posting.service.validation.PostingServiceValidator;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Suggests whom to follow by counting friends of friends in the {@link SocialGraph}: the users followed by most of
+ * the users someone follows, who they don't follow yet.
+ * <p>
+ * Suggestions are computed for every user by {@link #refresh()}, which splits the users into partitions of
+ * {@code posting.recommendations.partition-size} ids and counts them in parallel on a fork-join pool, then replaces
+ * all cached suggestions at once. Each suggestion remembers the followed list it was counted from, so a user who
+ * follows someone new, or who wasn't in the graph at the last refresh, gets suggestions counted on request and cached
+ * until the next refresh. Those are counted on {@code posting.recommendations.request-threads} threads of their own,
+ * so that requests never wait behind a running refresh. Counting for one user reads at most
+ * {@code posting.recommendations.max-followed-per-friend} of each followed user's follows, which bounds the work for
+ * users following very active followers, and uses an array of one counter per user, per counting thread, instead of
+ * a map. Users blocked by or blocking the user are never suggested.
+ */
+@Service
+public class FollowRecommendations implements RecommendationService {
+
+    private static final int EXCLUDED = Integer.MIN_VALUE;
+    private static final Suggestions NONE = new Suggestions(AdjacencyList.EMPTY, new int[0]);
+
+    private final SocialGraph socialGraph;
+    private final PostingServiceValidator validator;
+    private final RecommendationProperties properties;
+    private final ForkJoinPool pool;
+    private final ExecutorService requestExecutor;
+    private final ThreadLocal<Counters> counters = ThreadLocal.withInitial(Counters::new);
+    private final ConcurrentMap<Integer, Suggestions> computedSinceRefresh = new ConcurrentHashMap<>();
+    private final AtomicInteger refreshedUsers = new AtomicInteger();
+    private final Timer refreshTime;
+    private final Timer computeTime;
+    private volatile Suggestions[] refreshed = new Suggestions[0];
+
+    public FollowRecommendations(SocialGraph socialGraph, PostingServiceValidator validator,
+                                 RecommendationProperties properties, MeterRegistry meterRegistry) {
+        this.socialGraph = socialGraph;
+        this.validator = validator;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(properties.getParallelism());
+        this.requestExecutor = Executors.newFixedThreadPool(properties.getRequestThreads(),
+                new CustomizableThreadFactory("recommendations-request-"));
+        this.refreshTime = meterRegistry.timer("posting.recommendations.refresh");
+        this.computeTime = meterRegistry.timer("posting.recommendations.compute");
+        meterRegistry.gauge("posting.recommendations.refreshed-users", refreshedUsers);
+        meterRegistry.gauge("posting.recommendations.computed-users", computedSinceRefresh, ConcurrentMap::size);
+    }
+
+    @Override
+    public List<FollowSuggestion> getWhoToFollow(String username, int size) {
+        validator.validateUserExists(username);
+        validator.validateSize(size);
+        int id = socialGraph.id(username);
+        if (id < 0) {
+            return Collections.emptyList();
+        }
+
+        int[] suggested = suggestions(id).users;
+        List<FollowSuggestion> suggestions = new ArrayList<>(Math.min(size, suggested.length / 2));
+        AdjacencyList blocked = socialGraph.blocked(id);
+        AdjacencyList blockedBy = socialGraph.blockedBy(id);
+        for (int i = 0; i < suggested.length && suggestions.size() < size; i += 2) {
+            // Blocks made since the suggestions were counted
+            if (blocked.contains(suggested[i]) || blockedBy.contains(suggested[i])) {
+                continue;
+            }
+            suggestions.add(new FollowSuggestion(socialGraph.username(suggested[i]), suggested[i + 1]));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Counts suggestions for all users and replaces the cached ones.
+     */
+    public void refresh() {
+        refreshTime.record(() -> {
+            Suggestions[] suggestions = new Suggestions[socialGraph.idLimit()];
+            pool.invoke(new Partition(suggestions, 0, suggestions.length));
+            refreshed = suggestions;
+            computedSinceRefresh.clear();
+            refreshedUsers.set((int) Arrays.stream(suggestions).filter(Suggestions.class::isInstance).count());
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.shutdownNow();
+        requestExecutor.shutdownNow();
+    }
+
+    private Suggestions suggestions(int id) {
+        AdjacencyList followed = socialGraph.followed(id);
+        if (followed.size() == 0) {
+            return NONE;
+        }
+        Suggestions[] current = refreshed;
+        if (id < current.length && current[id] != null && current[id].followed == followed) {
+            return current[id];
+        }
+        Suggestions computed = computedSinceRefresh.get(id);
+        if (computed != null && computed.followed == followed) {
+            return computed;
+        }
+
+        // Counted on the request threads, so that only they and the pool hold counters
+        computed = computeTime.record(() -> CompletableFuture.supplyAsync(() -> count(id, followed), requestExecutor)
+                .join());
+        computedSinceRefresh.put(id, computed);
+        return computed;
+    }
+
+    private Suggestions count(int id, AdjacencyList followed) {
+        Counters counters = this.counters.get();
+        counters.reset(socialGraph.idLimit());
+        counters.exclude(id);
+        excludeAll(counters, followed);
+        excludeAll(counters, socialGraph.blocked(id));
+        excludeAll(counters, socialGraph.blockedBy(id));
+
+        AdjacencyList.Cursor cursor = followed.cursor();
+        while (cursor.hasNext()) {
+            AdjacencyList.Cursor friendCursor = socialGraph.followed(cursor.next()).cursor();
+            for (int i = 0; i < properties.getMaxFollowedPerFriend() && friendCursor.hasNext(); i++) {
+                counters.increment(friendCursor.next());
+            }
+        }
+
+        return new Suggestions(followed, counters.top(properties.getSize()));
+    }
+
+    private static void excludeAll(Counters counters, AdjacencyList ids) {
+        AdjacencyList.Cursor cursor = ids.cursor();
+        while (cursor.hasNext()) {
+            counters.exclude(cursor.next());
+        }
+    }
+
+    /**
+     * The suggested users and how many followed users follow each, as pairs of ids and counts, most followed first.
+     */
+    private static final class Suggestions {
+
+        private final AdjacencyList followed;
+        private final int[] users;
+
+        private Suggestions(AdjacencyList followed, int[] users) {
+            this.followed = followed;
+            this.users = users;
+        }
+    }
+
+    private final class Partition extends RecursiveAction {
+
+        private final Suggestions[] suggestions;
+        private final int from;
+        private final int to;
+
+        private Partition(Suggestions[] suggestions, int from, int to) {
+            this.suggestions = suggestions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > properties.getPartitionSize()) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Partition(suggestions, from, middle), new Partition(suggestions, middle, to));
+                return;
+            }
+
+            for (int id = from; id < to; id++) {
+                AdjacencyList followed = socialGraph.followed(id);
+                if (followed.size() > 0) {
+                    suggestions[id] = count(id, followed);
+                }
+            }
+        }
+    }
+
+    /**
+     * One counter per user id, and the ids whose counters are in use so that only those are reset.
+     */
+    private static final class Counters {
+
+        private int[] counts = new int[0];
+        private int[] touched = new int[64];
+        private int touchedCount;
+
+        void reset(int idLimit) {
+            for (int i = 0; i < touchedCount; i++) {
+                counts[touched[i]] = 0;
+            }
+            touchedCount = 0;
+            if (counts.length < idLimit) {
+                counts = new int[idLimit];
+            }
+        }
+
+        void exclude(int id) {
+            if (id < counts.length) {
+                touch(id);
+                counts[id] = EXCLUDED;
+            }
+        }
+
+        void increment(int id) {
+            if (id >= counts.length || counts[id] < 0) {
+                return;
+            }
+            if (counts[id] == 0) {
+                touch(id);
+            }
+            counts[id]++;
+        }
+
+        int[] top(int size) {
+            int[] top = new int[2 * size];
+            int found = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                int id = touched[i];
+                int count = counts[id];
+                if (count <= 0 || (found == size && !isBetter(count, id, top[2 * size - 1], top[2 * size - 2]))) {
+                    continue;
+                }
+                int position = Math.min(found, size - 1);
+                while (position > 0 && isBetter(count, id, top[2 * position - 1], top[2 * position - 2])) {
+                    top[2 * position] = top[2 * position - 2];
+                    top[2 * position + 1] = top[2 * position - 1];
+                    position--;
+                }
+                top[2 * position] = id;
+                top[2 * position + 1] = count;
+                found = Math.min(found + 1, size);
+            }
+            return Arrays.copyOf(top, 2 * found);
+        }
+
+        private void touch(int id) {
+            if (counts[id] != 0) {
+                return;
+            }
+            if (touchedCount == touched.length) {
+                touched = Arrays.copyOf(touched, touchedCount * 2);
+            }
+            touched[touchedCount++] = id;
+        }
+
+        private static boolean isBetter(int count, int id, int otherCount, int otherId) {
+            return count > otherCount || (count == otherCount && id < otherId);
+        }
+    }
+}
\ No newline at end of file
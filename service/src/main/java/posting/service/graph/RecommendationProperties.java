@@ -0,0 +1,64 @@
+package posting.service.graph;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "posting.recommendations")
+public class RecommendationProperties {
+
+    private int size = 10;
+    private int maxFollowedPerFriend = 1000;
+    private long batchIntervalMillis = 3600000;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int partitionSize = 1024;
+    private int requestThreads = 2;
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getMaxFollowedPerFriend() {
+        return maxFollowedPerFriend;
+    }
+
+    public void setMaxFollowedPerFriend(int maxFollowedPerFriend) {
+        this.maxFollowedPerFriend = maxFollowedPerFriend;
+    }
+
+    public long getBatchIntervalMillis() {
+        return batchIntervalMillis;
+    }
+
+    public void setBatchIntervalMillis(long batchIntervalMillis) {
+        this.batchIntervalMillis = batchIntervalMillis;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getPartitionSize() {
+        return partitionSize;
+    }
+
+    public void setPartitionSize(int partitionSize) {
+        this.partitionSize = partitionSize;
+    }
+
+    public int getRequestThreads() {
+        return requestThreads;
+    }
+
+    public void setRequestThreads(int requestThreads) {
+        this.requestThreads = requestThreads;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package posting.service.graph;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refreshes the {@link FollowRecommendations} every {@code posting.recommendations.batch-interval-millis}.
+ */
+@Component
+public class RecommendationRefreshWorker implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecommendationRefreshWorker.class);
+
+    private final FollowRecommendations followRecommendations;
+    private final RecommendationProperties properties;
+    private volatile ScheduledExecutorService executor;
+
+    public RecommendationRefreshWorker(FollowRecommendations followRecommendations,
+                                       RecommendationProperties properties) {
+        this.followRecommendations = followRecommendations;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("recommendations-"));
+        executor.scheduleWithFixedDelay(this::refresh, properties.getBatchIntervalMillis(),
+                properties.getBatchIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh() {
+        try {
+            long start = System.nanoTime();
+            followRecommendations.refresh();
+            LOGGER.info("Refreshed follow recommendations in {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Failed to refresh follow recommendations, retrying on next run", exception);
+        }
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService runningExecutor = executor;
+        executor = null;
+        runningExecutor.shutdown();
+        try {
+            runningExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,419 @@
+package posting.service.graph;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import posting.persistence.repository.BlockEdge;
+import posting.persistence.repository.FollowEdge;
+import posting.persistence.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory index of who follows whom. Every user taking part in a follow gets a dense int id, and each user's
+ * followed users and followers are kept as {@link AdjacencyList}s of those ids, replaced copy-on-write with a
+ * compare-and-set so that reads never lock. The index is loaded from the database after startup, collecting the ids of
+ * each list before encoding it once, and updated once a follow or unfollow is committed; until it has been loaded,
+ * lookups go to the database. Unfollows and unblocks committed while loading are recorded, and the loaded follows and
+ * blocks they removed are left out when the load is merged, since the load may have read them before they were
+ * removed.
+ * <p>
+ * Blocks are kept alongside, in both directions, only for users that block or are blocked by someone, so that
+ * suggestions can leave blocked users out.
+ */
+@Component
+public class SocialGraph implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SocialGraph.class);
+    private static final int INITIAL_NODES = 1024;
+
+    private final UserRepository userRepository;
+    private final SocialGraphProperties properties;
+    private final ConcurrentMap<String, Node> nodesByUsername = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, AdjacencyList> blocked = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, AdjacencyList> blockedBy = new ConcurrentHashMap<>();
+    private final Set<Long> unfollowedWhileLoading = ConcurrentHashMap.newKeySet();
+    private final Set<Long> unblockedWhileLoading = ConcurrentHashMap.newKeySet();
+    private final AtomicLong edges = new AtomicLong();
+    private final Timer loadTime;
+    private volatile Node[] nodes = new Node[INITIAL_NODES];
+    private int nodeCount;
+    private volatile boolean loaded;
+
+    public SocialGraph(UserRepository userRepository, SocialGraphProperties properties, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.loadTime = meterRegistry.timer("posting.social-graph.load");
+        meterRegistry.gauge("posting.social-graph.users", nodesByUsername, ConcurrentMap::size);
+        meterRegistry.gauge("posting.social-graph.edges", edges);
+        meterRegistry.gauge("posting.social-graph.bytes-per-edge", this, SocialGraph::bytesPerEdge);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        load();
+    }
+
+    void load() {
+        long start = System.nanoTime();
+        LoadedEdges followed = new LoadedEdges();
+        LoadedEdges followers = new LoadedEdges();
+        List<long[]> blocks = new ArrayList<>();
+        String lastUsername = "";
+        List<String> usernames;
+        do {
+            usernames = userRepository.findUsernamesAfter(lastUsername,
+                    PageRequest.of(0, properties.getLoadBatchSize()));
+            if (!usernames.isEmpty()) {
+                for (FollowEdge edge : userRepository.findFollowEdges(usernames)) {
+                    int followerId = node(edge.getFollowerUsername()).id;
+                    int followedId = node(edge.getFollowedUsername()).id;
+                    followed.add(followerId, followedId);
+                    followers.add(followedId, followerId);
+                }
+                for (BlockEdge edge : userRepository.findBlockEdges(usernames)) {
+                    blocks.add(new long[]{node(edge.getUsername()).id, node(edge.getBlockedUsername()).id});
+                }
+                lastUsername = usernames.get(usernames.size() - 1);
+            }
+        } while (usernames.size() == properties.getLoadBatchSize());
+        Node[] loadedNodes;
+        synchronized (this) {
+            loadedNodes = nodes;
+        }
+        for (Node node : loadedNodes) {
+            if (node != null) {
+                edges.addAndGet(merge(node.followed, withoutUnfollowed(node.id, followed.sortedIds(node.id), true)));
+                merge(node.followers, withoutUnfollowed(node.id, followers.sortedIds(node.id), false));
+            }
+        }
+        for (long[] block : blocks) {
+            if (!unblockedWhileLoading.contains(edgeKey((int) block[0], (int) block[1]))) {
+                block((int) block[0], (int) block[1]);
+            }
+        }
+        loaded = true;
+        unfollowedWhileLoading.clear();
+        unblockedWhileLoading.clear();
+        long duration = System.nanoTime() - start;
+        loadTime.record(duration, TimeUnit.NANOSECONDS);
+        LOGGER.info("Loaded {} follows between {} users in {} ms, {} bytes per follow", edges.get(),
+                nodesByUsername.size(), TimeUnit.NANOSECONDS.toMillis(duration), String.format("%.1f", bytesPerEdge()));
+    }
+
+    public void follow(String username, String followedUsername) {
+        Node follower = node(username);
+        Node followed = node(followedUsername);
+        if (add(follower.followed, followed.id)) {
+            add(followed.followers, follower.id);
+            edges.incrementAndGet();
+        }
+    }
+
+    public void unfollow(String username, String followedUsername) {
+        if (!loaded) {
+            unfollowedWhileLoading.add(edgeKey(node(username).id, node(followedUsername).id));
+        }
+        Node follower = nodesByUsername.get(username);
+        Node followed = nodesByUsername.get(followedUsername);
+        if (follower != null && followed != null && remove(follower.followed, followed.id)) {
+            remove(followed.followers, follower.id);
+            edges.decrementAndGet();
+        }
+    }
+
+    public void block(String username, String blockedUsername) {
+        block(node(username).id, node(blockedUsername).id);
+    }
+
+    private void block(int id, int blockedId) {
+        blocked.compute(id, (key, ids) -> (ids == null ? AdjacencyList.EMPTY : ids).with(blockedId));
+        blockedBy.compute(blockedId, (key, ids) -> (ids == null ? AdjacencyList.EMPTY : ids).with(id));
+    }
+
+    public void unblock(String username, String blockedUsername) {
+        if (!loaded) {
+            unblockedWhileLoading.add(edgeKey(node(username).id, node(blockedUsername).id));
+        }
+        Node user = nodesByUsername.get(username);
+        Node blockedUser = nodesByUsername.get(blockedUsername);
+        if (user != null && blockedUser != null) {
+            blocked.computeIfPresent(user.id, (key, ids) -> nonEmpty(ids.without(blockedUser.id)));
+            blockedBy.computeIfPresent(blockedUser.id, (key, ids) -> nonEmpty(ids.without(user.id)));
+        }
+    }
+
+    /**
+     * Returns whether lookups are answered from memory rather than the database.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public List<String> getFollowedUsernames(String username) {
+        if (!loaded) {
+            return userRepository.findFollowedUsernames(username);
+        }
+
+        return usernames(adjacency(username, true));
+    }
+
+    public List<String> getFollowerUsernames(String username) {
+        if (!loaded) {
+            return userRepository.findFollowerUsernames(username);
+        }
+
+        return usernames(adjacency(username, false));
+    }
+
+    public int countFollowers(String username) {
+        if (!loaded) {
+            return userRepository.findFollowerUsernames(username).size();
+        }
+
+        return adjacency(username, false).size();
+    }
+
+    public boolean isFollowing(String username, String followedUsername) {
+        if (!loaded) {
+            return userRepository.findFollowedUsernames(username).contains(followedUsername);
+        }
+
+        Node followed = nodesByUsername.get(followedUsername);
+
+        return followed != null && adjacency(username, true).contains(followed.id);
+    }
+
+    public int countCommonFollowed(String username, String otherUsername) {
+        return AdjacencyList.intersectionSize(adjacency(username, true), adjacency(otherUsername, true));
+    }
+
+    /**
+     * Returns the dense id of the user, or -1 if the user takes part in no follow or block.
+     */
+    int id(String username) {
+        Node node = nodesByUsername.get(username);
+
+        return node == null ? -1 : node.id;
+    }
+
+    /**
+     * Returns an upper bound of the ids handed out so far.
+     */
+    int idLimit() {
+        return nodes.length;
+    }
+
+    String username(int id) {
+        return nodes[id].username;
+    }
+
+    AdjacencyList followed(int id) {
+        Node node = nodes[id];
+
+        return node == null ? AdjacencyList.EMPTY : node.followed.get();
+    }
+
+    /**
+     * Returns the ids of the users the user blocked.
+     */
+    AdjacencyList blocked(int id) {
+        return blocked.getOrDefault(id, AdjacencyList.EMPTY);
+    }
+
+    /**
+     * Returns the ids of the users who blocked the user.
+     */
+    AdjacencyList blockedBy(int id) {
+        return blockedBy.getOrDefault(id, AdjacencyList.EMPTY);
+    }
+
+    double bytesPerEdge() {
+        long edgeCount = edges.get();
+        if (edgeCount == 0) {
+            return 0;
+        }
+
+        long bytes = 0;
+        for (Node node : nodesByUsername.values()) {
+            bytes += node.followed.get().bytes() + node.followers.get().bytes();
+        }
+
+        return (double) bytes / edgeCount;
+    }
+
+    private AdjacencyList adjacency(String username, boolean followed) {
+        Node node = nodesByUsername.get(username);
+        if (node == null) {
+            return AdjacencyList.EMPTY;
+        }
+
+        return followed ? node.followed.get() : node.followers.get();
+    }
+
+    private List<String> usernames(AdjacencyList adjacency) {
+        Node[] currentNodes = nodes;
+        List<String> usernames = new ArrayList<>(adjacency.size());
+        AdjacencyList.Cursor cursor = adjacency.cursor();
+        while (cursor.hasNext()) {
+            usernames.add(currentNodes[cursor.next()].username);
+        }
+
+        return usernames;
+    }
+
+    private Node node(String username) {
+        Node node = nodesByUsername.get(username);
+
+        return node != null ? node : addNode(username);
+    }
+
+    private synchronized Node addNode(String username) {
+        Node node = nodesByUsername.get(username);
+        if (node != null) {
+            return node;
+        }
+
+        if (nodeCount == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodeCount * 2);
+        }
+        node = new Node(nodeCount, username);
+        nodes[nodeCount++] = node;
+        nodesByUsername.put(username, node);
+
+        return node;
+    }
+
+    private static boolean add(AtomicReference<AdjacencyList> adjacency, int id) {
+        while (true) {
+            AdjacencyList current = adjacency.get();
+            AdjacencyList updated = current.with(id);
+            if (updated == current) {
+                return false;
+            }
+            if (adjacency.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Adds the loaded ids to the list, along with any follows committed while loading, and returns how many were new.
+     */
+    private static int merge(AtomicReference<AdjacencyList> adjacency, int[] sortedIds) {
+        if (sortedIds.length == 0) {
+            return 0;
+        }
+        AdjacencyList loaded = AdjacencyList.of(sortedIds);
+        while (true) {
+            AdjacencyList current = adjacency.get();
+            AdjacencyList updated = current.size() == 0 ? loaded : AdjacencyList.union(current, loaded);
+            if (adjacency.compareAndSet(current, updated)) {
+                return updated.size() - current.size();
+            }
+        }
+    }
+
+    private static boolean remove(AtomicReference<AdjacencyList> adjacency, int id) {
+        while (true) {
+            AdjacencyList current = adjacency.get();
+            AdjacencyList updated = current.without(id);
+            if (updated == current) {
+                return false;
+            }
+            if (adjacency.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Leaves out the loaded follows of the node that were unfollowed while loading; the ids are either the users the
+     * node follows or its followers.
+     */
+    private int[] withoutUnfollowed(int nodeId, int[] sortedIds, boolean followed) {
+        if (unfollowedWhileLoading.isEmpty()) {
+            return sortedIds;
+        }
+        return Arrays.stream(sortedIds)
+                .filter(id -> !unfollowedWhileLoading.contains(followed ? edgeKey(nodeId, id) : edgeKey(id, nodeId)))
+                .toArray();
+    }
+
+    private static long edgeKey(int id, int otherId) {
+        return (long) id << 32 | otherId & 0xffffffffL;
+    }
+
+    private static AdjacencyList nonEmpty(AdjacencyList ids) {
+        return ids.size() == 0 ? null : ids;
+    }
+
+    private static final class Node {
+
+        private final int id;
+        private final String username;
+        private final AtomicReference<AdjacencyList> followed = new AtomicReference<>(AdjacencyList.EMPTY);
+        private final AtomicReference<AdjacencyList> followers = new AtomicReference<>(AdjacencyList.EMPTY);
+
+        private Node(int id, String username) {
+            this.id = id;
+            this.username = username;
+        }
+    }
+
+    /**
+     * The ids loaded for each node, collected in growing arrays so that each list is encoded once when the load is
+     * done instead of once per follow.
+     */
+    private static final class LoadedEdges {
+
+        private int[][] ids = new int[INITIAL_NODES][];
+        private int[] counts = new int[INITIAL_NODES];
+
+        void add(int nodeId, int id) {
+            if (nodeId >= ids.length) {
+                int length = Math.max(ids.length * 2, nodeId + 1);
+                ids = Arrays.copyOf(ids, length);
+                counts = Arrays.copyOf(counts, length);
+            }
+            int[] nodeIds = ids[nodeId];
+            if (nodeIds == null) {
+                nodeIds = ids[nodeId] = new int[4];
+            } else if (counts[nodeId] == nodeIds.length) {
+                nodeIds = ids[nodeId] = Arrays.copyOf(nodeIds, nodeIds.length * 2);
+            }
+            nodeIds[counts[nodeId]++] = id;
+        }
+
+        int[] sortedIds(int nodeId) {
+            if (nodeId >= ids.length || ids[nodeId] == null) {
+                return new int[0];
+            }
+            int[] nodeIds = ids[nodeId];
+            int count = counts[nodeId];
+            ids[nodeId] = null;
+            Arrays.sort(nodeIds, 0, count);
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (distinct == 0 || nodeIds[distinct - 1] != nodeIds[i]) {
+                    nodeIds[distinct++] = nodeIds[i];
+                }
+            }
+
+            return Arrays.copyOf(nodeIds, distinct);
+        }
+    }
+}
\ No newline at end of file
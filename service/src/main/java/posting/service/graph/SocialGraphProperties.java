@@ -0,0 +1,19 @@
+package posting.service.graph;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "posting.social-graph")
+public class SocialGraphProperties {
+
+    private int loadBatchSize = 1000;
+
+    public int getLoadBatchSize() {
+        return loadBatchSize;
+    }
+
+    public void setLoadBatchSize(int loadBatchSize) {
+        this.loadBatchSize = loadBatchSize;
+    }
+}
\ No newline at end of file
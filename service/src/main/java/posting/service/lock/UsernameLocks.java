@@ -0,0 +1,41 @@
+package posting.service.lock;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks serializing transactions that work on the same username. A lock is held until the transaction that
+ * took it completes, so whoever gets the lock next sees everything its previous holder committed. Different
+ * usernames may share a stripe, so a transaction must take at most one lock to stay deadlock free.
+ */
+@Component
+public class UsernameLocks {
+
+    private static final int STRIPES = 1024;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public UsernameLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilTransactionCompletes(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Username locks can only be taken inside a transaction");
+        }
+
+        ReentrantLock lock = locks[Math.floorMod(username.hashCode(), STRIPES)];
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package posting.service.outbox;
+
+/**
+ * Applies committed writes to state held in this instance's memory. Unlike other handlers, which are called by
+ * whichever instance processes an event, local handlers are called by the {@link OutboxTail} of every instance, at
+ * least once per event.
+ */
+public interface LocalOutboxEventHandler extends OutboxEventHandler {
+}
\ No newline at end of file
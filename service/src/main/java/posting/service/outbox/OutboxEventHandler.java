@@ -0,0 +1,21 @@
+package posting.service.outbox;
+
+import posting.persistence.entity.Post;
+
+import java.util.List;
+
+/**
+ * Applies updates derived from committed writes. Events are delivered at least once, so implementations must be
+ * idempotent. Posts are read when their events are processed, so a post deleted since it was created or edited is
+ * left out, and an edited post has its latest content.
+ */
+public interface OutboxEventHandler {
+
+    void onPostsCreated(List<Post> posts);
+
+    default void onPostsEdited(List<Post> posts) {
+    }
+
+    default void onPostsDeleted(List<Long> postIds) {
+    }
+}
\ No newline at end of file
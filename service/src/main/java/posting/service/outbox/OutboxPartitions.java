@@ -0,0 +1,59 @@
+package posting.service.outbox;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import posting.persistence.entity.OutboxEvent;
+import posting.persistence.entity.OutboxPartition;
+import posting.persistence.repository.OutboxPartitionRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Leases of the outbox partitions held by this instance. A partition is claimed before its events are read and
+ * released once it is drained, so that instances take turns; a lease left behind by a stopped instance expires after
+ * {@code posting.outbox.lease-millis}.
+ */
+@Component
+public class OutboxPartitions {
+
+    private final OutboxPartitionRepository outboxPartitionRepository;
+    private final OutboxProperties properties;
+    private final String owner = UUID.randomUUID().toString();
+
+    public OutboxPartitions(OutboxPartitionRepository outboxPartitionRepository, OutboxProperties properties) {
+        this.outboxPartitionRepository = outboxPartitionRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Stores the partitions that don't exist yet. Instances starting at the same time may both try to store one,
+     * in which case the partition exists either way.
+     */
+    public void createMissing() {
+        for (int partition = 0; partition < OutboxEvent.PARTITIONS; partition++) {
+            if (!outboxPartitionRepository.existsById(partition)) {
+                try {
+                    outboxPartitionRepository.save(OutboxPartition.of(partition));
+                } catch (DataIntegrityViolationException exception) {
+                    // Stored by another instance
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes or renews the lease of the partition, and returns whether this instance holds it.
+     */
+    public boolean claim(int partition) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(properties.getLeaseMillis(), ChronoUnit.MILLIS);
+
+        return outboxPartitionRepository.claim(partition, owner, leaseUntil, now) > 0;
+    }
+
+    public void release(int partition) {
+        outboxPartitionRepository.release(partition, owner);
+    }
+}
\ No newline at end of file
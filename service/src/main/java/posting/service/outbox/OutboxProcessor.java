@@ -0,0 +1,193 @@
+package posting.service.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import posting.persistence.entity.OutboxEvent;
+import posting.persistence.entity.OutboxEventType;
+import posting.persistence.entity.ColdPostChange;
+import posting.persistence.entity.Post;
+import posting.persistence.entity.User;
+import posting.persistence.repository.ColdPostChangeRepository;
+import posting.persistence.repository.OutboxEventRepository;
+import posting.persistence.repository.PostRepository;
+import posting.persistence.repository.UserRepository;
+import posting.service.segment.ColdPosts;
+import posting.service.segment.ColdSegments;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the posts of outbox events and hands them to the handlers. Pending events are processed once, by whichever
+ * instance holds their partition, and marked as processed; every instance also delivers them to its
+ * {@link LocalOutboxEventHandler}s through its {@link OutboxTail}. Processed events are deleted after
+ * {@code posting.outbox.retention-millis}.
+ */
+@Component
+public class OutboxProcessor {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final PostRepository postRepository;
+    private final ColdPostChangeRepository coldPostChangeRepository;
+    private final UserRepository userRepository;
+    private final ColdSegments coldSegments;
+    private final OutboxProperties properties;
+    private final List<OutboxEventHandler> handlers;
+    private final Counter processedEvents;
+    private final Timer eventDelay;
+
+    public OutboxProcessor(OutboxEventRepository outboxEventRepository,
+                           PostRepository postRepository,
+                           ColdPostChangeRepository coldPostChangeRepository,
+                           UserRepository userRepository,
+                           ColdSegments coldSegments,
+                           OutboxProperties properties,
+                           ObjectProvider<List<OutboxEventHandler>> handlers,
+                           MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.postRepository = postRepository;
+        this.coldPostChangeRepository = coldPostChangeRepository;
+        this.userRepository = userRepository;
+        this.coldSegments = coldSegments;
+        this.properties = properties;
+        this.handlers = handlers.getIfAvailable(Collections::emptyList).stream()
+                .filter(handler -> !(handler instanceof LocalOutboxEventHandler))
+                .collect(Collectors.toList());
+        this.processedEvents = meterRegistry.counter("posting.outbox.processed");
+        this.eventDelay = meterRegistry.timer("posting.outbox.delay");
+        meterRegistry.gauge("posting.outbox.lag.seconds", outboxEventRepository, OutboxProcessor::oldestEventAge);
+    }
+
+    public boolean hasPending(int partition) {
+        return outboxEventRepository.existsByPartitionNumberAndProcessedFalse(partition);
+    }
+
+    @Transactional
+    public int processBatch(int partition, int batchSize) {
+        List<OutboxEvent> events = outboxEventRepository.findPendingInPartition(
+                partition, PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        dispatch(events, handlers);
+        outboxEventRepository.markProcessed(events.stream().map(OutboxEvent::getId).collect(Collectors.toList()));
+
+        LocalDateTime now = LocalDateTime.now();
+        events.forEach(event -> eventDelay.record(Duration.between(event.getCreatedDate(), now)));
+        processedEvents.increment(events.size());
+
+        return events.size();
+    }
+
+    /**
+     * Hands committed events, processed or not, to the given handlers of this instance.
+     */
+    @Transactional(readOnly = true)
+    public void deliver(List<OutboxEvent> events, List<? extends OutboxEventHandler> localHandlers) {
+        dispatch(events, localHandlers);
+    }
+
+    /**
+     * Deletes the processed events older than {@code posting.outbox.retention-millis}, and returns how many there
+     * were.
+     */
+    public int purgeProcessed() {
+        return outboxEventRepository.deleteProcessedCreatedBefore(
+                LocalDateTime.now().minus(properties.getRetentionMillis(), ChronoUnit.MILLIS));
+    }
+
+    private void dispatch(List<OutboxEvent> events, List<? extends OutboxEventHandler> handlers) {
+        List<Long> createdPostIds = postIds(events, OutboxEventType.POST_CREATED);
+        if (!createdPostIds.isEmpty()) {
+            List<Post> createdPosts = postRepository.findByIdInOrderById(createdPostIds);
+            handlers.forEach(handler -> handler.onPostsCreated(createdPosts));
+        }
+        List<Long> editedPostIds = postIds(events, OutboxEventType.POST_EDITED);
+        List<Long> deletedPostIds = postIds(events, OutboxEventType.POST_DELETED);
+        if (!editedPostIds.isEmpty()) {
+            List<Post> editedPosts = findEditedPosts(events, editedPostIds, deletedPostIds);
+            handlers.forEach(handler -> handler.onPostsEdited(editedPosts));
+        }
+        if (!deletedPostIds.isEmpty()) {
+            handlers.forEach(handler -> handler.onPostsDeleted(deletedPostIds));
+        }
+    }
+
+    /**
+     * Finds the edited posts, including those whose rows were deleted after compaction: their latest content is in
+     * their {@link ColdPostChange}, or, once that has been written into the segment, in the segment itself. Posts
+     * deleted in the same batch aren't looked for.
+     */
+    private List<Post> findEditedPosts(List<OutboxEvent> events, List<Long> editedPostIds,
+                                       List<Long> deletedPostIds) {
+        List<Post> posts = new ArrayList<>(postRepository.findByIdInOrderById(editedPostIds));
+        if (posts.size() == editedPostIds.size()) {
+            return posts;
+        }
+
+        Set<Long> missingPostIds = new HashSet<>(editedPostIds);
+        posts.forEach(post -> missingPostIds.remove(post.getId()));
+        missingPostIds.removeAll(deletedPostIds);
+        if (missingPostIds.isEmpty()) {
+            return posts;
+        }
+        for (ColdPostChange change : coldPostChangeRepository.findAllById(missingPostIds)) {
+            missingPostIds.remove(change.getPostId());
+            if (!change.isDeleted()) {
+                posts.add(toPost(change));
+            }
+        }
+        if (!missingPostIds.isEmpty()) {
+            Map<Long, List<Long>> missingPostIdsByUserId = events.stream()
+                    .filter(event -> missingPostIds.contains(event.getPostId()))
+                    .collect(Collectors.groupingBy(OutboxEvent::getUserId,
+                            Collectors.mapping(OutboxEvent::getPostId, Collectors.toList())));
+            ColdPosts coldPosts = coldSegments.getColdPosts();
+            for (User user : userRepository.findAllById(missingPostIdsByUserId.keySet())) {
+                coldPosts.find(user.getUsername(), missingPostIdsByUserId.get(user.getId())).forEach(post -> {
+                    post.setUser(user);
+                    posts.add(post);
+                });
+            }
+        }
+        return posts;
+    }
+
+    private static Post toPost(ColdPostChange change) {
+        Post post = new Post();
+        post.setId(change.getPostId());
+        post.setUser(change.getUser());
+        post.setCreatedDate(change.getCreatedDate());
+        post.setContent(change.getContent());
+
+        return post;
+    }
+
+    private static List<Long> postIds(List<OutboxEvent> events, OutboxEventType type) {
+        return events.stream()
+                .filter(event -> event.getType() == type)
+                .map(OutboxEvent::getPostId)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static double oldestEventAge(OutboxEventRepository outboxEventRepository) {
+        LocalDateTime oldestCreatedDate = outboxEventRepository.findOldestCreatedDate();
+
+        return oldestCreatedDate == null ? 0 : Duration.between(oldestCreatedDate, LocalDateTime.now()).getSeconds();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package posting.service.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "posting.outbox")
+public class OutboxProperties {
+
+    private int workers = 2;
+    private int batchSize = 100;
+    private long pollIntervalMillis = 200;
+    private long leaseMillis = 30000;
+    private long retentionMillis = 60000;
+    private long tailGraceMillis = 10000;
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis;
+    }
+
+    public void setPollIntervalMillis(long pollIntervalMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    public long getLeaseMillis() {
+        return leaseMillis;
+    }
+
+    public void setLeaseMillis(long leaseMillis) {
+        this.leaseMillis = leaseMillis;
+    }
+
+    public long getRetentionMillis() {
+        return retentionMillis;
+    }
+
+    public void setRetentionMillis(long retentionMillis) {
+        this.retentionMillis = retentionMillis;
+    }
+
+    public long getTailGraceMillis() {
+        return tailGraceMillis;
+    }
+
+    public void setTailGraceMillis(long tailGraceMillis) {
+        this.tailGraceMillis = tailGraceMillis;
+    }
+}
\ No newline at end of file
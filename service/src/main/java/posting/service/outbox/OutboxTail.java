@@ -0,0 +1,93 @@
+package posting.service.outbox;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import posting.persistence.entity.OutboxEvent;
+import posting.persistence.repository.OutboxEventRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers every committed outbox event to the {@link LocalOutboxEventHandler}s of this instance, by reading the
+ * events in id order, whether another instance processed them already or not.
+ * <p>
+ * Ids are handed out before the events are committed, so an event may show up after events with greater ids. Events
+ * created within the last {@code posting.outbox.tail-grace-millis} are therefore read again on every poll, skipping
+ * those delivered already, and the position only moves past events older than that. An event whose transaction took
+ * longer than the grace period to commit, or that was purged before this instance read it, is not delivered.
+ */
+@Component
+public class OutboxTail {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxProcessor outboxProcessor;
+    private final OutboxProperties properties;
+    private final List<LocalOutboxEventHandler> handlers;
+    private final Set<Long> delivered = new HashSet<>();
+    private long settledId;
+
+    public OutboxTail(OutboxEventRepository outboxEventRepository, OutboxProcessor outboxProcessor,
+                      OutboxProperties properties, ObjectProvider<List<LocalOutboxEventHandler>> handlers) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxProcessor = outboxProcessor;
+        this.properties = properties;
+        this.handlers = handlers.getIfAvailable(Collections::emptyList);
+    }
+
+    /**
+     * Starts at the events that may not have been committed yet, so the handlers get every event committed from now
+     * on.
+     */
+    public synchronized void seek() {
+        settledId = outboxEventRepository.findMaxIdCreatedBefore(settledBefore());
+        delivered.clear();
+    }
+
+    /**
+     * Delivers the events committed since the last poll, and returns how many there were.
+     */
+    public synchronized int poll() {
+        LocalDateTime settledBefore = settledBefore();
+        int batchSize = properties.getBatchSize();
+        int deliveredEvents = 0;
+        long afterId = settledId;
+        long nextSettledId = settledId;
+        boolean settled = true;
+        List<OutboxEvent> events;
+        do {
+            events = outboxEventRepository.findAfter(afterId, PageRequest.of(0, batchSize));
+            List<OutboxEvent> newEvents = events.stream()
+                    .filter(event -> !delivered.contains(event.getId()))
+                    .collect(Collectors.toList());
+            if (!newEvents.isEmpty()) {
+                outboxProcessor.deliver(newEvents, handlers);
+                newEvents.forEach(event -> delivered.add(event.getId()));
+                deliveredEvents += newEvents.size();
+            }
+            for (OutboxEvent event : events) {
+                settled = settled && event.getCreatedDate().isBefore(settledBefore);
+                if (settled) {
+                    nextSettledId = event.getId();
+                }
+                afterId = event.getId();
+            }
+        } while (events.size() == batchSize);
+
+        long newSettledId = nextSettledId;
+        settledId = newSettledId;
+        delivered.removeIf(id -> id <= newSettledId);
+
+        return deliveredEvents;
+    }
+
+    private LocalDateTime settledBefore() {
+        return LocalDateTime.now().minus(properties.getTailGraceMillis(), ChronoUnit.MILLIS);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package posting.service.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the {@link OutboxTail} every {@code posting.outbox.poll-interval-millis}. The tail is positioned when the
+ * worker starts, before the in-memory state it feeds is loaded, so that no event committed in between is missed.
+ */
+@Component
+public class OutboxTailWorker implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxTailWorker.class);
+
+    private final OutboxTail outboxTail;
+    private final OutboxProperties properties;
+    private volatile ScheduledExecutorService executor;
+
+    public OutboxTailWorker(OutboxTail outboxTail, OutboxProperties properties) {
+        this.outboxTail = outboxTail;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        outboxTail.seek();
+        executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("outbox-tail-"));
+        executor.scheduleWithFixedDelay(this::poll, properties.getPollIntervalMillis(),
+                properties.getPollIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void poll() {
+        try {
+            outboxTail.poll();
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Failed to tail the outbox, retrying on next poll", exception);
+        }
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService runningExecutor = executor;
+        executor = null;
+        runningExecutor.shutdown();
+        try {
+            runningExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package posting.service.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import posting.persistence.entity.OutboxEvent;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox on a fixed pool of workers, each taking its share of the {@link OutboxEvent#PARTITIONS}
+ * partitions. Events are partitioned by author and a partition is only drained while this instance holds its lease,
+ * so each author's events are applied by one worker at a time across all instances, in the order they were written.
+ * Processed events are purged every {@code posting.outbox.retention-millis}.
+ */
+@Component
+public class OutboxWorkerPool implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxWorkerPool.class);
+
+    private final OutboxProcessor outboxProcessor;
+    private final OutboxPartitions outboxPartitions;
+    private final OutboxProperties properties;
+    private volatile ScheduledExecutorService executor;
+
+    public OutboxWorkerPool(OutboxProcessor outboxProcessor, OutboxPartitions outboxPartitions,
+                            OutboxProperties properties) {
+        this.outboxProcessor = outboxProcessor;
+        this.outboxPartitions = outboxPartitions;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        outboxPartitions.createMissing();
+        int workers = properties.getWorkers();
+        executor = Executors.newScheduledThreadPool(workers, new CustomizableThreadFactory("outbox-worker-"));
+        for (int worker = 0; worker < workers; worker++) {
+            int firstPartition = worker;
+            executor.scheduleWithFixedDelay(() -> {
+                for (int partition = firstPartition; partition < OutboxEvent.PARTITIONS; partition += workers) {
+                    drain(partition);
+                }
+            }, properties.getPollIntervalMillis(), properties.getPollIntervalMillis(), TimeUnit.MILLISECONDS);
+        }
+        executor.scheduleWithFixedDelay(this::purge, properties.getRetentionMillis(), properties.getRetentionMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void purge() {
+        try {
+            outboxProcessor.purgeProcessed();
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Failed to purge processed outbox events, retrying on next run", exception);
+        }
+    }
+
+    /**
+     * Drains the partition if it has pending events and its lease can be taken, renewing the lease before each
+     * further batch. Idle partitions are only read, so polling them doesn't write their leases.
+     */
+    private void drain(int partition) {
+        try {
+            if (!isRunning() || !outboxProcessor.hasPending(partition) || !outboxPartitions.claim(partition)) {
+                return;
+            }
+            try {
+                int batchSize = properties.getBatchSize();
+                while (outboxProcessor.processBatch(partition, batchSize) == batchSize && isRunning()
+                        && outboxPartitions.claim(partition)) {
+                    LOGGER.debug("Outbox partition [{}] has more pending events, draining next batch", partition);
+                }
+            } finally {
+                outboxPartitions.release(partition);
+            }
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Failed to process outbox partition [{}], retrying on next poll", partition, exception);
+        }
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService runningExecutor = executor;
+        executor = null;
+        runningExecutor.shutdown();
+        try {
+            runningExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
\ No newline at end of file
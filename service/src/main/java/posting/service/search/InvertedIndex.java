@@ -0,0 +1,290 @@
+package posting.service.search;
+
+import posting.domain.model.PostDto;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over post contents. Posts get dense document numbers in the order they are added, and
+ * each word maps to the ascending document numbers of the posts containing it, along with the positions of the word
+ * in each post, so the posts containing all words of a query are found by intersecting sorted arrays, starting from
+ * the rarest word, and phrases and word counts are checked without the contents. Only the id, author and creation
+ * time of each post are kept, which is all ranking needs; the posts of a page of results are read back by id.
+ * <p>
+ * Removing a post only marks its document as removed, which searches skip; its document number stays in the
+ * postings, as rewriting the postings of all its words would cost more than skipping the rare removed document. An
+ * edited post is removed and added again as a new document.
+ */
+class InvertedIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int REMOVED = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> documentsByPostId = new HashMap<>();
+    private final Map<String, Integer> authorsByUsername = new HashMap<>();
+    private final List<String> authors = new ArrayList<>();
+    private final BitSet removedDocuments = new BitSet();
+    private long[] postIds = new long[INITIAL_CAPACITY];
+    private int[] postAuthors = new int[INITIAL_CAPACITY];
+    private long[] createdSeconds = new long[INITIAL_CAPACITY];
+    private int size;
+    private int removed;
+
+    /**
+     * Adds the post, unless it has been added already.
+     */
+    boolean add(PostDto post) {
+        Map<String, List<Integer>> terms = positionsByTerm(post.getContent());
+        lock.writeLock().lock();
+        try {
+            if (documentsByPostId.containsKey(post.getId())) {
+                return false;
+            }
+            addDocument(post, terms);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the post's content, unless it has been removed or not added yet.
+     */
+    void replace(PostDto post) {
+        Map<String, List<Integer>> terms = positionsByTerm(post.getContent());
+        lock.writeLock().lock();
+        try {
+            Integer document = documentsByPostId.get(post.getId());
+            if (document == null || document == REMOVED) {
+                return;
+            }
+            removeDocument(document);
+            addDocument(post, terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long postId) {
+        lock.writeLock().lock();
+        try {
+            // Kept as removed so that the post isn't added again, e.g. while loading the index
+            Integer document = documentsByPostId.put(postId, REMOVED);
+            if (document != null && document != REMOVED) {
+                removeDocument(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addDocument(PostDto post, Map<String, List<Integer>> terms) {
+        if (size == postIds.length) {
+            postIds = Arrays.copyOf(postIds, size * 2);
+            postAuthors = Arrays.copyOf(postAuthors, size * 2);
+            createdSeconds = Arrays.copyOf(createdSeconds, size * 2);
+        }
+        int document = size++;
+        postIds[document] = post.getId();
+        postAuthors[document] = authorsByUsername.computeIfAbsent(post.getUsername(), username -> {
+            authors.add(username);
+            return authors.size() - 1;
+        });
+        createdSeconds[document] = post.getCreatedDate().toEpochSecond(ZoneOffset.UTC);
+        documentsByPostId.put(post.getId(), document);
+        terms.forEach((term, positions) -> postings.computeIfAbsent(term, key -> new Postings())
+                .add(document, positions));
+    }
+
+    private void removeDocument(int document) {
+        removedDocuments.set(document);
+        removed++;
+    }
+
+    /**
+     * Passes every post containing all words and phrases of the query to the consumer, along with how often the
+     * query's words occur in it.
+     */
+    void forEachMatch(SearchQuery query, MatchConsumer consumer) {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> termLists = new HashMap<>();
+            Postings[] lists = new Postings[query.getTerms().size()];
+            for (String term : query.getTerms()) {
+                Postings termPostings = postings.get(term);
+                if (termPostings == null) {
+                    return;
+                }
+                termLists.put(term, termLists.size());
+                lists[termLists.size() - 1] = termPostings;
+            }
+            int[][] phrases = query.getPhrases().stream()
+                    .map(phrase -> phrase.stream().mapToInt(termLists::get).toArray())
+                    .toArray(int[][]::new);
+            intersect(lists, (document, indexes) -> {
+                if (removedDocuments.get(document) || !containsPhrases(lists, indexes, phrases)) {
+                    return;
+                }
+                int occurrences = 0;
+                for (int list = 0; list < lists.length; list++) {
+                    occurrences += lists[list].frequency(indexes[list]);
+                }
+                consumer.accept(postIds[document], authors.get(postAuthors[document]), createdSeconds[document],
+                        occurrences);
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size - removed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int terms() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, List<Integer>> positionsByTerm(String content) {
+        Map<String, List<Integer>> terms = new LinkedHashMap<>();
+        List<String> tokens = Tokenizer.tokenize(content);
+        for (int position = 0; position < tokens.size(); position++) {
+            terms.computeIfAbsent(tokens.get(position), term -> new ArrayList<>()).add(position);
+        }
+        return terms;
+    }
+
+    /**
+     * Passes every document in all lists to the consumer, along with the index of the document in each list.
+     */
+    private static void intersect(Postings[] lists, DocumentConsumer consumer) {
+        Integer[] order = new Integer[lists.length];
+        for (int list = 0; list < lists.length; list++) {
+            order[list] = list;
+        }
+        Arrays.sort(order, (first, second) -> Integer.compare(lists[first].size, lists[second].size));
+        int[] indexes = new int[lists.length];
+        Postings rarest = lists[order[0]];
+        candidates:
+        for (int i = 0; i < rarest.size; i++) {
+            int document = rarest.documents[i];
+            indexes[order[0]] = i;
+            for (int rank = 1; rank < order.length; rank++) {
+                Postings other = lists[order[rank]];
+                int index = indexes[order[rank]];
+                while (index < other.size && other.documents[index] < document) {
+                    index++;
+                }
+                indexes[order[rank]] = index;
+                if (index == other.size) {
+                    return;
+                }
+                if (other.documents[index] != document) {
+                    continue candidates;
+                }
+            }
+            consumer.accept(document, indexes);
+        }
+    }
+
+    /**
+     * Checks that the words of each phrase, given as indexes of their lists, occur at consecutive positions.
+     */
+    private static boolean containsPhrases(Postings[] lists, int[] indexes, int[][] phrases) {
+        phrases:
+        for (int[] phrase : phrases) {
+            Postings first = lists[phrase[0]];
+            int firstIndex = indexes[phrase[0]];
+            starts:
+            for (int offset = first.positionsFrom(firstIndex); offset < first.positionEnds[firstIndex]; offset++) {
+                int start = first.positions[offset];
+                for (int word = 1; word < phrase.length; word++) {
+                    if (!lists[phrase[word]].hasPosition(indexes[phrase[word]], start + word)) {
+                        continue starts;
+                    }
+                }
+                continue phrases;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    interface MatchConsumer {
+
+        void accept(long postId, String username, long createdEpochSecond, int occurrences);
+    }
+
+    private interface DocumentConsumer {
+
+        void accept(int document, int[] indexes);
+    }
+
+    /**
+     * The documents containing a word, and the positions of the word in each of them, appended to one array with
+     * the end of each document's positions kept alongside its number. Posts are at most 140 characters, so positions
+     * are stored as {@code char}s.
+     */
+    private static final class Postings {
+
+        private int[] documents = new int[4];
+        private int[] positionEnds = new int[4];
+        private char[] positions = new char[4];
+        private int size;
+        private int positionCount;
+
+        private void add(int document, List<Integer> documentPositions) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                positionEnds = Arrays.copyOf(positionEnds, size * 2);
+            }
+            if (positionCount + documentPositions.size() > positions.length) {
+                positions = Arrays.copyOf(positions,
+                        Math.max(positions.length * 2, positionCount + documentPositions.size()));
+            }
+            for (int position : documentPositions) {
+                positions[positionCount++] = (char) position;
+            }
+            documents[size] = document;
+            positionEnds[size++] = positionCount;
+        }
+
+        private int positionsFrom(int index) {
+            return index == 0 ? 0 : positionEnds[index - 1];
+        }
+
+        private int frequency(int index) {
+            return positionEnds[index] - positionsFrom(index);
+        }
+
+        private boolean hasPosition(int index, int position) {
+            for (int offset = positionsFrom(index); offset < positionEnds[index]; offset++) {
+                if (positions[offset] == position) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
\ No newline at end of file
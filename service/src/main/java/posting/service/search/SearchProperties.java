@@ -0,0 +1,37 @@
+package posting.service.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "posting.search")
+public class SearchProperties {
+
+    private long recencyHalfLifeHours = 24;
+    private int maxSize = 100;
+    private int loadBatchSize = 10000;
+
+    public long getRecencyHalfLifeHours() {
+        return recencyHalfLifeHours;
+    }
+
+    public void setRecencyHalfLifeHours(long recencyHalfLifeHours) {
+        this.recencyHalfLifeHours = recencyHalfLifeHours;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getLoadBatchSize() {
+        return loadBatchSize;
+    }
+
+    public void setLoadBatchSize(int loadBatchSize) {
+        this.loadBatchSize = loadBatchSize;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package posting.service.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A parsed query: words, and phrases in double quotes, all of which a post must contain.
+ */
+final class SearchQuery {
+
+    private final Set<String> terms;
+    private final List<List<String>> phrases;
+
+    private SearchQuery(Set<String> terms, List<List<String>> phrases) {
+        this.terms = terms;
+        this.phrases = phrases;
+    }
+
+    static SearchQuery parse(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        List<List<String>> phrases = new ArrayList<>();
+        String[] parts = query.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            List<String> tokens = Tokenizer.tokenize(parts[i]);
+            terms.addAll(tokens);
+            if (i % 2 == 1 && tokens.size() > 1) {
+                phrases.add(tokens);
+            }
+        }
+
+        return new SearchQuery(terms, phrases);
+    }
+
+    boolean isEmpty() {
+        return terms.isEmpty();
+    }
+
+    Set<String> getTerms() {
+        return Collections.unmodifiableSet(terms);
+    }
+
+    List<List<String>> getPhrases() {
+        return Collections.unmodifiableList(phrases);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,287 @@
+package posting.service.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import posting.domain.exception.InvalidRequestException;
+import posting.domain.model.PostDto;
+import posting.domain.model.PostSearchPage;
+import posting.persistence.entity.Post;
+import posting.persistence.repository.PostRecord;
+import posting.persistence.repository.PostRepository;
+import posting.service.engagement.EngagementCounters;
+import posting.service.outbox.LocalOutboxEventHandler;
+import posting.service.segment.ColdPosts;
+import posting.service.segment.ColdSegments;
+import posting.service.segment.PostLookup;
+import posting.service.segment.PostSegment;
+import posting.service.validation.PostingServiceValidator;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Searches post contents through an {@link InvertedIndex}. The index is loaded from the database and the cold
+ * segments in the background after startup, during which searches only find the posts loaded so far and
+ * {@link #isLoaded()} is false; new posts are added from the {@link posting.service.outbox.OutboxTail} of this
+ * instance once their transaction commits, so they become searchable within one outbox poll on every instance; the
+ * delay is published as {@code posting.search.refresh-lag}. Edited and deleted posts are replaced and removed the
+ * same way.
+ * <p>
+ * Results are ranked by how often the query's words occur in a post plus a recency boost of
+ * {@code ln 2} per {@code posting.search.recency-half-life-hours} of creation time, so a post twice as relevant
+ * outranks one that is newer by less than a half-life. Scores only depend on the post, not on the time of the
+ * search or on other posts, which keeps the cursor of a page valid as new posts arrive. The index only keeps what
+ * ranking needs, so the posts of a page are read back from the database, or from the cold segments.
+ */
+@Service
+public class SearchService implements posting.domain.service.SearchService, LocalOutboxEventHandler,
+        ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SearchService.class);
+    private static final InvalidRequestException EMPTY_QUERY_EXCEPTION =
+            new InvalidRequestException("The 'q' parameter must contain at least one word");
+    private static final InvalidRequestException INVALID_CURSOR_EXCEPTION =
+            new InvalidRequestException("The 'cursor' parameter is not a cursor returned by a previous search");
+    private static final Comparator<ScoredPost> BEST_FIRST = Comparator
+            .comparingDouble((ScoredPost post) -> post.score)
+            .thenComparingLong(post -> post.postId)
+            .reversed();
+
+    private final InvertedIndex index = new InvertedIndex();
+    private final PostRepository postRepository;
+    private final ColdSegments coldSegments;
+    private final PostLookup postLookup;
+    private final PostingServiceValidator validator;
+    private final SearchProperties properties;
+    private final EngagementCounters engagementCounters;
+    private final Timer loadTime;
+    private final Timer refreshLag;
+    private final Timer queryTime;
+    private final Counter indexedPosts;
+    private volatile ExecutorService loader;
+    private volatile boolean loaded;
+
+    public SearchService(PostRepository postRepository, ColdSegments coldSegments, PostLookup postLookup,
+                         PostingServiceValidator validator, SearchProperties properties, EngagementCounters engagementCounters,
+                         MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.coldSegments = coldSegments;
+        this.postLookup = postLookup;
+        this.validator = validator;
+        this.properties = properties;
+        this.engagementCounters = engagementCounters;
+        this.loadTime = meterRegistry.timer("posting.search.load");
+        this.refreshLag = meterRegistry.timer("posting.search.refresh-lag");
+        this.queryTime = meterRegistry.timer("posting.search.queries");
+        this.indexedPosts = meterRegistry.counter("posting.search.indexed");
+        meterRegistry.gauge("posting.search.posts", index, InvertedIndex::size);
+        meterRegistry.gauge("posting.search.terms", index, InvertedIndex::terms);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        loader = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("search-loader-"));
+        loader.execute(() -> {
+            try {
+                load();
+            } catch (RuntimeException exception) {
+                LOGGER.error("Failed to load the search index", exception);
+            }
+        });
+        loader.shutdown();
+    }
+
+    /**
+     * Returns whether the index holds every post, rather than only those loaded so far.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Returns the number of posts in the index.
+     */
+    public int getIndexedPosts() {
+        return index.size();
+    }
+
+    void load() {
+        long start = System.nanoTime();
+        ColdPosts coldPosts = coldSegments.getColdPosts();
+        for (PostSegment segment : coldPosts.getSegments()) {
+            for (String username : segment.getUsernames()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                coldPosts.read(segment, username).forEach(post -> index(toDomainModel(post)));
+            }
+        }
+        long afterId = 0;
+        List<PostRecord> records;
+        do {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            records = postRepository.findRecordsByIdBetween(afterId, Long.MAX_VALUE, coldPosts.getHotFrom(),
+                    PageRequest.of(0, properties.getLoadBatchSize()));
+            for (PostRecord record : records) {
+                index(new PostDto(record.getId(), record.getUsername(), record.getContent(),
+                        record.getCreatedDate()));
+                afterId = record.getId();
+            }
+        } while (records.size() == properties.getLoadBatchSize());
+
+        loaded = true;
+        long duration = System.nanoTime() - start;
+        loadTime.record(duration, TimeUnit.NANOSECONDS);
+        LOGGER.info("Indexed {} posts with {} distinct words in {} ms", index.size(), index.terms(),
+                TimeUnit.NANOSECONDS.toMillis(duration));
+    }
+
+    @Override
+    public void onPostsCreated(List<Post> posts) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Post post : posts) {
+            if (index(toDomainModel(post))) {
+                refreshLag.record(Duration.between(post.getCreatedDate(), now));
+            }
+        }
+    }
+
+    @Override
+    public void onPostsEdited(List<Post> posts) {
+        posts.forEach(post -> index.replace(toDomainModel(post)));
+    }
+
+    @Override
+    public void onPostsDeleted(List<Long> postIds) {
+        postIds.forEach(index::remove);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ExecutorService runningLoader = loader;
+        if (runningLoader != null) {
+            runningLoader.shutdownNow();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PostSearchPage search(String query, String cursor, int size) {
+        validator.validateSize(size);
+        SearchQuery searchQuery = SearchQuery.parse(query);
+        if (searchQuery.isEmpty()) {
+            throw EMPTY_QUERY_EXCEPTION;
+        }
+        ScoredPost after = cursor == null ? null : decodeCursor(cursor);
+        int pageSize = Math.min(size, properties.getMaxSize());
+
+        return queryTime.record(() -> {
+            PriorityQueue<ScoredPost> best = new PriorityQueue<>(pageSize + 1, BEST_FIRST.reversed());
+            index.forEachMatch(searchQuery, (postId, username, createdEpochSecond, occurrences) -> {
+                ScoredPost scored = new ScoredPost(postId, username, score(createdEpochSecond, occurrences));
+                if (after == null || BEST_FIRST.compare(scored, after) > 0) {
+                    best.add(scored);
+                    if (best.size() > pageSize + 1) {
+                        best.poll();
+                    }
+                }
+            });
+
+            List<ScoredPost> page = new ArrayList<>(best);
+            page.sort(BEST_FIRST);
+            String nextCursor = null;
+            if (page.size() > pageSize) {
+                page = page.subList(0, pageSize);
+                nextCursor = encodeCursor(page.get(pageSize - 1));
+            }
+
+            return new PostSearchPage(findPosts(page), nextCursor);
+        });
+    }
+
+    private boolean index(PostDto post) {
+        boolean added = index.add(post);
+        if (added) {
+            indexedPosts.increment();
+        }
+        return added;
+    }
+
+    private double score(long createdEpochSecond, int occurrences) {
+        double halfLifeSeconds = TimeUnit.HOURS.toSeconds(properties.getRecencyHalfLifeHours());
+
+        return Math.log(1 + occurrences) + createdEpochSecond * Math.log(2) / halfLifeSeconds;
+    }
+
+    private List<PostDto> findPosts(List<ScoredPost> page) {
+        Map<Long, String> usernamesByPostId = new HashMap<>();
+        page.forEach(scored -> usernamesByPostId.put(scored.postId, scored.username));
+        Map<Long, Post> posts = postLookup.findAll(usernamesByPostId);
+
+        return engagementCounters.withCounts(page.stream()
+                .map(scored -> posts.get(scored.postId))
+                .filter(Objects::nonNull)
+                .map(this::toDomainModel)
+                .collect(Collectors.toList()));
+    }
+
+    private static String encodeCursor(ScoredPost post) {
+        String cursor = post.score + ":" + post.postId;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ScoredPost decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 2) {
+                throw INVALID_CURSOR_EXCEPTION;
+            }
+            return new ScoredPost(Long.parseLong(parts[1]), null, Double.parseDouble(parts[0]));
+        } catch (IllegalArgumentException exception) {
+            throw INVALID_CURSOR_EXCEPTION;
+        }
+    }
+
+    private PostDto toDomainModel(Post post) {
+        return new PostDto(post.getId(), post.getUser().getUsername(), post.getContent(), post.getCreatedDate());
+    }
+
+    private static final class ScoredPost {
+
+        private final long postId;
+        private final String username;
+        private final double score;
+
+        private ScoredPost(long postId, String username, double score) {
+            this.postId = postId;
+            this.username = username;
+            this.score = score;
+        }
+    }
+}
\ No newline at end of file
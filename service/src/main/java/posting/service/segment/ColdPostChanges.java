@@ -0,0 +1,134 @@
+package posting.service.segment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import posting.persistence.entity.ColdPostChange;
+import posting.persistence.entity.Post;
+import posting.persistence.repository.ColdPostChangeRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link ColdPostChange}s not yet deleted after being written into their segments, kept in memory per author so
+ * that reads of the segments can apply them without a query; applying a change a segment already holds changes
+ * nothing. They are loaded when the {@link SegmentCompactionWorker} starts, reloaded
+ * every {@code posting.cold-segments.changes-refresh-millis} to pick up changes made by other instances, and added
+ * as soon as a change is committed here. Changes are rare, so every update copies the map and reads never lock.
+ */
+@Component
+public class ColdPostChanges {
+
+    private final ColdPostChangeRepository coldPostChangeRepository;
+    private volatile Map<String, Map<Long, ColdPostChange>> changesByUsername = Collections.emptyMap();
+
+    public ColdPostChanges(ColdPostChangeRepository coldPostChangeRepository, MeterRegistry meterRegistry) {
+        this.coldPostChangeRepository = coldPostChangeRepository;
+        meterRegistry.gauge("posting.cold-segments.changes", this,
+                changes -> changes.changesByUsername.values().stream().mapToInt(Map::size).sum());
+    }
+
+    public synchronized void refresh() {
+        Map<String, Map<Long, ColdPostChange>> changes = new HashMap<>();
+        for (ColdPostChange change : coldPostChangeRepository.findAllWithUser()) {
+            changes.computeIfAbsent(change.getUser().getUsername(), username -> new HashMap<>())
+                    .put(change.getPostId(), change);
+        }
+        changesByUsername = changes;
+    }
+
+    /**
+     * Applies a committed change to reads.
+     */
+    public synchronized void add(ColdPostChange change) {
+        Map<String, Map<Long, ColdPostChange>> changes = new HashMap<>(changesByUsername);
+        Map<Long, ColdPostChange> userChanges = new HashMap<>(changes.getOrDefault(change.getUser().getUsername(),
+                Collections.emptyMap()));
+        userChanges.put(change.getPostId(), change);
+        changes.put(change.getUser().getUsername(), userChanges);
+        changesByUsername = changes;
+    }
+
+    /**
+     * Forgets the changes written into a segment, unless their post was changed again since.
+     */
+    synchronized void removeAll(Collection<ColdPostChange> written) {
+        Map<String, Map<Long, ColdPostChange>> changes = new HashMap<>(changesByUsername);
+        for (ColdPostChange change : written) {
+            Map<Long, ColdPostChange> userChanges = changes.get(change.getUser().getUsername());
+            ColdPostChange current = userChanges == null ? null : userChanges.get(change.getPostId());
+            if (current != null && current.getVersion().equals(change.getVersion())) {
+                userChanges = new HashMap<>(userChanges);
+                userChanges.remove(change.getPostId());
+                if (userChanges.isEmpty()) {
+                    changes.remove(change.getUser().getUsername());
+                } else {
+                    changes.put(change.getUser().getUsername(), userChanges);
+                }
+            }
+        }
+        changesByUsername = changes;
+    }
+
+    /**
+     * Returns the changes of posts created in the segment's week.
+     */
+    List<ColdPostChange> findIn(PostSegment segment) {
+        List<ColdPostChange> changes = new ArrayList<>();
+        for (Map<Long, ColdPostChange> userChanges : changesByUsername.values()) {
+            for (ColdPostChange change : userChanges.values()) {
+                if (isIn(segment, change)) {
+                    changes.add(change);
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Reads the user's posts in the segment, newest first, leaving out deleted posts and with edits applied.
+     */
+    List<Post> read(PostSegment segment, String username) {
+        List<Post> posts = segment.read(username);
+        Map<Long, ColdPostChange> userChanges = changesByUsername.get(username);
+        if (userChanges == null) {
+            return posts;
+        }
+
+        List<Post> changedPosts = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            ColdPostChange change = userChanges.get(post.getId());
+            if (change == null) {
+                changedPosts.add(post);
+            } else if (!change.isDeleted()) {
+                post.setContent(change.getContent());
+                changedPosts.add(post);
+            }
+        }
+        return changedPosts;
+    }
+
+    /**
+     * Counts the user's posts in the segment, which takes reading them if some of them might have been deleted.
+     */
+    int count(PostSegment segment, String username) {
+        Map<Long, ColdPostChange> userChanges = changesByUsername.get(username);
+        if (userChanges != null) {
+            for (ColdPostChange change : userChanges.values()) {
+                if (change.isDeleted() && isIn(segment, change)) {
+                    return read(segment, username).size();
+                }
+            }
+        }
+        return segment.count(username);
+    }
+
+    private static boolean isIn(PostSegment segment, ColdPostChange change) {
+        return !change.getCreatedDate().isBefore(segment.getStart())
+                && change.getCreatedDate().isBefore(segment.getEnd());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,215 @@
+package posting.service.segment;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import posting.persistence.entity.Post;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A consistent view of the compacted posts: the segments, newest first, and the creation date from which posts are
+ * still read from the database. Every post created before {@link #getHotFrom()} is in a segment, and none after, so
+ * a read queries the database for posts created since then and appends posts from the segments only when it needs
+ * older ones. A read must use the same view for both, which is why compaction publishes a new view rather than
+ * changing this one. Posts are read from the segments with the {@link ColdPostChanges} applied, so deleted posts are
+ * left out and edited ones have their new content.
+ */
+public final class ColdPosts {
+
+    static final LocalDateTime NOTHING_COLD = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final Comparator<Post> NEWEST_FIRST = Comparator
+            .comparing(Post::getCreatedDate, Comparator.reverseOrder())
+            .thenComparing(Post::getId, Comparator.reverseOrder());
+    private static final Comparator<Post> HIGHEST_ID_FIRST = Comparator.comparing(Post::getId,
+            Comparator.reverseOrder());
+
+    private final List<PostSegment> segments;
+    private final ColdPostChanges changes;
+
+    ColdPosts(List<PostSegment> segments) {
+        this(segments, null);
+    }
+
+    ColdPosts(List<PostSegment> segments, ColdPostChanges changes) {
+        this.segments = segments;
+        this.changes = changes;
+    }
+
+    public static ColdPosts none() {
+        return new ColdPosts(Collections.emptyList());
+    }
+
+    public LocalDateTime getHotFrom() {
+        return segments.isEmpty() ? NOTHING_COLD : segments.get(0).getEnd();
+    }
+
+    public boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    public List<PostSegment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * Returns the user's posts in the segment, newest first.
+     */
+    public List<Post> read(PostSegment segment, String username) {
+        return changes == null ? segment.read(username) : changes.read(segment, username);
+    }
+
+    public int count(PostSegment segment, String username) {
+        return changes == null ? segment.count(username) : changes.count(segment, username);
+    }
+
+    public long count(Collection<String> usernames) {
+        long count = 0;
+        for (PostSegment segment : segments) {
+            count += count(segment, usernames);
+        }
+        return count;
+    }
+
+    /**
+     * Appends the cold posts of the given users to all of their hot posts.
+     */
+    public List<Post> appendAll(List<Post> hotPosts, Collection<String> usernames) {
+        if (segments.isEmpty()) {
+            return hotPosts;
+        }
+
+        List<Post> posts = new ArrayList<>(hotPosts);
+        for (PostSegment segment : segments) {
+            posts.addAll(read(segment, usernames));
+        }
+        return posts;
+    }
+
+    /**
+     * Completes a page of hot posts with cold posts of the given users, if the page reaches past the hot posts.
+     */
+    public Page<Post> appendPage(Page<Post> hotPage, Pageable pageRequest, Collection<String> usernames) {
+        if (segments.isEmpty()) {
+            return hotPage;
+        }
+
+        long total = hotPage.getTotalElements() + count(usernames);
+        int missing = pageRequest.getPageSize() - hotPage.getNumberOfElements();
+        if (missing == 0) {
+            return new PageImpl<>(hotPage.getContent(), pageRequest, total);
+        }
+
+        List<Post> posts = new ArrayList<>(hotPage.getContent());
+        long skip = Math.max(0, pageRequest.getOffset() - hotPage.getTotalElements());
+        for (PostSegment segment : segments) {
+            if (posts.size() == pageRequest.getPageSize()) {
+                break;
+            }
+            int segmentCount = count(segment, usernames);
+            if (skip >= segmentCount) {
+                skip -= segmentCount;
+                continue;
+            }
+            List<Post> segmentPosts = read(segment, usernames);
+            int to = (int) Math.min(segmentPosts.size(), skip + pageRequest.getPageSize() - posts.size());
+            posts.addAll(segmentPosts.subList((int) skip, to));
+            skip = 0;
+        }
+        return new PageImpl<>(posts, pageRequest, total);
+    }
+
+    /**
+     * Completes hot posts newer than {@code sincePostId} with cold ones, up to {@code size} posts.
+     */
+    public List<Post> appendSince(List<Post> hotPosts, Collection<String> usernames, long sincePostId, int size) {
+        if (segments.isEmpty() || hotPosts.size() >= size) {
+            return hotPosts;
+        }
+
+        List<Post> posts = new ArrayList<>(hotPosts);
+        for (PostSegment segment : segments) {
+            List<Post> segmentPosts = new ArrayList<>();
+            for (String username : usernames) {
+                if (segment.getMaxId(username) > sincePostId) {
+                    read(segment, username).stream()
+                            .filter(post -> post.getId() > sincePostId)
+                            .forEach(segmentPosts::add);
+                }
+            }
+            segmentPosts.sort(HIGHEST_ID_FIRST);
+            posts.addAll(segmentPosts.subList(0, Math.min(segmentPosts.size(), size - posts.size())));
+            if (posts.size() == size) {
+                break;
+            }
+        }
+        return posts;
+    }
+
+    /**
+     * Completes the newest hot posts of one user with cold ones, up to {@code size} posts.
+     */
+    public List<Post> appendNewest(List<Post> hotPosts, String username, int size) {
+        if (segments.isEmpty() || hotPosts.size() >= size) {
+            return hotPosts;
+        }
+
+        List<Post> posts = new ArrayList<>(hotPosts);
+        for (PostSegment segment : segments) {
+            if (segment.count(username) > 0) {
+                List<Post> segmentPosts = read(segment, username);
+                posts.addAll(segmentPosts.subList(0, Math.min(segmentPosts.size(), size - posts.size())));
+                if (posts.size() == size) {
+                    break;
+                }
+            }
+        }
+        return posts;
+    }
+
+    /**
+     * Finds the given cold posts of one user, in no particular order.
+     */
+    public List<Post> find(String username, Collection<Long> ids) {
+        long minId = Collections.min(ids);
+        List<Post> posts = new ArrayList<>(ids.size());
+        for (PostSegment segment : segments) {
+            if (posts.size() == ids.size()) {
+                break;
+            }
+            if (segment.getMaxId(username) >= minId) {
+                read(segment, username).stream()
+                        .filter(post -> ids.contains(post.getId()))
+                        .forEach(posts::add);
+            }
+        }
+        return posts;
+    }
+
+    private int count(PostSegment segment, Collection<String> usernames) {
+        int count = 0;
+        for (String username : usernames) {
+            count += count(segment, username);
+        }
+        return count;
+    }
+
+    private List<Post> read(PostSegment segment, Collection<String> usernames) {
+        if (usernames.size() == 1) {
+            return read(segment, usernames.iterator().next());
+        }
+
+        List<Post> posts = new ArrayList<>();
+        for (String username : usernames) {
+            posts.addAll(read(segment, username));
+        }
+        posts.sort(NEWEST_FIRST);
+        return posts;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package posting.service.segment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "posting.cold-segments")
+public class ColdSegmentProperties {
+
+    private boolean enabled;
+    private String directory = "";
+    private int hotWeeks = 1;
+    private long compactionIntervalMillis = 3600000;
+    private int compactionBatchSize = 1000;
+    private long changesRefreshMillis = 10000;
+    private long publishGraceMillis = 60000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getHotWeeks() {
+        return hotWeeks;
+    }
+
+    public void setHotWeeks(int hotWeeks) {
+        this.hotWeeks = hotWeeks;
+    }
+
+    public long getCompactionIntervalMillis() {
+        return compactionIntervalMillis;
+    }
+
+    public void setCompactionIntervalMillis(long compactionIntervalMillis) {
+        this.compactionIntervalMillis = compactionIntervalMillis;
+    }
+
+    public int getCompactionBatchSize() {
+        return compactionBatchSize;
+    }
+
+    public void setCompactionBatchSize(int compactionBatchSize) {
+        this.compactionBatchSize = compactionBatchSize;
+    }
+
+    public long getChangesRefreshMillis() {
+        return changesRefreshMillis;
+    }
+
+    public void setChangesRefreshMillis(long changesRefreshMillis) {
+        this.changesRefreshMillis = changesRefreshMillis;
+    }
+
+    public long getPublishGraceMillis() {
+        return publishGraceMillis;
+    }
+
+    public void setPublishGraceMillis(long publishGraceMillis) {
+        this.publishGraceMillis = publishGraceMillis;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,233 @@
+package posting.service.segment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * The compacted post segments, in {@code posting.cold-segments.directory}, which must be set when compaction is
+ * enabled. The directory is shared by every instance using the database, since the rows of compacted posts are
+ * deleted for all of them: segments are opened at startup, added or rewritten by the {@link SegmentCompactor} of any
+ * instance, and picked up by the others when they {@link #refresh()}. Readers take the current {@link ColdPosts}
+ * view. A rewritten segment's file is replaced, but the segment it replaced stays open for the views still using
+ * it, until the next compaction run finds no view pinned. Long reads that must see every post of a view, like an
+ * export, pin it, which keeps the {@link SegmentCompactor} from deleting the rows of posts that are hot in that view.
+ * <p>
+ * A segment is only counted as published to every instance once its file has been in place for
+ * {@code posting.cold-segments.publish-grace-millis}, which must exceed the refresh interval
+ * {@code posting.cold-segments.changes-refresh-millis}; rows and changes it replaces are kept until then.
+ */
+@Component
+public class ColdSegments {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ColdSegments.class);
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final DateTimeFormatter SEGMENT_NAME = DateTimeFormatter.ofPattern("'posts-'yyyy-MM-dd'.seg'");
+
+    private final ColdSegmentProperties properties;
+    private final ColdPostChanges coldPostChanges;
+    private final List<LocalDateTime> pinnedHotFroms = new ArrayList<>();
+    private final List<PostSegment> replacedSegments = new ArrayList<>();
+    private volatile ColdPosts coldPosts = ColdPosts.none();
+    private Path directory;
+
+    public ColdSegments(ColdSegmentProperties properties, ColdPostChanges coldPostChanges,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.coldPostChanges = coldPostChanges;
+        meterRegistry.gauge("posting.cold-segments.segments", this,
+                segments -> segments.coldPosts.getSegments().size());
+        meterRegistry.gauge("posting.cold-segments.posts", this, segments -> segments.sum(PostSegment::getPosts));
+        meterRegistry.gauge("posting.cold-segments.bytes", this, segments -> segments.sum(PostSegment::getBytes));
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (properties.getDirectory().trim().isEmpty()) {
+            throw new IllegalStateException("posting.cold-segments.directory must be set to a directory shared by "
+                    + "all instances when posting.cold-segments.enabled is true");
+        }
+        directory = Files.createDirectories(Paths.get(properties.getDirectory()));
+
+        refresh();
+        LOGGER.info("Opened {} post segments in {}, posts created before {} are cold",
+                coldPosts.getSegments().size(), directory, coldPosts.getHotFrom());
+    }
+
+    /**
+     * Opens the segments other instances added to the directory or rewrote since the last refresh, and deletes
+     * temporary files left behind by writers that stopped, which haven't been written to for a compaction interval.
+     */
+    public synchronized void refresh() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        Map<Path, PostSegment> openSegments = new HashMap<>();
+        for (PostSegment segment : coldPosts.getSegments()) {
+            openSegments.put(segment.getPath(), segment);
+        }
+        Instant abandonedBefore = Instant.now().minusMillis(properties.getCompactionIntervalMillis());
+        List<PostSegment> segments = new ArrayList<>();
+        boolean changed = false;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (NoSuchFileException exception) {
+                    continue;
+                }
+                if (file.toString().endsWith(SEGMENT_SUFFIX)) {
+                    PostSegment segment = openSegments.remove(file);
+                    if (segment == null || !segment.isFile(attributes)) {
+                        if (segment != null) {
+                            replacedSegments.add(segment);
+                        }
+                        segment = PostSegment.open(file);
+                        changed = true;
+                    }
+                    segments.add(segment);
+                } else if (file.toString().endsWith(PostSegmentWriter.TEMPORARY_SUFFIX)
+                        && attributes.lastModifiedTime().toInstant().isBefore(abandonedBefore)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        replacedSegments.addAll(openSegments.values());
+        if (changed || !openSegments.isEmpty()) {
+            segments.sort(Comparator.comparing(PostSegment::getStart).reversed());
+            coldPosts = new ColdPosts(segments, coldPostChanges);
+        }
+    }
+
+    public ColdPosts getColdPosts() {
+        return coldPosts;
+    }
+
+    /**
+     * Returns the current view, keeping the rows of the posts that are hot in it until it is unpinned.
+     */
+    public synchronized ColdPosts pin() {
+        pinnedHotFroms.add(coldPosts.getHotFrom());
+        return coldPosts;
+    }
+
+    public synchronized void unpin(ColdPosts pinned) {
+        pinnedHotFroms.remove(pinned.getHotFrom());
+    }
+
+    /**
+     * Returns the time before which the rows of compacted posts can be deleted: the end of the newest published
+     * segment, or the start of the hot posts in the oldest pinned view.
+     */
+    synchronized LocalDateTime getDeletableBefore() {
+        LocalDateTime deletableBefore = ColdPosts.NOTHING_COLD;
+        for (PostSegment segment : coldPosts.getSegments()) {
+            if (isPublished(segment)) {
+                deletableBefore = segment.getEnd();
+                break;
+            }
+        }
+        for (LocalDateTime pinnedHotFrom : pinnedHotFroms) {
+            if (pinnedHotFrom.isBefore(deletableBefore)) {
+                deletableBefore = pinnedHotFrom;
+            }
+        }
+        return deletableBefore;
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Tells whether the segment's file is still in place, and has been for long enough that every instance reads the
+     * segment from it.
+     */
+    boolean isPublished(PostSegment segment) {
+        Instant publishedBefore = Instant.now().minusMillis(properties.getPublishGraceMillis());
+        try {
+            return segment.isFile(Files.readAttributes(segment.getPath(), BasicFileAttributes.class))
+                    && !segment.getModifiedTime().isAfter(publishedBefore);
+        } catch (NoSuchFileException exception) {
+            return false;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to read attributes of segment " + segment.getPath(), exception);
+        }
+    }
+
+    PostSegmentWriter newSegment(LocalDateTime start, LocalDateTime end) throws IOException {
+        return new PostSegmentWriter(directory.resolve(SEGMENT_NAME.format(start)), start, end);
+    }
+
+    /**
+     * Adds a new or rewritten segment, replacing the open segment of the same week, if any.
+     */
+    synchronized void add(PostSegment segment) {
+        List<PostSegment> segments = new ArrayList<>(coldPosts.getSegments().size() + 1);
+        for (PostSegment existing : coldPosts.getSegments()) {
+            if (existing.getStart().equals(segment.getStart())) {
+                replacedSegments.add(existing);
+            } else {
+                segments.add(existing);
+            }
+        }
+        segments.add(segment);
+        segments.sort(Comparator.comparing(PostSegment::getStart).reversed());
+        coldPosts = new ColdPosts(segments, coldPostChanges);
+    }
+
+    /**
+     * Closes the replaced segments, unless a pinned view may still read them. Reads that don't pin a view take less
+     * than a compaction interval.
+     */
+    synchronized void closeReplaced() throws IOException {
+        if (!pinnedHotFroms.isEmpty()) {
+            return;
+        }
+        for (PostSegment segment : replacedSegments) {
+            segment.close();
+        }
+        replacedSegments.clear();
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        for (PostSegment segment : coldPosts.getSegments()) {
+            segment.close();
+        }
+        for (PostSegment segment : replacedSegments) {
+            segment.close();
+        }
+        replacedSegments.clear();
+        coldPosts = ColdPosts.none();
+    }
+
+    private double sum(ToLongFunction<PostSegment> value) {
+        return coldPosts.getSegments().stream().mapToLong(value).sum();
+    }
+}
\ No newline at end of file
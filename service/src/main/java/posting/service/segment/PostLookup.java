@@ -0,0 +1,53 @@
+package posting.service.segment;
+
+import org.springframework.stereotype.Component;
+import posting.persistence.entity.Post;
+import posting.persistence.repository.PostRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads posts by id, such as the pages of tag and search results, from the database, and those not found there from
+ * the segments, which are searched by author.
+ */
+@Component
+public class PostLookup {
+
+    private final PostRepository postRepository;
+    private final ColdSegments coldSegments;
+
+    public PostLookup(PostRepository postRepository, ColdSegments coldSegments) {
+        this.postRepository = postRepository;
+        this.coldSegments = coldSegments;
+    }
+
+    /**
+     * Finds the posts that exist and aren't deleted, by id, given the author of each.
+     */
+    public Map<Long, Post> findAll(Map<Long, String> usernamesByPostId) {
+        Map<Long, Post> posts = new HashMap<>();
+        if (usernamesByPostId.isEmpty()) {
+            return posts;
+        }
+
+        postRepository.findByIdInOrderById(new ArrayList<>(usernamesByPostId.keySet()))
+                .forEach(post -> posts.put(post.getId(), post));
+        if (posts.size() < usernamesByPostId.size()) {
+            // Rows are only deleted once their posts are in a published segment, so the current view has them
+            ColdPosts coldPosts = coldSegments.getColdPosts();
+            Map<String, Set<Long>> coldIds = new HashMap<>();
+            usernamesByPostId.forEach((postId, username) -> {
+                if (!posts.containsKey(postId)) {
+                    coldIds.computeIfAbsent(username, key -> new HashSet<>()).add(postId);
+                }
+            });
+            coldIds.forEach((username, userIds) -> coldPosts.find(username, userIds)
+                    .forEach(post -> posts.put(post.getId(), post)));
+        }
+        return posts;
+    }
+}
\ No newline at end of file
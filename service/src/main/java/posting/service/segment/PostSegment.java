@@ -0,0 +1,223 @@
+package posting.service.segment;
+
+import posting.persistence.entity.Post;
+import posting.persistence.entity.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * An immutable file holding all posts created in one week, written by {@link PostSegmentWriter}. The posts of each
+ * user are stored newest first in a separately deflated block; the offsets of the blocks are kept in an index at
+ * the end of the file, which is read into memory when the segment is opened, so reading a user's posts takes a
+ * single positional read. A file is replaced by moving a new one to its path, never written again, so an opened
+ * segment can tell whether its path still holds the same file.
+ */
+public class PostSegment implements Closeable {
+
+    static final int MAGIC = 0x50534731;
+    static final int FOOTER_BYTES = 3 * Long.BYTES + Integer.BYTES;
+
+    private final Path path;
+    private final BasicFileAttributes attributes;
+    private final FileChannel channel;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final Map<String, Block> blocks;
+    private final long posts;
+
+    private PostSegment(Path path, BasicFileAttributes attributes, FileChannel channel, LocalDateTime start,
+                        LocalDateTime end, Map<String, Block> blocks) {
+        this.path = path;
+        this.attributes = attributes;
+        this.channel = channel;
+        this.start = start;
+        this.end = end;
+        this.blocks = blocks;
+        this.posts = blocks.values().stream().mapToLong(block -> block.count).sum();
+    }
+
+    public static PostSegment open(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES);
+            long footerOffset = channel.size() - FOOTER_BYTES;
+            readFully(channel, footer, footerOffset);
+            footer.flip();
+            LocalDateTime start = toDateTime(footer.getLong(), 0);
+            LocalDateTime end = toDateTime(footer.getLong(), 0);
+            long indexStart = footer.getLong();
+            if (footer.getInt() != MAGIC) {
+                throw new IOException("Not a post segment: " + path);
+            }
+
+            ByteBuffer index = ByteBuffer.allocate((int) (footerOffset - indexStart));
+            readFully(channel, index, indexStart);
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(index.array()));
+            int users = input.readInt();
+            Map<String, Block> blocks = new HashMap<>(users * 2);
+            for (int i = 0; i < users; i++) {
+                blocks.put(input.readUTF(), new Block(input.readInt(), input.readLong(), input.readLong(),
+                        input.readInt()));
+            }
+
+            return new PostSegment(path, attributes, channel, start, end, blocks);
+        } catch (IOException | RuntimeException exception) {
+            channel.close();
+            throw exception;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns when the file was last written, just before it was moved to its path, by the clock of its storage.
+     */
+    public Instant getModifiedTime() {
+        return attributes.lastModifiedTime().toInstant();
+    }
+
+    /**
+     * Tells whether this segment was opened from the file with the given attributes, rather than from one its file
+     * has since been replaced with.
+     */
+    boolean isFile(BasicFileAttributes fileAttributes) {
+        Object fileKey = attributes.fileKey();
+        if (fileKey != null) {
+            return fileKey.equals(fileAttributes.fileKey());
+        }
+        FileTime modifiedTime = attributes.lastModifiedTime();
+
+        return modifiedTime.equals(fileAttributes.lastModifiedTime()) && attributes.size() == fileAttributes.size();
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public long getPosts() {
+        return posts;
+    }
+
+    public long getBytes() {
+        try {
+            return channel.size();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    public Set<String> getUsernames() {
+        return Collections.unmodifiableSet(blocks.keySet());
+    }
+
+    public int count(String username) {
+        Block block = blocks.get(username);
+
+        return block == null ? 0 : block.count;
+    }
+
+    public long getMaxId(String username) {
+        Block block = blocks.get(username);
+
+        return block == null ? 0 : block.maxId;
+    }
+
+    /**
+     * Returns the user's posts in this segment, newest first.
+     */
+    public List<Post> read(String username) {
+        Block block = blocks.get(username);
+        if (block == null) {
+            return Collections.emptyList();
+        }
+
+        ByteBuffer compressed = ByteBuffer.allocate(block.length);
+        User user = new User();
+        user.setUsername(username);
+        List<Post> posts = new ArrayList<>(block.count);
+        try {
+            readFully(channel, compressed, block.offset);
+            InputStream inflater = new InflaterInputStream(new ByteArrayInputStream(compressed.array()));
+            try (DataInputStream input = new DataInputStream(inflater)) {
+                for (int i = 0; i < block.count; i++) {
+                    Post post = new Post();
+                    post.setId(input.readLong());
+                    post.setCreatedDate(toDateTime(input.readLong(), input.readInt()));
+                    post.setContent(input.readUTF());
+                    post.setUser(user);
+                    posts.add(post);
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to read segment " + path, exception);
+        }
+
+        return posts;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toDateTime(long epochSecond, int nano) {
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    static final class Block {
+
+        final int count;
+        final long maxId;
+        final long offset;
+        final int length;
+
+        Block(int count, long maxId, long offset, int length) {
+            this.count = count;
+            this.maxId = maxId;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package posting.service.segment;
+
+import posting.persistence.entity.Post;
+import posting.persistence.repository.PostRecord;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a {@link PostSegment}. Posts must be added grouped by user and newest first within a user. The segment is
+ * written to a temporary file of its own and only moved to its final path by {@link #finish()}, replacing the file
+ * there, so a segment file that exists is always complete, also while other instances write the same segment.
+ */
+public class PostSegmentWriter implements Closeable {
+
+    static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Path path;
+    private final Path temporaryPath;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final OutputStream output;
+    private final Map<String, PostSegment.Block> blocks = new LinkedHashMap<>();
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    private DataOutputStream blockOutput;
+    private String username;
+    private int count;
+    private long maxId;
+    private long offset;
+    private boolean finished;
+
+    public PostSegmentWriter(Path path, LocalDateTime start, LocalDateTime end) throws IOException {
+        this.path = path;
+        this.temporaryPath = Files.createTempFile(path.getParent(), path.getFileName() + "-", TEMPORARY_SUFFIX);
+        this.start = start;
+        this.end = end;
+        this.output = new BufferedOutputStream(Files.newOutputStream(temporaryPath));
+    }
+
+    public void add(PostRecord post) throws IOException {
+        add(post.getUsername(), post.getId(), post.getCreatedDate(), post.getContent());
+    }
+
+    public void add(Post post) throws IOException {
+        add(post.getUser().getUsername(), post.getId(), post.getCreatedDate(), post.getContent());
+    }
+
+    private void add(String postUsername, long id, LocalDateTime createdDate, String content) throws IOException {
+        if (!postUsername.equals(username)) {
+            flushBlock();
+            username = postUsername;
+            blockOutput = new DataOutputStream(new DeflaterOutputStream(block, deflater));
+        }
+        blockOutput.writeLong(id);
+        blockOutput.writeLong(PostSegment.toEpochSecond(createdDate));
+        blockOutput.writeInt(createdDate.getNano());
+        blockOutput.writeUTF(content);
+        count++;
+        maxId = Math.max(maxId, id);
+    }
+
+    public PostSegment finish() throws IOException {
+        flushBlock();
+        DataOutputStream indexOutput = new DataOutputStream(output);
+        indexOutput.writeInt(blocks.size());
+        for (Map.Entry<String, PostSegment.Block> entry : blocks.entrySet()) {
+            PostSegment.Block userBlock = entry.getValue();
+            indexOutput.writeUTF(entry.getKey());
+            indexOutput.writeInt(userBlock.count);
+            indexOutput.writeLong(userBlock.maxId);
+            indexOutput.writeLong(userBlock.offset);
+            indexOutput.writeInt(userBlock.length);
+        }
+        indexOutput.writeLong(PostSegment.toEpochSecond(start));
+        indexOutput.writeLong(PostSegment.toEpochSecond(end));
+        indexOutput.writeLong(offset);
+        indexOutput.writeInt(PostSegment.MAGIC);
+        output.close();
+        Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+
+        return PostSegment.open(path);
+    }
+
+    private void flushBlock() throws IOException {
+        if (username == null) {
+            return;
+        }
+        blockOutput.close();
+        deflater.reset();
+        block.writeTo(output);
+        blocks.put(username, new PostSegment.Block(count, maxId, offset, block.size()));
+        offset += block.size();
+        block.reset();
+        username = null;
+        count = 0;
+        maxId = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        output.close();
+        if (!finished) {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+}
\ No newline at end of file
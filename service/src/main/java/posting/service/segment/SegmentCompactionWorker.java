@@ -0,0 +1,120 @@
+package posting.service.segment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the {@link SegmentCompactor} every {@code posting.cold-segments.compaction-interval-millis}, and refreshes the
+ * {@link ColdSegments} and then reloads the {@link ColdPostChanges} every
+ * {@code posting.cold-segments.changes-refresh-millis}, after loading the changes once before the application takes
+ * requests. Segments are refreshed first, so that a change deleted after its segment was rewritten is never
+ * forgotten while the segment is still read from the file it replaced.
+ */
+@Component
+public class SegmentCompactionWorker implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SegmentCompactionWorker.class);
+
+    private final SegmentCompactor segmentCompactor;
+    private final ColdSegments coldSegments;
+    private final ColdPostChanges coldPostChanges;
+    private final ColdSegmentProperties properties;
+    private final Timer compactionTime;
+    private volatile ScheduledExecutorService executor;
+
+    public SegmentCompactionWorker(SegmentCompactor segmentCompactor, ColdSegments coldSegments,
+                                   ColdPostChanges coldPostChanges, ColdSegmentProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.segmentCompactor = segmentCompactor;
+        this.coldSegments = coldSegments;
+        this.coldPostChanges = coldPostChanges;
+        this.properties = properties;
+        this.compactionTime = meterRegistry.timer("posting.cold-segments.compaction");
+    }
+
+    @Override
+    public void start() {
+        coldPostChanges.refresh();
+        executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("segment-compactor-"));
+        executor.scheduleWithFixedDelay(this::compact, properties.getCompactionIntervalMillis(),
+                properties.getCompactionIntervalMillis(), TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::refreshChanges, properties.getChangesRefreshMillis(),
+                properties.getChangesRefreshMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshChanges() {
+        try {
+            coldSegments.refresh();
+            coldPostChanges.refresh();
+        } catch (IOException | RuntimeException exception) {
+            LOGGER.warn("Failed to reload segments and changes of compacted posts, retrying on next run", exception);
+        }
+    }
+
+    private void compact() {
+        try {
+            coldSegments.refresh();
+            coldSegments.closeReplaced();
+            compactionTime.record(() -> {
+                int deletedPosts = segmentCompactor.deleteCompacted();
+                LOGGER.debug("Deleted {} compacted posts", deletedPosts);
+                Optional<PostSegment> segment;
+                while (isRunning() && (segment = segmentCompactor.compactOldestWeek()).isPresent()) {
+                    LOGGER.info("Compacted {} posts created before {} into {}", segment.get().getPosts(),
+                            segment.get().getEnd(), segment.get().getPath());
+                }
+                while (isRunning() && (segment = segmentCompactor.rewriteChangedSegment()).isPresent()) {
+                    LOGGER.info("Rewrote {} with the changes of its posts", segment.get().getPath());
+                }
+                int deletedChanges = segmentCompactor.deleteWrittenChanges();
+                LOGGER.debug("Deleted {} changes written into published segments", deletedChanges);
+            });
+        } catch (IOException | RuntimeException exception) {
+            LOGGER.warn("Failed to compact posts, retrying on next run", exception);
+        }
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService runningExecutor = executor;
+        executor = null;
+        runningExecutor.shutdown();
+        try {
+            runningExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
\ No newline at end of file
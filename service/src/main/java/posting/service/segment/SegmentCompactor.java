@@ -0,0 +1,278 @@
+package posting.service.segment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import posting.persistence.entity.ColdPostChange;
+import posting.persistence.entity.Post;
+import posting.persistence.entity.User;
+import posting.persistence.repository.ColdPostChangeRepository;
+import posting.persistence.repository.PostCountsChangeRepository;
+import posting.persistence.repository.PostCountsRepository;
+import posting.persistence.repository.PostReactionRepository;
+import posting.persistence.repository.PostRecord;
+import posting.persistence.repository.PostRepository;
+import posting.persistence.repository.TimelineEntryRepository;
+import posting.service.transaction.AfterCommit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves posts older than {@code posting.cold-segments.hot-weeks} full weeks out of the database into one
+ * {@link PostSegment} per week. A compacted week becomes cold as soon as its segment is written; its rows are only
+ * deleted by a {@link #deleteCompacted()} once the segment is published to every instance, see
+ * {@link ColdSegments#isPublished(PostSegment)}, and not while a view in which they are hot is pinned, see
+ * {@link ColdSegments#pin()}.
+ * <p>
+ * Posts edited or deleted after their week became compactable are recorded as {@link ColdPostChange}s, which reads
+ * apply, and {@link #rewriteChangedSegment()} later writes them into the segment. The changes are only deleted by
+ * {@link #deleteWrittenChanges()} once the rewritten segment is published, and only if its file holds them.
+ */
+@Component
+public class SegmentCompactor {
+
+    private final PostRepository postRepository;
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final ColdPostChangeRepository coldPostChangeRepository;
+    private final PostReactionRepository postReactionRepository;
+    private final PostCountsRepository postCountsRepository;
+    private final PostCountsChangeRepository postCountsChangeRepository;
+    private final ColdSegments coldSegments;
+    private final ColdPostChanges coldPostChanges;
+    private final ColdSegmentProperties properties;
+    private final Counter compactedPosts;
+    private final Counter rewrittenSegments;
+
+    public SegmentCompactor(PostRepository postRepository, TimelineEntryRepository timelineEntryRepository,
+                            ColdPostChangeRepository coldPostChangeRepository,
+                            PostReactionRepository postReactionRepository, PostCountsRepository postCountsRepository,
+                            PostCountsChangeRepository postCountsChangeRepository, ColdSegments coldSegments,
+                            ColdPostChanges coldPostChanges, ColdSegmentProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.coldPostChangeRepository = coldPostChangeRepository;
+        this.postReactionRepository = postReactionRepository;
+        this.postCountsRepository = postCountsRepository;
+        this.postCountsChangeRepository = postCountsChangeRepository;
+        this.coldSegments = coldSegments;
+        this.coldPostChanges = coldPostChanges;
+        this.properties = properties;
+        this.compactedPosts = meterRegistry.counter("posting.cold-segments.compacted");
+        this.rewrittenSegments = meterRegistry.counter("posting.cold-segments.rewritten");
+    }
+
+    /**
+     * Deletes the rows of posts that are already in a segment, unless they are hot in a pinned view.
+     */
+    @Transactional
+    public int deleteCompacted() {
+        LocalDateTime deletableBefore = coldSegments.getDeletableBefore();
+        timelineEntryRepository.deleteByPostCreatedDateBefore(deletableBefore);
+
+        return postRepository.deleteByCreatedDateBefore(deletableBefore);
+    }
+
+    /**
+     * Writes the oldest week of hot posts into a segment, if that week is old enough to be compacted.
+     */
+    @Transactional(readOnly = true)
+    public Optional<PostSegment> compactOldestWeek() {
+        return compactOldestWeek(LocalDateTime.now());
+    }
+
+    Optional<PostSegment> compactOldestWeek(LocalDateTime now) {
+        if (!coldSegments.isEnabled()) {
+            return Optional.empty();
+        }
+        LocalDateTime oldest = postRepository.findOldestCreatedDate(coldSegments.getColdPosts().getHotFrom());
+        if (oldest == null) {
+            return Optional.empty();
+        }
+        LocalDateTime start = startOfWeek(oldest);
+        LocalDateTime end = start.plusWeeks(1);
+        if (end.isAfter(compactableBefore(now))) {
+            return Optional.empty();
+        }
+
+        try (PostSegmentWriter writer = coldSegments.newSegment(start, end)) {
+            String afterUsername = "";
+            long afterId = Long.MAX_VALUE;
+            List<PostRecord> records;
+            do {
+                records = postRepository.findRecordsCreatedBetween(start, end, afterUsername, afterId,
+                        PageRequest.of(0, properties.getCompactionBatchSize()));
+                for (PostRecord record : records) {
+                    writer.add(record);
+                    afterUsername = record.getUsername();
+                    afterId = record.getId();
+                }
+            } while (records.size() == properties.getCompactionBatchSize());
+
+            PostSegment segment = writer.finish();
+            coldSegments.add(segment);
+            compactedPosts.increment(segment.getPosts());
+
+            return Optional.of(segment);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to compact posts created since " + start, exception);
+        }
+    }
+
+    /**
+     * Rewrites the newest segment holding changes of its posts that aren't written into it, leaving out the deleted
+     * posts and with the new content of the edited ones. A change made while the segment is rewritten is written by
+     * a later rewrite.
+     */
+    public Optional<PostSegment> rewriteChangedSegment() {
+        if (!coldSegments.isEnabled()) {
+            return Optional.empty();
+        }
+        ColdPosts coldPosts = coldSegments.getColdPosts();
+        for (PostSegment segment : coldPosts.getSegments()) {
+            List<ColdPostChange> changes = coldPostChanges.findIn(segment);
+            if (findWritten(segment, changes).size() < changes.size()) {
+                return Optional.of(rewrite(coldPosts, segment));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private PostSegment rewrite(ColdPosts coldPosts, PostSegment segment) {
+        PostSegment rewritten;
+        try (PostSegmentWriter writer = coldSegments.newSegment(segment.getStart(), segment.getEnd())) {
+            for (String username : segment.getUsernames()) {
+                for (Post post : coldPosts.read(segment, username)) {
+                    writer.add(post);
+                }
+            }
+            rewritten = writer.finish();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to rewrite segment " + segment.getPath(), exception);
+        }
+        coldSegments.add(rewritten);
+        rewrittenSegments.increment();
+
+        return rewritten;
+    }
+
+    /**
+     * Deletes the changes written into published segments, along with the likes and reposts of the deleted posts,
+     * and returns how many changes were deleted. Until then, instances still reading a segment from the file it
+     * replaced apply the changes themselves.
+     */
+    @Transactional
+    public int deleteWrittenChanges() {
+        if (!coldSegments.isEnabled()) {
+            return 0;
+        }
+        List<ColdPostChange> deleted = new ArrayList<>();
+        List<Long> deletedPostIds = new ArrayList<>();
+        for (PostSegment segment : coldSegments.getColdPosts().getSegments()) {
+            List<ColdPostChange> changes = coldPostChanges.findIn(segment);
+            if (changes.isEmpty() || !coldSegments.isPublished(segment)) {
+                continue;
+            }
+            for (ColdPostChange change : findWritten(segment, changes)) {
+                if (coldPostChangeRepository.deleteByPostIdAndVersion(change.getPostId(), change.getVersion()) > 0) {
+                    deleted.add(change);
+                    if (change.isDeleted()) {
+                        deletedPostIds.add(change.getPostId());
+                    }
+                }
+            }
+        }
+        if (!deletedPostIds.isEmpty()) {
+            int batchSize = properties.getCompactionBatchSize();
+            int deletedReactions;
+            do {
+                deletedReactions = postReactionRepository.deleteByPostIdIn(deletedPostIds, batchSize);
+            } while (deletedReactions == batchSize);
+            postCountsChangeRepository.deleteByPostIdIn(deletedPostIds);
+            postCountsRepository.deleteByPostIdIn(deletedPostIds);
+        }
+        AfterCommit.run(() -> coldPostChanges.removeAll(deleted));
+
+        return deleted.size();
+    }
+
+    /**
+     * Returns the changes the segment's file already holds: deleted posts it leaves out and edited posts it has
+     * with their new content. A change of a post missing from the segment has nothing left to write.
+     */
+    private static List<ColdPostChange> findWritten(PostSegment segment, List<ColdPostChange> changes) {
+        Map<String, Map<Long, Post>> postsByUsername = new HashMap<>();
+        List<ColdPostChange> written = new ArrayList<>(changes.size());
+        for (ColdPostChange change : changes) {
+            Post post = postsByUsername
+                    .computeIfAbsent(change.getUser().getUsername(), username -> segment.read(username).stream()
+                            .collect(Collectors.toMap(Post::getId, Function.identity())))
+                    .get(change.getPostId());
+            if (post == null || (!change.isDeleted() && post.getContent().equals(change.getContent()))) {
+                written.add(change);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Finds a post of the user whose row has already been deleted after compaction, with its changes applied.
+     */
+    public Optional<Post> findCompacted(User user, long postId) {
+        Optional<Post> post = coldSegments.getColdPosts()
+                .find(user.getUsername(), Collections.singletonList(postId)).stream()
+                .findFirst();
+        post.ifPresent(found -> found.setUser(user));
+
+        return post;
+    }
+
+    /**
+     * Records the new content or deletion of a post whose week is compactable, so that reads of its segment apply it
+     * once committed, until {@link #rewriteChangedSegment()} writes it into the segment.
+     */
+    public void recordChange(Post post) {
+        if (!isCompactable(post.getCreatedDate())) {
+            return;
+        }
+        ColdPostChange change = coldPostChangeRepository.findById(post.getId())
+                .orElseGet(() -> ColdPostChange.of(post));
+        change.setUser(post.getUser());
+        change.setContent(post.getContent());
+        change.setDeleted(post.isDeleted());
+        ColdPostChange saved = coldPostChangeRepository.save(change);
+        AfterCommit.run(() -> coldPostChanges.add(saved));
+    }
+
+    /**
+     * Tells whether a post created at the given time can be compacted into a segment, or already has been. Changes to
+     * such a post are recorded as {@link ColdPostChange}s, since its segment may be written from the post as it was.
+     */
+    public boolean isCompactable(LocalDateTime createdDate) {
+        return coldSegments.isEnabled()
+                && !startOfWeek(createdDate).plusWeeks(1).isAfter(compactableBefore(LocalDateTime.now()));
+    }
+
+    private LocalDateTime compactableBefore(LocalDateTime now) {
+        return startOfWeek(now).minusWeeks(properties.getHotWeeks());
+    }
+
+    private static LocalDateTime startOfWeek(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+package posting.service.stream;
+
+import org.springframework.stereotype.Service;
+import posting.domain.model.PostDto;
+import posting.domain.service.TimelineListener;
+import posting.domain.service.TimelineSubscription;
+import posting.persistence.entity.Post;
+import posting.service.graph.SocialGraph;
+import posting.service.outbox.LocalOutboxEventHandler;
+import posting.service.validation.PostingServiceValidator;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes new posts to subscribed timelines. Only the subscribers themselves are kept in memory, so idle
+ * subscriptions cost a single map entry. When posts are published, each author's followers are intersected with the
+ * connected subscribers by walking the smaller side, so the cost follows neither the number of followers of a popular
+ * author nor the number of subscribers alone. Until the social graph is loaded, the users each subscriber follows are
+ * read once per batch instead.
+ * <p>
+ * Subscribers are connected to a single instance, so new posts are taken from the outbox tail of every instance
+ * rather than from the instance that happens to process them.
+ */
+@Service
+public class TimelineStreamService implements posting.domain.service.TimelineStreamService,
+        LocalOutboxEventHandler {
+
+    private final SocialGraph socialGraph;
+    private final PostingServiceValidator validator;
+    private final ConcurrentMap<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    public TimelineStreamService(SocialGraph socialGraph, PostingServiceValidator validator) {
+        this.socialGraph = socialGraph;
+        this.validator = validator;
+    }
+
+    @Override
+    public TimelineSubscription subscribe(String username, TimelineListener listener) {
+        validator.validateUserExists(username);
+        Subscription subscription = new Subscription(username, listener);
+        subscriptions.compute(username, (key, userSubscriptions) -> {
+            Set<Subscription> updated = userSubscriptions == null ? ConcurrentHashMap.newKeySet() : userSubscriptions;
+            updated.add(subscription);
+
+            return updated;
+        });
+
+        return subscription;
+    }
+
+    @Override
+    public void onPostsCreated(List<Post> posts) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<PostDto>> postsByAuthor = posts.stream()
+                .map(post -> new PostDto(post.getId(), post.getUser().getUsername(), post.getContent(),
+                        post.getCreatedDate()))
+                .collect(Collectors.groupingBy(PostDto::getUsername, LinkedHashMap::new, Collectors.toList()));
+        if (!socialGraph.isLoaded()) {
+            subscriptions.forEach((subscriberUsername, subscriberSubscriptions) -> {
+                Set<String> followedUsernames = new HashSet<>(socialGraph.getFollowedUsernames(subscriberUsername));
+                postsByAuthor.forEach((authorUsername, authorPosts) -> {
+                    if (followedUsernames.contains(authorUsername)) {
+                        publish(subscriberSubscriptions, authorPosts);
+                    }
+                });
+            });
+            return;
+        }
+
+        postsByAuthor.forEach((authorUsername, authorPosts) -> {
+            if (socialGraph.countFollowers(authorUsername) < subscriptions.size()) {
+                for (String followerUsername : socialGraph.getFollowerUsernames(authorUsername)) {
+                    Set<Subscription> followerSubscriptions = subscriptions.get(followerUsername);
+                    if (followerSubscriptions != null) {
+                        publish(followerSubscriptions, authorPosts);
+                    }
+                }
+            } else {
+                subscriptions.forEach((subscriberUsername, subscriberSubscriptions) -> {
+                    if (socialGraph.isFollowing(subscriberUsername, authorUsername)) {
+                        publish(subscriberSubscriptions, authorPosts);
+                    }
+                });
+            }
+        });
+    }
+
+    private static void publish(Set<Subscription> userSubscriptions, List<PostDto> posts) {
+        userSubscriptions.forEach(subscription -> posts.forEach(subscription::publish));
+    }
+
+    int getSubscriptionCount() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.username, (key, userSubscriptions) -> {
+            userSubscriptions.remove(subscription);
+
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
+    }
+
+    private final class Subscription implements TimelineSubscription {
+
+        private final String username;
+        private final TimelineListener listener;
+
+        private Subscription(String username, TimelineListener listener) {
+            this.username = username;
+            this.listener = listener;
+        }
+
+        private void publish(PostDto post) {
+            if (!listener.onPost(post)) {
+                cancel();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            unsubscribe(this);
+        }
+    }
+}
\ No newline at end of file
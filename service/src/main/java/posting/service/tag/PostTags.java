@@ -0,0 +1,82 @@
+package posting.service.tag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The distinct {@code #tags} and {@code @mentions} of a post. A tag or mention is a {@code #} or {@code @} that does
+ * not follow a word character, followed by word characters (letters, digits and {@code _}), so e-mail addresses are
+ * not mentions. Tags are lower-cased, mentions are kept as written since usernames are case-sensitive.
+ * <p>
+ * Posts are scanned once, without regular expressions; most posts have neither, and those only cost the scan.
+ */
+public final class PostTags {
+
+    private static final PostTags NONE = new PostTags(Collections.emptyList(), Collections.emptyList());
+
+    private final List<String> tags;
+    private final List<String> mentions;
+
+    private PostTags(List<String> tags, List<String> mentions) {
+        this.tags = tags;
+        this.mentions = mentions;
+    }
+
+    public static PostTags extract(String content) {
+        List<String> tags = Collections.emptyList();
+        List<String> mentions = Collections.emptyList();
+        int length = content.length();
+        int i = 0;
+        while (i < length) {
+            char marker = content.charAt(i);
+            if ((marker != '#' && marker != '@') || (i > 0 && isWordCharacter(content.charAt(i - 1)))) {
+                i++;
+                continue;
+            }
+            int start = ++i;
+            while (i < length && isWordCharacter(content.charAt(i))) {
+                i++;
+            }
+            if (i == start) {
+                continue;
+            }
+            if (marker == '#') {
+                tags = addDistinct(tags, content.substring(start, i).toLowerCase(Locale.ROOT));
+            } else {
+                mentions = addDistinct(mentions, content.substring(start, i));
+            }
+        }
+        return tags.isEmpty() && mentions.isEmpty() ? NONE : new PostTags(tags, mentions);
+    }
+
+    /**
+     * Normalizes a tag given in a request the way tags are extracted from posts, with or without its {@code #}.
+     */
+    public static String normalizeTag(String tag) {
+        return (tag.startsWith("#") ? tag.substring(1) : tag).toLowerCase(Locale.ROOT);
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public List<String> getMentions() {
+        return mentions;
+    }
+
+    private static boolean isWordCharacter(char character) {
+        return character == '_' || Character.isLetterOrDigit(character);
+    }
+
+    private static List<String> addDistinct(List<String> values, String value) {
+        if (values.isEmpty()) {
+            values = new ArrayList<>(2);
+        } else if (values.contains(value)) {
+            return values;
+        }
+        values.add(value);
+        return values;
+    }
+}
\ No newline at end of file
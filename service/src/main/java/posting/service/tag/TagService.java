@@ -0,0 +1,151 @@
+package posting.service.tag;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import posting.domain.model.PostDto;
+import posting.domain.model.TrendingTag;
+import posting.persistence.entity.Post;
+import posting.persistence.entity.PostMention;
+import posting.persistence.entity.PostTag;
+import posting.persistence.repository.PostMentionRepository;
+import posting.persistence.repository.PostTagRepository;
+import posting.persistence.repository.TaggedPost;
+import posting.service.engagement.EngagementCounters;
+import posting.service.segment.PostLookup;
+import posting.service.transaction.AfterCommit;
+import posting.service.trending.TrendingTopics;
+import posting.service.validation.PostingServiceValidator;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Indexes the {@link PostTags tags and mentions} of new posts and reads them back, newest first. The indexes only
+ * hold post ids, ordered by a descending index per tag and per mentioned user, so a page is read with keyset
+ * pagination: the next page starts below the id of the last post of the previous one, which costs the same for the
+ * newest posts of a tag as for the oldest, however many posts the tag has. Posts are then read by id, from the
+ * segments if they were compacted.
+ * <p>
+ * Tags of committed posts are also counted by the {@link TrendingTopics}.
+ */
+@Service
+public class TagService implements posting.domain.service.TagService {
+
+    private static final int MAX_SIZE = 100;
+
+    private final PostTagRepository postTagRepository;
+    private final PostMentionRepository postMentionRepository;
+    private final PostLookup postLookup;
+    private final TrendingTopics trendingTopics;
+    private final EngagementCounters engagementCounters;
+    private final PostingServiceValidator validator;
+
+    public TagService(PostTagRepository postTagRepository, PostMentionRepository postMentionRepository,
+                      PostLookup postLookup, TrendingTopics trendingTopics, EngagementCounters engagementCounters, PostingServiceValidator validator) {
+        this.postTagRepository = postTagRepository;
+        this.postMentionRepository = postMentionRepository;
+        this.postLookup = postLookup;
+        this.trendingTopics = trendingTopics;
+        this.engagementCounters = engagementCounters;
+        this.validator = validator;
+    }
+
+    /**
+     * Indexes the tags and mentions of a post that has just been saved, within the transaction saving it.
+     */
+    public void index(Post post) {
+        PostTags postTags = PostTags.extract(post.getContent());
+        save(postTags, post);
+        record(postTags.getTags());
+    }
+
+    /**
+     * Replaces the tags and mentions of a post that has just been edited, within the transaction editing it. Only
+     * the tags the post didn't have before are counted as trending.
+     */
+    public void reindex(Post post, String previousContent) {
+        PostTags previousTags = PostTags.extract(previousContent);
+        PostTags postTags = PostTags.extract(post.getContent());
+        delete(previousTags, post);
+        save(postTags, post);
+        record(postTags.getTags().stream()
+                .filter(tag -> !previousTags.getTags().contains(tag))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Removes the tags and mentions of a post that has just been deleted, within the transaction deleting it. The
+     * rows are found by the tags and mentions in the post's content, through their primary keys. Trending counts
+     * can't be taken back, so the post's tags keep counting until they leave the trending window.
+     */
+    public void unindex(Post post) {
+        delete(PostTags.extract(post.getContent()), post);
+    }
+
+    private void save(PostTags postTags, Post post) {
+        for (String tag : postTags.getTags()) {
+            postTagRepository.save(PostTag.of(tag, post));
+        }
+        for (String username : postTags.getMentions()) {
+            postMentionRepository.save(PostMention.of(username, post));
+        }
+    }
+
+    private void delete(PostTags postTags, Post post) {
+        if (!postTags.getTags().isEmpty()) {
+            postTagRepository.delete(postTags.getTags(), post.getId());
+        }
+        if (!postTags.getMentions().isEmpty()) {
+            postMentionRepository.delete(postTags.getMentions(), post.getId());
+        }
+    }
+
+    private void record(List<String> tags) {
+        if (!tags.isEmpty()) {
+            AfterCommit.run(() -> tags.forEach(trendingTopics::record));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostDto> getTagged(String tag, long beforePostId, int size) {
+        validator.validateSize(size);
+
+        return findPosts(postTagRepository.findByTagAndPostIdLessThanOrderByPostIdDescending(
+                PostTags.normalizeTag(tag), beforePostId, PageRequest.of(0, Math.min(size, MAX_SIZE))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostDto> getMentions(String username, long beforePostId, int size) {
+        validator.validateUserExists(username);
+        validator.validateSize(size);
+
+        return findPosts(postMentionRepository.findByUsernameAndPostIdLessThanOrderByPostIdDescending(
+                username, beforePostId, PageRequest.of(0, Math.min(size, MAX_SIZE))));
+    }
+
+    @Override
+    public List<TrendingTag> getTrending(int size) {
+        validator.validateSize(size);
+
+        return trendingTopics.getTrending(size);
+    }
+
+    private List<PostDto> findPosts(List<TaggedPost> taggedPosts) {
+        Map<Long, String> usernamesByPostId = new HashMap<>();
+        taggedPosts.forEach(taggedPost -> usernamesByPostId.put(taggedPost.getPostId(), taggedPost.getUsername()));
+        Map<Long, Post> posts = postLookup.findAll(usernamesByPostId);
+
+        return engagementCounters.withCounts(taggedPosts.stream()
+                .map(taggedPost -> posts.get(taggedPost.getPostId()))
+                .filter(Objects::nonNull)
+                .map(post -> new PostDto(post.getId(), post.getUser().getUsername(), post.getContent(),
+                        post.getCreatedDate()))
+                .collect(Collectors.toList()));
+    }
+}
\ No newline at end of file
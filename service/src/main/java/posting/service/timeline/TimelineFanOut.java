@@ -0,0 +1,53 @@
+package posting.service.timeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import posting.persistence.entity.Post;
+import posting.persistence.entity.User;
+import posting.persistence.repository.TimelineEntryRepository;
+import posting.service.outbox.OutboxEventHandler;
+import posting.service.version.ContentVersions;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes pushed posts into the timelines of their authors' followers, from the outbox. Entries that already exist
+ * are skipped, so redelivered events are harmless. A new follower gets all pushed posts of the followed user, in the
+ * follow's transaction.
+ */
+@Component
+public class TimelineFanOut implements OutboxEventHandler {
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final ContentVersions contentVersions;
+    private final Counter fannedOutEntries;
+
+    public TimelineFanOut(TimelineEntryRepository timelineEntryRepository, ContentVersions contentVersions,
+                          MeterRegistry meterRegistry) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.contentVersions = contentVersions;
+        this.fannedOutEntries = meterRegistry.counter("posting.timeline.fan-out.entries");
+    }
+
+    @Override
+    public void onPostsCreated(List<Post> posts) {
+        Set<String> authorUsernames = new LinkedHashSet<>();
+        for (Post post : posts) {
+            if (post.isPushed()) {
+                fannedOutEntries.increment(timelineEntryRepository.pushToFollowers(post.getId(),
+                        post.getUser().getId()));
+                authorUsernames.add(post.getUser().getUsername());
+            }
+        }
+        if (!authorUsernames.isEmpty()) {
+            contentVersions.postsPushed(authorUsernames);
+        }
+    }
+
+    public void followed(User follower, User followed) {
+        fannedOutEntries.increment(timelineEntryRepository.pushAllToFollower(follower.getId(), followed.getId()));
+    }
+}
\ No newline at end of file
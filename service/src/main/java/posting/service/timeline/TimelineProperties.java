@@ -0,0 +1,37 @@
+package posting.service.timeline;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "posting.timeline")
+public class TimelineProperties {
+
+    private int pushFollowerThreshold = 1000;
+    private long retractionIntervalMillis = 1000;
+    private int retractionBatchSize = 1000;
+
+    public int getPushFollowerThreshold() {
+        return pushFollowerThreshold;
+    }
+
+    public void setPushFollowerThreshold(int pushFollowerThreshold) {
+        this.pushFollowerThreshold = pushFollowerThreshold;
+    }
+
+    public long getRetractionIntervalMillis() {
+        return retractionIntervalMillis;
+    }
+
+    public void setRetractionIntervalMillis(long retractionIntervalMillis) {
+        this.retractionIntervalMillis = retractionIntervalMillis;
+    }
+
+    public int getRetractionBatchSize() {
+        return retractionBatchSize;
+    }
+
+    public void setRetractionBatchSize(int retractionBatchSize) {
+        this.retractionBatchSize = retractionBatchSize;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package posting.service.timeline;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import posting.persistence.entity.Post;
+import posting.persistence.repository.PostRepository;
+import posting.persistence.repository.TimelineEntryRepository;
+import posting.service.graph.SocialGraph;
+import posting.service.segment.ColdPosts;
+import posting.service.segment.ColdSegments;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reads timelines by merging the posts pushed into the reader's timeline with the posts pulled from the walls of
+ * followed users whose posts aren't pushed (see {@link TimelineStrategy}). A page is merged from the newest posts
+ * of both sources up to the end of the page, so reading deep pages costs more than reading the first ones. Posts older
+ * than the posts still in the database are read from the compacted segments of all followed users.
+ */
+@Component
+public class TimelineReader {
+
+    private static final Comparator<Post> NEWEST_FIRST = Comparator
+            .comparing(Post::getCreatedDate, Comparator.reverseOrder())
+            .thenComparing(Post::getId, Comparator.reverseOrder());
+    private static final Comparator<Post> HIGHEST_ID_FIRST = Comparator.comparing(Post::getId,
+            Comparator.reverseOrder());
+
+    private final PostRepository postRepository;
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final SocialGraph socialGraph;
+    private final ColdSegments coldSegments;
+
+    public TimelineReader(PostRepository postRepository, TimelineEntryRepository timelineEntryRepository,
+                          SocialGraph socialGraph, ColdSegments coldSegments) {
+        this.postRepository = postRepository;
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.socialGraph = socialGraph;
+        this.coldSegments = coldSegments;
+    }
+
+    public List<Post> findAll(String username) {
+        ColdPosts coldPosts = coldSegments.getColdPosts();
+        LocalDateTime hotFrom = coldPosts.getHotFrom();
+        List<Post> hotPosts = merge(postRepository.findPulledByFollowedOrderByCreatedDateDescending(username, hotFrom),
+                timelineEntryRepository.findPostsOrderByCreatedDateDescending(username, hotFrom),
+                NEWEST_FIRST, Integer.MAX_VALUE);
+
+        return coldPosts.appendAll(hotPosts, followedUsernames(coldPosts, username));
+    }
+
+    public Page<Post> findPage(String username, Pageable pageRequest) {
+        ColdPosts coldPosts = coldSegments.getColdPosts();
+        LocalDateTime hotFrom = coldPosts.getHotFrom();
+        long end = pageRequest.getOffset() + pageRequest.getPageSize();
+        Pageable newestPosts = PageRequest.of(0, (int) Math.min(end, Integer.MAX_VALUE));
+        Page<Post> pulled = postRepository.findPulledByFollowedOrderByCreatedDateDescending(username, hotFrom,
+                newestPosts);
+        Page<Post> pushed = timelineEntryRepository.findPostsOrderByCreatedDateDescending(username, hotFrom,
+                newestPosts);
+
+        List<Post> merged = merge(pulled.getContent(), pushed.getContent(), NEWEST_FIRST, newestPosts.getPageSize());
+        int from = (int) Math.min(pageRequest.getOffset(), merged.size());
+        Page<Post> hotPage = new PageImpl<>(merged.subList(from, merged.size()), pageRequest,
+                pulled.getTotalElements() + pushed.getTotalElements());
+
+        return coldPosts.appendPage(hotPage, pageRequest, followedUsernames(coldPosts, username));
+    }
+
+    public List<Post> findSince(String username, long sincePostId, Pageable pageRequest) {
+        ColdPosts coldPosts = coldSegments.getColdPosts();
+        LocalDateTime hotFrom = coldPosts.getHotFrom();
+        List<Post> hotPosts = merge(
+                postRepository.findPulledByFollowedAndIdGreaterThanOrderByIdDescending(username, hotFrom,
+                        sincePostId, pageRequest),
+                timelineEntryRepository.findPostsByIdGreaterThanOrderByIdDescending(username, hotFrom, sincePostId,
+                        pageRequest),
+                HIGHEST_ID_FIRST, pageRequest.getPageSize());
+
+        return coldPosts.appendSince(hotPosts, followedUsernames(coldPosts, username), sincePostId,
+                pageRequest.getPageSize());
+    }
+
+    private List<String> followedUsernames(ColdPosts coldPosts, String username) {
+        return coldPosts.isEmpty() ? Collections.emptyList() : socialGraph.getFollowedUsernames(username);
+    }
+
+    private static List<Post> merge(List<Post> first, List<Post> second, Comparator<Post> order, int limit) {
+        List<Post> merged = new ArrayList<>(Math.min(first.size() + second.size(), limit));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            if (j == second.size() || i < first.size() && order.compare(first.get(i), second.get(j)) <= 0) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
+    }
+}
\ No newline at end of file
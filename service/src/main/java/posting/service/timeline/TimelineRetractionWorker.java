@@ -0,0 +1,78 @@
+package posting.service.timeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes retracted timeline entries with the {@link TimelineRetractor} every
+ * {@code posting.timeline.retraction-interval-millis}.
+ */
+@Component
+public class TimelineRetractionWorker implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimelineRetractionWorker.class);
+
+    private final TimelineRetractor timelineRetractor;
+    private final TimelineProperties properties;
+    private volatile ScheduledExecutorService executor;
+
+    public TimelineRetractionWorker(TimelineRetractor timelineRetractor, TimelineProperties properties) {
+        this.timelineRetractor = timelineRetractor;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("timeline-retraction-"));
+        executor.scheduleWithFixedDelay(this::retract, properties.getRetractionIntervalMillis(),
+                properties.getRetractionIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void retract() {
+        try {
+            timelineRetractor.retract();
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Failed to retract timeline entries, retrying on next run", exception);
+        }
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService runningExecutor = executor;
+        executor = null;
+        runningExecutor.shutdown();
+        try {
+            runningExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
\ No newline at end of file
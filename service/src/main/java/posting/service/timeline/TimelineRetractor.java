@@ -0,0 +1,77 @@
+package posting.service.timeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import posting.persistence.entity.TimelineRetraction;
+import posting.persistence.entity.User;
+import posting.persistence.repository.TimelineEntryRepository;
+import posting.persistence.repository.TimelineRetractionRepository;
+
+/**
+ * Removes the pushed posts of an unfollowed user from the follower's timeline. Unfollowing only records a
+ * {@link TimelineRetraction}, and timeline reads skip entries of authors that aren't followed, so the posts disappear
+ * as soon as the unfollow is committed. The entries themselves are deleted by {@link #retract()}, at most
+ * {@code posting.timeline.retraction-batch-size} per run, so that unfollowing a prolific author doesn't delete
+ * thousands of rows at once.
+ * <p>
+ * Following the author again cancels the retraction before the author's posts are pushed into the timeline again.
+ * Both lock the retraction's row, so entries are never deleted after they were pushed again.
+ */
+@Component
+public class TimelineRetractor {
+
+    private final TimelineRetractionRepository timelineRetractionRepository;
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final TimelineProperties properties;
+    private final Counter retractedEntries;
+
+    public TimelineRetractor(TimelineRetractionRepository timelineRetractionRepository,
+                             TimelineEntryRepository timelineEntryRepository, TimelineProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.timelineRetractionRepository = timelineRetractionRepository;
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.properties = properties;
+        this.retractedEntries = meterRegistry.counter("posting.timeline.retracted-entries");
+    }
+
+    /**
+     * Records, within the unfollow's transaction, that the author's posts are to be removed from the timeline.
+     */
+    public void unfollowed(User follower, User author) {
+        timelineRetractionRepository.save(TimelineRetraction.of(follower, author));
+    }
+
+    /**
+     * Cancels the retraction of the author's posts, if any, within the follow's transaction.
+     */
+    public void followed(User follower, User author) {
+        timelineRetractionRepository.delete(follower.getId(), author.getId());
+    }
+
+    /**
+     * Deletes up to a batch of retracted entries, and the retractions that have no entries left.
+     */
+    @Transactional
+    public int retract() {
+        int batchSize = properties.getRetractionBatchSize();
+        int deleted = 0;
+        for (TimelineRetraction retraction : timelineRetractionRepository.findAll(PageRequest.of(0, batchSize))) {
+            long userId = retraction.getUserId();
+            long authorId = retraction.getAuthorId();
+            if (!timelineRetractionRepository.findForUpdate(userId, authorId).isPresent()) {
+                continue;
+            }
+            deleted += timelineEntryRepository.deleteRetracted(userId, authorId, batchSize - deleted);
+            if (deleted == batchSize) {
+                break;
+            }
+            timelineRetractionRepository.delete(userId, authorId);
+        }
+        retractedEntries.increment(deleted);
+
+        return deleted;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package posting.service.timeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import posting.service.graph.SocialGraph;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides per post whether it is pushed into its author's followers' timelines when it is created (fan-out on
+ * write) or pulled from the author's wall when the timelines are read (fan-out on read). Posts of authors with fewer
+ * followers than the threshold are pushed, so that readers following many such authors read a single inbox, while
+ * posts of authors with many followers are pulled, so that posting doesn't write thousands of inbox entries. The
+ * threshold starts out at {@code posting.timeline.push-follower-threshold} and can be changed at runtime; the
+ * decision is recorded on each post, so changing it only affects new posts.
+ */
+@Component
+public class TimelineStrategy {
+
+    private final SocialGraph socialGraph;
+    private final AtomicInteger pushFollowerThreshold;
+    private final Counter pushedPosts;
+    private final Counter pulledPosts;
+
+    public TimelineStrategy(SocialGraph socialGraph, TimelineProperties properties, MeterRegistry meterRegistry) {
+        this.socialGraph = socialGraph;
+        this.pushFollowerThreshold = new AtomicInteger(properties.getPushFollowerThreshold());
+        this.pushedPosts = meterRegistry.counter("posting.timeline.posts", "strategy", "push");
+        this.pulledPosts = meterRegistry.counter("posting.timeline.posts", "strategy", "pull");
+        meterRegistry.gauge("posting.timeline.push-follower-threshold", pushFollowerThreshold);
+    }
+
+    public boolean pushPostOf(String authorUsername) {
+        boolean push = socialGraph.countFollowers(authorUsername) < pushFollowerThreshold.get();
+        (push ? pushedPosts : pulledPosts).increment();
+
+        return push;
+    }
+
+    public int getPushFollowerThreshold() {
+        return pushFollowerThreshold.get();
+    }
+
+    public void setPushFollowerThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Push follower threshold must not be negative");
+        }
+        pushFollowerThreshold.set(threshold);
+    }
+
+    public double getPushedPosts() {
+        return pushedPosts.count();
+    }
+
+    public double getPulledPosts() {
+        return pulledPosts.count();
+    }
+}
\ No newline at end of file
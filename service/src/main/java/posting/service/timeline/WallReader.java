@@ -0,0 +1,74 @@
+package posting.service.timeline;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import posting.persistence.entity.Post;
+import posting.persistence.entity.User;
+import posting.persistence.repository.PostRepository;
+import posting.service.segment.ColdPosts;
+import posting.service.segment.ColdSegments;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads walls from the database, continuing into the compacted segments (see {@link ColdSegments}) only when the
+ * requested posts are older than the posts still in the database.
+ */
+@Component
+public class WallReader {
+
+    private final PostRepository postRepository;
+    private final ColdSegments coldSegments;
+
+    public WallReader(PostRepository postRepository, ColdSegments coldSegments) {
+        this.postRepository = postRepository;
+        this.coldSegments = coldSegments;
+    }
+
+    public List<Post> findAll(String username) {
+        ColdPosts coldPosts = coldSegments.getColdPosts();
+
+        return coldPosts.appendAll(
+                postRepository.findByUsernameOrderByCreatedDateDescending(username, coldPosts.getHotFrom()),
+                Collections.singleton(username));
+    }
+
+    public Page<Post> findPage(String username, Pageable pageRequest) {
+        ColdPosts coldPosts = coldSegments.getColdPosts();
+
+        return coldPosts.appendPage(
+                postRepository.findByUsernameOrderByCreatedDateDescending(username, coldPosts.getHotFrom(),
+                        pageRequest),
+                pageRequest, Collections.singleton(username));
+    }
+
+    /**
+     * Reads the newest posts of each user, with one query per user on the same view of the cold segments.
+     */
+    public Map<String, List<Post>> findNewest(Collection<User> users, int size) {
+        ColdPosts coldPosts = coldSegments.getColdPosts();
+        PageRequest pageRequest = PageRequest.of(0, size);
+        Map<String, List<Post>> walls = new LinkedHashMap<>();
+        for (User user : users) {
+            walls.put(user.getUsername(), coldPosts.appendNewest(
+                    postRepository.findNewestByUserId(user.getId(), coldPosts.getHotFrom(), pageRequest),
+                    user.getUsername(), size));
+        }
+        return walls;
+    }
+
+    public List<Post> findSince(String username, long sincePostId, Pageable pageRequest) {
+        ColdPosts coldPosts = coldSegments.getColdPosts();
+
+        return coldPosts.appendSince(
+                postRepository.findByUsernameAndIdGreaterThanOrderByIdDescending(username, coldPosts.getHotFrom(),
+                        sincePostId, pageRequest),
+                Collections.singleton(username), sincePostId, pageRequest.getPageSize());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package posting.service.tombstone;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes the rows of deleted posts with the {@link TombstoneCompactor} every
+ * {@code posting.tombstones.compaction-interval-millis}.
+ */
+@Component
+public class TombstoneCompactionWorker implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TombstoneCompactionWorker.class);
+
+    private final TombstoneCompactor tombstoneCompactor;
+    private final TombstoneProperties properties;
+    private volatile ScheduledExecutorService executor;
+
+    public TombstoneCompactionWorker(TombstoneCompactor tombstoneCompactor, TombstoneProperties properties) {
+        this.tombstoneCompactor = tombstoneCompactor;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("tombstone-compaction-"));
+        executor.scheduleWithFixedDelay(this::compact, properties.getCompactionIntervalMillis(),
+                properties.getCompactionIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void compact() {
+        try {
+            tombstoneCompactor.compact();
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Failed to compact deleted posts, retrying on next run", exception);
+        }
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService runningExecutor = executor;
+        executor = null;
+        runningExecutor.shutdown();
+        try {
+            runningExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
\ No newline at end of file
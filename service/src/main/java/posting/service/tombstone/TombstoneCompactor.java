@@ -0,0 +1,75 @@
+package posting.service.tombstone;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import posting.persistence.repository.PostCountsChangeRepository;
+import posting.persistence.repository.PostCountsRepository;
+import posting.persistence.repository.PostReactionRepository;
+import posting.persistence.repository.PostRepository;
+import posting.persistence.repository.TimelineEntryRepository;
+
+import java.util.List;
+
+/**
+ * Deletes the rows of deleted posts. A deleted post stays in the database as a tombstone, which every read skips, so
+ * deleting a post that was fanned out to thousands of timelines costs a single update. {@link #compact()} then
+ * deletes the posts' timeline entries, likes and reposts, at most {@code posting.tombstones.compaction-batch-size}
+ * rows per run, and the posts once nothing refers to them anymore.
+ */
+@Component
+public class TombstoneCompactor {
+
+    private final PostRepository postRepository;
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final PostReactionRepository postReactionRepository;
+    private final PostCountsRepository postCountsRepository;
+    private final PostCountsChangeRepository postCountsChangeRepository;
+    private final TombstoneProperties properties;
+    private final Counter deletedRows;
+    private final Counter compactedPosts;
+
+    public TombstoneCompactor(PostRepository postRepository, TimelineEntryRepository timelineEntryRepository,
+                              PostReactionRepository postReactionRepository,
+                              PostCountsRepository postCountsRepository,
+                              PostCountsChangeRepository postCountsChangeRepository, TombstoneProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.postReactionRepository = postReactionRepository;
+        this.postCountsRepository = postCountsRepository;
+        this.postCountsChangeRepository = postCountsChangeRepository;
+        this.properties = properties;
+        this.deletedRows = meterRegistry.counter("posting.tombstones.deleted-rows");
+        this.compactedPosts = meterRegistry.counter("posting.tombstones.compacted");
+    }
+
+    /**
+     * Deletes up to a batch of rows referring to the oldest deleted posts, and the posts if that was all of them.
+     */
+    @Transactional
+    public int compact() {
+        int batchSize = properties.getCompactionBatchSize();
+        List<Long> postIds = postRepository.findDeletedIds(PageRequest.of(0, batchSize));
+        if (postIds.isEmpty()) {
+            return 0;
+        }
+
+        int deleted = timelineEntryRepository.deleteByPostIdIn(postIds, batchSize);
+        if (deleted < batchSize) {
+            deleted += postReactionRepository.deleteByPostIdIn(postIds, batchSize - deleted);
+        }
+        deletedRows.increment(deleted);
+        if (deleted == batchSize) {
+            return 0;
+        }
+        postCountsChangeRepository.deleteByPostIdIn(postIds);
+        postCountsRepository.deleteByPostIdIn(postIds);
+        int compacted = postRepository.deleteByIdIn(postIds);
+        compactedPosts.increment(compacted);
+
+        return compacted;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package posting.service.trending;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A count-min sketch over a sliding time window: approximate counts of keys seen in the last
+ * {@code buckets * bucketMillis}, in {@code buckets * depth * width} counters however many keys there are.
+ * <p>
+ * The window is a ring of sketches sharing their hash functions, one per {@code bucketMillis}; the sketch of the
+ * oldest bucket is cleared and reused when time moves into a new bucket. An estimate sums each row over the buckets in
+ * the window and takes the smallest sum, so it is never lower than the true count and, with probability
+ * {@code 1 - 2^-depth}, higher by at most {@code 2 * n / width} for {@code n} keys in the window.
+ * <p>
+ * Counting is lock-free: {@code depth} atomic increments. Increments racing with the reuse of their bucket may be
+ * lost, which only happens within the first moment of a bucket.
+ */
+final class SlidingCountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final long bucketMillis;
+    private final Bucket[] buckets;
+
+    SlidingCountMinSketch(int depth, int width, int buckets, long bucketMillis) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Width must be a power of two, was " + width);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.mask = width - 1;
+        this.bucketMillis = bucketMillis;
+        this.buckets = new Bucket[buckets];
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new Bucket(depth * width);
+        }
+    }
+
+    void add(long hash, long nowMillis) {
+        Bucket bucket = currentBucket(nowMillis / bucketMillis);
+        for (int row = 0; row < depth; row++) {
+            bucket.counts.incrementAndGet(counter(hash, row));
+        }
+    }
+
+    long estimate(long hash, long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int counter = counter(hash, row);
+            long sum = 0;
+            for (Bucket bucket : buckets) {
+                if (isInWindow(bucket.epoch.get(), epoch)) {
+                    sum += bucket.counts.get(counter);
+                }
+            }
+            estimate = Math.min(estimate, sum);
+        }
+        return estimate;
+    }
+
+    long getBytes() {
+        return (long) buckets.length * depth * width * Integer.BYTES;
+    }
+
+    private Bucket currentBucket(long epoch) {
+        Bucket bucket = buckets[(int) (epoch % buckets.length)];
+        long bucketEpoch = bucket.epoch.get();
+        if (bucketEpoch < epoch && bucket.epoch.compareAndSet(bucketEpoch, epoch)) {
+            for (int i = 0; i < bucket.counts.length(); i++) {
+                bucket.counts.set(i, 0);
+            }
+        }
+        return bucket;
+    }
+
+    private boolean isInWindow(long bucketEpoch, long epoch) {
+        return bucketEpoch <= epoch && bucketEpoch > epoch - buckets.length;
+    }
+
+    /**
+     * Derives the row's counter from two halves of the hash, which is as good as independent hash functions.
+     */
+    private int counter(long hash, int row) {
+        int index = ((int) hash + row * (int) (hash >>> 32)) & mask;
+
+        return row * width + index;
+    }
+
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+
+        return hash ^ hash >>> 33;
+    }
+
+    private static final class Bucket {
+
+        private final AtomicLong epoch = new AtomicLong(-1);
+        private final AtomicIntegerArray counts;
+
+        private Bucket(int counters) {
+            this.counts = new AtomicIntegerArray(counters);
+        }
+    }
+}
\ No newline at end of file
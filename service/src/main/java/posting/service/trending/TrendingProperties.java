@@ -0,0 +1,73 @@
+package posting.service.trending;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "posting.trending")
+public class TrendingProperties {
+
+    private long windowMinutes = 60;
+    private int buckets = 12;
+    private int sketchDepth = 4;
+    private int sketchWidth = 4096;
+    private int topTags = 10;
+    private int candidates = 1000;
+    private long refreshIntervalMillis = 1000;
+
+    public long getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    public void setWindowMinutes(long windowMinutes) {
+        this.windowMinutes = windowMinutes;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(int buckets) {
+        this.buckets = buckets;
+    }
+
+    public int getSketchDepth() {
+        return sketchDepth;
+    }
+
+    public void setSketchDepth(int sketchDepth) {
+        this.sketchDepth = sketchDepth;
+    }
+
+    public int getSketchWidth() {
+        return sketchWidth;
+    }
+
+    public void setSketchWidth(int sketchWidth) {
+        this.sketchWidth = sketchWidth;
+    }
+
+    public int getTopTags() {
+        return topTags;
+    }
+
+    public void setTopTags(int topTags) {
+        this.topTags = topTags;
+    }
+
+    public int getCandidates() {
+        return candidates;
+    }
+
+    public void setCandidates(int candidates) {
+        this.candidates = candidates;
+    }
+
+    public long getRefreshIntervalMillis() {
+        return refreshIntervalMillis;
+    }
+
+    public void setRefreshIntervalMillis(long refreshIntervalMillis) {
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package posting.service.trending;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refreshes the {@link TrendingTopics} every {@code posting.trending.refresh-interval-millis}.
+ */
+@Component
+public class TrendingRefreshWorker implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrendingRefreshWorker.class);
+
+    private final TrendingTopics trendingTopics;
+    private final TrendingProperties properties;
+    private volatile ScheduledExecutorService executor;
+
+    public TrendingRefreshWorker(TrendingTopics trendingTopics, TrendingProperties properties) {
+        this.trendingTopics = trendingTopics;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("trending-refresh-"));
+        executor.scheduleWithFixedDelay(this::refresh, properties.getRefreshIntervalMillis(),
+                properties.getRefreshIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh() {
+        try {
+            trendingTopics.refresh();
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Failed to refresh trending tags, retrying on next run", exception);
+        }
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService runningExecutor = executor;
+        executor = null;
+        runningExecutor.shutdown();
+        try {
+            runningExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package posting.service.trending;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import posting.domain.model.TrendingTag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The most used tags of the last {@code posting.trending.window-minutes}, counted as posts are created rather than
+ * queried from the posts.
+ * <p>
+ * Tags are counted in a {@link SlidingCountMinSketch}, so memory does not grow with the number of distinct tags. The
+ * sketch cannot list its keys, so tags that might be trending are also kept as candidates: any tag while there are
+ * fewer than {@code posting.trending.candidates}, and afterwards only tags counted more often than the least used
+ * trending tag, up to twice as many. {@link #refresh()} picks the top {@code posting.trending.top-tags} candidates
+ * with a heap, publishes them for {@link #getTrending(int)} to return as they are, and drops the less used half of
+ * the candidates to make room for new ones.
+ */
+@Component
+public class TrendingTopics {
+
+    private static final Comparator<TrendingTag> LEAST_USED_FIRST = Comparator
+            .comparingLong(TrendingTag::getCount)
+            .thenComparing(TrendingTag::getTag, Comparator.reverseOrder());
+
+    private final SlidingCountMinSketch sketch;
+    private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+    private final TrendingProperties properties;
+    private final Timer refreshTime;
+    private volatile long admissionCount;
+    private volatile List<TrendingTag> trending = Collections.emptyList();
+
+    public TrendingTopics(TrendingProperties properties, MeterRegistry meterRegistry) {
+        this.sketch = new SlidingCountMinSketch(properties.getSketchDepth(), properties.getSketchWidth(),
+                properties.getBuckets(), TimeUnit.MINUTES.toMillis(properties.getWindowMinutes())
+                / properties.getBuckets());
+        this.properties = properties;
+        this.refreshTime = meterRegistry.timer("posting.trending.refresh");
+        meterRegistry.gauge("posting.trending.candidates", candidates, Set::size);
+        meterRegistry.gauge("posting.trending.sketch-bytes", sketch, SlidingCountMinSketch::getBytes);
+    }
+
+    public void record(String tag) {
+        record(tag, System.currentTimeMillis());
+    }
+
+    void record(String tag, long nowMillis) {
+        long hash = SlidingCountMinSketch.hash(tag);
+        sketch.add(hash, nowMillis);
+        if (candidates.contains(tag)) {
+            return;
+        }
+        int size = candidates.size();
+        if (size < properties.getCandidates()
+                || (size < 2 * properties.getCandidates() && sketch.estimate(hash, nowMillis) > admissionCount)) {
+            candidates.add(tag);
+        }
+    }
+
+    /**
+     * Returns up to {@code size} of the trending tags published by the last refresh, most used first.
+     */
+    public List<TrendingTag> getTrending(int size) {
+        List<TrendingTag> tags = trending;
+
+        return tags.subList(0, Math.min(size, tags.size()));
+    }
+
+    public void refresh() {
+        refreshTime.record(() -> refresh(System.currentTimeMillis()));
+    }
+
+    void refresh(long nowMillis) {
+        int retained = properties.getCandidates() / 2;
+        PriorityQueue<TrendingTag> mostUsed = new PriorityQueue<>(retained + 1, LEAST_USED_FIRST);
+        for (String candidate : candidates) {
+            long count = sketch.estimate(SlidingCountMinSketch.hash(candidate), nowMillis);
+            if (count == 0) {
+                candidates.remove(candidate);
+                continue;
+            }
+            mostUsed.add(new TrendingTag(candidate, count));
+            if (mostUsed.size() > retained) {
+                candidates.remove(mostUsed.poll().getTag());
+            }
+        }
+
+        List<TrendingTag> sorted = new ArrayList<>(mostUsed);
+        sorted.sort(LEAST_USED_FIRST.reversed());
+        List<TrendingTag> top = sorted.subList(0, Math.min(properties.getTopTags(), sorted.size()));
+        admissionCount = top.size() < properties.getTopTags() ? 0 : top.get(top.size() - 1).getCount();
+        trending = Collections.unmodifiableList(new ArrayList<>(top));
+    }
+}
\ No newline at end of file
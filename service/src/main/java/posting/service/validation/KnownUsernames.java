@@ -0,0 +1,142 @@
+package posting.service.validation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import posting.persistence.repository.UserRecord;
+import posting.persistence.repository.UserRepository;
+import posting.service.admission.TokenBucketRateLimiter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Membership index over the usernames of existing users. A username that was never added is definitely not a
+ * user, so it can be answered without a query; only possible members need to be looked up in the database.
+ * Usernames are added before their user is saved and never removed, so mistakes only ever cost a database lookup.
+ * Until the index has been loaded from the database after startup, every username is reported as a possible member.
+ * <p>
+ * Users created by other instances, or while the index was being loaded, are added by {@link #refresh()}, which
+ * reads the users created since the last refresh by id every {@code posting.known-usernames.refresh-interval-millis},
+ * so the index misses them for a bounded time only. In the meantime a username missing from the index is looked up in
+ * the database and added if it exists, at most {@code posting.known-usernames.miss-lookups-per-second} times per
+ * second so that requests for unknown users can't flood the database. Beyond that, misses are answered from the
+ * index alone until the next refresh.
+ */
+@Component
+public class KnownUsernames implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KnownUsernames.class);
+    private static final String MISS_LOOKUPS_KEY = "miss";
+
+    private final UserRepository userRepository;
+    private final KnownUsernamesProperties properties;
+    private final ScalableBloomFilter filter;
+    private final Timer rebuildTime;
+    private final Counter definiteNegatives;
+    private final Counter falsePositives;
+    private final Counter refreshed;
+    private final TokenBucketRateLimiter missLookups;
+    private long refreshAfterId;
+    private long loadedUpToId;
+    private volatile boolean loaded;
+
+    public KnownUsernames(UserRepository userRepository,
+                          KnownUsernamesProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.filter = new ScalableBloomFilter(properties.getExpectedUsers(), properties.getFalsePositiveProbability());
+        this.rebuildTime = meterRegistry.timer("posting.known-usernames.rebuild");
+        this.definiteNegatives = meterRegistry.counter("posting.known-usernames.lookups", "result", "negative");
+        this.falsePositives = meterRegistry.counter("posting.known-usernames.lookups", "result", "false-positive");
+        this.refreshed = meterRegistry.counter("posting.known-usernames.lookups", "result", "refreshed");
+        this.missLookups = properties.getMissLookupsPerSecond() > 0
+                ? new TokenBucketRateLimiter(1, 1, properties.getMissLookupsPerSecond(),
+                        properties.getMissLookupsPerSecond())
+                : null;
+        meterRegistry.gauge("posting.known-usernames.size", filter, ScalableBloomFilter::size);
+        meterRegistry.gauge("posting.known-usernames.false-positive-probability", filter,
+                ScalableBloomFilter::estimateFalsePositiveProbability);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        load();
+    }
+
+    synchronized void load() {
+        long start = System.nanoTime();
+        Long maxId = userRepository.findMaxId();
+        loadedUpToId = maxId == null ? 0 : maxId;
+        refreshAfterId = loadedUpToId;
+        String lastUsername = "";
+        List<String> usernames;
+        do {
+            usernames = userRepository.findUsernamesAfter(lastUsername,
+                    PageRequest.of(0, properties.getLoadBatchSize()));
+            usernames.forEach(filter::add);
+            if (!usernames.isEmpty()) {
+                lastUsername = usernames.get(usernames.size() - 1);
+            }
+        } while (usernames.size() == properties.getLoadBatchSize());
+        loaded = true;
+        long duration = System.nanoTime() - start;
+        rebuildTime.record(duration, TimeUnit.NANOSECONDS);
+        LOGGER.info("Loaded {} known usernames into {} filter stage(s) in {} ms, estimated false positive rate {}",
+                filter.size(), filter.stageCount(), TimeUnit.NANOSECONDS.toMillis(duration),
+                filter.estimateFalsePositiveProbability());
+    }
+
+    /**
+     * Adds the users created since the previous refresh. Each refresh reads the users found by the previous one
+     * again, so that a user whose id was taken before another's but who was committed after it isn't skipped.
+     */
+    public synchronized void refresh() {
+        if (!loaded) {
+            return;
+        }
+        long afterId = refreshAfterId;
+        List<UserRecord> users;
+        do {
+            users = userRepository.findUsersAfterId(afterId, PageRequest.of(0, properties.getLoadBatchSize()));
+            users.forEach(user -> filter.add(user.getUsername()));
+            if (!users.isEmpty()) {
+                afterId = users.get(users.size() - 1).getId();
+            }
+        } while (users.size() == properties.getLoadBatchSize());
+        refreshAfterId = loadedUpToId;
+        loadedUpToId = Math.max(loadedUpToId, afterId);
+    }
+
+    public void add(String username) {
+        filter.add(username);
+    }
+
+    public boolean mightExist(String username) {
+        if (!loaded || filter.mightContain(username)) {
+            return true;
+        }
+        if (missLookups != null && missLookups.tryAcquire(MISS_LOOKUPS_KEY)
+                && userRepository.existsByUsername(username)) {
+            filter.add(username);
+            refreshed.increment();
+            return true;
+        }
+        definiteNegatives.increment();
+
+        return false;
+    }
+
+    public void falsePositive() {
+        if (loaded) {
+            falsePositives.increment();
+        }
+    }
+}
\ No newline at end of file
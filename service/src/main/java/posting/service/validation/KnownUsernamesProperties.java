@@ -0,0 +1,55 @@
+package posting.service.validation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "posting.known-usernames")
+public class KnownUsernamesProperties {
+
+    private long expectedUsers = 1_000_000;
+    private double falsePositiveProbability = 0.01;
+    private int loadBatchSize = 10_000;
+    private int missLookupsPerSecond = 100;
+    private long refreshIntervalMillis = 5000;
+
+    public long getExpectedUsers() {
+        return expectedUsers;
+    }
+
+    public void setExpectedUsers(long expectedUsers) {
+        this.expectedUsers = expectedUsers;
+    }
+
+    public double getFalsePositiveProbability() {
+        return falsePositiveProbability;
+    }
+
+    public void setFalsePositiveProbability(double falsePositiveProbability) {
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    public int getLoadBatchSize() {
+        return loadBatchSize;
+    }
+
+    public void setLoadBatchSize(int loadBatchSize) {
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    public int getMissLookupsPerSecond() {
+        return missLookupsPerSecond;
+    }
+
+    public void setMissLookupsPerSecond(int missLookupsPerSecond) {
+        this.missLookupsPerSecond = missLookupsPerSecond;
+    }
+
+    public long getRefreshIntervalMillis() {
+        return refreshIntervalMillis;
+    }
+
+    public void setRefreshIntervalMillis(long refreshIntervalMillis) {
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+}
\ No newline at end of file
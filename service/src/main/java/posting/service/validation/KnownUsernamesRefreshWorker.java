@@ -0,0 +1,79 @@
+package posting.service.validation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds the users created elsewhere to the {@link KnownUsernames} every
+ * {@code posting.known-usernames.refresh-interval-millis}.
+ */
+@Component
+public class KnownUsernamesRefreshWorker implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KnownUsernamesRefreshWorker.class);
+
+    private final KnownUsernames knownUsernames;
+    private final KnownUsernamesProperties properties;
+    private volatile ScheduledExecutorService executor;
+
+    public KnownUsernamesRefreshWorker(KnownUsernames knownUsernames, KnownUsernamesProperties properties) {
+        this.knownUsernames = knownUsernames;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("known-usernames-refresh-"));
+        executor.scheduleWithFixedDelay(this::refresh, properties.getRefreshIntervalMillis(),
+                properties.getRefreshIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh() {
+        try {
+            knownUsernames.refresh();
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Failed to refresh known usernames, retrying on next run", exception);
+        }
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService runningExecutor = executor;
+        executor = null;
+        runningExecutor.shutdown();
+        try {
+            runningExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
\ No newline at end of file
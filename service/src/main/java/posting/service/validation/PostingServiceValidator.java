@@ -6,35 +6,75 @@ import posting.domain.exception.InvalidRequestException;
 import posting.persistence.entity.Post;
 import posting.persistence.repository.UserRepository;
 
+import java.util.Collection;
+
 @Service
 public class PostingServiceValidator {
 
-    private static final String INVALID_FOLLOWING_MESSAGE = "Can't follow yourself, sorry";
+    private static final InvalidRequestException INVALID_FOLLOWING_EXCEPTION =
+            new InvalidRequestException("Can't follow yourself, sorry");
+    private static final InvalidRequestException INVALID_BLOCKING_EXCEPTION =
+            new InvalidRequestException("Can't block yourself, sorry");
+    private static final String BLOCKED_MESSAGE_TEMPLATE = "Can't follow [%s], who blocked you";
     private static final String INVALID_PAGE_NUMBER_MESSAGE_TEMPLATE =
             "Page number too high, max value of the 'page' parameter is [%s]";
     private static final String INVALID_USERNAME_MESSAGE_TEMPLATE = "User [%s] does not exist";
+    private static final String INVALID_POST_MESSAGE_TEMPLATE = "Post [%s] does not exist";
+    private static final String NOT_AUTHOR_MESSAGE_TEMPLATE = "Post [%s] was not posted by [%s]";
+    private static final InvalidRequestException INVALID_SIZE_EXCEPTION =
+            new InvalidRequestException("The 'size' parameter must be positive");
+    private static final int MAX_USERNAMES = 500;
+    private static final InvalidRequestException INVALID_USERNAMES_EXCEPTION = new InvalidRequestException(
+            "The 'usernames' parameter must list between 1 and " + MAX_USERNAMES + " users");
 
     private final UserRepository userRepository;
+    private final KnownUsernames knownUsernames;
 
-    public PostingServiceValidator(UserRepository userRepository) {
+    public PostingServiceValidator(UserRepository userRepository, KnownUsernames knownUsernames) {
         this.userRepository = userRepository;
+        this.knownUsernames = knownUsernames;
     }
 
     public void validateFollowingUsernames(String requestingUsername, String followedUsername) {
         if (requestingUsername.equals(followedUsername)) {
-            throw new InvalidRequestException(INVALID_FOLLOWING_MESSAGE);
+            throw INVALID_FOLLOWING_EXCEPTION;
+        }
+    }
+
+    public void validateBlockingUsernames(String requestingUsername, String blockedUsername) {
+        if (requestingUsername.equals(blockedUsername)) {
+            throw INVALID_BLOCKING_EXCEPTION;
         }
     }
 
     public void validatePageNumber(int page, Page<Post> posts) {
-        if (posts.getTotalPages() <= page) {
-            throw new InvalidRequestException(
-                    String.format(INVALID_PAGE_NUMBER_MESSAGE_TEMPLATE, (posts.getTotalPages() - 1)));
+        validatePageNumber(page, posts.getTotalPages());
+    }
+
+    public void validatePageNumber(int page, int totalPages) {
+        if (totalPages <= page) {
+            throw new InvalidRequestException(String.format(INVALID_PAGE_NUMBER_MESSAGE_TEMPLATE, (totalPages - 1)));
+        }
+    }
+
+    public void validateSize(int size) {
+        if (size < 1) {
+            throw INVALID_SIZE_EXCEPTION;
+        }
+    }
+
+    public void validateUsernames(Collection<String> usernames) {
+        if (usernames.isEmpty() || usernames.size() > MAX_USERNAMES) {
+            throw INVALID_USERNAMES_EXCEPTION;
         }
     }
 
     public void validateUserExists(String username) {
+        if (!knownUsernames.mightExist(username)) {
+            throw unknownUsernameException(username);
+        }
         if (!userRepository.existsByUsername(username)) {
+            knownUsernames.falsePositive();
             throw unknownUsernameException(username);
         }
     }
@@ -42,4 +82,16 @@ public class PostingServiceValidator {
     public InvalidRequestException unknownUsernameException(String username) {
         return new InvalidRequestException(String.format(INVALID_USERNAME_MESSAGE_TEMPLATE, username));
     }
+
+    public InvalidRequestException blockedException(String username) {
+        return new InvalidRequestException(String.format(BLOCKED_MESSAGE_TEMPLATE, username));
+    }
+
+    public InvalidRequestException unknownPostException(long postId) {
+        return new InvalidRequestException(String.format(INVALID_POST_MESSAGE_TEMPLATE, postId));
+    }
+
+    public InvalidRequestException notAuthorException(long postId, String username) {
+        return new InvalidRequestException(String.format(NOT_AUTHOR_MESSAGE_TEMPLATE, postId, username));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package posting.service.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bloom filter that keeps its false positive probability bounded when more values than expected are added, as
+ * described in "Scalable Bloom Filters" (Almeida et al.). Values are added to the newest stage, and once it holds
+ * as many values as it was sized for, a new stage with twice the capacity and half the false positive probability
+ * is started. The compound false positive probability therefore stays below twice that of the first stage.
+ */
+class ScalableBloomFilter {
+
+    private static final int CAPACITY_GROWTH = 2;
+    private static final double PROBABILITY_TIGHTENING = 0.5;
+
+    private final long initialCapacity;
+    private final double falsePositiveProbability;
+    private volatile List<BloomFilter> stages;
+
+    ScalableBloomFilter(long initialCapacity, double falsePositiveProbability) {
+        this.initialCapacity = initialCapacity;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.stages = Collections.singletonList(new BloomFilter(initialCapacity, falsePositiveProbability));
+    }
+
+    void add(String value) {
+        if (!mightContain(value)) {
+            currentStage().add(value);
+        }
+    }
+
+    boolean mightContain(String value) {
+        for (BloomFilter stage : stages) {
+            if (stage.mightContain(value)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    long size() {
+        long size = 0;
+        for (BloomFilter stage : stages) {
+            size += stage.getInsertions();
+        }
+
+        return size;
+    }
+
+    int stageCount() {
+        return stages.size();
+    }
+
+    double estimateFalsePositiveProbability() {
+        double noFalsePositive = 1;
+        for (BloomFilter stage : stages) {
+            noFalsePositive *= 1 - stage.estimateFalsePositiveProbability();
+        }
+
+        return 1 - noFalsePositive;
+    }
+
+    private BloomFilter currentStage() {
+        List<BloomFilter> current = stages;
+        BloomFilter stage = current.get(current.size() - 1);
+        if (stage.isFull()) {
+            synchronized (this) {
+                if (stages == current) {
+                    int stageIndex = current.size();
+                    List<BloomFilter> grown = new ArrayList<>(current);
+                    grown.add(new BloomFilter(
+                            initialCapacity * (long) Math.pow(CAPACITY_GROWTH, stageIndex),
+                            falsePositiveProbability * Math.pow(PROBABILITY_TIGHTENING, stageIndex)));
+                    stages = Collections.unmodifiableList(grown);
+                }
+                current = stages;
+            }
+            stage = current.get(current.size() - 1);
+        }
+
+        return stage;
+    }
+}
\ No newline at end of file
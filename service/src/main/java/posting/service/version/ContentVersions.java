@@ -0,0 +1,114 @@
+package posting.service.version;
+
+import org.springframework.stereotype.Component;
+import posting.persistence.repository.TimelineVersion;
+import posting.persistence.repository.UserRepository;
+import posting.persistence.repository.WallVersion;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Version counters kept on the user rows, used to build entity tags for walls and timelines without querying posts.
+ * <p>
+ * A wall changes only when its owner posts, edits or deletes a post. A timeline changes when its owner follows or
+ * unfollows someone or when any of the followed users posts, so its tag combines the owner's follow counter with the
+ * sum of the followed users' wall counters. Counters are only ever incremented, in the transaction making the change,
+ * and the follow counter whenever the followed users change, so a tag can't repeat, and every instance sees a change
+ * as soon as it is committed.
+ * <p>
+ * Posts are returned with their likes and reposts, so the entity tags also include the counts counters of the
+ * authors, incremented whenever counts of their posts are flushed to the database; counts read before an instance
+ * flushed them may thus be served as not modified for up to {@code posting.engagement.flush-interval-millis}. The
+ * timeline cache holds posts without counts, so its tags leave the counts counters out and a like doesn't evict it.
+ */
+@Component
+public class ContentVersions {
+
+    private final UserRepository userRepository;
+
+    public ContentVersions(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public String getWallTag(String username) {
+        WallVersion version = userRepository.findWallVersion(username);
+        if (version == null) {
+            return "0-0";
+        }
+
+        return version.getWallVersion() + "-" + version.getCountsVersion();
+    }
+
+    /**
+     * Tags the walls of several users at once. Wall counters only grow, so their sum changes whenever any of the
+     * walls does; a tag is only compared with tags of the same users, whose request it was sent with.
+     */
+    public String getWallsTag(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return "0-0";
+        }
+        WallVersion version = userRepository.sumWallVersions(usernames);
+
+        return version.getWallVersion() + "-" + version.getCountsVersion();
+    }
+
+    public String getTimelineTag(String username) {
+        TimelineVersion version = userRepository.findTimelineVersion(username);
+        if (version == null) {
+            return "0-0-0";
+        }
+
+        return version.getFollowVersion() + "-" + version.getFollowedWallVersions() + "-"
+                + version.getFollowedCountsVersions();
+    }
+
+    /**
+     * Returns the tag of the timeline's posts without their counts, under which the timeline is cached.
+     */
+    public String getCachedTimelineTag(String username) {
+        String timelineTag = getTimelineTag(username);
+
+        return timelineTag.substring(0, timelineTag.lastIndexOf('-'));
+    }
+
+    /**
+     * Returns the cached timeline tag a timeline tagged {@code cachedTimelineTag} has once its owner's follow of a
+     * user whose wall was tagged {@code followedWallTag} is counted, provided nothing else changed in between.
+     */
+    public String getCachedTimelineTagAfterFollow(String cachedTimelineTag, String followedWallTag) {
+        String[] timelineVersions = cachedTimelineTag.split("-");
+        String[] wallVersions = followedWallTag.split("-");
+
+        return (Long.parseLong(timelineVersions[0]) + 1) + "-"
+                + (Long.parseLong(timelineVersions[1]) + Long.parseLong(wallVersions[0]));
+    }
+
+    public void postCreated(String username) {
+        userRepository.incrementWallVersions(Collections.singleton(username));
+    }
+
+    /**
+     * Changes the tags of the author's wall and of the timelines of the author's followers, and so the cached
+     * timelines read at those tags, without touching anyone else's.
+     */
+    public void postChanged(String username) {
+        userRepository.incrementWallVersions(Collections.singleton(username));
+    }
+
+    /**
+     * Pushed posts only show up in followers' timelines once they are fanned out, after the post itself was
+     * committed, so the authors' versions are incremented once more when that happens.
+     */
+    public void postsPushed(Collection<String> usernames) {
+        userRepository.incrementWallVersions(usernames);
+    }
+
+    public void followed(String username) {
+        userRepository.incrementFollowVersion(username);
+    }
+
+    public void unfollowed(String username) {
+        userRepository.incrementFollowVersion(username);
+    }
+}
\ No newline at end of file
@@ -1,10 +1,13 @@
 package posting.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -12,22 +15,52 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import posting.domain.exception.InvalidRequestException;
 import posting.domain.model.PostDto;
+import posting.persistence.entity.OutboxEvent;
+import posting.persistence.entity.OutboxEventType;
 import posting.persistence.entity.Post;
 import posting.persistence.entity.User;
+import posting.persistence.entity.UserBlock;
+import posting.persistence.repository.OutboxEventRepository;
+import posting.persistence.repository.PostCountsChangeRepository;
+import posting.persistence.repository.PostCountsRepository;
 import posting.persistence.repository.PostRepository;
+import posting.persistence.repository.UserBlockRepository;
 import posting.persistence.repository.UserRepository;
+import posting.service.cache.CachedPage;
+import posting.service.cache.TimelineCache;
+import posting.service.engagement.EngagementCounters;
+import posting.service.engagement.EngagementProperties;
+import posting.service.graph.SocialGraph;
+import posting.service.lock.UsernameLocks;
+import posting.service.segment.SegmentCompactor;
+import posting.service.tag.TagService;
+import posting.service.timeline.TimelineFanOut;
+import posting.service.timeline.TimelineReader;
+import posting.service.timeline.TimelineRetractor;
+import posting.service.timeline.TimelineStrategy;
+import posting.service.timeline.WallReader;
+import posting.service.validation.KnownUsernames;
 import posting.service.validation.PostingServiceValidator;
+import posting.service.version.ContentVersions;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -39,9 +72,55 @@ public class PostingServiceTest {
     @Mock
     private PostRepository postRepository;
 
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private UserBlockRepository userBlockRepository;
+
     @Mock
     private PostingServiceValidator validator;
 
+    @Mock
+    private KnownUsernames knownUsernames;
+
+    @Mock
+    private UsernameLocks usernameLocks;
+
+    @Mock
+    private SocialGraph socialGraph;
+
+    @Mock
+    private ContentVersions contentVersions;
+
+    @Mock
+    private TimelineCache timelineCache;
+
+    @Mock
+    private TimelineStrategy timelineStrategy;
+
+    @Mock
+    private TimelineFanOut timelineFanOut;
+
+    @Mock
+    private TimelineReader timelineReader;
+
+    @Mock
+    private TimelineRetractor timelineRetractor;
+
+    @Mock
+    private WallReader wallReader;
+
+    @Mock
+    private TagService tagService;
+
+    @Mock
+    private SegmentCompactor segmentCompactor;
+
+    @Spy
+    private EngagementCounters engagementCounters = new EngagementCounters(mock(PostCountsRepository.class),
+            mock(PostCountsChangeRepository.class), new EngagementProperties(), new SimpleMeterRegistry());
+
     @InjectMocks
     private PostingService postingService;
 
@@ -50,20 +129,66 @@ public class PostingServiceTest {
         String username = "testUser";
         String postContent = "postContent";
 
+        when(knownUsernames.mightExist(username)).thenReturn(Boolean.TRUE);
+
         when(userRepository.findByUsername(username)).thenReturn(Optional.empty());
+        when(userRepository.save(any(User.class))).then(invocation -> withId(invocation.getArgument(0)));
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
+        ArgumentCaptor<Post> postCaptor = ArgumentCaptor.forClass(Post.class);
 
         postingService.newPost(username, postContent);
 
         verify(userRepository).save(userCaptor.capture());
+        verify(postRepository).save(postCaptor.capture());
         User user = userCaptor.getValue();
         User exampleUser = new User();
         exampleUser.setUsername(username);
         assertThat(user)
-                .isEqualToIgnoringGivenFields(exampleUser, "posts");
+                .isEqualToIgnoringGivenFields(exampleUser, "id", "posts");
         assertThat(user.getPosts())
                 .extracting(Post::getContent)
                 .containsExactly(postContent);
+        assertThat(postCaptor.getValue()).isSameAs(user.getPosts().get(0));
+        verify(tagService).index(postCaptor.getValue());
+        verify(knownUsernames).add(username);
+        verify(contentVersions).postCreated(username);
+    }
+
+    @Test
+    public void testNewPostUnknownUserLooksUpOnlyUnderLock() {
+        String username = "testUser";
+
+        when(knownUsernames.mightExist(username)).thenReturn(Boolean.FALSE);
+        when(userRepository.findByUsername(username)).thenReturn(Optional.empty());
+        when(userRepository.save(any(User.class))).then(invocation -> withId(invocation.getArgument(0)));
+
+        postingService.newPost(username, "postContent");
+
+        InOrder inOrder = inOrder(usernameLocks, userRepository);
+        inOrder.verify(usernameLocks).lockUntilTransactionCompletes(username);
+        inOrder.verify(userRepository).findByUsername(username);
+        inOrder.verify(userRepository).save(any(User.class));
+    }
+
+    @Test
+    public void testNewPostUserCreatedConcurrently() {
+        String username = "testUser";
+        User concurrentlyCreatedUser = new User();
+        concurrentlyCreatedUser.setId(1L);
+        concurrentlyCreatedUser.setUsername(username);
+
+        when(knownUsernames.mightExist(username)).thenReturn(Boolean.TRUE);
+        when(userRepository.findByUsername(username))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(concurrentlyCreatedUser));
+        ArgumentCaptor<Post> postCaptor = ArgumentCaptor.forClass(Post.class);
+
+        postingService.newPost(username, "postContent");
+
+        verify(usernameLocks).lockUntilTransactionCompletes(username);
+        verify(userRepository, never()).save(any(User.class));
+        verify(postRepository).save(postCaptor.capture());
+        assertThat(postCaptor.getValue().getUser()).isSameAs(concurrentlyCreatedUser);
     }
 
     @Test
@@ -81,13 +206,15 @@ public class PostingServiceTest {
         existingPost.setUser(existingUser);
         existingUser.getPosts().add(existingPost);
 
+        when(knownUsernames.mightExist(username)).thenReturn(Boolean.TRUE);
+
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(existingUser));
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
+        ArgumentCaptor<Post> postCaptor = ArgumentCaptor.forClass(Post.class);
 
         postingService.newPost(username, postContent);
 
-        verify(userRepository).save(userCaptor.capture());
-        User user = userCaptor.getValue();
+        verify(postRepository).save(postCaptor.capture());
+        User user = postCaptor.getValue().getUser();
         assertThat(user)
                 .isEqualToIgnoringGivenFields(existingUser, "posts");
         assertThat(user.getPosts())
@@ -96,6 +223,51 @@ public class PostingServiceTest {
                 .containsExactlyInAnyOrder(postContent, existingUser, existingPostContent, existingUser);
     }
 
+    @Test
+    public void testNewPostRecordsTimelineStrategy() {
+        String username = "testUser";
+        User existingUser = new User();
+        existingUser.setId(1L);
+        existingUser.setUsername(username);
+
+        when(knownUsernames.mightExist(username)).thenReturn(Boolean.TRUE);
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(existingUser));
+        when(timelineStrategy.pushPostOf(username)).thenReturn(Boolean.TRUE);
+        ArgumentCaptor<Post> postCaptor = ArgumentCaptor.forClass(Post.class);
+
+        postingService.newPost(username, "postContent");
+
+        verify(postRepository).save(postCaptor.capture());
+        assertThat(postCaptor.getValue().isPushed()).isTrue();
+    }
+
+    @Test
+    public void testNewPostWritesOutboxEvent() {
+        String username = "testUser";
+        Long userId = 1L;
+        Long postId = 2L;
+        User existingUser = new User();
+        existingUser.setId(userId);
+        existingUser.setUsername(username);
+
+        when(knownUsernames.mightExist(username)).thenReturn(Boolean.TRUE);
+
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(existingUser));
+        when(postRepository.save(any(Post.class))).then(invocation -> {
+            Post post = invocation.getArgument(0);
+            post.setId(postId);
+            return post;
+        });
+        ArgumentCaptor<OutboxEvent> eventCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+
+        postingService.newPost(username, "postContent");
+
+        verify(outboxEventRepository).save(eventCaptor.capture());
+        assertThat(eventCaptor.getValue())
+                .extracting(OutboxEvent::getType, OutboxEvent::getUserId, OutboxEvent::getPostId)
+                .containsExactly(OutboxEventType.POST_CREATED, userId, postId);
+    }
+
     @Test
     public void testFollow() {
         String requestingUsername = "user1";
@@ -106,28 +278,83 @@ public class PostingServiceTest {
         requestingUser.getFollowed().add(existingFollowedUser);
         User followedUser = new User();
 
+        when(knownUsernames.mightExist(requestingUsername)).thenReturn(Boolean.TRUE);
+
         when(userRepository.findByUsername(requestingUsername)).thenReturn(Optional.of(requestingUser));
+        when(knownUsernames.mightExist(followedUsername)).thenReturn(Boolean.TRUE);
         when(userRepository.findByUsername(followedUsername)).thenReturn(Optional.of(followedUser));
 
         postingService.follow(requestingUsername, followedUsername);
 
         verify(validator).validateFollowingUsernames(requestingUsername, followedUsername);
+        InOrder inOrder = inOrder(contentVersions, socialGraph);
+        inOrder.verify(contentVersions).followed(requestingUsername);
+        inOrder.verify(socialGraph).follow(requestingUsername, followedUsername);
+        verify(timelineFanOut).followed(requestingUser, followedUser);
         assertThat(requestingUser.getFollowed())
                 .containsExactlyInAnyOrder(existingFollowedUser, followedUser);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFollowMergesFollowedPostsIntoCachedTimeline() {
+        String requestingUsername = "user1";
+        String followedUsername = "user2";
+        User followedUser = new User();
+        Post followedPost = createPost("followed post", LocalDateTime.now(), followedUsername);
+
+        when(knownUsernames.mightExist(requestingUsername)).thenReturn(Boolean.TRUE);
+        when(userRepository.findByUsername(requestingUsername)).thenReturn(Optional.of(new User()));
+        when(knownUsernames.mightExist(followedUsername)).thenReturn(Boolean.TRUE);
+        when(userRepository.findByUsername(followedUsername)).thenReturn(Optional.of(followedUser));
+        when(timelineCache.isCached(requestingUsername)).thenReturn(true);
+        when(timelineCache.getTimelineSize()).thenReturn(100);
+        when(contentVersions.getWallTag(followedUsername)).thenReturn("wallTag");
+        when(wallReader.findPage(followedUsername, PageRequest.of(0, 100)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(followedPost), PageRequest.of(0, 100), 1));
+        when(contentVersions.getCachedTimelineTagAfterFollow("timelineTag", "wallTag")).thenReturn("mergedTag");
+
+        postingService.follow(requestingUsername, followedUsername);
+
+        ArgumentCaptor<UnaryOperator<String>> tagCaptor = ArgumentCaptor.forClass(UnaryOperator.class);
+        ArgumentCaptor<List<PostDto>> postsCaptor = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(contentVersions, timelineCache);
+        inOrder.verify(contentVersions).followed(requestingUsername);
+        inOrder.verify(timelineCache).mergeFollowed(eq(requestingUsername), tagCaptor.capture(),
+                postsCaptor.capture(), eq(1L));
+        assertThat(tagCaptor.getValue().apply("timelineTag")).isEqualTo("mergedTag");
+        assertThat(postsCaptor.getValue()).extracting(PostDto::getContent).containsExactly("followed post");
+    }
+
     @Test
     public void testFollowRequestingUserNotFound() {
         String requestingUsername = "user1";
         String followedUsername = "user2";
 
         InvalidRequestException thrownException = new InvalidRequestException("test");
+        when(knownUsernames.mightExist(requestingUsername)).thenReturn(Boolean.TRUE);
         when(userRepository.findByUsername(requestingUsername)).thenReturn(Optional.empty());
         when(validator.unknownUsernameException(requestingUsername)).thenReturn(thrownException);
 
         Throwable throwable = catchThrowable(() -> postingService.follow(requestingUsername, followedUsername));
 
         assertThat(throwable).isSameAs(thrownException);
+        verify(knownUsernames).falsePositive();
+    }
+
+    @Test
+    public void testFollowUnknownUserSkipsQuery() {
+        String requestingUsername = "user1";
+        String followedUsername = "user2";
+
+        InvalidRequestException thrownException = new InvalidRequestException("test");
+        when(knownUsernames.mightExist(requestingUsername)).thenReturn(Boolean.FALSE);
+        when(validator.unknownUsernameException(requestingUsername)).thenReturn(thrownException);
+
+        Throwable throwable = catchThrowable(() -> postingService.follow(requestingUsername, followedUsername));
+
+        assertThat(throwable).isSameAs(thrownException);
+        verify(userRepository, never()).findByUsername(requestingUsername);
     }
 
     @Test
@@ -137,7 +364,9 @@ public class PostingServiceTest {
         User requestingUser = new User();
 
         InvalidRequestException thrownException = new InvalidRequestException("test");
+        when(knownUsernames.mightExist(requestingUsername)).thenReturn(Boolean.TRUE);
         when(userRepository.findByUsername(requestingUsername)).thenReturn(Optional.of(requestingUser));
+        when(knownUsernames.mightExist(followedUsername)).thenReturn(Boolean.TRUE);
         when(userRepository.findByUsername(followedUsername)).thenReturn(Optional.empty());
         when(validator.unknownUsernameException(followedUsername)).thenReturn(thrownException);
 
@@ -146,6 +375,196 @@ public class PostingServiceTest {
         assertThat(throwable).isSameAs(thrownException);
     }
 
+    @Test
+    public void testFollowRejectedWhenBlocked() {
+        User requestingUser = existingUser("user1", 1L);
+        User followedUser = existingUser("user2", 2L);
+        InvalidRequestException thrownException = new InvalidRequestException("test");
+        when(userBlockRepository.existsById(UserBlock.Key.of(2L, 1L))).thenReturn(true);
+        when(validator.blockedException("user2")).thenReturn(thrownException);
+
+        Throwable throwable = catchThrowable(() -> postingService.follow("user1", "user2"));
+
+        assertThat(throwable).isSameAs(thrownException);
+        assertThat(requestingUser.getFollowed()).doesNotContain(followedUser);
+        verify(usernameLocks).lockUntilTransactionCompletes("user2");
+        verifyZeroInteractions(timelineFanOut, socialGraph);
+    }
+
+    @Test
+    public void testUnfollowRetractsPostsFromTimeline() {
+        User requestingUser = existingUser("user1", 1L);
+        User followedUser = existingUser("user2", 2L);
+        when(userRepository.deleteFollow(1L, 2L)).thenReturn(1);
+
+        postingService.unfollow("user1", "user2");
+
+        verify(timelineRetractor).unfollowed(requestingUser, followedUser);
+        InOrder inOrder = inOrder(contentVersions, socialGraph);
+        inOrder.verify(contentVersions).unfollowed("user1");
+        inOrder.verify(socialGraph).unfollow("user1", "user2");
+    }
+
+    @Test
+    public void testUnfollowNotFollowedUserChangesNothing() {
+        existingUser("user1", 1L);
+        existingUser("user2", 2L);
+
+        postingService.unfollow("user1", "user2");
+
+        verifyZeroInteractions(timelineRetractor, socialGraph, contentVersions);
+    }
+
+    @Test
+    public void testBlockRemovesFollowsBothWays() {
+        User requestingUser = existingUser("user1", 1L);
+        User blockedUser = existingUser("user2", 2L);
+        when(userRepository.deleteFollow(2L, 1L)).thenReturn(1);
+        when(userRepository.deleteFollow(1L, 2L)).thenReturn(1);
+
+        postingService.block("user1", "user2");
+
+        ArgumentCaptor<UserBlock> blockCaptor = ArgumentCaptor.forClass(UserBlock.class);
+        verify(userBlockRepository).save(blockCaptor.capture());
+        assertThat(blockCaptor.getValue().getId()).isEqualTo(UserBlock.Key.of(1L, 2L));
+        verify(validator).validateBlockingUsernames("user1", "user2");
+        verify(usernameLocks).lockUntilTransactionCompletes("user1");
+        verify(socialGraph).block("user1", "user2");
+        verify(timelineRetractor).unfollowed(blockedUser, requestingUser);
+        verify(timelineRetractor).unfollowed(requestingUser, blockedUser);
+        verify(socialGraph).unfollow("user2", "user1");
+        verify(socialGraph).unfollow("user1", "user2");
+    }
+
+    @Test
+    public void testGetWallsLooksUpAllUsersInOneQuery() {
+        User user1 = new User();
+        user1.setId(1L);
+        user1.setUsername("user1");
+        User user2 = new User();
+        user2.setId(2L);
+        user2.setUsername("user2");
+        Post post1 = createPost("post 1", LocalDateTime.now(), "user1");
+        Post post2 = createPost("post 2", LocalDateTime.now(), "user2");
+        Post post3 = createPost("post 3", LocalDateTime.now(), "user2");
+        when(knownUsernames.mightExist("user1")).thenReturn(Boolean.TRUE);
+        when(knownUsernames.mightExist("user2")).thenReturn(Boolean.TRUE);
+        when(knownUsernames.mightExist("unknown")).thenReturn(Boolean.FALSE);
+        when(knownUsernames.mightExist("falsePositive")).thenReturn(Boolean.TRUE);
+        when(userRepository.findByUsernameIn(Arrays.asList("user2", "user1", "falsePositive")))
+                .thenReturn(Arrays.asList(user1, user2));
+        Map<String, List<Post>> walls = new LinkedHashMap<>();
+        walls.put("user2", Arrays.asList(post3, post2));
+        walls.put("user1", Collections.singletonList(post1));
+        when(wallReader.findNewest(Arrays.asList(user2, user1), 100)).thenReturn(walls);
+
+        Map<String, List<PostDto>> posts = postingService.getWalls(
+                Arrays.asList("user2", "unknown", "user1", "user2", "falsePositive"), 500);
+
+        assertThat(posts).containsOnlyKeys("user2", "user1");
+        assertThat(posts.keySet()).containsExactly("user2", "user1");
+        assertThat(posts.get("user2")).extracting(PostDto::getContent).containsExactly("post 3", "post 2");
+        assertThat(posts.get("user1")).extracting(PostDto::getContent).containsExactly("post 1");
+        verify(validator).validateUsernames(Arrays.asList("user2", "unknown", "user1", "user2", "falsePositive"));
+        verify(validator).validateSize(500);
+        verify(knownUsernames).falsePositive();
+    }
+
+    @Test
+    public void testEditPostReindexesItsTags() {
+        User user = existingUser("user1", 1L);
+        Post post = existingPost(10L, "Hello #old", user);
+
+        postingService.editPost("user1", 10L, "Hello #new");
+
+        assertThat(post.getContent()).isEqualTo("Hello #new");
+        verify(usernameLocks).lockUntilTransactionCompletes("user1");
+        verify(tagService).reindex(post, "Hello #old");
+        ArgumentCaptor<OutboxEvent> eventCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(eventCaptor.capture());
+        assertThat(eventCaptor.getValue())
+                .extracting(OutboxEvent::getType, OutboxEvent::getPostId)
+                .containsExactly(OutboxEventType.POST_EDITED, 10L);
+        verify(contentVersions).postChanged("user1");
+    }
+
+    @Test
+    public void testDeletePostLeavesTombstone() {
+        User user = existingUser("user1", 1L);
+        Post post = existingPost(10L, "Hello #tag", user);
+
+        postingService.deletePost("user1", 10L);
+
+        assertThat(post.isDeleted()).isTrue();
+        verify(tagService).unindex(post);
+        ArgumentCaptor<OutboxEvent> eventCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getType()).isEqualTo(OutboxEventType.POST_DELETED);
+        verify(contentVersions).postChanged("user1");
+        verify(postRepository, never()).delete(any(Post.class));
+    }
+
+    @Test
+    public void testDeletePostOfAnotherUserRejected() {
+        existingUser("user1", 1L);
+        User author = new User();
+        author.setId(2L);
+        Post post = existingPost(10L, "Hello", author);
+        InvalidRequestException thrownException = new InvalidRequestException("not yours");
+        when(validator.notAuthorException(10L, "user1")).thenReturn(thrownException);
+
+        Throwable throwable = catchThrowable(() -> postingService.deletePost("user1", 10L));
+
+        assertThat(throwable).isSameAs(thrownException);
+        assertThat(post.isDeleted()).isFalse();
+        verifyZeroInteractions(tagService, outboxEventRepository, contentVersions);
+    }
+
+    @Test
+    public void testEditDeletedPostRejected() {
+        User user = existingUser("user1", 1L);
+        existingPost(10L, "Hello", user).setDeleted(true);
+        InvalidRequestException thrownException = new InvalidRequestException("unknown");
+        when(validator.unknownPostException(10L)).thenReturn(thrownException);
+
+        Throwable throwable = catchThrowable(() -> postingService.editPost("user1", 10L, "Edited"));
+
+        assertThat(throwable).isSameAs(thrownException);
+        verifyZeroInteractions(tagService, outboxEventRepository, contentVersions);
+    }
+
+    @Test
+    public void testEditCompactedPostRecordsChange() {
+        User user = existingUser("user1", 1L);
+        Post post = new Post();
+        post.setId(10L);
+        post.setContent("Hello #old");
+        post.setCreatedDate(LocalDateTime.now().minusWeeks(5));
+        post.setUser(user);
+        when(postRepository.findById(10L)).thenReturn(Optional.empty());
+        when(segmentCompactor.findCompacted(user, 10L)).thenReturn(Optional.of(post));
+
+        postingService.editPost("user1", 10L, "Hello #new");
+
+        assertThat(post.getContent()).isEqualTo("Hello #new");
+        verify(segmentCompactor).recordChange(post);
+        verify(tagService).reindex(post, "Hello #old");
+    }
+
+    @Test
+    public void testDeleteUnknownCompactedPostRejected() {
+        User user = existingUser("user1", 1L);
+        when(postRepository.findById(10L)).thenReturn(Optional.empty());
+        when(segmentCompactor.findCompacted(user, 10L)).thenReturn(Optional.empty());
+        InvalidRequestException thrownException = new InvalidRequestException("unknown");
+        when(validator.unknownPostException(10L)).thenReturn(thrownException);
+
+        Throwable throwable = catchThrowable(() -> postingService.deletePost("user1", 10L));
+
+        assertThat(throwable).isSameAs(thrownException);
+        verify(segmentCompactor, never()).recordChange(any());
+    }
+
     @Test
     public void getCompleteWall() {
         LocalDateTime createdDate1 = LocalDateTime.now();
@@ -157,7 +576,7 @@ public class PostingServiceTest {
         Post post1 = createPost(testContent1, createdDate1, username);
         Post post2 = createPost(testContent2, createdDate2, username);
 
-        when(postRepository.findByUsernameOrderByCreatedDateDescending(username))
+        when(wallReader.findAll(username))
                 .thenReturn(Arrays.asList(post1, post2));
 
         List<PostDto> wall = postingService.getCompleteWall(username);
@@ -169,7 +588,7 @@ public class PostingServiceTest {
     @Test
     public void getCompleteWallNoPosts() {
         String username = "testUser";
-        when(postRepository.findByUsernameOrderByCreatedDateDescending(username)).thenReturn(Collections.emptyList());
+        when(wallReader.findAll(username)).thenReturn(Collections.emptyList());
 
         List<PostDto> wall = postingService.getCompleteWall(username);
 
@@ -190,7 +609,7 @@ public class PostingServiceTest {
         Post post1 = createPost(testContent1, createdDate1, username1);
         Post post2 = createPost(testContent2, createdDate2, username2);
 
-        when(postRepository.findByFollowedOrderByCreatedDateDescending(username))
+        when(timelineReader.findAll(username))
                 .thenReturn(Arrays.asList(post1, post2));
 
         List<PostDto> timeline = postingService.getCompleteTimeline(username);
@@ -202,7 +621,7 @@ public class PostingServiceTest {
     @Test
     public void getCompleteTimelineNoPosts() {
         String username = "testUser";
-        when(postRepository.findByFollowedOrderByCreatedDateDescending(username)).thenReturn(Collections.emptyList());
+        when(timelineReader.findAll(username)).thenReturn(Collections.emptyList());
 
         List<PostDto> timeline = postingService.getCompleteTimeline(username);
 
@@ -225,7 +644,7 @@ public class PostingServiceTest {
 
         Page<Post> posts = new PageImpl<>(Arrays.asList(post1, post2), PageRequest.of(page, size), 200);
         ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-        when(postRepository.findByUsernameOrderByCreatedDateDescending(eq(username), pageableCaptor.capture()))
+        when(wallReader.findPage(eq(username), pageableCaptor.capture()))
                 .thenReturn(posts);
 
         List<PostDto> wall = postingService.getWall(username, page, size);
@@ -243,7 +662,7 @@ public class PostingServiceTest {
         int size = 50;
         Page<Post> posts = Page.empty();
         ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-        when(postRepository.findByUsernameOrderByCreatedDateDescending(eq(username), pageableCaptor.capture()))
+        when(wallReader.findPage(eq(username), pageableCaptor.capture()))
                 .thenReturn(posts);
 
         List<PostDto> wall = postingService.getWall(username, page, size);
@@ -271,7 +690,7 @@ public class PostingServiceTest {
 
         Page<Post> posts = new PageImpl<>(Arrays.asList(post1, post2), PageRequest.of(page, size), 200);
         ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-        when(postRepository.findByFollowedOrderByCreatedDateDescending(eq(username), pageableCaptor.capture()))
+        when(timelineReader.findPage(eq(username), pageableCaptor.capture()))
                 .thenReturn(posts);
 
         List<PostDto> timeline = postingService.getTimeline(username, page, size);
@@ -289,7 +708,7 @@ public class PostingServiceTest {
         int size = 50;
         Page<Post> posts = Page.empty();
         ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-        when(postRepository.findByFollowedOrderByCreatedDateDescending(eq(username), pageableCaptor.capture()))
+        when(timelineReader.findPage(eq(username), pageableCaptor.capture()))
                 .thenReturn(posts);
 
         List<PostDto> timeline = postingService.getTimeline(username, page, size);
@@ -300,6 +719,102 @@ public class PostingServiceTest {
         assertThat(timeline).isEmpty();
     }
 
+    @Test
+    public void getTimelineFromCache() {
+        String username = "testUser";
+        String tag = "tag";
+        int page = 1;
+        int size = 1;
+        PostDto post = new PostDto(1L, "testUser1", "testContent", LocalDateTime.now());
+        CachedPage cachedPage = CachedPage.of(Collections.singletonList(post), 5, 0, size);
+
+        when(contentVersions.getCachedTimelineTag(username)).thenReturn(tag);
+        when(timelineCache.getPage(username, tag, page, size)).thenReturn(cachedPage);
+
+        List<PostDto> timeline = postingService.getTimeline(username, page, size);
+
+        verify(validator).validateUserExists(username);
+        verify(validator).validatePageNumber(page, 5);
+        verifyZeroInteractions(postRepository, timelineReader);
+        assertThat(timeline).containsExactly(post);
+    }
+
+    @Test
+    public void getTimelineCachesNewestPosts() {
+        LocalDateTime createdDate1 = LocalDateTime.now();
+        LocalDateTime createdDate2 = createdDate1.plusMinutes(5);
+        String username = "testUser";
+        String username1 = "testUser1";
+        String username2 = "testUser2";
+        String tag = "tag";
+        int page = 1;
+        int size = 1;
+        String testContent1 = "testContent1";
+        String testContent2 = "testContent2";
+
+        Post post1 = createPost(testContent1, createdDate1, username1);
+        Post post2 = createPost(testContent2, createdDate2, username2);
+
+        Page<Post> posts = new PageImpl<>(Arrays.asList(post1, post2), PageRequest.of(0, 10), 2);
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        when(contentVersions.getCachedTimelineTag(username)).thenReturn(tag);
+        when(timelineCache.getTimelineSize()).thenReturn(10);
+        when(timelineReader.findPage(eq(username), pageableCaptor.capture()))
+                .thenReturn(posts);
+        ArgumentCaptor<List<PostDto>> cachedPostsCaptor = ArgumentCaptor.forClass(List.class);
+
+        List<PostDto> timeline = postingService.getTimeline(username, page, size);
+
+        verify(timelineCache).put(eq(username), eq(tag), cachedPostsCaptor.capture(), eq(2L));
+        verify(validator).validatePageNumber(page, 2);
+        testPageable(pageableCaptor.getValue(), 0, 10);
+        testPostList(cachedPostsCaptor.getValue(),
+                testContent1, createdDate1, username1, testContent2, createdDate2, username2);
+        testPostList(timeline, testContent2, createdDate2, username2);
+    }
+
+    @Test
+    public void getWallSince() {
+        LocalDateTime createdDate = LocalDateTime.now();
+        String username = "testUser";
+        long sincePostId = 10L;
+        int size = 20;
+        String testContent = "testContent";
+
+        Post post = createPost(testContent, createdDate, username);
+        post.setId(11L);
+
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        when(wallReader.findSince(
+                eq(username), eq(sincePostId), pageableCaptor.capture()))
+                .thenReturn(Collections.singletonList(post));
+
+        List<PostDto> wall = postingService.getWallSince(username, sincePostId, size);
+
+        verify(validator).validateUserExists(username);
+        verify(validator).validateSize(size);
+        testPageable(pageableCaptor.getValue(), 0, size);
+        testPostList(wall, testContent, createdDate, username);
+        assertThat(wall).extracting(PostDto::getId).containsExactly(11L);
+    }
+
+    @Test
+    public void getTimelineSinceSizeCapped() {
+        String username = "testUser";
+        long sincePostId = 10L;
+
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        when(timelineReader.findSince(
+                eq(username), eq(sincePostId), pageableCaptor.capture()))
+                .thenReturn(Collections.emptyList());
+
+        List<PostDto> timeline = postingService.getTimelineSince(username, sincePostId, 1000);
+
+        verify(validator).validateUserExists(username);
+        testPageable(pageableCaptor.getValue(), 0, 100);
+        assertThat(timeline).isEmpty();
+    }
+
     private void testPostList(List<PostDto> posts, Object... expectedValues) {
         assertThat(posts)
                 .flatExtracting("content", "createdDate", "username")
@@ -312,6 +827,33 @@ public class PostingServiceTest {
                 .containsExactly(expectedPage, expectedSize);
     }
 
+    private static User withId(User user) {
+        user.setId(1L);
+
+        return user;
+    }
+
+    private User existingUser(String username, long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        when(knownUsernames.mightExist(username)).thenReturn(Boolean.TRUE);
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
+
+        return user;
+    }
+
+    private Post existingPost(long id, String content, User user) {
+        Post post = new Post();
+        post.setId(id);
+        post.setContent(content);
+        post.setCreatedDate(LocalDateTime.now());
+        post.setUser(user);
+        when(postRepository.findById(id)).thenReturn(Optional.of(post));
+
+        return post;
+    }
+
     private Post createPost(String content, LocalDateTime createdDate, String username) {
         User user = new User();
         user.setUsername(username);
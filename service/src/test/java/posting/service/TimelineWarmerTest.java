@@ -0,0 +1,60 @@
+package posting.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
+import posting.persistence.repository.PostRepository;
+import posting.service.cache.TimelineCacheProperties;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TimelineWarmerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private PostingService postingService;
+
+    @Mock
+    private PostRepository postRepository;
+
+    private TimelineWarmer timelineWarmer;
+
+    @Before
+    public void setUp() {
+        TimelineCacheProperties properties = new TimelineCacheProperties();
+        properties.setWarmupUsers(3);
+        properties.setWarmupConcurrency(2);
+        timelineWarmer = new TimelineWarmer(postingService, postRepository, properties, meterRegistry);
+    }
+
+    @Test
+    public void testWarmsUpTimelinesOfRecentlyPostingUsers() throws Exception {
+        when(postRepository.findRecentlyPostingUsernames(any(LocalDateTime.class), eq(PageRequest.of(0, 3))))
+                .thenReturn(Arrays.asList("user1", "user2", "user3"));
+        doThrow(new IllegalStateException("failed")).when(postingService).warmTimeline("user2");
+
+        timelineWarmer.warmUp().get(5, TimeUnit.SECONDS);
+
+        verify(postingService).warmTimeline("user1");
+        verify(postingService).warmTimeline("user2");
+        verify(postingService).warmTimeline("user3");
+        assertThat(meterRegistry.get("posting.timeline-cache.warmed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("posting.timeline-cache.warmup").timer().count()).isEqualTo(1);
+    }
+}
\ No newline at end of file
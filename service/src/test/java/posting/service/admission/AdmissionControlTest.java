@@ -0,0 +1,63 @@
+package posting.service.admission;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import posting.domain.exception.TooManyRequestsException;
+import posting.persistence.pool.ConnectionWaitMonitor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AdmissionControlTest {
+
+    @Mock
+    private ConnectionWaitMonitor connectionWaitMonitor;
+
+    private AdmissionControl admissionControl;
+
+    @Before
+    public void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setPostBurst(2);
+        properties.setPostsPerSecond(0.001);
+        properties.setMaxPoolWaitMillis(100);
+        admissionControl = new AdmissionControl(connectionWaitMonitor, properties);
+    }
+
+    @Test
+    public void testAdmitRequestPoolWaitBelowThreshold() {
+        when(connectionWaitMonitor.getAverageWaitMillis()).thenReturn(100L);
+
+        admissionControl.admitRequest();
+    }
+
+    @Test
+    public void testAdmitRequestPoolWaitAboveThreshold() {
+        when(connectionWaitMonitor.getAverageWaitMillis()).thenReturn(101L);
+
+        Throwable thrownException = catchThrowable(() -> admissionControl.admitRequest());
+
+        assertThat(thrownException)
+                .isExactlyInstanceOf(TooManyRequestsException.class)
+                .hasMessage("Service is overloaded, try again later");
+    }
+
+    @Test
+    public void testAdmitPostRateExceeded() {
+        String username = "testUser";
+        admissionControl.admitPost(username);
+        admissionControl.admitPost(username);
+
+        Throwable thrownException = catchThrowable(() -> admissionControl.admitPost(username));
+
+        assertThat(thrownException)
+                .isExactlyInstanceOf(TooManyRequestsException.class)
+                .hasMessage("User [testUser] is posting too fast, try again later");
+        admissionControl.admitPost("otherUser");
+    }
+}
\ No newline at end of file
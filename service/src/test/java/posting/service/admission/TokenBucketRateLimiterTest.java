@@ -0,0 +1,64 @@
+package posting.service.admission;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toNanos(1));
+
+    @Test
+    public void testBurstThenReject() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(4, 10, 1, 3, clock::get);
+
+        assertThat(limiter.tryAcquire("user")).isTrue();
+        assertThat(limiter.tryAcquire("user")).isTrue();
+        assertThat(limiter.tryAcquire("user")).isTrue();
+        assertThat(limiter.tryAcquire("user")).isFalse();
+        assertThat(limiter.tryAcquire("otherUser")).isTrue();
+    }
+
+    @Test
+    public void testRefill() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(4, 10, 2, 1, clock::get);
+
+        assertThat(limiter.tryAcquire("user")).isTrue();
+        assertThat(limiter.tryAcquire("user")).isFalse();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(499));
+        assertThat(limiter.tryAcquire("user")).isFalse();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(limiter.tryAcquire("user")).isTrue();
+    }
+
+    @Test
+    public void testEvictIdleBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(4, 10, 1, 2, clock::get);
+        limiter.tryAcquire("user1");
+        limiter.tryAcquire("user2");
+        limiter.tryAcquire("user2");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        int evicted = limiter.evictIdleBuckets();
+
+        assertThat(evicted).isOne();
+        assertThat(limiter.size()).isOne();
+    }
+
+    @Test
+    public void testFullShardRejectsNewKeysUntilBucketsAreIdle() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 2, 1, 1, clock::get);
+        limiter.tryAcquire("user1");
+        limiter.tryAcquire("user2");
+
+        assertThat(limiter.tryAcquire("user3")).isFalse();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(limiter.tryAcquire("user3")).isTrue();
+        assertThat(limiter.size()).isOne();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package posting.service.cache;
+
+import org.junit.Test;
+import posting.domain.model.PostDto;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PostArenaTest {
+
+    private static final int SEGMENT_BYTES = 256;
+
+    private final PostArena arena = new PostArena(2 * SEGMENT_BYTES, SEGMENT_BYTES);
+
+    @Test
+    public void testReadAppendedPost() {
+        PostDto post = new PostDto(7L, "üser", "cöntent", LocalDateTime.of(2018, 10, 1, 12, 30, 15, 123456789));
+
+        long address = arena.append(post);
+
+        assertThat(arena.read(address)).isEqualToComparingFieldByField(post);
+    }
+
+    @Test
+    public void testPostsDoNotSpanSegments() {
+        long first = arena.append(post(1L, 150));
+
+        long second = arena.append(post(2L, 150));
+
+        assertThat(second).isEqualTo(SEGMENT_BYTES);
+        assertThat(arena.read(first).getId()).isEqualTo(1L);
+        assertThat(arena.read(second).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    public void testOverwrittenPostIsNotRead() {
+        long first = arena.append(post(1L, 150));
+        arena.append(post(2L, 150));
+
+        long third = arena.append(post(3L, 150));
+
+        assertThat(arena.read(first)).isNull();
+        assertThat(arena.read(third).getId()).isEqualTo(3L);
+    }
+
+    @Test
+    public void testPostLargerThanSegmentIsRejected() {
+        long address = arena.append(post(1L, SEGMENT_BYTES));
+
+        assertThat(address).isNegative();
+    }
+
+    private static PostDto post(Long id, int contentLength) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < contentLength; i++) {
+            content.append('x');
+        }
+
+        return new PostDto(id, "user", content.toString(), LocalDateTime.now());
+    }
+}
\ No newline at end of file
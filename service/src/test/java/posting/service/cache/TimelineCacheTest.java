@@ -0,0 +1,137 @@
+package posting.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import posting.domain.model.PostDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimelineCacheTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TimelineCacheProperties properties;
+
+    private TimelineCache timelineCache;
+
+    @Before
+    public void setUp() {
+        properties = new TimelineCacheProperties();
+        properties.setArenaBytes(8 * 1024);
+        properties.setSegmentBytes(1024);
+        properties.setMaxTimelines(2);
+        timelineCache = new TimelineCache(properties, meterRegistry);
+    }
+
+    @Test
+    public void testGetCachedPage() {
+        timelineCache.put("user", "tag", posts(5), 12);
+
+        CachedPage page = timelineCache.getPage("user", "tag", 1, 2);
+
+        assertThat(page.getPosts()).extracting(PostDto::getId).containsExactly(2L, 3L);
+        assertThat(page.getTotalPages()).isEqualTo(6);
+        assertThat(meterRegistry.get("posting.timeline-cache.requests").tag("result", "hit").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void testStaleTagIsNotServed() {
+        timelineCache.put("user", "tag", posts(5), 5);
+
+        assertThat(timelineCache.getPage("user", "otherTag", 0, 2)).isNull();
+    }
+
+    @Test
+    public void testPageBeyondCachedPostsIsNotServed() {
+        timelineCache.put("user", "tag", posts(5), 12);
+
+        assertThat(timelineCache.getPage("user", "tag", 2, 2)).isNull();
+    }
+
+    @Test
+    public void testPageBeyondCompleteTimelineIsEmpty() {
+        timelineCache.put("user", "tag", posts(5), 5);
+
+        CachedPage page = timelineCache.getPage("user", "tag", 3, 2);
+
+        assertThat(page.getPosts()).isEmpty();
+        assertThat(page.getTotalPages()).isEqualTo(3);
+    }
+
+    @Test
+    public void testTimelineOverwrittenInArenaIsDropped() {
+        timelineCache.put("user", "tag", posts(5), 5);
+        for (int i = 0; i < 200; i++) {
+            timelineCache.put("otherUser", "tag", posts(5), 5);
+        }
+
+        assertThat(timelineCache.getPage("user", "tag", 0, 2)).isNull();
+        assertThat(timelineCache.getPage("otherUser", "tag", 0, 2)).isNotNull();
+    }
+
+    @Test
+    public void testTimelineCountIsLimited() {
+        timelineCache.put("user1", "tag", posts(1), 1);
+        timelineCache.put("user2", "tag", posts(1), 1);
+
+        timelineCache.put("user3", "tag", posts(1), 1);
+
+        assertThat(meterRegistry.get("posting.timeline-cache.timelines").gauge().value()).isEqualTo(2);
+        assertThat(timelineCache.getPage("user3", "tag", 0, 1)).isNotNull();
+    }
+
+    @Test
+    public void testMergeFollowedPostsRestampsTimeline() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PostDto> cachedPosts = new ArrayList<>();
+        cachedPosts.add(new PostDto(4L, "author", "content 4", now.minusMinutes(1)));
+        cachedPosts.add(new PostDto(2L, "author", "content 2", now.minusMinutes(3)));
+        List<PostDto> followedPosts = new ArrayList<>();
+        followedPosts.add(new PostDto(5L, "followed", "content 5", now));
+        followedPosts.add(new PostDto(3L, "followed", "content 3", now.minusMinutes(2)));
+        timelineCache.put("user", "tag", cachedPosts, 2);
+
+        timelineCache.mergeFollowed("user", tag -> tag + "-followed", followedPosts, 2);
+
+        assertThat(timelineCache.getPage("user", "tag", 0, 4)).isNull();
+        CachedPage page = timelineCache.getPage("user", "tag-followed", 0, 4);
+        assertThat(page.getPosts()).extracting(PostDto::getId).containsExactly(5L, 4L, 3L, 2L);
+        assertThat(page.getTotalPages()).isEqualTo(1);
+        assertThat(meterRegistry.get("posting.timeline-cache.merges").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testMergeKeepsNewestPostsOnly() {
+        properties.setTimelineSize(3);
+        timelineCache.put("user", "tag", posts(3), 10);
+
+        timelineCache.mergeFollowed("user", tag -> "mergedTag", posts(3), 7);
+
+        CachedPage page = timelineCache.getPage("user", "mergedTag", 0, 3);
+        assertThat(page.getPosts()).hasSize(3);
+        assertThat(page.getTotalPages()).isEqualTo(6);
+    }
+
+    @Test
+    public void testMergeWithoutCachedTimelineDoesNothing() {
+        timelineCache.mergeFollowed("user", tag -> "mergedTag", posts(2), 2);
+
+        assertThat(timelineCache.isCached("user")).isFalse();
+    }
+
+    private static List<PostDto> posts(int count) {
+        List<PostDto> posts = new ArrayList<>();
+        for (long id = 0; id < count; id++) {
+            posts.add(new PostDto(id, "author", "content " + id, LocalDateTime.now()));
+        }
+
+        return posts;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package posting.service.engagement;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import posting.domain.model.PostDto;
+import posting.persistence.entity.PostCounts;
+import posting.persistence.entity.PostCountsChange;
+import posting.persistence.entity.ReactionType;
+import posting.persistence.repository.PostCountsChangeRepository;
+import posting.persistence.repository.PostCountsRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EngagementCountersTest {
+
+    private static final PostDto POST = new PostDto(1L, "author", "content", LocalDateTime.now());
+    private static final PostDto OTHER_POST = new PostDto(2L, "author", "other content", LocalDateTime.now());
+
+    private final AtomicLong changeIds = new AtomicLong();
+
+    @Mock
+    private PostCountsRepository postCountsRepository;
+
+    @Mock
+    private PostCountsChangeRepository postCountsChangeRepository;
+
+    private EngagementProperties properties = new EngagementProperties();
+
+    private EngagementCounters engagementCounters;
+
+    @Before
+    public void setUp() {
+        engagementCounters = new EngagementCounters(postCountsRepository, postCountsChangeRepository, properties,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testSumsIncrementsOfAllThreadsIntoOneBatch() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            ReactionType type = i % 4 == 0 ? ReactionType.REPOST : ReactionType.LIKE;
+            executor.execute(() -> engagementCounters.add(change(1L, type, 1)));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        when(postCountsRepository.findAllById(any()))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(Collections.singletonList(PostCounts.of(1L, 7_500, 2_500)));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<PostCountsChange>> changes = ArgumentCaptor.forClass(Collection.class);
+        doReturn(10_000).when(postCountsRepository).applyAll(changes.capture());
+
+        List<PostDto> pending = engagementCounters.withCounts(Arrays.asList(POST, OTHER_POST));
+        engagementCounters.flush();
+        List<PostDto> flushed = engagementCounters.withCounts(Arrays.asList(POST, OTHER_POST));
+
+        assertThat(pending)
+                .extracting(PostDto::getLikes, PostDto::getReposts)
+                .containsExactly(tuple(7_500L, 2_500L), tuple(0L, 0L));
+        assertThat(changes.getValue())
+                .hasSize(10_000)
+                .extracting(PostCountsChange::getId)
+                .doesNotHaveDuplicates();
+        assertThat(flushed)
+                .extracting(PostDto::getLikes, PostDto::getReposts)
+                .containsExactly(tuple(7_500L, 2_500L), tuple(0L, 0L));
+        assertThat(flushed.get(1)).isSameAs(OTHER_POST);
+    }
+
+    @Test
+    public void testKeepsIncrementsWhenFlushFails() {
+        PostCountsChange first = change(1L, ReactionType.LIKE, 1);
+        PostCountsChange second = change(1L, ReactionType.LIKE, 1);
+        PostCountsChange third = change(1L, ReactionType.LIKE, -1);
+        engagementCounters.add(first);
+        engagementCounters.add(second);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<PostCountsChange>> changes = ArgumentCaptor.forClass(Collection.class);
+        doThrow(new IllegalStateException("failed")).doReturn(3).when(postCountsRepository)
+                .applyAll(changes.capture());
+
+        Throwable thrown = catchThrowable(engagementCounters::flush);
+        engagementCounters.add(third);
+
+        assertThat(thrown).isInstanceOf(IllegalStateException.class);
+        assertThat(engagementCounters.withCounts(Collections.singletonList(POST)))
+                .extracting(PostDto::getLikes)
+                .containsExactly(1L);
+        engagementCounters.flush();
+        assertThat(changes.getAllValues().get(1)).containsExactlyInAnyOrder(first, second, third);
+    }
+
+    @Test
+    public void testRecoversStoredChangesInBatches() {
+        properties.setRecoveryBatchSize(2);
+        List<PostCountsChange> stored = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            stored.add(change(1L, ReactionType.REPOST, 1));
+        }
+        when(postCountsChangeRepository.findCreatedBefore(any(), any()))
+                .thenReturn(stored.subList(0, 2))
+                .thenReturn(stored.subList(2, 3));
+        when(postCountsRepository.applyAll(any())).thenReturn(2).thenReturn(1);
+
+        int recovered = engagementCounters.recover();
+
+        assertThat(recovered).isEqualTo(3);
+    }
+
+    private PostCountsChange change(long postId, ReactionType type, int delta) {
+        PostCountsChange change = PostCountsChange.of(postId, type, delta);
+        change.setId(changeIds.incrementAndGet());
+        return change;
+    }
+}
\ No newline at end of file
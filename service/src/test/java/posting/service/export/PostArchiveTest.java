@@ -0,0 +1,71 @@
+package posting.service.export;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import posting.persistence.repository.PostRecord;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PostArchiveTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2018, 10, 1, 12, 0, 0, 123456000);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadsBackWrittenPosts() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("posts.parc");
+        List<ArchivedPost> posts = Arrays.asList(
+                new ArchivedPost(10L, "alice", "first", NOW),
+                new ArchivedPost(7L, "bob", "zażółć", NOW.minusDays(3)),
+                new ArchivedPost(12L, "alice", "", NOW.plusSeconds(1)));
+
+        PostArchive.write(path, posts);
+        List<PostRecord> read = PostArchive.read(path);
+
+        assertThat(read).extracting(PostRecord::getId).containsExactly(10L, 7L, 12L);
+        assertThat(read).extracting(PostRecord::getUsername).containsExactly("alice", "bob", "alice");
+        assertThat(read).extracting(PostRecord::getContent).containsExactly("first", "zażółć", "");
+        assertThat(read).extracting(PostRecord::getCreatedDate)
+                .containsExactly(NOW, NOW.minusDays(3), NOW.plusSeconds(1));
+        assertThat(folder.getRoot().list()).containsExactly("posts.parc");
+    }
+
+    @Test
+    public void testArchiveIsSmallerThanRawPosts() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("posts.parc");
+        List<ArchivedPost> posts = new ArrayList<>();
+        long rawBytes = 0;
+        for (int i = 0; i < 1000; i++) {
+            ArchivedPost post = new ArchivedPost(1000L + i, "user" + i % 10, "post number " + i,
+                    NOW.plusSeconds(i));
+            posts.add(post);
+            rawBytes += Long.BYTES * 2 + post.getUsername().length() + post.getContent().length();
+        }
+
+        PostArchive.write(path, posts);
+
+        assertThat(Files.size(path)).isLessThan(rawBytes / 4);
+        assertThat(PostArchive.read(path)).hasSize(1000);
+    }
+
+    @Test
+    public void testWritesEmptyArchive() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("posts.parc");
+
+        PostArchive.write(path, Collections.emptyList());
+
+        assertThat(PostArchive.read(path)).isEmpty();
+    }
+}
\ No newline at end of file
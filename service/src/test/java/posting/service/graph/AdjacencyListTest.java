@@ -0,0 +1,96 @@
+package posting.service.graph;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdjacencyListTest {
+
+    @Test
+    public void testWithKeepsIdsSortedAndUnique() {
+        AdjacencyList adjacency = AdjacencyList.EMPTY.with(5).with(1).with(3).with(5);
+
+        assertThat(adjacency.toArray()).containsExactly(1, 3, 5);
+        assertThat(adjacency.size()).isEqualTo(3);
+        assertThat(adjacency.contains(3)).isTrue();
+        assertThat(adjacency.contains(4)).isFalse();
+    }
+
+    @Test
+    public void testWithout() {
+        AdjacencyList adjacency = AdjacencyList.of(new int[]{1, 3, 5});
+
+        assertThat(adjacency.without(3).toArray()).containsExactly(1, 5);
+        assertThat(adjacency.without(4)).isSameAs(adjacency);
+    }
+
+    @Test
+    public void testLargeListIsCompressed() {
+        int[] ids = IntStream.range(0, 1000).map(i -> i * 3 + 200).toArray();
+
+        AdjacencyList adjacency = AdjacencyList.of(ids);
+
+        assertThat(adjacency.toArray()).containsExactly(ids);
+        assertThat(adjacency.contains(203)).isTrue();
+        assertThat(adjacency.contains(204)).isFalse();
+        assertThat(adjacency.bytes()).isLessThan(ids.length * 2L);
+    }
+
+    @Test
+    public void testCompressedListKeepsLargeGaps() {
+        int[] ids = IntStream.range(0, 100).map(i -> i * 1_000_000).toArray();
+
+        AdjacencyList adjacency = AdjacencyList.of(ids).with(Integer.MAX_VALUE);
+
+        assertThat(adjacency.toArray()).endsWith(99_000_000, Integer.MAX_VALUE);
+        assertThat(adjacency.size()).isEqualTo(101);
+    }
+
+    @Test
+    public void testLargeListStaysSortedThroughUpdates() {
+        Random random = new Random(7);
+        TreeSet<Integer> expected = new TreeSet<>();
+        AdjacencyList adjacency = AdjacencyList.EMPTY;
+        for (int i = 0; i < 5000; i++) {
+            int id = random.nextInt(3000);
+            if (random.nextInt(4) == 0) {
+                expected.remove(id);
+                adjacency = adjacency.without(id);
+            } else {
+                expected.add(id);
+                adjacency = adjacency.with(id);
+            }
+        }
+
+        assertThat(adjacency.toArray()).containsExactly(expected.stream().mapToInt(Integer::intValue).toArray());
+        assertThat(adjacency.size()).isEqualTo(expected.size());
+        assertThat(adjacency.contains(expected.first())).isTrue();
+        assertThat(adjacency.contains(expected.last())).isTrue();
+        assertThat(adjacency.contains(-1)).isFalse();
+    }
+
+    @Test
+    public void testUnion() {
+        AdjacencyList large = AdjacencyList.of(IntStream.range(0, 100).map(i -> i * 2).toArray());
+
+        AdjacencyList union = AdjacencyList.union(large, AdjacencyList.of(new int[]{1, 2, Integer.MAX_VALUE}));
+
+        assertThat(union.size()).isEqualTo(102);
+        assertThat(union.toArray()).startsWith(0, 1, 2, 4).endsWith(198, Integer.MAX_VALUE);
+        assertThat(AdjacencyList.union(AdjacencyList.EMPTY, large).toArray()).containsExactly(large.toArray());
+    }
+
+    @Test
+    public void testIntersectionSize() {
+        AdjacencyList small = AdjacencyList.of(new int[]{2, 4, 6, 300});
+        AdjacencyList large = AdjacencyList.of(IntStream.range(0, 100).map(i -> i * 2).toArray());
+
+        assertThat(AdjacencyList.intersectionSize(small, large)).isEqualTo(3);
+        assertThat(AdjacencyList.intersectionSize(large, small)).isEqualTo(3);
+        assertThat(AdjacencyList.intersectionSize(AdjacencyList.EMPTY, large)).isZero();
+    }
+}
\ No newline at end of file
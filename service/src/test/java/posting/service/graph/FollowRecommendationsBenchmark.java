@@ -0,0 +1,219 @@
+package posting.service.graph;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.domain.Pageable;
+import posting.persistence.repository.FollowEdge;
+import posting.persistence.repository.UserRepository;
+import posting.service.validation.PostingServiceValidator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures {@link SocialGraph} and {@link FollowRecommendations} on the power-law graph of the load test:
+ * {@code USERS} users following {@code FOLLOWS} others each, drawn from a Zipf distribution with exponent
+ * {@code ZIPF_EXPONENT}, so that the top ranked users are followed by most others. It times loading the graph from a
+ * mocked repository, following the most followed user, refreshing all suggestions and counting one user's suggestions
+ * on request, alone and while refreshes run, and reports the memory taken. Not run by the build; see the README.
+ */
+public class FollowRecommendationsBenchmark {
+
+    private static final int USERS = 300_000;
+    private static final int FOLLOWS = 20;
+    private static final double ZIPF_EXPONENT = 1.1;
+    private static final int LIVE_FOLLOWS = 10_000;
+    private static final int ON_DEMAND = 10_000;
+    private static final String[] USERNAMES = new String[USERS];
+
+    static {
+        for (int rank = 0; rank < USERS; rank++) {
+            USERNAMES[rank] = String.format("user%07d", rank);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SocialGraphProperties graphProperties = new SocialGraphProperties();
+        SocialGraph socialGraph = new SocialGraph(powerLawGraph(), graphProperties, meterRegistry);
+        RecommendationProperties properties = new RecommendationProperties();
+        PostingServiceValidator validator = new PostingServiceValidator(null, null) {
+            @Override
+            public void validateUserExists(String username) {
+            }
+        };
+        FollowRecommendations followRecommendations = new FollowRecommendations(socialGraph, validator, properties,
+                meterRegistry);
+
+        long start = System.nanoTime();
+        socialGraph.load();
+        long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long edges = (long) meterRegistry.get("posting.social-graph.edges").gauge().value();
+        System.out.printf("Load: %d users, %d follows in %d ms, %.1f bytes per follow, %d followers of the top user%n",
+                USERS, edges, loadMillis, socialGraph.bytesPerEdge(), socialGraph.countFollowers(username(0)));
+
+        long[] latencies = new long[LIVE_FOLLOWS];
+        for (int i = 0; i < LIVE_FOLLOWS; i++) {
+            start = System.nanoTime();
+            socialGraph.follow("newUser" + i, username(0));
+            latencies[i] = System.nanoTime() - start;
+        }
+        printLatencies("Following the top user", latencies);
+
+        start = System.nanoTime();
+        followRecommendations.refresh();
+        long refreshMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        int refreshedUsers = (int) meterRegistry.get("posting.recommendations.refreshed-users").gauge().value();
+        System.out.printf("Refresh: %d users in %d ms with parallelism %d, %.1f MB of suggestions%n",
+                refreshedUsers, refreshMillis, properties.getParallelism(),
+                suggestionBytes(socialGraph, properties, refreshedUsers) / 1e6);
+
+        Random random = new Random(42);
+        printLatencies("On request", countOnRequest(socialGraph, followRecommendations, random));
+
+        Thread batch = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                followRecommendations.refresh();
+            }
+        });
+        batch.start();
+        printLatencies("On request during a batch", countOnRequest(socialGraph, followRecommendations, random));
+        batch.interrupt();
+        batch.join();
+        followRecommendations.close();
+    }
+
+    private static long[] countOnRequest(SocialGraph socialGraph, FollowRecommendations followRecommendations,
+                                         Random random) {
+        ZipfDistribution popularity = new ZipfDistribution(USERS, ZIPF_EXPONENT);
+        long[] latencies = new long[ON_DEMAND];
+        for (int i = 0; i < ON_DEMAND; i++) {
+            String username = username(random.nextInt(USERS));
+            socialGraph.follow(username, username(popularity.sample(random)));
+            long start = System.nanoTime();
+            followRecommendations.getWhoToFollow(username, 10);
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        return latencies;
+    }
+
+    /**
+     * A repository paging through the users by name and handing out each user's follows, drawn from a random
+     * generator seeded by the user's rank so that the graph never has to be held in memory twice.
+     */
+    private static UserRepository powerLawGraph() {
+        ZipfDistribution popularity = new ZipfDistribution(USERS, ZIPF_EXPONENT);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findUsernamesAfter(anyString(), any(Pageable.class))).thenAnswer(invocation -> {
+            String after = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+            int from = after.isEmpty() ? 0 : rank(after) + 1;
+            List<String> usernames = new ArrayList<>();
+            for (int rank = from; rank < Math.min(USERS, from + pageable.getPageSize()); rank++) {
+                usernames.add(username(rank));
+            }
+            return usernames;
+        });
+        when(userRepository.findFollowEdges(any())).thenAnswer(invocation -> {
+            Collection<String> usernames = invocation.getArgument(0);
+            List<FollowEdge> edges = new ArrayList<>();
+            for (String username : usernames) {
+                int rank = rank(username);
+                Random random = new Random(rank);
+                for (int i = 0; i < FOLLOWS; i++) {
+                    int followed = popularity.sample(random);
+                    if (followed != rank) {
+                        edges.add(new Edge(username, username(followed)));
+                    }
+                }
+            }
+            return edges;
+        });
+
+        return userRepository;
+    }
+
+    private static String username(int rank) {
+        return USERNAMES[rank];
+    }
+
+    private static int rank(String username) {
+        return Integer.parseInt(username.substring(4));
+    }
+
+    private static void printLatencies(String label, long[] latencies) {
+        Arrays.sort(latencies);
+        System.out.printf("%s: p50 %d us, p99 %d us, max %d us%n", label,
+                TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length / 2]),
+                TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length * 99 / 100]),
+                TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length - 1]));
+    }
+
+    /**
+     * The refreshed suggestions: a reference per user id, and per user a 24 byte object and an array of an id and a
+     * count per suggestion; plus a counter per user id for each counting thread.
+     */
+    private static long suggestionBytes(SocialGraph socialGraph, RecommendationProperties properties, int users) {
+        long perUser = 24 + 16 + 8L * properties.getSize();
+
+        return users * perUser + 4L * socialGraph.idLimit()
+                * (1 + properties.getParallelism() + properties.getRequestThreads());
+    }
+
+    private static final class Edge implements FollowEdge {
+
+        private final String followerUsername;
+        private final String followedUsername;
+
+        private Edge(String followerUsername, String followedUsername) {
+            this.followerUsername = followerUsername;
+            this.followedUsername = followedUsername;
+        }
+
+        @Override
+        public String getFollowerUsername() {
+            return followerUsername;
+        }
+
+        @Override
+        public String getFollowedUsername() {
+            return followedUsername;
+        }
+    }
+
+    /**
+     * The load test's distribution of followers: rank {@code r} is drawn with a probability proportional to
+     * {@code 1 / (r + 1)^exponent}.
+     */
+    private static final class ZipfDistribution {
+
+        private final double[] cumulativeProbabilities;
+
+        private ZipfDistribution(int size, double exponent) {
+            cumulativeProbabilities = new double[size];
+            double sum = 0;
+            for (int rank = 0; rank < size; rank++) {
+                sum += 1 / Math.pow(rank + 1, exponent);
+                cumulativeProbabilities[rank] = sum;
+            }
+            for (int rank = 0; rank < size; rank++) {
+                cumulativeProbabilities[rank] /= sum;
+            }
+        }
+
+        private int sample(Random random) {
+            int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+
+            return Math.min(index >= 0 ? index : -index - 1, cumulativeProbabilities.length - 1);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package posting.service.graph;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import posting.domain.model.FollowSuggestion;
+import posting.persistence.repository.UserRepository;
+import posting.service.validation.PostingServiceValidator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FollowRecommendationsTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PostingServiceValidator validator;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecommendationProperties properties = new RecommendationProperties();
+
+    private SocialGraph socialGraph;
+    private FollowRecommendations followRecommendations;
+
+    @Before
+    public void setUp() {
+        socialGraph = new SocialGraph(userRepository, new SocialGraphProperties(), meterRegistry);
+        properties.setSize(3);
+        properties.setPartitionSize(2);
+        followRecommendations = new FollowRecommendations(socialGraph, validator, properties, meterRegistry);
+        socialGraph.follow("alice", "bob");
+        socialGraph.follow("alice", "carol");
+        socialGraph.follow("alice", "dave");
+        socialGraph.follow("bob", "erin");
+        socialGraph.follow("carol", "erin");
+        socialGraph.follow("dave", "erin");
+        socialGraph.follow("bob", "frank");
+        socialGraph.follow("carol", "frank");
+        socialGraph.follow("bob", "grace");
+        socialGraph.follow("carol", "heidi");
+        socialGraph.follow("bob", "carol");
+        socialGraph.follow("bob", "alice");
+    }
+
+    @After
+    public void tearDown() {
+        followRecommendations.close();
+    }
+
+    @Test
+    public void testSuggestsMostFollowedFriendsOfFriends() {
+        assertThat(followRecommendations.getWhoToFollow("alice", 10))
+                .extracting(FollowSuggestion::getUsername, FollowSuggestion::getFollowedBy)
+                .containsExactly(tuple("erin", 3), tuple("frank", 2), tuple("grace", 1));
+    }
+
+    @Test
+    public void testRecountsAfterFollowing() {
+        followRecommendations.refresh();
+        assertThat(followRecommendations.getWhoToFollow("alice", 1))
+                .extracting(FollowSuggestion::getUsername)
+                .containsExactly("erin");
+
+        socialGraph.follow("alice", "erin");
+
+        assertThat(followRecommendations.getWhoToFollow("alice", 10))
+                .extracting(FollowSuggestion::getUsername)
+                .containsExactly("frank", "grace", "heidi");
+        assertThat(meterRegistry.get("posting.recommendations.computed-users").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRefreshCountsEveryFollowingUser() {
+        followRecommendations.refresh();
+
+        assertThat(meterRegistry.get("posting.recommendations.refreshed-users").gauge().value()).isEqualTo(4);
+        assertThat(followRecommendations.getWhoToFollow("bob", 10))
+                .extracting(FollowSuggestion::getUsername, FollowSuggestion::getFollowedBy)
+                .containsExactly(tuple("dave", 1), tuple("heidi", 1));
+        assertThat(followRecommendations.getWhoToFollow("erin", 10)).isEmpty();
+        assertThat(meterRegistry.get("posting.recommendations.computed-users").gauge().value()).isEqualTo(0);
+    }
+
+    @Test
+    public void testNeverSuggestsBlockedUsers() {
+        followRecommendations.refresh();
+
+        socialGraph.block("alice", "erin");
+        assertThat(followRecommendations.getWhoToFollow("alice", 10))
+                .extracting(FollowSuggestion::getUsername)
+                .containsExactly("frank", "grace");
+
+        socialGraph.block("frank", "alice");
+        socialGraph.follow("alice", "grace");
+        assertThat(followRecommendations.getWhoToFollow("alice", 10))
+                .extracting(FollowSuggestion::getUsername)
+                .containsExactly("heidi");
+
+        socialGraph.unblock("alice", "erin");
+        socialGraph.follow("alice", "heidi");
+        assertThat(followRecommendations.getWhoToFollow("alice", 10))
+                .extracting(FollowSuggestion::getUsername)
+                .containsExactly("erin");
+    }
+
+    @Test
+    public void testLimitsFollowsReadPerFriend() {
+        properties.setMaxFollowedPerFriend(1);
+
+        assertThat(followRecommendations.getWhoToFollow("alice", 10))
+                .extracting(FollowSuggestion::getUsername, FollowSuggestion::getFollowedBy)
+                .containsExactly(tuple("erin", 2));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,186 @@
+package posting.service.graph;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
+import posting.persistence.repository.BlockEdge;
+import posting.persistence.repository.FollowEdge;
+import posting.persistence.repository.UserRepository;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SocialGraphTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SocialGraph socialGraph;
+
+    @Before
+    public void setUp() {
+        SocialGraphProperties properties = new SocialGraphProperties();
+        properties.setLoadBatchSize(2);
+        socialGraph = new SocialGraph(userRepository, properties, meterRegistry);
+    }
+
+    @Test
+    public void testLookupsGoToDatabaseBeforeLoad() {
+        when(userRepository.findFollowedUsernames("user")).thenReturn(Collections.singletonList("followed"));
+
+        assertThat(socialGraph.getFollowedUsernames("user")).containsExactly("followed");
+        verify(userRepository).findFollowedUsernames("user");
+    }
+
+    @Test
+    public void testLoadPagesThroughFollows() {
+        when(userRepository.findUsernamesAfter("", PageRequest.of(0, 2))).thenReturn(Arrays.asList("user1", "user2"));
+        when(userRepository.findUsernamesAfter("user2", PageRequest.of(0, 2)))
+                .thenReturn(Collections.singletonList("user3"));
+        when(userRepository.findFollowEdges(Arrays.asList("user1", "user2")))
+                .thenReturn(Arrays.asList(edge("user1", "user2"), edge("user1", "user3"), edge("user2", "user3")));
+        when(userRepository.findFollowEdges(Collections.singletonList("user3"))).thenReturn(Collections.emptyList());
+
+        socialGraph.load();
+
+        assertThat(socialGraph.getFollowedUsernames("user1")).containsExactlyInAnyOrder("user2", "user3");
+        assertThat(socialGraph.getFollowerUsernames("user3")).containsExactlyInAnyOrder("user1", "user2");
+        assertThat(socialGraph.getFollowedUsernames("user3")).isEmpty();
+        assertThat(meterRegistry.get("posting.social-graph.edges").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("posting.social-graph.users").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("posting.social-graph.bytes-per-edge").gauge().value()).isPositive();
+    }
+
+    @Test
+    public void testLoadKeepsFollowsCommittedWhileLoading() {
+        when(userRepository.findUsernamesAfter("", PageRequest.of(0, 2))).thenReturn(Arrays.asList("user1", "user2"));
+        when(userRepository.findFollowEdges(Arrays.asList("user1", "user2")))
+                .thenReturn(Arrays.asList(edge("user1", "user2"), edge("user2", "user1")));
+        socialGraph.follow("user1", "user3");
+        socialGraph.follow("user1", "user2");
+
+        socialGraph.load();
+
+        assertThat(socialGraph.getFollowedUsernames("user1")).containsExactlyInAnyOrder("user2", "user3");
+        assertThat(socialGraph.getFollowerUsernames("user1")).containsExactly("user2");
+        assertThat(meterRegistry.get("posting.social-graph.edges").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    public void testLoadLeavesOutFollowsAndBlocksRemovedWhileLoading() {
+        when(userRepository.findUsernamesAfter("", PageRequest.of(0, 2))).thenReturn(Arrays.asList("user1", "user2"));
+        when(userRepository.findFollowEdges(Arrays.asList("user1", "user2"))).thenAnswer(invocation -> {
+            socialGraph.unfollow("user1", "user2");
+            socialGraph.unblock("user2", "user1");
+            return Collections.singletonList(edge("user1", "user2"));
+        });
+        when(userRepository.findBlockEdges(Arrays.asList("user1", "user2")))
+                .thenReturn(Collections.singletonList(blockEdge("user2", "user1")));
+
+        socialGraph.load();
+
+        assertThat(socialGraph.getFollowedUsernames("user1")).isEmpty();
+        assertThat(socialGraph.getFollowerUsernames("user2")).isEmpty();
+        assertThat(socialGraph.blockedBy(0).size()).isZero();
+        assertThat(meterRegistry.get("posting.social-graph.edges").gauge().value()).isZero();
+    }
+
+    @Test
+    public void testFollow() {
+        loadEmpty();
+
+        socialGraph.follow("user1", "user2");
+        socialGraph.follow("user1", "user2");
+        socialGraph.follow("user3", "user2");
+
+        assertThat(socialGraph.getFollowedUsernames("user1")).containsExactly("user2");
+        assertThat(socialGraph.getFollowerUsernames("user2")).containsExactly("user1", "user3");
+        assertThat(socialGraph.isFollowing("user1", "user2")).isTrue();
+        assertThat(socialGraph.isFollowing("user2", "user1")).isFalse();
+        assertThat(meterRegistry.get("posting.social-graph.edges").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    public void testUnfollow() {
+        loadEmpty();
+        socialGraph.follow("user1", "user2");
+        socialGraph.follow("user3", "user2");
+
+        socialGraph.unfollow("user1", "user2");
+        socialGraph.unfollow("user1", "user2");
+        socialGraph.unfollow("user2", "user3");
+        socialGraph.unfollow("unknown", "user2");
+
+        assertThat(socialGraph.getFollowedUsernames("user1")).isEmpty();
+        assertThat(socialGraph.getFollowerUsernames("user2")).containsExactly("user3");
+        assertThat(meterRegistry.get("posting.social-graph.edges").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCountCommonFollowed() {
+        loadEmpty();
+        socialGraph.follow("user1", "celebrity1");
+        socialGraph.follow("user1", "celebrity2");
+        socialGraph.follow("user2", "celebrity2");
+        socialGraph.follow("user2", "celebrity3");
+
+        assertThat(socialGraph.countCommonFollowed("user1", "user2")).isEqualTo(1);
+        assertThat(socialGraph.countCommonFollowed("user1", "unknown")).isZero();
+    }
+
+    @Test
+    public void testManyUsers() {
+        loadEmpty();
+        for (int i = 0; i < 5000; i++) {
+            socialGraph.follow("follower" + i, "celebrity");
+        }
+
+        assertThat(socialGraph.getFollowerUsernames("celebrity")).hasSize(5000).contains("follower4999");
+        assertThat(socialGraph.bytesPerEdge()).isBetween(36.0, 40.0);
+    }
+
+    private void loadEmpty() {
+        when(userRepository.findUsernamesAfter("", PageRequest.of(0, 2))).thenReturn(Collections.emptyList());
+        socialGraph.load();
+    }
+
+    private static FollowEdge edge(String followerUsername, String followedUsername) {
+        return new FollowEdge() {
+            @Override
+            public String getFollowerUsername() {
+                return followerUsername;
+            }
+
+            @Override
+            public String getFollowedUsername() {
+                return followedUsername;
+            }
+        };
+    }
+
+    private static BlockEdge blockEdge(String username, String blockedUsername) {
+        return new BlockEdge() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getBlockedUsername() {
+                return blockedUsername;
+            }
+        };
+    }
+}
\ No newline at end of file
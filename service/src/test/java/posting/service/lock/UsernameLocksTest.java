@@ -0,0 +1,61 @@
+package posting.service.lock;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class UsernameLocksTest {
+
+    private final UsernameLocks usernameLocks = new UsernameLocks();
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testLockOutsideTransaction() {
+        Throwable thrownException = catchThrowable(() -> usernameLocks.lockUntilTransactionCompletes("user"));
+
+        assertThat(thrownException).isExactlyInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testLockHeldUntilTransactionCompletes() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        usernameLocks.lockUntilTransactionCompletes("user");
+
+        CompletableFuture<Void> otherTransaction = CompletableFuture.runAsync(this::lockInOtherTransaction);
+        Throwable timeout = catchThrowable(() -> otherTransaction.get(100, TimeUnit.MILLISECONDS));
+        completeTransaction();
+
+        assertThat(timeout).isExactlyInstanceOf(TimeoutException.class);
+        otherTransaction.get(1, TimeUnit.SECONDS);
+    }
+
+    private void lockInOtherTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            usernameLocks.lockUntilTransactionCompletes("user");
+            completeTransaction();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void completeTransaction() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+}
\ No newline at end of file
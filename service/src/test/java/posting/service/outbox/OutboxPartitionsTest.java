@@ -0,0 +1,83 @@
+package posting.service.outbox;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import posting.persistence.entity.OutboxEvent;
+import posting.persistence.entity.OutboxPartition;
+import posting.persistence.repository.OutboxPartitionRepository;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OutboxPartitionsTest {
+
+    @Mock
+    private OutboxPartitionRepository outboxPartitionRepository;
+
+    private OutboxPartitions outboxPartitions;
+
+    @Before
+    public void setUp() {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setLeaseMillis(60000);
+        outboxPartitions = new OutboxPartitions(outboxPartitionRepository, properties);
+    }
+
+    @Test
+    public void testClaimTakesLeaseForLeaseDuration() {
+        ArgumentCaptor<LocalDateTime> leaseUntilCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> nowCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(outboxPartitionRepository.claim(eq(3), anyString(), leaseUntilCaptor.capture(), nowCaptor.capture()))
+                .thenReturn(1);
+
+        boolean claimed = outboxPartitions.claim(3);
+
+        assertThat(claimed).isTrue();
+        assertThat(leaseUntilCaptor.getValue()).isEqualTo(nowCaptor.getValue().plusMinutes(1));
+    }
+
+    @Test
+    public void testClaimOfPartitionLeasedByAnotherInstanceFails() {
+        when(outboxPartitionRepository.claim(eq(3), anyString(), any(), any())).thenReturn(0);
+
+        assertThat(outboxPartitions.claim(3)).isFalse();
+    }
+
+    @Test
+    public void testReleaseOnlyReleasesOwnLease() {
+        ArgumentCaptor<String> ownerCaptor = ArgumentCaptor.forClass(String.class);
+        when(outboxPartitionRepository.claim(eq(3), ownerCaptor.capture(), any(), any())).thenReturn(1);
+        outboxPartitions.claim(3);
+
+        outboxPartitions.release(3);
+
+        verify(outboxPartitionRepository).release(3, ownerCaptor.getValue());
+    }
+
+    @Test
+    public void testCreateMissingToleratesPartitionsStoredConcurrently() {
+        when(outboxPartitionRepository.existsById(anyInt())).thenReturn(true);
+        when(outboxPartitionRepository.existsById(0)).thenReturn(false);
+        when(outboxPartitionRepository.save(any(OutboxPartition.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        outboxPartitions.createMissing();
+
+        verify(outboxPartitionRepository, times(OutboxEvent.PARTITIONS)).existsById(anyInt());
+        verify(outboxPartitionRepository).save(any(OutboxPartition.class));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,192 @@
+package posting.service.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import posting.persistence.entity.ColdPostChange;
+import posting.persistence.entity.OutboxEvent;
+import posting.persistence.entity.Post;
+import posting.persistence.entity.User;
+import posting.persistence.repository.ColdPostChangeRepository;
+import posting.persistence.repository.OutboxEventRepository;
+import posting.persistence.repository.PostRepository;
+import posting.persistence.repository.UserRepository;
+import posting.service.segment.ColdSegments;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OutboxProcessorTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private ColdPostChangeRepository coldPostChangeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ColdSegments coldSegments;
+
+    @Mock
+    private OutboxEventHandler handler;
+
+    @Mock
+    private LocalOutboxEventHandler localHandler;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxProcessor outboxProcessor;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ObjectProvider<List<OutboxEventHandler>> handlers = mock(ObjectProvider.class);
+        when(handlers.getIfAvailable(any())).thenReturn(Arrays.asList(handler, localHandler));
+        OutboxProperties properties = new OutboxProperties();
+        properties.setRetentionMillis(60000);
+        outboxProcessor = new OutboxProcessor(outboxEventRepository, postRepository, coldPostChangeRepository,
+                userRepository, coldSegments, properties, handlers, meterRegistry);
+    }
+
+    @Test
+    public void testProcessBatch() {
+        Post post1 = createPost(1L, 10L);
+        Post post2 = createPost(1L, 11L);
+        List<OutboxEvent> events = Arrays.asList(OutboxEvent.postCreated(post1), OutboxEvent.postCreated(post2));
+        events.get(0).setId(100L);
+        events.get(1).setId(101L);
+        events.forEach(event -> event.setCreatedDate(LocalDateTime.now()));
+        List<Post> posts = Arrays.asList(post1, post2);
+
+        when(outboxEventRepository.findPendingInPartition(1, PageRequest.of(0, 10))).thenReturn(events);
+        when(postRepository.findByIdInOrderById(Arrays.asList(10L, 11L))).thenReturn(posts);
+
+        int processed = outboxProcessor.processBatch(1, 10);
+
+        assertThat(processed).isEqualTo(2);
+        verify(handler).onPostsCreated(posts);
+        verifyZeroInteractions(localHandler);
+        verify(outboxEventRepository).markProcessed(Arrays.asList(100L, 101L));
+        assertThat(meterRegistry.get("posting.outbox.processed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("posting.outbox.delay").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testProcessBatchNoEvents() {
+        when(outboxEventRepository.findPendingInPartition(0, PageRequest.of(0, 10)))
+                .thenReturn(Collections.emptyList());
+
+        int processed = outboxProcessor.processBatch(0, 10);
+
+        assertThat(processed).isZero();
+        verifyZeroInteractions(handler, postRepository);
+        verify(outboxEventRepository, never()).markProcessed(anyList());
+    }
+
+    @Test
+    public void testDeliverToLocalHandlers() {
+        Post post = createPost(1L, 10L);
+        List<Post> posts = Collections.singletonList(post);
+        when(postRepository.findByIdInOrderById(Collections.singletonList(10L))).thenReturn(posts);
+
+        outboxProcessor.deliver(Collections.singletonList(OutboxEvent.postCreated(post)),
+                Collections.singletonList(localHandler));
+
+        verify(localHandler).onPostsCreated(posts);
+        verifyZeroInteractions(handler);
+        verify(outboxEventRepository, never()).markProcessed(anyList());
+    }
+
+    @Test
+    public void testPurgeProcessedDeletesEventsOlderThanRetention() {
+        ArgumentCaptor<LocalDateTime> beforeCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(outboxEventRepository.deleteProcessedCreatedBefore(beforeCaptor.capture())).thenReturn(3);
+
+        int purged = outboxProcessor.purgeProcessed();
+
+        assertThat(purged).isEqualTo(3);
+        assertThat(beforeCaptor.getValue()).isBetween(LocalDateTime.now().minusMinutes(2),
+                LocalDateTime.now().minusSeconds(59));
+    }
+
+    @Test
+    public void testProcessBatchEditedAndDeletedPosts() {
+        Post post1 = createPost(1L, 10L);
+        Post post2 = createPost(1L, 11L);
+        List<OutboxEvent> events = Arrays.asList(OutboxEvent.postEdited(post1), OutboxEvent.postEdited(post2),
+                OutboxEvent.postDeleted(post2));
+        events.forEach(event -> event.setCreatedDate(LocalDateTime.now()));
+        List<Post> editedPosts = Collections.singletonList(post1);
+
+        when(outboxEventRepository.findPendingInPartition(1, PageRequest.of(0, 10))).thenReturn(events);
+        when(postRepository.findByIdInOrderById(Arrays.asList(10L, 11L))).thenReturn(editedPosts);
+
+        int processed = outboxProcessor.processBatch(1, 10);
+
+        assertThat(processed).isEqualTo(3);
+        verify(handler).onPostsEdited(editedPosts);
+        verify(handler).onPostsDeleted(Collections.singletonList(11L));
+        verify(handler, never()).onPostsCreated(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProcessBatchEditedCompactedPosts() {
+        Post post1 = createPost(1L, 10L);
+        Post post2 = createPost(1L, 11L);
+        post2.setContent("Edited");
+        List<OutboxEvent> events = Arrays.asList(OutboxEvent.postEdited(post1), OutboxEvent.postEdited(post2));
+        events.forEach(event -> event.setCreatedDate(LocalDateTime.now()));
+        ColdPostChange change = ColdPostChange.of(post2);
+
+        when(outboxEventRepository.findPendingInPartition(1, PageRequest.of(0, 10))).thenReturn(events);
+        when(postRepository.findByIdInOrderById(Arrays.asList(10L, 11L)))
+                .thenReturn(Collections.singletonList(post1));
+        when(coldPostChangeRepository.findAllById(Collections.singleton(11L)))
+                .thenReturn(Collections.singletonList(change));
+
+        outboxProcessor.processBatch(1, 10);
+
+        ArgumentCaptor<List<Post>> postsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(handler).onPostsEdited(postsCaptor.capture());
+        assertThat(postsCaptor.getValue()).extracting(Post::getId, Post::getContent)
+                .containsExactly(tuple(10L, null), tuple(11L, "Edited"));
+        verifyZeroInteractions(userRepository, coldSegments);
+    }
+
+    private Post createPost(Long userId, Long postId) {
+        User user = new User();
+        user.setId(userId);
+        Post post = new Post();
+        post.setId(postId);
+        post.setUser(user);
+
+        return post;
+    }
+}
\ No newline at end of file
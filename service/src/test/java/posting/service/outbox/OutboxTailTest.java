@@ -0,0 +1,91 @@
+package posting.service.outbox;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import posting.persistence.entity.OutboxEvent;
+import posting.persistence.entity.Post;
+import posting.persistence.entity.User;
+import posting.persistence.repository.OutboxEventRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OutboxTailTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxProcessor outboxProcessor;
+
+    @Mock
+    private LocalOutboxEventHandler handler;
+
+    private OutboxTail outboxTail;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ObjectProvider<List<LocalOutboxEventHandler>> handlers = mock(ObjectProvider.class);
+        when(handlers.getIfAvailable(any())).thenReturn(Collections.singletonList(handler));
+        OutboxProperties properties = new OutboxProperties();
+        properties.setBatchSize(2);
+        properties.setTailGraceMillis(10000);
+        outboxTail = new OutboxTail(outboxEventRepository, outboxProcessor, properties, handlers);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPollDeliversEventsOnceAndMovesPastSettledEvents() {
+        OutboxEvent settled1 = event(11L, LocalDateTime.now().minusMinutes(1));
+        OutboxEvent settled2 = event(12L, LocalDateTime.now().minusMinutes(1));
+        OutboxEvent recent = event(14L, LocalDateTime.now());
+        OutboxEvent lateCommitted = event(13L, LocalDateTime.now());
+        when(outboxEventRepository.findMaxIdCreatedBefore(any(LocalDateTime.class))).thenReturn(10L);
+        when(outboxEventRepository.findAfter(10L, PageRequest.of(0, 2))).thenReturn(Arrays.asList(settled1, settled2));
+        when(outboxEventRepository.findAfter(12L, PageRequest.of(0, 2)))
+                .thenReturn(Collections.singletonList(recent))
+                .thenReturn(Arrays.asList(lateCommitted, recent));
+        outboxTail.seek();
+
+        int firstPoll = outboxTail.poll();
+        int secondPoll = outboxTail.poll();
+
+        assertThat(firstPoll).isEqualTo(3);
+        assertThat(secondPoll).isEqualTo(1);
+        ArgumentCaptor<List<OutboxEvent>> eventsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(outboxProcessor, times(3)).deliver(eventsCaptor.capture(), anyList());
+        assertThat(eventsCaptor.getAllValues()).containsExactly(Arrays.asList(settled1, settled2),
+                Collections.singletonList(recent), Collections.singletonList(lateCommitted));
+    }
+
+    private static OutboxEvent event(long id, LocalDateTime createdDate) {
+        User user = new User();
+        user.setId(1L);
+        Post post = new Post();
+        post.setId(id);
+        post.setUser(user);
+        OutboxEvent event = OutboxEvent.postCreated(post);
+        event.setId(id);
+        event.setCreatedDate(createdDate);
+
+        return event;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,164 @@
+package posting.service.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import posting.domain.exception.InvalidRequestException;
+import posting.domain.model.PostDto;
+import posting.domain.model.PostSearchPage;
+import posting.persistence.entity.Post;
+import posting.persistence.entity.User;
+import posting.persistence.repository.PostCountsRepository;
+import posting.persistence.repository.PostRepository;
+import posting.service.engagement.EngagementCounters;
+import posting.service.engagement.EngagementProperties;
+import posting.service.segment.ColdSegments;
+import posting.service.segment.PostLookup;
+import posting.service.validation.PostingServiceValidator;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SearchServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2018, 10, 1, 12, 0);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<Long, Post> storedPosts = new HashMap<>();
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private ColdSegments coldSegments;
+
+    @Mock
+    private PostingServiceValidator validator;
+
+    @Mock
+    private PostCountsRepository postCountsRepository;
+
+    private SearchService searchService;
+
+    @Before
+    public void setUp() {
+        searchService = new SearchService(postRepository, coldSegments, new PostLookup(postRepository, coldSegments),
+                validator, new SearchProperties(),
+                new EngagementCounters(postCountsRepository, null, new EngagementProperties(), meterRegistry),
+                meterRegistry);
+        searchService.onPostsCreated(Arrays.asList(
+                post(1L, "Coffee with friends", NOW.minusDays(3)),
+                post(2L, "coffee, coffee and more COFFEE", NOW.minusHours(12)),
+                post(3L, "Friends don't let friends drink bad coffee", NOW),
+                post(4L, "Tea time", NOW)));
+    }
+
+    @Test
+    public void testFindsPostsContainingAllWords() {
+        PostSearchPage page = search("coffee friends", null, 10);
+
+        assertThat(page.getPosts()).extracting(PostDto::getId).containsExactly(3L, 1L);
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(meterRegistry.get("posting.search.indexed").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    public void testPhraseMustOccurInOrder() {
+        assertThat(search("\"bad coffee\"", null, 10).getPosts())
+                .extracting(PostDto::getId).containsExactly(3L);
+        assertThat(search("\"coffee bad\"", null, 10).getPosts()).isEmpty();
+    }
+
+    @Test
+    public void testRanksByOccurrencesAndRecency() {
+        PostSearchPage page = search("coffee", null, 10);
+
+        assertThat(page.getPosts()).extracting(PostDto::getId).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    public void testCursorContinuesAfterPreviousPage() {
+        PostSearchPage firstPage = search("coffee", null, 2);
+        searchService.onPostsCreated(Collections.singletonList(post(5L, "old coffee", NOW.minusDays(30))));
+        PostSearchPage secondPage = search("coffee", firstPage.getNextCursor(), 2);
+
+        assertThat(firstPage.getPosts()).extracting(PostDto::getId).containsExactly(2L, 3L);
+        assertThat(secondPage.getPosts()).extracting(PostDto::getId).containsExactly(1L, 5L);
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testRedeliveredPostsAreIndexedOnce() {
+        searchService.onPostsCreated(Collections.singletonList(post(4L, "Tea time", NOW)));
+
+        assertThat(search("tea", null, 10).getPosts()).hasSize(1);
+    }
+
+    @Test
+    public void testEditedAndDeletedPostsAreReplacedAndRemoved() {
+        searchService.onPostsEdited(Collections.singletonList(post(4L, "Coffee time", NOW)));
+        searchService.onPostsDeleted(Arrays.asList(2L, 3L));
+        searchService.onPostsCreated(Collections.singletonList(post(3L, "bad coffee", NOW)));
+
+        assertThat(search("coffee", null, 10).getPosts()).extracting(PostDto::getId)
+                .containsExactly(4L, 1L);
+        assertThat(search("tea", null, 10).getPosts()).isEmpty();
+        assertThat(meterRegistry.get("posting.search.posts").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    public void testQueryWithoutWordsIsRejected() {
+        assertThatThrownBy(() -> searchService.search(" ?! ", null, 10))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> searchService.search("coffee", "not a cursor", 10))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    public void testPostsAreReadBackById() {
+        storedPosts.get(3L).setContent("Friends don't let friends drink bad coffee, they say");
+
+        PostSearchPage page = search("\"bad coffee\"", null, 10);
+
+        assertThat(page.getPosts()).extracting(PostDto::getContent)
+                .containsExactly("Friends don't let friends drink bad coffee, they say");
+    }
+
+    private PostSearchPage search(String query, String cursor, int size) {
+        when(postRepository.findByIdInOrderById(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().sorted().map(storedPosts::get).filter(Objects::nonNull).collect(Collectors.toList());
+        });
+
+        return searchService.search(query, cursor, size);
+    }
+
+    private Post post(long id, String content, LocalDateTime createdDate) {
+        User user = new User();
+        user.setUsername("user" + id);
+        Post post = new Post();
+        post.setId(id);
+        post.setContent(content);
+        post.setCreatedDate(createdDate);
+        post.setUser(user);
+        storedPosts.put(id, post);
+
+        return post;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package posting.service.segment;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import posting.persistence.entity.Post;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static posting.service.segment.PostSegmentTest.record;
+
+public class ColdPostsTest {
+
+    private static final LocalDateTime OLDER_WEEK = LocalDateTime.of(2018, 10, 1, 0, 0);
+    private static final LocalDateTime NEWER_WEEK = OLDER_WEEK.plusWeeks(1);
+    private static final List<String> USERNAMES = Arrays.asList("alice", "bob");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ColdPosts coldPosts;
+
+    @Before
+    public void setUp() throws IOException {
+        PostSegment older;
+        try (PostSegmentWriter writer = new PostSegmentWriter(folder.getRoot().toPath().resolve("older.seg"),
+                OLDER_WEEK, NEWER_WEEK)) {
+            writer.add(record(2, "alice", "alice 2", OLDER_WEEK.plusDays(2)));
+            writer.add(record(1, "alice", "alice 1", OLDER_WEEK.plusDays(1)));
+            writer.add(record(3, "carol", "carol 1", OLDER_WEEK.plusDays(3)));
+            older = writer.finish();
+        }
+        PostSegment newer;
+        try (PostSegmentWriter writer = new PostSegmentWriter(folder.getRoot().toPath().resolve("newer.seg"),
+                NEWER_WEEK, NEWER_WEEK.plusWeeks(1))) {
+            writer.add(record(5, "alice", "alice 3", NEWER_WEEK.plusDays(1)));
+            writer.add(record(6, "bob", "bob 1", NEWER_WEEK.plusDays(2)));
+            writer.add(record(4, "bob", "bob 0", NEWER_WEEK));
+            newer = writer.finish();
+        }
+        coldPosts = new ColdPosts(Arrays.asList(newer, older));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (PostSegment segment : coldPosts.getSegments()) {
+            segment.close();
+        }
+    }
+
+    @Test
+    public void testAppendPageContinuesPastHotPostsAcrossSegments() {
+        PageRequest pageRequest = PageRequest.of(1, 3);
+        Page<Post> hotPage = new PageImpl<>(Collections.singletonList(post(7)), pageRequest, 4);
+
+        Page<Post> page = coldPosts.appendPage(hotPage, pageRequest, USERNAMES);
+
+        assertThat(coldPosts.getHotFrom()).isEqualTo(NEWER_WEEK.plusWeeks(1));
+        assertThat(page.getContent()).extracting(Post::getId).containsExactly(7L, 6L, 5L);
+        assertThat(page.getTotalElements()).isEqualTo(9);
+    }
+
+    @Test
+    public void testAppendPageSkipsSegmentsBeforeOffset() {
+        PageRequest pageRequest = PageRequest.of(2, 2);
+        Page<Post> hotPage = new PageImpl<>(Collections.emptyList(), pageRequest, 1);
+
+        Page<Post> page = coldPosts.appendPage(hotPage, pageRequest, USERNAMES);
+
+        assertThat(page.getContent()).extracting(Post::getId).containsExactly(2L, 1L);
+        assertThat(page.getTotalElements()).isEqualTo(6);
+    }
+
+    @Test
+    public void testAppendSinceReadsOnlyNewerPosts() {
+        List<Post> posts = coldPosts.appendSince(Collections.emptyList(), USERNAMES, 1L, 3);
+
+        assertThat(posts).extracting(Post::getId).containsExactly(6L, 5L, 4L);
+        assertThat(coldPosts.appendSince(Collections.emptyList(), Collections.singleton("alice"), 1L, 10))
+                .extracting(Post::getId).containsExactly(5L, 2L);
+    }
+
+    private static Post post(long id) {
+        Post post = new Post();
+        post.setId(id);
+
+        return post;
+    }
+}
\ No newline at end of file
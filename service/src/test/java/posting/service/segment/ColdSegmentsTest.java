@@ -0,0 +1,83 @@
+package posting.service.segment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import posting.persistence.entity.Post;
+import posting.persistence.repository.ColdPostChangeRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static posting.service.segment.PostSegmentTest.record;
+
+public class ColdSegmentsTest {
+
+    private static final LocalDateTime WEEK = LocalDateTime.of(2018, 10, 1, 0, 0);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ColdSegmentProperties properties = new ColdSegmentProperties();
+    private ColdSegments coldSegments;
+
+    @Before
+    public void setUp() {
+        properties.setEnabled(true);
+        properties.setDirectory(folder.getRoot().getPath());
+        coldSegments = new ColdSegments(properties,
+                new ColdPostChanges(mock(ColdPostChangeRepository.class), new SimpleMeterRegistry()),
+                new SimpleMeterRegistry());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        coldSegments.close();
+    }
+
+    @Test
+    public void testEnablingWithoutDirectoryIsRefused() {
+        properties.setDirectory(" ");
+
+        Throwable thrown = catchThrowable(coldSegments::open);
+
+        assertThat(thrown).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("posting.cold-segments.directory");
+        assertThat(coldSegments.isEnabled()).isFalse();
+    }
+
+    @Test
+    public void testRefreshOpensSegmentsAddedAndRewrittenByOtherInstances() throws IOException {
+        coldSegments.open();
+        Path path = folder.getRoot().toPath().resolve("posts-2018-10-01.seg");
+        write(path, "first post");
+
+        coldSegments.refresh();
+
+        assertThat(coldSegments.getColdPosts().getHotFrom()).isEqualTo(WEEK.plusWeeks(1));
+        PostSegment added = coldSegments.getColdPosts().getSegments().get(0);
+        assertThat(added.read("alice")).extracting(Post::getContent).containsExactly("first post");
+
+        write(path, "rewritten post");
+        coldSegments.refresh();
+
+        assertThat(coldSegments.getColdPosts().getSegments()).hasSize(1).doesNotContain(added);
+        assertThat(coldSegments.getColdPosts().getSegments().get(0).read("alice"))
+                .extracting(Post::getContent)
+                .containsExactly("rewritten post");
+    }
+
+    private static void write(Path path, String content) throws IOException {
+        try (PostSegmentWriter writer = new PostSegmentWriter(path, WEEK, WEEK.plusWeeks(1))) {
+            writer.add(record(1, "alice", content, WEEK.plusDays(1)));
+            writer.finish().close();
+        }
+    }
+}
\ No newline at end of file
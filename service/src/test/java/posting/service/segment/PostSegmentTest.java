@@ -0,0 +1,88 @@
+package posting.service.segment;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import posting.persistence.entity.Post;
+import posting.persistence.repository.PostRecord;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PostSegmentTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2018, 10, 1, 0, 0);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadsPostsOfEachUserNewestFirst() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("posts.seg");
+        PostSegment segment;
+        try (PostSegmentWriter writer = new PostSegmentWriter(path, START, START.plusWeeks(1))) {
+            writer.add(record(5, "alice", "alice 2", START.plusDays(2).plusNanos(1000)));
+            writer.add(record(2, "alice", "alice 1", START.plusDays(1)));
+            writer.add(record(4, "bob", "bob 1", START.plusDays(1)));
+            segment = writer.finish();
+        }
+
+        try (PostSegment reopened = PostSegment.open(path)) {
+            List<Post> posts = reopened.read("alice");
+
+            assertThat(posts).extracting(Post::getId).containsExactly(5L, 2L);
+            assertThat(posts).extracting(Post::getContent).containsExactly("alice 2", "alice 1");
+            assertThat(posts.get(0).getCreatedDate()).isEqualTo(START.plusDays(2).plusNanos(1000));
+            assertThat(posts.get(0).getUser().getUsername()).isEqualTo("alice");
+            assertThat(reopened.count("bob")).isEqualTo(1);
+            assertThat(reopened.getMaxId("alice")).isEqualTo(5L);
+            assertThat(reopened.read("carol")).isEmpty();
+            assertThat(reopened.getPosts()).isEqualTo(3);
+            assertThat(reopened.getStart()).isEqualTo(START);
+            assertThat(reopened.getEnd()).isEqualTo(START.plusWeeks(1));
+        }
+        segment.close();
+        assertThat(folder.getRoot().list()).containsExactly("posts.seg");
+    }
+
+    @Test
+    public void testUnfinishedSegmentLeavesNoFile() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("posts.seg");
+        try (PostSegmentWriter writer = new PostSegmentWriter(path, START, START.plusWeeks(1))) {
+            writer.add(record(1, "alice", "alice 1", START));
+        }
+
+        assertThat(Files.exists(path)).isFalse();
+        assertThat(folder.getRoot().list()).isEmpty();
+    }
+
+    static PostRecord record(long id, String username, String content, LocalDateTime createdDate) {
+        return new PostRecord() {
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getContent() {
+                return content;
+            }
+
+            @Override
+            public LocalDateTime getCreatedDate() {
+                return createdDate;
+            }
+        };
+    }
+}
\ No newline at end of file
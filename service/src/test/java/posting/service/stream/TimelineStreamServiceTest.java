@@ -0,0 +1,152 @@
+package posting.service.stream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import posting.domain.exception.InvalidRequestException;
+import posting.domain.model.PostDto;
+import posting.domain.service.TimelineListener;
+import posting.domain.service.TimelineSubscription;
+import posting.persistence.entity.Post;
+import posting.persistence.entity.User;
+import posting.service.graph.SocialGraph;
+import posting.service.validation.PostingServiceValidator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TimelineStreamServiceTest {
+
+    @Mock
+    private SocialGraph socialGraph;
+
+    @Mock
+    private PostingServiceValidator validator;
+
+    @InjectMocks
+    private TimelineStreamService timelineStreamService;
+
+    @Test
+    public void testPostsPublishedToSubscribedFollowers() {
+        String authorUsername = "author";
+        List<PostDto> followerPosts = new ArrayList<>();
+        List<PostDto> otherPosts = new ArrayList<>();
+        timelineStreamService.subscribe("follower", followerPosts::add);
+        timelineStreamService.subscribe("otherUser", otherPosts::add);
+        when(socialGraph.isLoaded()).thenReturn(true);
+        when(socialGraph.countFollowers(authorUsername)).thenReturn(1000);
+        when(socialGraph.isFollowing("follower", authorUsername)).thenReturn(true);
+        when(socialGraph.isFollowing("otherUser", authorUsername)).thenReturn(false);
+
+        timelineStreamService.onPostsCreated(Arrays.asList(
+                createPost(1L, authorUsername, "content 1"), createPost(2L, authorUsername, "content 2")));
+
+        verify(validator).validateUserExists("follower");
+        verify(socialGraph, never()).getFollowerUsernames(anyString());
+        assertThat(followerPosts)
+                .extracting(PostDto::getId, PostDto::getUsername, PostDto::getContent)
+                .containsExactly(
+                        tuple(1L, authorUsername, "content 1"),
+                        tuple(2L, authorUsername, "content 2"));
+        assertThat(otherPosts).isEmpty();
+    }
+
+    @Test
+    public void testPostsOfAuthorWithFewFollowersPublishedToSubscribedFollowers() {
+        String authorUsername = "author";
+        List<PostDto> followerPosts = new ArrayList<>();
+        List<PostDto> otherPosts = new ArrayList<>();
+        timelineStreamService.subscribe("follower", followerPosts::add);
+        timelineStreamService.subscribe("otherUser", otherPosts::add);
+        timelineStreamService.subscribe("thirdUser", otherPosts::add);
+        when(socialGraph.isLoaded()).thenReturn(true);
+        when(socialGraph.countFollowers(authorUsername)).thenReturn(2);
+        when(socialGraph.getFollowerUsernames(authorUsername)).thenReturn(Arrays.asList("follower", "offlineUser"));
+
+        timelineStreamService.onPostsCreated(Collections.singletonList(createPost(1L, authorUsername, "content")));
+
+        verify(socialGraph, never()).isFollowing(anyString(), anyString());
+        assertThat(followerPosts).extracting(PostDto::getId).containsExactly(1L);
+        assertThat(otherPosts).isEmpty();
+    }
+
+    @Test
+    public void testFollowedUsernamesReadOncePerSubscriberBeforeGraphLoaded() {
+        List<PostDto> followerPosts = new ArrayList<>();
+        timelineStreamService.subscribe("follower", followerPosts::add);
+        when(socialGraph.getFollowedUsernames("follower")).thenReturn(Arrays.asList("author1", "author3"));
+
+        timelineStreamService.onPostsCreated(Arrays.asList(createPost(1L, "author1", "content 1"),
+                createPost(2L, "author2", "content 2"), createPost(3L, "author3", "content 3")));
+
+        verify(socialGraph).getFollowedUsernames("follower");
+        verify(socialGraph, never()).isFollowing(anyString(), anyString());
+        assertThat(followerPosts).extracting(PostDto::getId).containsExactly(1L, 3L);
+    }
+
+    @Test
+    public void testSlowSubscriberDropped() {
+        String authorUsername = "author";
+        TimelineListener slowListener = post -> false;
+        timelineStreamService.subscribe("follower", slowListener);
+        when(socialGraph.getFollowedUsernames("follower")).thenReturn(Collections.singletonList(authorUsername));
+
+        timelineStreamService.onPostsCreated(Collections.singletonList(createPost(1L, authorUsername, "content")));
+
+        assertThat(timelineStreamService.getSubscriptionCount()).isZero();
+    }
+
+    @Test
+    public void testCancel() {
+        TimelineSubscription subscription1 = timelineStreamService.subscribe("follower", post -> true);
+        timelineStreamService.subscribe("follower", post -> true);
+
+        subscription1.cancel();
+
+        assertThat(timelineStreamService.getSubscriptionCount()).isOne();
+    }
+
+    @Test
+    public void testNoSubscribers() {
+        timelineStreamService.onPostsCreated(Collections.singletonList(createPost(1L, "author", "content")));
+
+        verifyZeroInteractions(socialGraph);
+    }
+
+    @Test
+    public void testSubscribeUnknownUser() {
+        InvalidRequestException thrownException = new InvalidRequestException("test");
+        doThrow(thrownException).when(validator).validateUserExists(anyString());
+
+        Throwable throwable = catchThrowable(() -> timelineStreamService.subscribe("unknown", post -> true));
+
+        assertThat(throwable).isSameAs(thrownException);
+        assertThat(timelineStreamService.getSubscriptionCount()).isZero();
+    }
+
+    private Post createPost(Long id, String username, String content) {
+        User user = new User();
+        user.setUsername(username);
+        Post post = new Post();
+        post.setId(id);
+        post.setContent(content);
+        post.setUser(user);
+
+        return post;
+    }
+}
\ No newline at end of file
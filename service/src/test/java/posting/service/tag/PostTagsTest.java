@@ -0,0 +1,37 @@
+package posting.service.tag;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PostTagsTest {
+
+    @Test
+    public void testExtractsDistinctTagsAndMentions() {
+        PostTags postTags = PostTags.extract("#Coffee with @Alice and @bob_2, #coffee #decaf! cc @Alice");
+
+        assertThat(postTags.getTags()).containsExactly("coffee", "decaf");
+        assertThat(postTags.getMentions()).containsExactly("Alice", "bob_2");
+    }
+
+    @Test
+    public void testIgnoresMarkersWithinOrWithoutWords() {
+        PostTags postTags = PostTags.extract("mail alice@example.com, issue#12, # and @ alone");
+
+        assertThat(postTags.getTags()).isEmpty();
+        assertThat(postTags.getMentions()).isEmpty();
+    }
+
+    @Test
+    public void testTagsEndAtPunctuation() {
+        PostTags postTags = PostTags.extract("(#first),#second.#third-#fourth");
+
+        assertThat(postTags.getTags()).containsExactly("first", "second", "third", "fourth");
+    }
+
+    @Test
+    public void testNormalizesRequestedTags() {
+        assertThat(PostTags.normalizeTag("#Quokka")).isEqualTo("quokka");
+        assertThat(PostTags.normalizeTag("quokka")).isEqualTo("quokka");
+    }
+}
\ No newline at end of file
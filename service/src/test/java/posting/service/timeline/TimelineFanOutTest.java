@@ -0,0 +1,81 @@
+package posting.service.timeline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import posting.persistence.entity.Post;
+import posting.persistence.entity.User;
+import posting.persistence.repository.TimelineEntryRepository;
+import posting.service.version.ContentVersions;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TimelineFanOutTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private TimelineEntryRepository timelineEntryRepository;
+
+    @Mock
+    private ContentVersions contentVersions;
+
+    private TimelineFanOut timelineFanOut;
+
+    @Before
+    public void setUp() {
+        timelineFanOut = new TimelineFanOut(timelineEntryRepository, contentVersions, meterRegistry);
+    }
+
+    @Test
+    public void testOnlyPushedPostsAreFannedOut() {
+        Post pushedPost = post(1L, user(10L, "smallAuthor"), true);
+        Post pulledPost = post(2L, user(20L, "popularAuthor"), false);
+        when(timelineEntryRepository.pushToFollowers(1L, 10L)).thenReturn(3);
+
+        timelineFanOut.onPostsCreated(Arrays.asList(pushedPost, pulledPost));
+
+        verify(timelineEntryRepository, never()).pushToFollowers(eq(2L), anyLong());
+        verify(contentVersions).postsPushed(Collections.singleton("smallAuthor"));
+        assertThat(meterRegistry.get("posting.timeline.fan-out.entries").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    public void testNewFollowerGetsPushedPosts() {
+        when(timelineEntryRepository.pushAllToFollower(1L, 2L)).thenReturn(4);
+
+        timelineFanOut.followed(user(1L, "follower"), user(2L, "followed"));
+
+        assertThat(meterRegistry.get("posting.timeline.fan-out.entries").counter().count()).isEqualTo(4);
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+
+        return user;
+    }
+
+    private static Post post(Long id, User user, boolean pushed) {
+        Post post = new Post();
+        post.setId(id);
+        post.setUser(user);
+        post.setPushed(pushed);
+
+        return post;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+package posting.service.timeline;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import posting.persistence.entity.Post;
+import posting.persistence.repository.PostRepository;
+import posting.persistence.repository.TimelineEntryRepository;
+import posting.service.graph.SocialGraph;
+import posting.service.segment.ColdPosts;
+import posting.service.segment.ColdSegments;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TimelineReaderTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final LocalDateTime HOT_FROM = ColdPosts.none().getHotFrom();
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private TimelineEntryRepository timelineEntryRepository;
+
+    @Mock
+    private SocialGraph socialGraph;
+
+    @Mock
+    private ColdSegments coldSegments;
+
+    @InjectMocks
+    private TimelineReader timelineReader;
+
+    @Before
+    public void setUp() {
+        when(coldSegments.getColdPosts()).thenReturn(ColdPosts.none());
+    }
+
+    @Test
+    public void testFindAllMergesPulledAndPushedPosts() {
+        String username = "testUser";
+        when(postRepository.findPulledByFollowedOrderByCreatedDateDescending(username, HOT_FROM))
+                .thenReturn(Arrays.asList(post(5, 1), post(2, 4)));
+        when(timelineEntryRepository.findPostsOrderByCreatedDateDescending(username, HOT_FROM))
+                .thenReturn(Arrays.asList(post(4, 2), post(3, 3), post(1, 5)));
+
+        List<Post> posts = timelineReader.findAll(username);
+
+        assertThat(posts).extracting(Post::getId).containsExactly(5L, 4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    public void testFindPageMergesNewestPostsUpToEndOfPage() {
+        String username = "testUser";
+        PageRequest newestPosts = PageRequest.of(0, 4);
+        when(postRepository.findPulledByFollowedOrderByCreatedDateDescending(username, HOT_FROM, newestPosts))
+                .thenReturn(new PageImpl<>(Arrays.asList(post(6, 1), post(3, 4)), newestPosts, 2));
+        when(timelineEntryRepository.findPostsOrderByCreatedDateDescending(username, HOT_FROM, newestPosts))
+                .thenReturn(new PageImpl<>(Arrays.asList(post(5, 2), post(4, 3), post(2, 5), post(1, 6)),
+                        newestPosts, 10));
+
+        Page<Post> page = timelineReader.findPage(username, PageRequest.of(1, 2));
+
+        assertThat(page.getContent()).extracting(Post::getId).containsExactly(4L, 3L);
+        assertThat(page.getTotalElements()).isEqualTo(12);
+        assertThat(page.getTotalPages()).isEqualTo(6);
+    }
+
+    @Test
+    public void testFindSinceMergesByIdAndLimitsSize() {
+        String username = "testUser";
+        PageRequest pageRequest = PageRequest.of(0, 2);
+        when(postRepository.findPulledByFollowedAndIdGreaterThanOrderByIdDescending(username, HOT_FROM, 1L,
+                pageRequest))
+                .thenReturn(Collections.singletonList(post(4, 1)));
+        when(timelineEntryRepository.findPostsByIdGreaterThanOrderByIdDescending(username, HOT_FROM, 1L,
+                pageRequest))
+                .thenReturn(Arrays.asList(post(5, 2), post(3, 3)));
+
+        List<Post> posts = timelineReader.findSince(username, 1L, pageRequest);
+
+        assertThat(posts).extracting(Post::getId).containsExactly(5L, 4L);
+    }
+
+    private static Post post(long id, int minutesAgo) {
+        Post post = new Post();
+        post.setId(id);
+        post.setCreatedDate(NOW.minusMinutes(minutesAgo));
+
+        return post;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package posting.service.timeline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import posting.service.graph.SocialGraph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TimelineStrategyTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private SocialGraph socialGraph;
+
+    private TimelineStrategy timelineStrategy;
+
+    @Before
+    public void setUp() {
+        TimelineProperties properties = new TimelineProperties();
+        properties.setPushFollowerThreshold(10);
+        timelineStrategy = new TimelineStrategy(socialGraph, properties, meterRegistry);
+    }
+
+    @Test
+    public void testPostsOfAuthorsBelowThresholdArePushed() {
+        when(socialGraph.countFollowers("smallAuthor")).thenReturn(9);
+        when(socialGraph.countFollowers("popularAuthor")).thenReturn(10);
+
+        assertThat(timelineStrategy.pushPostOf("smallAuthor")).isTrue();
+        assertThat(timelineStrategy.pushPostOf("popularAuthor")).isFalse();
+        assertThat(timelineStrategy.pushPostOf("smallAuthor")).isTrue();
+
+        assertThat(meterRegistry.get("posting.timeline.posts").tag("strategy", "push").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("posting.timeline.posts").tag("strategy", "pull").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void testThresholdCanBeChangedAtRuntime() {
+        when(socialGraph.countFollowers("author")).thenReturn(5);
+
+        timelineStrategy.setPushFollowerThreshold(5);
+
+        assertThat(timelineStrategy.pushPostOf("author")).isFalse();
+        assertThat(meterRegistry.get("posting.timeline.push-follower-threshold").gauge().value()).isEqualTo(5);
+    }
+
+    @Test
+    public void testNegativeThresholdIsRejected() {
+        Throwable thrown = catchThrowable(() -> timelineStrategy.setPushFollowerThreshold(-1));
+
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+        assertThat(timelineStrategy.getPushFollowerThreshold()).isEqualTo(10);
+    }
+}
\ No newline at end of file
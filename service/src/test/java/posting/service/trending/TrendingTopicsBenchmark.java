@@ -0,0 +1,83 @@
+package posting.service.trending;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import posting.domain.model.TrendingTag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how accurately {@link TrendingTopics} finds the most used tags of a Zipf-distributed stream, and how many
+ * tags per second concurrent threads can record while it refreshes. Not run by the build; see the README.
+ */
+public class TrendingTopicsBenchmark {
+
+    private static final int POSTS = 1_000_000;
+    private static final int TAGS = 1_000_000;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final long DURATION_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    public static void main(String[] args) throws InterruptedException {
+        TrendingProperties properties = new TrendingProperties();
+        measureAccuracy(properties);
+        measureThroughput(properties);
+    }
+
+    private static void measureAccuracy(TrendingProperties properties) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TrendingTopics trendingTopics = new TrendingTopics(properties, meterRegistry);
+        long now = System.currentTimeMillis();
+        Map<String, Long> exactCounts = TrendingTopicsTest.recordZipfStream(trendingTopics, POSTS, TAGS, now);
+        trendingTopics.refresh(now);
+
+        List<String> exactTop = exactCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(properties.getTopTags())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        List<TrendingTag> trending = trendingTopics.getTrending(properties.getTopTags());
+        long found = trending.stream().filter(tag -> exactTop.contains(tag.getTag())).count();
+        double relativeError = trending.stream()
+                .mapToDouble(tag -> (double) (tag.getCount() - exactCounts.get(tag.getTag()))
+                        / exactCounts.get(tag.getTag()))
+                .max()
+                .orElse(0);
+        System.out.printf("Accuracy: %d posts with %d distinct tags, %d of the top %d found, "
+                        + "max relative error %.4f, %d sketch bytes%n", POSTS, exactCounts.size(), found,
+                properties.getTopTags(), relativeError,
+                (long) meterRegistry.get("posting.trending.sketch-bytes").gauge().value());
+    }
+
+    private static void measureThroughput(TrendingProperties properties) throws InterruptedException {
+        TrendingTopics trendingTopics = new TrendingTopics(properties, new SimpleMeterRegistry());
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            tags.add("tag" + i);
+        }
+        LongAdder recorded = new LongAdder();
+        CountDownLatch done = new CountDownLatch(THREADS);
+        long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+        for (int thread = 0; thread < THREADS; thread++) {
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.currentTimeMillis() < deadline) {
+                    // Mostly a few popular tags, as when something trends
+                    trendingTopics.record(tags.get(random.nextInt(random.nextInt(16) == 0 ? tags.size() : 100)));
+                    recorded.increment();
+                }
+                done.countDown();
+            }).start();
+        }
+        while (!done.await(properties.getRefreshIntervalMillis(), TimeUnit.MILLISECONDS)) {
+            trendingTopics.refresh();
+        }
+        System.out.printf("Throughput: %d threads recorded %.0f tags/s%n", THREADS,
+                recorded.sum() * 1000.0 / DURATION_MILLIS);
+    }
+}
\ No newline at end of file
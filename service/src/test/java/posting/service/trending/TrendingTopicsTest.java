@@ -0,0 +1,92 @@
+package posting.service.trending;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import posting.domain.model.TrendingTag;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class TrendingTopicsTest {
+
+    private static final long NOW = TimeUnit.DAYS.toMillis(17800);
+
+    private final TrendingProperties properties = new TrendingProperties();
+
+    @Test
+    public void testFindsMostUsedTagsOfSkewedStream() {
+        TrendingTopics trendingTopics = new TrendingTopics(properties, new SimpleMeterRegistry());
+        Map<String, Long> exactCounts = recordZipfStream(trendingTopics, 200_000, 20_000, NOW);
+
+        trendingTopics.refresh(NOW);
+
+        List<TrendingTag> trending = trendingTopics.getTrending(10);
+        assertThat(trending).extracting(TrendingTag::getTag)
+                .containsExactly("tag0", "tag1", "tag2", "tag3", "tag4", "tag5", "tag6", "tag7", "tag8", "tag9");
+        long maxError = 2 * 200_000 / properties.getSketchWidth();
+        for (TrendingTag tag : trending) {
+            assertThat(tag.getCount()).isBetween(exactCounts.get(tag.getTag()),
+                    exactCounts.get(tag.getTag()) + maxError);
+        }
+    }
+
+    @Test
+    public void testForgetsTagsOlderThanTheWindow() {
+        TrendingTopics trendingTopics = new TrendingTopics(properties, new SimpleMeterRegistry());
+        for (int i = 0; i < 100; i++) {
+            trendingTopics.record("old", NOW);
+        }
+        long later = NOW + TimeUnit.MINUTES.toMillis(properties.getWindowMinutes());
+        trendingTopics.record("new", later);
+        trendingTopics.record("new", later);
+
+        trendingTopics.refresh(later);
+
+        assertThat(trendingTopics.getTrending(10)).extracting(TrendingTag::getTag, TrendingTag::getCount)
+                .containsExactly(tuple("new", 2L));
+    }
+
+    @Test
+    public void testBoundsCandidatesRegardlessOfVocabulary() {
+        properties.setCandidates(100);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TrendingTopics trendingTopics = new TrendingTopics(properties, meterRegistry);
+        for (int i = 0; i < 100_000; i++) {
+            trendingTopics.record("rare" + i, NOW);
+            if (i % 10_000 == 0) {
+                trendingTopics.refresh(NOW);
+            }
+            assertThat(meterRegistry.get("posting.trending.candidates").gauge().value()).isLessThanOrEqualTo(200);
+        }
+        trendingTopics.refresh(NOW);
+
+        assertThat(meterRegistry.get("posting.trending.candidates").gauge().value()).isEqualTo(50);
+        assertThat(trendingTopics.getTrending(1000)).hasSize(properties.getTopTags());
+    }
+
+    static Map<String, Long> recordZipfStream(TrendingTopics trendingTopics, int posts, int tags, long nowMillis) {
+        double[] cumulative = new double[tags];
+        double sum = 0;
+        for (int rank = 0; rank < tags; rank++) {
+            sum += 1.0 / (rank + 1);
+            cumulative[rank] = sum;
+        }
+        Random random = new Random(42);
+        Map<String, Long> exactCounts = new HashMap<>();
+        for (int i = 0; i < posts; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            rank = Math.min(rank >= 0 ? rank : -rank - 1, tags - 1);
+            String tag = "tag" + rank;
+            trendingTopics.record(tag, nowMillis);
+            exactCounts.merge(tag, 1L, Long::sum);
+        }
+        return exactCounts;
+    }
+}
\ No newline at end of file
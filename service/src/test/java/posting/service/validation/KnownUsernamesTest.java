@@ -0,0 +1,194 @@
+package posting.service.validation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
+import posting.persistence.repository.UserRecord;
+import posting.persistence.repository.UserRepository;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KnownUsernamesTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private KnownUsernames knownUsernames;
+
+    @Before
+    public void setUp() {
+        KnownUsernamesProperties properties = new KnownUsernamesProperties();
+        properties.setExpectedUsers(1000);
+        properties.setLoadBatchSize(2);
+        knownUsernames = new KnownUsernames(userRepository, properties, meterRegistry);
+    }
+
+    @Test
+    public void testEveryUsernameMightExistBeforeLoad() {
+        assertThat(knownUsernames.mightExist("user")).isTrue();
+    }
+
+    @Test
+    public void testLoadPagesThroughUsernames() {
+        when(userRepository.findUsernamesAfter("", PageRequest.of(0, 2))).thenReturn(Arrays.asList("user1", "user2"));
+        when(userRepository.findUsernamesAfter("user2", PageRequest.of(0, 2)))
+                .thenReturn(Collections.singletonList("user3"));
+
+        knownUsernames.load();
+
+        verify(userRepository).findUsernamesAfter("user2", PageRequest.of(0, 2));
+        assertThat(knownUsernames.mightExist("user1")).isTrue();
+        assertThat(knownUsernames.mightExist("user2")).isTrue();
+        assertThat(knownUsernames.mightExist("user3")).isTrue();
+        assertThat(knownUsernames.mightExist("user4")).isFalse();
+        assertThat(meterRegistry.get("posting.known-usernames.rebuild").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("posting.known-usernames.size").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    public void testAddedUsernameMightExist() {
+        when(userRepository.findUsernamesAfter("", PageRequest.of(0, 2))).thenReturn(Collections.emptyList());
+        knownUsernames.load();
+
+        knownUsernames.add("user");
+
+        assertThat(knownUsernames.mightExist("user")).isTrue();
+        assertThat(knownUsernames.mightExist("otherUser")).isFalse();
+    }
+
+    @Test
+    public void testFalsePositiveRateWithinBounds() {
+        when(userRepository.findUsernamesAfter("", PageRequest.of(0, 2))).thenReturn(Collections.emptyList());
+        knownUsernames.load();
+        for (int i = 0; i < 1000; i++) {
+            knownUsernames.add("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (knownUsernames.mightExist("unknown" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(300);
+        assertThat(meterRegistry.get("posting.known-usernames.false-positive-probability").gauge().value())
+                .isBetween(0.001, 0.02);
+    }
+
+    @Test
+    public void testFilterGrowsBeyondExpectedUsers() {
+        when(userRepository.findUsernamesAfter("", PageRequest.of(0, 2))).thenReturn(Collections.emptyList());
+        knownUsernames.load();
+        for (int i = 0; i < 10000; i++) {
+            knownUsernames.add("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            assertThat(knownUsernames.mightExist("user" + i)).isTrue();
+            if (knownUsernames.mightExist("unknown" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(400);
+    }
+
+    @Test
+    public void testLookupResultsAreCounted() {
+        when(userRepository.findUsernamesAfter("", PageRequest.of(0, 2))).thenReturn(Collections.emptyList());
+        knownUsernames.load();
+
+        knownUsernames.mightExist("user");
+        knownUsernames.falsePositive();
+
+        assertThat(meterRegistry.get("posting.known-usernames.lookups").tag("result", "negative").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("posting.known-usernames.lookups").tag("result", "false-positive").counter()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testMissedUsernameCreatedElsewhereIsLookedUp() {
+        when(userRepository.findUsernamesAfter("", PageRequest.of(0, 2))).thenReturn(Collections.emptyList());
+        when(userRepository.existsByUsername("remoteUser")).thenReturn(true);
+        knownUsernames.load();
+
+        boolean mightExist = knownUsernames.mightExist("remoteUser");
+        boolean mightExistAgain = knownUsernames.mightExist("remoteUser");
+
+        assertThat(mightExist).isTrue();
+        assertThat(mightExistAgain).isTrue();
+        verify(userRepository).existsByUsername("remoteUser");
+        assertThat(meterRegistry.get("posting.known-usernames.lookups").tag("result", "refreshed").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void testMissLookupsAreBounded() {
+        KnownUsernamesProperties properties = new KnownUsernamesProperties();
+        properties.setLoadBatchSize(2);
+        properties.setMissLookupsPerSecond(3);
+        knownUsernames = new KnownUsernames(userRepository, properties, meterRegistry);
+        when(userRepository.findUsernamesAfter("", PageRequest.of(0, 2))).thenReturn(Collections.emptyList());
+        knownUsernames.load();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(knownUsernames.mightExist("unknown" + i)).isFalse();
+        }
+
+        verify(userRepository, times(3)).existsByUsername(anyString());
+    }
+
+    @Test
+    public void testRefreshAddsUsersCreatedSinceLoad() {
+        when(userRepository.findMaxId()).thenReturn(10L);
+        when(userRepository.findUsernamesAfter("", PageRequest.of(0, 2))).thenReturn(Collections.emptyList());
+        when(userRepository.findUsersAfterId(10L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(user(11L, "user11"), user(12L, "user12")))
+                .thenReturn(Collections.singletonList(user(12L, "user12")));
+        when(userRepository.findUsersAfterId(12L, PageRequest.of(0, 2)))
+                .thenReturn(Collections.singletonList(user(13L, "user13")));
+        knownUsernames.load();
+
+        knownUsernames.refresh();
+        knownUsernames.refresh();
+        knownUsernames.refresh();
+
+        assertThat(knownUsernames.mightExist("user11")).isTrue();
+        assertThat(knownUsernames.mightExist("user13")).isTrue();
+        verify(userRepository, times(2)).findUsersAfterId(10L, PageRequest.of(0, 2));
+        verify(userRepository).findUsersAfterId(12L, PageRequest.of(0, 2));
+        verify(userRepository).findUsersAfterId(13L, PageRequest.of(0, 2));
+    }
+
+    private static UserRecord user(long id, String username) {
+        return new UserRecord() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+        };
+    }
+}
\ No newline at end of file
@@ -14,6 +14,8 @@ import posting.persistence.repository.UserRepository;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -22,6 +24,9 @@ public class PostingServiceValidatorTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private KnownUsernames knownUsernames;
+
     @InjectMocks
     private PostingServiceValidator validator;
 
@@ -77,9 +82,24 @@ public class PostingServiceValidatorTest {
         validator.validatePageNumber(pageNumber, mockPage);
     }
 
+    @Test
+    public void testValidateSizeNotPositive() {
+        Throwable thrownException = catchThrowable(() -> validator.validateSize(0));
+
+        assertThat(thrownException)
+                .isExactlyInstanceOf(InvalidRequestException.class)
+                .hasMessage("The 'size' parameter must be positive");
+    }
+
+    @Test
+    public void testValidateSizePositive() {
+        validator.validateSize(1);
+    }
+
     @Test
     public void testValidateUserExistsWhenNot() {
         String username = "testUser";
+        when(knownUsernames.mightExist(username)).thenReturn(Boolean.TRUE);
         when(userRepository.existsByUsername(username)).thenReturn(Boolean.FALSE);
 
         Throwable thrownException = catchThrowable(() -> validator.validateUserExists(username));
@@ -87,16 +107,38 @@ public class PostingServiceValidatorTest {
         assertThat(thrownException)
                 .isExactlyInstanceOf(InvalidRequestException.class)
                 .hasMessage("User [testUser] does not exist");
+        verify(knownUsernames).falsePositive();
     }
 
     @Test
     public void testValidateUserExistsWhenDoes() {
         String username = "testUser";
+        when(knownUsernames.mightExist(username)).thenReturn(Boolean.TRUE);
         when(userRepository.existsByUsername(username)).thenReturn(Boolean.TRUE);
 
         validator.validateUserExists(username);
     }
 
+    @Test
+    public void testValidateUserExistsWhenUnknownSkipsQuery() {
+        String username = "testUser";
+        when(knownUsernames.mightExist(username)).thenReturn(Boolean.FALSE);
+
+        Throwable thrownException = catchThrowable(() -> validator.validateUserExists(username));
+
+        assertThat(thrownException)
+                .isExactlyInstanceOf(InvalidRequestException.class)
+                .hasMessage("User [testUser] does not exist");
+        verifyZeroInteractions(userRepository);
+    }
+
+    @Test
+    public void testValidationExceptionsHaveNoStackTrace() {
+        Throwable thrownException = catchThrowable(() -> validator.validateSize(0));
+
+        assertThat(thrownException.getStackTrace()).isEmpty();
+    }
+
     @Test
     public void testUnknownUsernameException() {
         String username = "testUser";
@@ -0,0 +1,127 @@
+package posting.service.version;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import posting.persistence.repository.TimelineVersion;
+import posting.persistence.repository.UserRepository;
+import posting.persistence.repository.WallVersion;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ContentVersionsTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private ContentVersions contentVersions;
+
+    @Test
+    public void testWallTag() {
+        when(userRepository.findWallVersion("testUser")).thenReturn(wallVersion(3, 4));
+        when(userRepository.findWallVersion("unknownUser")).thenReturn(null);
+
+        assertThat(contentVersions.getWallTag("testUser")).isEqualTo("3-4");
+        assertThat(contentVersions.getWallTag("unknownUser")).isEqualTo("0-0");
+    }
+
+    @Test
+    public void testWallsTag() {
+        when(userRepository.sumWallVersions(Arrays.asList("user1", "user2"))).thenReturn(wallVersion(5, 1));
+
+        assertThat(contentVersions.getWallsTag(Arrays.asList("user1", "user2"))).isEqualTo("5-1");
+    }
+
+    @Test
+    public void testTimelineTag() {
+        when(userRepository.findTimelineVersion("testUser")).thenReturn(timelineVersion(2, 7, 9));
+        when(userRepository.findTimelineVersion("unknownUser")).thenReturn(null);
+
+        assertThat(contentVersions.getTimelineTag("testUser")).isEqualTo("2-7-9");
+        assertThat(contentVersions.getTimelineTag("unknownUser")).isEqualTo("0-0-0");
+    }
+
+    @Test
+    public void testCachedTimelineTagLeavesCountsOut() {
+        when(userRepository.findTimelineVersion("testUser"))
+                .thenReturn(timelineVersion(2, 7, 9))
+                .thenReturn(timelineVersion(2, 7, 10));
+
+        assertThat(contentVersions.getCachedTimelineTag("testUser")).isEqualTo("2-7");
+        assertThat(contentVersions.getCachedTimelineTag("testUser")).isEqualTo("2-7");
+    }
+
+    @Test
+    public void testTimelineTagAfterFollowMatchesTagOnceFollowIsCounted() {
+        when(userRepository.findTimelineVersion("testUser"))
+                .thenReturn(timelineVersion(1, 1, 4))
+                .thenReturn(timelineVersion(2, 3, 9));
+        when(userRepository.findWallVersion("followed2")).thenReturn(wallVersion(2, 5));
+        String initialTag = contentVersions.getCachedTimelineTag("testUser");
+        String followedWallTag = contentVersions.getWallTag("followed2");
+
+        assertThat(contentVersions.getCachedTimelineTagAfterFollow(initialTag, followedWallTag))
+                .isEqualTo(contentVersions.getCachedTimelineTag("testUser"));
+    }
+
+    @Test
+    public void testChangesIncrementVersions() {
+        contentVersions.postCreated("author");
+        contentVersions.postsPushed(Arrays.asList("author", "otherAuthor"));
+        contentVersions.unfollowed("follower");
+
+        verify(userRepository).incrementWallVersions(Collections.singleton("author"));
+        verify(userRepository).incrementWallVersions(Arrays.asList("author", "otherAuthor"));
+        verify(userRepository).incrementFollowVersion("follower");
+    }
+
+    @Test
+    public void testWallsTagOfNoUsersQueriesNothing() {
+        assertThat(contentVersions.getWallsTag(Collections.emptyList())).isEqualTo("0-0");
+        verifyZeroInteractions(userRepository);
+    }
+
+    private static WallVersion wallVersion(long wallVersion, long countsVersion) {
+        return new WallVersion() {
+            @Override
+            public long getWallVersion() {
+                return wallVersion;
+            }
+
+            @Override
+            public long getCountsVersion() {
+                return countsVersion;
+            }
+        };
+    }
+
+    private static TimelineVersion timelineVersion(long followVersion, long followedWallVersions,
+                                                   long followedCountsVersions) {
+        return new TimelineVersion() {
+            @Override
+            public long getFollowVersion() {
+                return followVersion;
+            }
+
+            @Override
+            public long getFollowedWallVersions() {
+                return followedWallVersions;
+            }
+
+            @Override
+            public long getFollowedCountsVersions() {
+                return followedCountsVersions;
+            }
+        };
+    }
+}
\ No newline at end of file
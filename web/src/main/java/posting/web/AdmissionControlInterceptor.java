@@ -0,0 +1,25 @@
+package posting.web;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+import posting.domain.service.AdmissionControl;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+@Component
+public class AdmissionControlInterceptor extends HandlerInterceptorAdapter {
+
+    private final AdmissionControl admissionControl;
+
+    public AdmissionControlInterceptor(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        admissionControl.admitRequest();
+
+        return true;
+    }
+}
\ No newline at end of file
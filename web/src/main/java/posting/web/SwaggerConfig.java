@@ -1,6 +1,7 @@
 package posting.web;
 
 import com.google.common.base.Predicates;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import springfox.documentation.builders.PathSelectors;
@@ -10,6 +11,7 @@ import springfox.documentation.spring.web.plugins.Docket;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 @Configuration
+@ConditionalOnProperty(name = "posting.swagger.enabled", matchIfMissing = true)
 @EnableSwagger2
 public class SwaggerConfig {
 
@@ -17,7 +19,7 @@ public class SwaggerConfig {
     public Docket api() {
         return new Docket(DocumentationType.SWAGGER_2)
                 .select()
-                .apis(RequestHandlerSelectors.any())
+                .apis(RequestHandlerSelectors.basePackage("posting.web"))
                 .paths(PathSelectors.any())
                 .paths(Predicates.not(PathSelectors.regex("/error")))
                 .build();
@@ -1,9 +1,11 @@
 package posting.web.endpoint;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import posting.domain.exception.InvalidRequestException;
+import posting.domain.exception.TooManyRequestsException;
 
 @ControllerAdvice
 public class ApiExceptionHandler {
@@ -12,4 +14,9 @@ public class ApiExceptionHandler {
     public ResponseEntity<String> handleInvalidRequestException(InvalidRequestException exception) {
         return ResponseEntity.badRequest().body(exception.getMessage());
     }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<String> handleTooManyRequestsException(TooManyRequestsException exception) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(exception.getMessage());
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package posting.web.endpoint;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -11,37 +12,77 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import posting.domain.model.PostDto;
+import posting.domain.service.AdmissionControl;
 import posting.domain.service.PostingService;
 import posting.web.request.NewPostRequest;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/users")
 public class PostingApi {
 
+    private static final String DEFAULT_SINCE_SIZE = "50";
+    private static final String DEFAULT_WALLS_SIZE = "10";
+
     private final PostingService postingService;
+    private final AdmissionControl admissionControl;
 
-    public PostingApi(PostingService postingService) {
+    public PostingApi(PostingService postingService, AdmissionControl admissionControl) {
         this.postingService = postingService;
+        this.admissionControl = admissionControl;
     }
 
     @PostMapping(path = "/{username}/post", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Void> post(@PathVariable String username, @Valid @RequestBody NewPostRequest newPostRequest) {
+        admissionControl.admitPost(username);
         postingService.newPost(username, newPostRequest.getPost());
 
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    @PutMapping(path = "/{username}/posts/{postId}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void editPost(@PathVariable String username, @PathVariable long postId,
+                         @Valid @RequestBody NewPostRequest newPostRequest) {
+        admissionControl.admitPost(username);
+        postingService.editPost(username, postId, newPostRequest.getPost());
+    }
+
+    @DeleteMapping(path = "/{username}/posts/{postId}")
+    public void deletePost(@PathVariable String username, @PathVariable long postId) {
+        postingService.deletePost(username, postId);
+    }
+
     @PutMapping(path = "/{username}/follow", params = "followedUserName")
     public void follow(@PathVariable String username, @RequestParam("followedUserName") String followedUsername) {
         postingService.follow(username, followedUsername);
     }
 
+    @DeleteMapping(path = "/{username}/follow", params = "followedUserName")
+    public void unfollow(@PathVariable String username, @RequestParam("followedUserName") String followedUsername) {
+        postingService.unfollow(username, followedUsername);
+    }
+
+    @PutMapping(path = "/{username}/block", params = "blockedUserName")
+    public void block(@PathVariable String username, @RequestParam("blockedUserName") String blockedUsername) {
+        postingService.block(username, blockedUsername);
+    }
+
+    @DeleteMapping(path = "/{username}/block", params = "blockedUserName")
+    public void unblock(@PathVariable String username, @RequestParam("blockedUserName") String blockedUsername) {
+        postingService.unblock(username, blockedUsername);
+    }
+
     @GetMapping(path = "/{username}/completeWall", produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<PostDto> getCompleteWall(@PathVariable String username) {
+    public List<PostDto> getCompleteWall(@PathVariable String username, WebRequest request) {
+        if (request.checkNotModified(postingService.getWallTag(username))) {
+            return null;
+        }
+
         return postingService.getCompleteWall(username);
     }
 
@@ -49,12 +90,49 @@ public class PostingApi {
             path = "/{username}/wall",
             params = {"page", "size"},
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<PostDto> getWall(@PathVariable String username, @RequestParam int page, @RequestParam int size) {
+    public List<PostDto> getWall(@PathVariable String username, @RequestParam int page, @RequestParam int size,
+                                 WebRequest request) {
+        if (request.checkNotModified(postingService.getWallTag(username))) {
+            return null;
+        }
+
         return postingService.getWall(username, page, size);
     }
 
+    @GetMapping(
+            path = "/{username}/wall",
+            params = "since",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<PostDto> getWallSince(@PathVariable String username, @RequestParam long since,
+                                      @RequestParam(defaultValue = DEFAULT_SINCE_SIZE) int size,
+                                      WebRequest request) {
+        if (request.checkNotModified(postingService.getWallTag(username))) {
+            return null;
+        }
+
+        return postingService.getWallSince(username, since, size);
+    }
+
+    @GetMapping(
+            path = "/walls",
+            params = "usernames",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, List<PostDto>> getWalls(@RequestParam List<String> usernames,
+                                               @RequestParam(defaultValue = DEFAULT_WALLS_SIZE) int size,
+                                               WebRequest request) {
+        if (request.checkNotModified(postingService.getWallsTag(usernames))) {
+            return null;
+        }
+
+        return postingService.getWalls(usernames, size);
+    }
+
     @GetMapping(path = "/{username}/completeTimeline", produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<PostDto> getCompleteTimeline(@PathVariable String username) {
+    public List<PostDto> getCompleteTimeline(@PathVariable String username, WebRequest request) {
+        if (request.checkNotModified(postingService.getTimelineTag(username))) {
+            return null;
+        }
+
         return postingService.getCompleteTimeline(username);
     }
 
@@ -62,7 +140,26 @@ public class PostingApi {
             path = "/{username}/timeline",
             params = {"page", "size"},
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<PostDto> getTimeline(@PathVariable String username, @RequestParam int page, @RequestParam int size) {
+    public List<PostDto> getTimeline(@PathVariable String username, @RequestParam int page, @RequestParam int size,
+                                     WebRequest request) {
+        if (request.checkNotModified(postingService.getTimelineTag(username))) {
+            return null;
+        }
+
         return postingService.getTimeline(username, page, size);
     }
+
+    @GetMapping(
+            path = "/{username}/timeline",
+            params = "since",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<PostDto> getTimelineSince(@PathVariable String username, @RequestParam long since,
+                                          @RequestParam(defaultValue = DEFAULT_SINCE_SIZE) int size,
+                                          WebRequest request) {
+        if (request.checkNotModified(postingService.getTimelineTag(username))) {
+            return null;
+        }
+
+        return postingService.getTimelineSince(username, since, size);
+    }
 }
\ No newline at end of file
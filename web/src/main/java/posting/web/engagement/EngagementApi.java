@@ -0,0 +1,40 @@
+package posting.web.engagement;
+
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import posting.domain.service.EngagementService;
+
+@RestController
+@RequestMapping("/users")
+public class EngagementApi {
+
+    private final EngagementService engagementService;
+
+    public EngagementApi(EngagementService engagementService) {
+        this.engagementService = engagementService;
+    }
+
+    @PutMapping(path = "/{username}/like", params = "postId")
+    public void like(@PathVariable String username, @RequestParam long postId) {
+        engagementService.like(username, postId);
+    }
+
+    @DeleteMapping(path = "/{username}/like", params = "postId")
+    public void unlike(@PathVariable String username, @RequestParam long postId) {
+        engagementService.unlike(username, postId);
+    }
+
+    @PutMapping(path = "/{username}/repost", params = "postId")
+    public void repost(@PathVariable String username, @RequestParam long postId) {
+        engagementService.repost(username, postId);
+    }
+
+    @DeleteMapping(path = "/{username}/repost", params = "postId")
+    public void unrepost(@PathVariable String username, @RequestParam long postId) {
+        engagementService.unrepost(username, postId);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package posting.web.recommendation;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import posting.domain.model.FollowSuggestion;
+import posting.domain.service.RecommendationService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/users")
+public class RecommendationApi {
+
+    private static final String DEFAULT_SIZE = "10";
+
+    private final RecommendationService recommendationService;
+
+    public RecommendationApi(RecommendationService recommendationService) {
+        this.recommendationService = recommendationService;
+    }
+
+    @GetMapping(path = "/{username}/whoToFollow", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<FollowSuggestion> getWhoToFollow(@PathVariable String username,
+                                                 @RequestParam(defaultValue = DEFAULT_SIZE) int size) {
+        return recommendationService.getWhoToFollow(username, size);
+    }
+}
\ No newline at end of file
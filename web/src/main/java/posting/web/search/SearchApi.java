@@ -0,0 +1,29 @@
+package posting.web.search;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import posting.domain.model.PostSearchPage;
+import posting.domain.service.SearchService;
+
+@RestController
+@RequestMapping("/search")
+public class SearchApi {
+
+    private static final String DEFAULT_SIZE = "20";
+
+    private final SearchService searchService;
+
+    public SearchApi(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @GetMapping(params = "q", produces = MediaType.APPLICATION_JSON_VALUE)
+    public PostSearchPage search(@RequestParam("q") String query,
+                                 @RequestParam(required = false) String cursor,
+                                 @RequestParam(defaultValue = DEFAULT_SIZE) int size) {
+        return searchService.search(query, cursor, size);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,151 @@
+package posting.web.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import posting.domain.model.PostDto;
+import posting.domain.service.TimelineListener;
+import posting.domain.service.TimelineSubscription;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers posts for a single subscriber and writes them as server-sent events with non-blocking servlet I/O, so
+ * publishing never waits for the network and no thread is held by a client that doesn't read. Posts are written
+ * while the connection can take them, and the rest are written when the container reports it writable again. A
+ * subscriber is disconnected when its buffer overflows, or when a post arrives after the connection hasn't been
+ * writable for longer than the send timeout.
+ */
+class SseTimelineListener implements TimelineListener, WriteListener, AsyncListener {
+
+    private static final String POST_EVENT_NAME = "post";
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long sendTimeoutNanos;
+    private final Queue<PostDto> buffer = new ArrayDeque<>();
+    private AsyncContext asyncContext;
+    private TimelineSubscription subscription;
+    private ServletOutputStream outputStream;
+    private boolean writeListenerSet;
+    private long blockedSince = -1;
+    private boolean closed;
+
+    SseTimelineListener(ObjectMapper objectMapper, int bufferSize, long sendTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+    }
+
+    /**
+     * Attaches the listener to the started asynchronous request, cancelling the subscription once the request
+     * completes. The write listener is only registered with the first post, as the container starts calling it
+     * right away.
+     */
+    synchronized void start(AsyncContext asyncContext, ServletOutputStream outputStream,
+                            TimelineSubscription subscription) {
+        this.asyncContext = asyncContext;
+        this.outputStream = outputStream;
+        this.subscription = subscription;
+        asyncContext.addListener(this);
+        if (!buffer.isEmpty()) {
+            write();
+        }
+    }
+
+    @Override
+    public synchronized boolean onPost(PostDto post) {
+        if (closed) {
+            return false;
+        }
+        if (buffer.size() == bufferSize || blockedSince >= 0 && System.nanoTime() - blockedSince > sendTimeoutNanos) {
+            close();
+            return false;
+        }
+        buffer.add(post);
+        if (asyncContext != null) {
+            write();
+        }
+
+        return !closed;
+    }
+
+    @Override
+    public synchronized void onWritePossible() {
+        write();
+    }
+
+    @Override
+    public synchronized void onError(Throwable throwable) {
+        close();
+    }
+
+    @Override
+    public synchronized void onComplete(AsyncEvent event) {
+        closed = true;
+        buffer.clear();
+        subscription.cancel();
+    }
+
+    @Override
+    public synchronized void onTimeout(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public synchronized void onError(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    private void write() {
+        if (closed) {
+            return;
+        }
+        try {
+            if (!writeListenerSet) {
+                writeListenerSet = true;
+                outputStream.setWriteListener(this);
+            }
+            while (outputStream.isReady()) {
+                PostDto post = buffer.poll();
+                if (post == null) {
+                    blockedSince = -1;
+                    return;
+                }
+                outputStream.write(event(post));
+                outputStream.flush();
+            }
+            if (blockedSince < 0) {
+                blockedSince = System.nanoTime();
+            }
+        } catch (IOException | IllegalStateException exception) {
+            close();
+        }
+    }
+
+    private byte[] event(PostDto post) throws IOException {
+        return ("id:" + post.getId() + "\nevent:" + POST_EVENT_NAME + "\ndata:" + objectMapper.writeValueAsString(post)
+                + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void close() {
+        if (!closed) {
+            closed = true;
+            buffer.clear();
+            if (asyncContext != null) {
+                asyncContext.complete();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package posting.web.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import posting.domain.service.TimelineStreamService;
+import posting.domain.service.TimelineSubscription;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/users")
+public class TimelineStreamApi {
+
+    private final TimelineStreamService timelineStreamService;
+    private final TimelineStreamProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public TimelineStreamApi(TimelineStreamService timelineStreamService, TimelineStreamProperties properties,
+                             ObjectMapper objectMapper) {
+        this.timelineStreamService = timelineStreamService;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping(path = "/{username}/timeline/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void streamTimeline(@PathVariable String username, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        SseTimelineListener listener = new SseTimelineListener(
+                objectMapper, properties.getBufferSize(), properties.getSendTimeoutMillis());
+        TimelineSubscription subscription = timelineStreamService.subscribe(username, listener);
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.flushBuffer();
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(properties.getTimeoutMillis());
+        listener.start(asyncContext, response.getOutputStream(), subscription);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package posting.web.tag;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import posting.domain.model.PostDto;
+import posting.domain.model.TrendingTag;
+import posting.domain.service.TagService;
+
+import java.util.List;
+
+@RestController
+public class TagApi {
+
+    private static final String DEFAULT_SIZE = "50";
+    private static final String DEFAULT_TRENDING_SIZE = "10";
+    private static final String NEWEST = "9223372036854775807";
+
+    private final TagService tagService;
+
+    public TagApi(TagService tagService) {
+        this.tagService = tagService;
+    }
+
+    @GetMapping(path = "/tags/{tag}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<PostDto> getTagged(@PathVariable String tag,
+                                   @RequestParam(defaultValue = NEWEST) long before,
+                                   @RequestParam(defaultValue = DEFAULT_SIZE) int size) {
+        return tagService.getTagged(tag, before, size);
+    }
+
+    @GetMapping(path = "/users/{username}/mentions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<PostDto> getMentions(@PathVariable String username,
+                                     @RequestParam(defaultValue = NEWEST) long before,
+                                     @RequestParam(defaultValue = DEFAULT_SIZE) int size) {
+        return tagService.getMentions(username, before, size);
+    }
+
+    @GetMapping(path = "/trending", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<TrendingTag> getTrending(@RequestParam(defaultValue = DEFAULT_TRENDING_SIZE) int size) {
+        return tagService.getTrending(size);
+    }
+}
\ No newline at end of file